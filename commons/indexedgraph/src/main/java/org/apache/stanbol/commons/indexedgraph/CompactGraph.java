@@ -0,0 +1,559 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.commons.indexedgraph;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.apache.clerezza.commons.rdf.BlankNodeOrIRI;
+import org.apache.clerezza.commons.rdf.Graph;
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.clerezza.commons.rdf.ImmutableGraph;
+import org.apache.clerezza.commons.rdf.RDFTerm;
+import org.apache.clerezza.commons.rdf.Triple;
+import org.apache.clerezza.commons.rdf.impl.utils.AbstractGraph;
+import org.apache.clerezza.commons.rdf.impl.utils.TripleImpl;
+
+/**
+ * Memory efficient {@link Graph} implementation that uses a dictionary to
+ * encode {@link RDFTerm}s as <code>int</code> ids and keeps the indexes for
+ * <ul>
+ * <li> subject, predicate, object [SPO]
+ * <li> predicate, object, subject [POS]
+ * <li> object, subject, predicate [OSP]
+ * </ul>
+ * as two level tries of primitive values: The first level is an array indexed
+ * by the id of the first term. The second level is a sorted <code>long[]</code>
+ * holding the ids of the 2nd and 3rd term packed into a single value.
+ * Because of that a {@link Triple} requires only three <code>long</code> values
+ * (one per index) and no {@link Triple} instances are kept in memory. Triples
+ * returned by iterators are created on the fly.<p>
+ * The {@link #filter(BlankNodeOrIRI, IRI, RDFTerm)} implementation does
+ * a dictionary lookup for all parsed terms followed by a binary search within
+ * the second level of the according index. Filter requests with terms not
+ * present in the dictionary do return immediately.<p>
+ * Entries of the SPO index are kept sorted while adding triples (as this index
+ * is also used to check for duplicates). The POS and OSP indexes are sorted
+ * lazily on the first read access after a modification. This makes bulk
+ * loading of triples considerably faster.<p>
+ * <b>NOTEs</b><ul>
+ * <li> {@link RDFTerm}s are required to correctly implement
+ * {@link Object#hashCode() hashCode} and {@link Object#equals(Object) equals}.
+ * This is not a requirement for the {@link IndexedGraph}.
+ * <li> Iteration order is based on the order terms where added to the
+ * dictionary and NOT on the lexical order of the terms (as for the
+ * {@link IndexedGraph}).
+ * <li> Terms are not removed from the dictionary when triples are removed
+ * from the graph. So the dictionary only grows until {@link #clear()} is
+ * called.
+ * </ul>
+ *
+ * @see IndexedGraph
+ */
+public class CompactGraph extends AbstractGraph implements Graph {
+
+    private static final int SPO = 0;
+    private static final int POS = 1;
+    private static final int OSP = 2;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The dictionary used to lookup the id of {@link RDFTerm}s. An open
+     * addressing hash table holding <code>id + 1</code> (<code>0</code> is
+     * used for empty slots).
+     */
+    private int[] termTable;
+    /**
+     * The terms by id
+     */
+    private RDFTerm[] terms;
+    /**
+     * The hash of the terms by id
+     */
+    private int[] termHashes;
+    /**
+     * The number of terms in the dictionary
+     */
+    private int termCount;
+    /**
+     * The indexes ({@link #SPO}, {@link #POS} and {@link #OSP}). The first
+     * level is the id of the first term.
+     */
+    private Node[][] indexes;
+    /**
+     * The number of triples
+     */
+    private int size;
+    /**
+     * Used by iterators to detect concurrent modifications
+     */
+    private int modCount;
+
+    /**
+     * Creates an empty {@link CompactGraph}
+     */
+    public CompactGraph() {
+        super();
+        initIndexes(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates a {@link CompactGraph} using the passed iterator, the iterator is
+     * consumed before the constructor returns
+     *
+     * @param iterator
+     */
+    public CompactGraph(Iterator<Triple> iterator) {
+        this();
+        while (iterator.hasNext()) {
+            performAdd(iterator.next());
+        }
+    }
+
+    /**
+     * Creates a {@link CompactGraph} for the specified collection of triples,
+     * subsequent modification of baseSet do not affect the created instance.
+     *
+     * @param baseCollection the collection of triples
+     */
+    public CompactGraph(Collection<Triple> baseCollection) {
+        super();
+        //the number of terms is typically lower as the number of triples
+        initIndexes(Math.max(INITIAL_CAPACITY, baseCollection.size()));
+        for(Triple triple : baseCollection){
+            performAdd(triple);
+        }
+    }
+
+    private void initIndexes(int capacity) {
+        termTable = new int[Integer.highestOneBit(capacity) << 2];
+        terms = new RDFTerm[capacity];
+        termHashes = new int[capacity];
+        indexes = new Node[][]{new Node[capacity],new Node[capacity],new Node[capacity]};
+        termCount = 0;
+    }
+
+    @Override
+    public ImmutableGraph getImmutableGraph() {
+        return new CompactImmutableGraph(this);
+    }
+
+    /**
+     * Getter for the id of the parsed term
+     * @param term the term (MUST NOT be <code>null</code>)
+     * @return the id or <code>-1</code> if the term is not part of the
+     * dictionary
+     */
+    private int getId(RDFTerm term){
+        int slot = getSlot(term, hash(term));
+        return termTable[slot] - 1;
+    }
+    /**
+     * Getter for the slot of the parsed term within the {@link #termTable}
+     * @return the slot of the term or the empty slot where the term needs to
+     * be inserted
+     */
+    private int getSlot(RDFTerm term, int hash){
+        int mask = termTable.length - 1;
+        int slot = hash & mask;
+        int entry;
+        while((entry = termTable[slot]) != 0){
+            int id = entry - 1;
+            if(termHashes[id] == hash && term.equals(terms[id])){
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(RDFTerm term){
+        int h = term.hashCode();
+        return h ^ (h >>> 16);
+    }
+    /**
+     * Getter for the id of the parsed term. Adds the term to the dictionary
+     * if not yet present
+     * @param term the term
+     * @return the id
+     */
+    private int getOrCreateId(RDFTerm term){
+        int hash = hash(term);
+        int slot = getSlot(term, hash);
+        if(termTable[slot] != 0){
+            return termTable[slot] - 1;
+        }
+        if(termCount == terms.length){
+            int capacity = terms.length + (terms.length >> 1);
+            terms = Arrays.copyOf(terms, capacity);
+            termHashes = Arrays.copyOf(termHashes, capacity);
+            for(int i = 0; i < indexes.length; i++){
+                indexes[i] = Arrays.copyOf(indexes[i], capacity);
+            }
+        }
+        int id = termCount;
+        terms[id] = term;
+        termHashes[id] = hash;
+        termCount++;
+        termTable[slot] = id + 1;
+        if(termCount << 1 > termTable.length){ //keep load factor <= 0.5
+            rehash(termTable.length << 1);
+        }
+        return id;
+    }
+
+    private void rehash(int tableSize){
+        int[] table = new int[tableSize];
+        int mask = tableSize - 1;
+        for(int id = 0; id < termCount; id++){
+            int slot = termHashes[id] & mask;
+            while(table[slot] != 0){
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = id + 1;
+        }
+        termTable = table;
+    }
+
+    @Override
+    protected Iterator<Triple> performFilter(BlankNodeOrIRI subject, IRI predicate, RDFTerm object) {
+        int s = subject == null ? -1 : getId(subject);
+        int p = predicate == null ? -1 : getId(predicate);
+        int o = object == null ? -1 : getId(object);
+        if((subject != null && s < 0) || (predicate != null && p < 0) ||
+                (object != null && o < 0)){
+            return Collections.<Triple>emptyList().iterator(); //unknown term
+        }
+        if (subject == null && predicate == null && object == null) { //[n,n,n]
+            return new TripleIterator(SPO, 0, termCount, Long.MIN_VALUE, Long.MAX_VALUE);
+        } else if (subject != null && predicate != null && object != null) { // [S,P,O]
+            long value = pack(p, o);
+            return new TripleIterator(SPO, s, s+1, value, value);
+        } else if (subject != null && object == null) { //[S,n,n], [S,P,n]
+            return predicate == null ?
+                    new TripleIterator(SPO, s, s+1, Long.MIN_VALUE, Long.MAX_VALUE) :
+                        new TripleIterator(SPO, s, s+1, pack(p, 0), pack(p, Integer.MAX_VALUE));
+        } else if (predicate != null) { //[n,P,n], [n,P,O]
+            return object == null ?
+                    new TripleIterator(POS, p, p+1, Long.MIN_VALUE, Long.MAX_VALUE) :
+                        new TripleIterator(POS, p, p+1, pack(o, 0), pack(o, Integer.MAX_VALUE));
+        } else { //[n,n,O] , [S,n,O]
+            return subject == null ?
+                    new TripleIterator(OSP, o, o+1, Long.MIN_VALUE, Long.MAX_VALUE) :
+                        new TripleIterator(OSP, o, o+1, pack(s, 0), pack(s, Integer.MAX_VALUE));
+        }
+    }
+
+    @Override
+    protected boolean performAdd(Triple triple) {
+        int s = getOrCreateId(triple.getSubject());
+        int p = getOrCreateId(triple.getPredicate());
+        int o = getOrCreateId(triple.getObject());
+        Node node = indexes[SPO][s];
+        if(node == null){
+            indexes[SPO][s] = new Node(pack(p,o));
+        } else if(!node.insert(pack(p, o))){
+            return false; //already present
+        }
+        append(POS, p, pack(o, s));
+        append(OSP, o, pack(s, p));
+        size++;
+        modCount++;
+        return true;
+    }
+
+    private void append(int index, int key, long value) {
+        Node node = indexes[index][key];
+        if(node == null){
+            indexes[index][key] = new Node(value);
+        } else {
+            node.append(value);
+        }
+    }
+
+    @Override
+    protected boolean performRemove(Object t) {
+        if (t instanceof Triple) {
+            Triple triple = (Triple) t;
+            int s = getId(triple.getSubject());
+            int p = getId(triple.getPredicate());
+            int o = getId(triple.getObject());
+            if(s >= 0 && p >= 0 && o >= 0){
+                return remove(s, p, o);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the triple with the parsed ids from all three indexes
+     * @return if the triple was removed
+     */
+    private boolean remove(int s, int p, int o){
+        if(remove(SPO, s, pack(p, o))){
+            remove(POS, p, pack(o, s));
+            remove(OSP, o, pack(s, p));
+            size--;
+            modCount++;
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    private boolean remove(int index, int key, long value) {
+        Node node = indexes[index][key];
+        if(node != null && node.remove(value)){
+            if(node.size == 0){
+                indexes[index][key] = null;
+            }
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    protected void performClear() {
+        initIndexes(INITIAL_CAPACITY);
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public int performSize() {
+        return size;
+    }
+
+    /**
+     * Packs two term ids into a single long value. As ids are positive the
+     * natural order of the packed values is the same as ordering by the first
+     * and second id.
+     */
+    private static long pack(int first, int second){
+        return ((long)first << 32) | (second & 0xFFFFFFFFL);
+    }
+
+    private static int first(long value){
+        return (int)(value >>> 32);
+    }
+
+    private static int second(long value){
+        return (int)value;
+    }
+
+    /**
+     * The 2nd level of the indexes. A sorted array of packed <code>long</code>
+     * values. Nodes of the POS and OSP indexes are sorted lazily on the first
+     * read access. Sorting is synchronised as readers may access the same
+     * node concurrently.
+     */
+    private static final class Node {
+
+        private long[] values;
+        private int size;
+        private boolean sorted;
+
+        Node(long value){
+            //most nodes hold only a single value
+            values = new long[]{value};
+            size = 1;
+            sorted = true;
+        }
+        /**
+         * Inserts the parsed value at the correct position.
+         * @return <code>false</code> if the value was already present
+         */
+        boolean insert(long value){
+            ensureSorted();
+            int idx = Arrays.binarySearch(values, 0, size, value);
+            if(idx >= 0){
+                return false;
+            }
+            idx = -idx - 1;
+            ensureCapacity();
+            if(idx < size){
+                System.arraycopy(values, idx, values, idx+1, size-idx);
+            }
+            values[idx] = value;
+            size++;
+            return true;
+        }
+        /**
+         * Appends the parsed value without checking for duplicates. The
+         * node will get sorted with the next read access
+         */
+        void append(long value){
+            ensureCapacity();
+            if(sorted && values[size-1] > value){
+                sorted = false;
+            }
+            values[size] = value;
+            size++;
+        }
+
+        boolean remove(long value){
+            ensureSorted();
+            int idx = Arrays.binarySearch(values, 0, size, value);
+            if(idx < 0){
+                return false;
+            }
+            size--;
+            if(idx < size){
+                System.arraycopy(values, idx+1, values, idx, size-idx);
+            }
+            return true;
+        }
+        /**
+         * The index of the first value <code>&gt;= value</code>
+         */
+        int lowerBound(long value){
+            if(value == Long.MIN_VALUE){
+                return 0;
+            }
+            int idx = Arrays.binarySearch(values, 0, size, value);
+            return idx >= 0 ? idx : -idx - 1;
+        }
+        /**
+         * The index of the first value <code>&gt; value</code>
+         */
+        int upperBound(long value){
+            if(value == Long.MAX_VALUE){
+                return size;
+            }
+            int idx = Arrays.binarySearch(values, 0, size, value);
+            return idx >= 0 ? idx + 1 : -idx - 1;
+        }
+
+        synchronized void ensureSorted(){
+            if(!sorted){
+                Arrays.sort(values, 0, size);
+                sorted = true;
+            }
+        }
+
+        private void ensureCapacity(){
+            if(size == values.length){
+                values = Arrays.copyOf(values, values.length +
+                    Math.max(2, values.length >> 1));
+            }
+        }
+    }
+
+    /**
+     * Iterates over all values within <code>[low,high]</code> of all nodes
+     * with keys <code>[fromKey,toKey)</code> of an index. Calls to
+     * {@link #remove()} remove the current triple from all three indexes.
+     */
+    private final class TripleIterator implements Iterator<Triple> {
+
+        private final int index;
+        private final int toKey;
+        private final long low;
+        private final long high;
+
+        private int expectedModCount;
+        private int key;
+        private Node node;
+        private int pos;
+        private int end;
+        private Triple current;
+
+        TripleIterator(int index, int fromKey, int toKey, long low, long high){
+            this.index = index;
+            this.toKey = toKey;
+            this.low = low;
+            this.high = high;
+            this.expectedModCount = modCount;
+            this.key = fromKey - 1;
+            this.pos = 0;
+            this.end = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            checkModCount();
+            while(pos >= end){
+                key++;
+                if(key >= toKey){
+                    return false;
+                }
+                node = indexes[index][key];
+                if(node != null){
+                    node.ensureSorted();
+                    pos = node.lowerBound(low);
+                    end = node.upperBound(high);
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Triple next() {
+            if(!hasNext()){
+                throw new NoSuchElementException();
+            }
+            long value = node.values[pos];
+            pos++;
+            int a = key;
+            int b = first(value);
+            int c = second(value);
+            switch (index) {
+                case SPO:
+                    current = createTriple(a, b, c);
+                    break;
+                case POS:
+                    current = createTriple(c, a, b);
+                    break;
+                default: //OSP
+                    current = createTriple(b, c, a);
+                    break;
+            }
+            return current;
+        }
+
+        private Triple createTriple(int s, int p, int o){
+            return new TripleImpl((BlankNodeOrIRI)terms[s], (IRI)terms[p], terms[o]);
+        }
+
+        @Override
+        public void remove() {
+            if(current == null){
+                throw new IllegalStateException();
+            }
+            checkModCount();
+            CompactGraph.this.remove(getId(current.getSubject()),
+                getId(current.getPredicate()), getId(current.getObject()));
+            //the current value was removed from the current node
+            pos--;
+            end--;
+            current = null;
+            expectedModCount = modCount;
+        }
+
+        private void checkModCount() {
+            if(modCount != expectedModCount){
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.commons.indexedgraph;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.clerezza.commons.rdf.BlankNodeOrIRI;
+import org.apache.clerezza.commons.rdf.Graph;
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.clerezza.commons.rdf.RDFTerm;
+import org.apache.clerezza.commons.rdf.Triple;
+import org.apache.clerezza.commons.rdf.impl.utils.PlainLiteralImpl;
+import org.apache.clerezza.commons.rdf.impl.utils.TripleImpl;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares load time, heap usage and filter performance of the
+ * {@link CompactGraph} with the {@link IndexedGraph}.<p>
+ * This benchmark is NOT executed by the default build (the class name does
+ * not match the surefire includes) because the heap estimation requires
+ * explicit garbage collections. Use
+ * <code>mvn test -Dtest=CompactGraphBenchmark</code> to run it.
+ */
+public class CompactGraphBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(CompactGraphBenchmark.class);
+
+    private static final int GRAPH_SIZE = 200000;
+    private static final int ITERATIONS = 100;
+
+    @Test
+    public void benchmark() {
+        long seed = System.currentTimeMillis();
+        log.info("Test Seed: {}", seed);
+        List<Triple> triples = createTriples(GRAPH_SIZE, new Random(seed));
+        log.info("Load Time and Heap ({} triples)", triples.size());
+        long mem = usedMemory();
+        long start = System.currentTimeMillis();
+        Graph ig = new IndexedGraph(triples);
+        log.info("  ... {}: {}ms | heap: ~{}kByte", new Object[]{ig.getClass().getSimpleName(),
+                System.currentTimeMillis() - start, (usedMemory() - mem) / 1024});
+        mem = usedMemory();
+        start = System.currentTimeMillis();
+        Graph cg = new CompactGraph(triples);
+        log.info("  ... {}: {}ms | heap: ~{}kByte", new Object[]{cg.getClass().getSimpleName(),
+                System.currentTimeMillis() - start, (usedMemory() - mem) / 1024});
+        Assert.assertEquals(ig.size(), cg.size());
+        log.info("Filter Performance ({} iterations)", ITERATIONS);
+        Random rnd = new Random(seed);
+        List<Triple> samples = new ArrayList<Triple>(ITERATIONS);
+        for (int i = 0; i < ITERATIONS; i++) {
+            samples.add(triples.get(rnd.nextInt(triples.size())));
+        }
+        Assert.assertEquals(filter(ig, samples), filter(cg, samples));
+    }
+
+    private static List<Long> filter(Graph graph, List<Triple> samples) {
+        List<Long> counts = new ArrayList<Long>();
+        long start = System.currentTimeMillis();
+        for (Triple t : samples) {
+            counts.add(count(graph.filter(t.getSubject(), null, null)));
+            counts.add(count(graph.filter(null, t.getPredicate(), t.getObject())));
+            counts.add(count(graph.filter(null, null, t.getObject())));
+            counts.add(count(graph.filter(t.getSubject(), t.getPredicate(), null)));
+        }
+        log.info("  ... {}: {}ms", graph.getClass().getSimpleName(), System.currentTimeMillis() - start);
+        return counts;
+    }
+
+    private static long count(Iterator<Triple> it) {
+        long count = 0;
+        while (it.hasNext()) {
+            it.next();
+            count++;
+        }
+        return count;
+    }
+
+    private static List<Triple> createTriples(int size, Random rnd) {
+        List<Triple> triples = new ArrayList<Triple>(size);
+        IRI[] predicates = new IRI[16];
+        for (int i = 0; i < predicates.length; i++) {
+            predicates[i] = new IRI("http://www.test.org/bigGraph/property" + i);
+        }
+        int subjects = size / 10;
+        for (int i = 0; i < size; i++) {
+            BlankNodeOrIRI subject = new IRI("http://www.test.org/bigGraph/ref" + rnd.nextInt(subjects));
+            IRI predicate = predicates[rnd.nextInt(predicates.length)];
+            RDFTerm object = rnd.nextBoolean() ? new PlainLiteralImpl("value " + rnd.nextInt(size))
+                    : new IRI("http://www.test.org/bigGraph/ref" + rnd.nextInt(subjects));
+            triples.add(new TripleImpl(subject, predicate, object));
+        }
+        return triples;
+    }
+
+    /**
+     * Best effort estimation of the used heap
+     */
+    private static long usedMemory() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.commons.indexedgraph;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+
+import org.apache.clerezza.commons.rdf.BlankNode;
+import org.apache.clerezza.commons.rdf.Graph;
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.clerezza.commons.rdf.ImmutableGraph;
+import org.apache.clerezza.commons.rdf.Triple;
+import org.apache.clerezza.commons.rdf.impl.utils.PlainLiteralImpl;
+import org.apache.clerezza.commons.rdf.impl.utils.TripleImpl;
+import org.apache.clerezza.rdf.core.test.GraphTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link CompactGraph}. Load time, heap usage and filter
+ * performance are compared with the {@link IndexedGraph} by the
+ * {@link CompactGraphBenchmark}
+ */
+public class CompactGraphTest extends GraphTest {
+
+    private IRI uriRef1 = new IRI("http://example.org/foo");
+    private IRI uriRef2 = new IRI("http://example.org/bar");
+    private IRI uriRef3 = new IRI("http://example.org/test");
+    private Triple triple1 = new TripleImpl(uriRef1, uriRef2, uriRef3);
+    private Triple triple2 = new TripleImpl(uriRef2, uriRef2, uriRef1);
+    private Triple triple3 = new TripleImpl(uriRef3, uriRef1, uriRef3);
+    private Triple triple4 = new TripleImpl(uriRef1, uriRef3, uriRef2);
+    private Triple triple5 = new TripleImpl(uriRef2, uriRef3, uriRef2);
+
+    @Override
+    protected Graph getEmptyGraph() {
+        return new CompactGraph();
+    }
+
+    private Graph createTestGraph(){
+        Graph itc = new CompactGraph();
+        itc.add(triple1);
+        itc.add(triple2);
+        itc.add(triple3);
+        itc.add(triple4);
+        itc.add(triple5);
+        return itc;
+    }
+
+    @Test
+    public void filter() {
+        Graph itc = createTestGraph();
+        Assert.assertEquals(5, itc.size());
+        Assert.assertFalse(itc.add(triple3)); //duplicate
+        Assert.assertEquals(5, itc.size());
+        Assert.assertTrue(itc.contains(triple4));
+        Assert.assertEquals(2, count(itc.filter(uriRef1, null, null)));
+        Assert.assertEquals(1, count(itc.filter(uriRef1, uriRef3, null)));
+        Assert.assertEquals(2, count(itc.filter(null, uriRef3, null)));
+        Assert.assertEquals(2, count(itc.filter(null, uriRef3, uriRef2)));
+        Assert.assertEquals(2, count(itc.filter(null, null, uriRef3)));
+        Assert.assertEquals(1, count(itc.filter(uriRef3, null, uriRef3)));
+        Assert.assertEquals(1, count(itc.filter(uriRef2, uriRef2, uriRef1)));
+        Assert.assertEquals(0, count(itc.filter(uriRef2, uriRef2, uriRef2)));
+        //unknown terms
+        Assert.assertEquals(0, count(itc.filter(new BlankNode(), null, null)));
+        Assert.assertEquals(0, count(itc.filter(null, null, new PlainLiteralImpl("test"))));
+    }
+
+    @Test
+    public void iteratorRemove() {
+        Graph itc = createTestGraph();
+        Iterator<Triple> iter = itc.iterator();
+        while (iter.hasNext()) {
+            iter.next();
+            iter.remove();
+        }
+        Assert.assertEquals(0, itc.size());
+        Assert.assertFalse(itc.iterator().hasNext());
+    }
+
+    @Test
+    public void filterIteratorRemove() {
+        Graph itc = createTestGraph();
+        Iterator<Triple> iter = itc.filter(null, uriRef3, null);
+        while (iter.hasNext()) {
+            iter.next();
+            iter.remove();
+        }
+        Assert.assertEquals(3, itc.size());
+        Assert.assertEquals(0, count(itc.filter(null, uriRef3, null)));
+        Assert.assertEquals(0, count(itc.filter(null, null, uriRef2)));
+        Assert.assertEquals(1, count(itc.filter(uriRef1, null, null)));
+    }
+
+    @Test(expected=ConcurrentModificationException.class)
+    public void remove() {
+        Graph itc = createTestGraph();
+        Iterator<Triple> iter = itc.filter(uriRef1, null, null);
+        while (iter.hasNext()) {
+            Triple triple = iter.next();
+            itc.remove(triple);
+        }
+    }
+
+    @Test
+    public void immutableGraph() {
+        Graph itc = createTestGraph();
+        ImmutableGraph graph = itc.getImmutableGraph();
+        Assert.assertTrue(graph instanceof CompactImmutableGraph);
+        Assert.assertEquals(itc.size(), graph.size());
+        itc.remove(triple1);
+        Assert.assertEquals(5, graph.size());
+        Assert.assertTrue(graph.contains(triple1));
+    }
+
+    private static int count(Iterator<Triple> it){
+        int count = 0;
+        while(it.hasNext()){
+            it.next();
+            count++;
+        }
+        return count;
+    }
+}
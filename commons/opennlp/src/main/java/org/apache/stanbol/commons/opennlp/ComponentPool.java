@@ -0,0 +1,329 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.commons.opennlp;
+
+import java.lang.ref.SoftReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool for OpenNLP components (e.g. {@link opennlp.tools.postag.POSTaggerME}) 
+ * created for a model. Such components are not thread-safe but are expensive 
+ * to create as they initialise beam search and context generator state.
+ * Components are {@link #borrow(Object) borrowed} by a thread and MUST BE
+ * {@link #release(Object, Object) released} to the pool after usage.<p>
+ * Idle components are kept per model instance (identity). Components 
+ * created for an old model are never handed out for a new model instance.<p>
+ * OpenNLP components reference the model they where created for. So idle
+ * components keep their model in memory. Idle components of a model are
+ * therefore removed
+ * <ul>
+ * <li> by {@link #clear(Object)} (e.g. when a model is replaced)
+ * <li> if idle components for more than {@link #getMaxModels()} models would
+ * be kept. In this case the components of the least recently used model are
+ * removed.
+ * <li> by the garbage collector in low memory situations as idle components
+ * are kept as {@link SoftReference}s.
+ * </ul>
+ *
+ * @param <M> the type of the model
+ * @param <T> the type of the component
+ */
+public abstract class ComponentPool<M,T> {
+
+    /**
+     * The default maximum number of idle components per model
+     */
+    public static final int DEFAULT_MAX_IDLE = Runtime.getRuntime().availableProcessors()*2;
+    /**
+     * The default maximum number of models idle components are kept for
+     */
+    public static final int DEFAULT_MAX_MODELS = 16;
+
+    private final String name;
+    private final int maxIdle;
+    private final int maxModels;
+    /**
+     * The idle components by model. Access needs to be synchronized on the 
+     * map. The idle components themselves are thread-safe.<p>
+     * The map is access ordered and removes the idle components of the least
+     * recently used model if more than {@link #maxModels} models are present.
+     */
+    private final Map<ModelKey<M>,IdleComponents<T>> idle;
+
+    private final AtomicLong borrowed = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong released = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+
+    /**
+     * Creates a pool with {@link #DEFAULT_MAX_IDLE}
+     * @param name the name of the pool (used for logging)
+     */
+    protected ComponentPool(String name) {
+        this(name, DEFAULT_MAX_IDLE);
+    }
+    /**
+     * Creates a pool with {@link #DEFAULT_MAX_MODELS}
+     * @param name the name of the pool (used for logging)
+     * @param maxIdle the maximum number of idle components per model. 
+     * Values &lt;= 0 are replaced by {@link #DEFAULT_MAX_IDLE}
+     */
+    protected ComponentPool(String name, int maxIdle) {
+        this(name, maxIdle, DEFAULT_MAX_MODELS);
+    }
+    /**
+     * Creates a pool
+     * @param name the name of the pool (used for logging)
+     * @param maxIdle the maximum number of idle components per model. 
+     * Values &lt;= 0 are replaced by {@link #DEFAULT_MAX_IDLE}
+     * @param maxModels the maximum number of models idle components are kept
+     * for. Values &lt;= 0 are replaced by {@link #DEFAULT_MAX_MODELS}
+     */
+    protected ComponentPool(String name, int maxIdle, int maxModels) {
+        this.name = name;
+        this.maxIdle = maxIdle <= 0 ? DEFAULT_MAX_IDLE : maxIdle;
+        this.maxModels = maxModels <= 0 ? DEFAULT_MAX_MODELS : maxModels;
+        this.idle = new LinkedHashMap<ModelKey<M>,IdleComponents<T>>(16, 0.75f, true){
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Entry<ModelKey<M>,IdleComponents<T>> eldest) {
+                if(size() > ComponentPool.this.maxModels){
+                    evicted.addAndGet(eldest.getValue().size());
+                    return true;
+                } else {
+                    return false;
+                }
+            }
+        };
+    }
+    /**
+     * Creates a new component for the parsed model
+     * @param model the model
+     * @return the component
+     */
+    protected abstract T create(M model);
+    /**
+     * Resets the state of the component before it is returned to the pool
+     * (e.g. adaptive data of {@link opennlp.tools.namefind.NameFinderME}).
+     * The default implementation does nothing.
+     * @param component the component
+     */
+    protected void reset(T component) {
+    }
+    /**
+     * Borrows a component for the parsed model. If no idle component is
+     * available a new one is created. The caller MUST {@link #release(Object, Object)}
+     * the component after usage.
+     * @param model the model. MUST NOT be <code>null</code>
+     * @return the component
+     */
+    public T borrow(M model) {
+        if(model == null){
+            throw new IllegalArgumentException("The parsed model MUST NOT be NULL!");
+        }
+        borrowed.incrementAndGet();
+        IdleComponents<T> components = getIdle(model, false);
+        if(components != null){
+            T component;
+            while((component = components.poll()) != null || !components.isEmpty()){
+                if(component != null){
+                    return component;
+                } //else the soft reference was cleared
+            }
+        }
+        created.incrementAndGet();
+        return create(model);
+    }
+    /**
+     * Releases a component previously {@link #borrow(Object) borrowed} for
+     * the parsed model. 
+     * @param model the model the component was borrowed for
+     * @param component the component. If <code>null</code> this call is ignored
+     */
+    public void release(M model, T component) {
+        if(model == null || component == null){
+            return;
+        }
+        released.incrementAndGet();
+        reset(component);
+        if(!getIdle(model, true).offer(component, maxIdle)){
+            discarded.incrementAndGet();
+        }
+    }
+    /**
+     * Removes all idle components of the parsed model. This needs to be 
+     * called if a model is replaced or no longer used, as idle components keep
+     * their model in memory.
+     * @param model the model
+     */
+    public void clear(M model) {
+        if(model != null){
+            synchronized (idle) {
+                idle.remove(new ModelKey<M>(model));
+            }
+        }
+    }
+    /**
+     * Removes all idle components
+     */
+    public void clear() {
+        synchronized (idle) {
+            idle.clear();
+        }
+    }
+    /**
+     * The number of {@link #borrow(Object)} calls
+     */
+    public long getBorrowed() {
+        return borrowed.get();
+    }
+    /**
+     * The number of created components. <code>{@link #getBorrowed()} - 
+     * {@link #getCreated()}</code> is the number of reused components.
+     */
+    public long getCreated() {
+        return created.get();
+    }
+    /**
+     * The number of {@link #release(Object, Object)} calls
+     */
+    public long getReleased() {
+        return released.get();
+    }
+    /**
+     * The number of released components that where not added to the pool
+     * because {@link #getMaxIdle()} was reached.
+     */
+    public long getDiscarded() {
+        return discarded.get();
+    }
+    /**
+     * The number of idle components removed because idle components for more
+     * than {@link #getMaxModels()} models would have been kept
+     */
+    public long getEvicted() {
+        return evicted.get();
+    }
+    /**
+     * The maximum number of idle components per model
+     */
+    public int getMaxIdle() {
+        return maxIdle;
+    }
+    /**
+     * The maximum number of models idle components are kept for
+     */
+    public int getMaxModels() {
+        return maxModels;
+    }
+    /**
+     * The number of currently idle components over all models
+     */
+    public int getIdle() {
+        int num = 0;
+        synchronized (idle) {
+            for(IdleComponents<T> components : idle.values()){
+                num += components.size();
+            }
+        }
+        return num;
+    }
+
+    private IdleComponents<T> getIdle(M model, boolean create) {
+        ModelKey<M> key = new ModelKey<M>(model);
+        synchronized (idle) {
+            IdleComponents<T> components = idle.get(key);
+            if(components == null && create){
+                components = new IdleComponents<T>();
+                idle.put(key, components);
+            }
+            return components;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s pool [borrowed: %d | created: %d | released: %d | discarded: %d | evicted: %d | idle: %d]",
+            name, getBorrowed(), getCreated(), getReleased(), getDiscarded(), getEvicted(), getIdle());
+    }
+    /**
+     * Uses the identity of the model as key, as OpenNLP models might
+     * implement {@link Object#equals(Object)} based on the model data.
+     */
+    private static final class ModelKey<M> {
+        private final M model;
+
+        ModelKey(M model) {
+            this.model = model;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(model);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof ModelKey && ((ModelKey<?>)obj).model == model;
+        }
+    }
+    /**
+     * The idle components of a model
+     */
+    private static class IdleComponents<T> {
+        private final Queue<SoftReference<T>> queue = new ConcurrentLinkedQueue<SoftReference<T>>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        /**
+         * @return the component or <code>null</code> if the queue is empty or
+         * the polled reference was cleared
+         */
+        T poll() {
+            SoftReference<T> ref = queue.poll();
+            if(ref == null){
+                return null;
+            }
+            size.decrementAndGet();
+            return ref.get();
+        }
+
+        boolean isEmpty() {
+            return queue.isEmpty();
+        }
+
+        int size() {
+            return size.get();
+        }
+
+        boolean offer(T component, int max) {
+            if(size.incrementAndGet() > max){
+                size.decrementAndGet();
+                return false;
+            }
+            queue.offer(new SoftReference<T>(component));
+            return true;
+        }
+    }
+}
@@ -97,6 +97,51 @@ public class OpenNLP {
      * from the map. 
      */
     protected Map<String,int[]> modelCreationLock = new HashMap<String,int[]>();
+    /**
+     * Pool for {@link POSTaggerME} instances
+     */
+    private final ComponentPool<POSModel,POSTaggerME> posTaggerPool = 
+            new ComponentPool<POSModel,POSTaggerME>("POSTaggerME") {
+        @Override
+        protected POSTaggerME create(POSModel model) {
+            return new POSTaggerME(model);
+        }
+    };
+    /**
+     * Pool for {@link ChunkerME} instances
+     */
+    private final ComponentPool<ChunkerModel,ChunkerME> chunkerPool = 
+            new ComponentPool<ChunkerModel,ChunkerME>("ChunkerME") {
+        @Override
+        protected ChunkerME create(ChunkerModel model) {
+            return new ChunkerME(model);
+        }
+    };
+    /**
+     * Pool for {@link TokenizerME} instances
+     */
+    private final ComponentPool<TokenizerModel,TokenizerME> tokenizerPool = 
+            new ComponentPool<TokenizerModel,TokenizerME>("TokenizerME") {
+        @Override
+        protected TokenizerME create(TokenizerModel model) {
+            return new TokenizerME(model);
+        }
+    };
+    /**
+     * Pool for {@link NameFinderME} instances. Adaptive data are cleared
+     * when instances are released.
+     */
+    private final ComponentPool<TokenNameFinderModel,NameFinderME> nameFinderPool = 
+            new ComponentPool<TokenNameFinderModel,NameFinderME>("NameFinderME") {
+        @Override
+        protected NameFinderME create(TokenNameFinderModel model) {
+            return new NameFinderME(model);
+        }
+        @Override
+        protected void reset(NameFinderME component) {
+            component.clearAdaptiveData();
+        }
+    };
     /**
      * Default constructor
      */
@@ -275,6 +320,40 @@ public class OpenNLP {
         }
     }
     
+    /**
+     * Getter for the pool of {@link POSTaggerME} instances. Components
+     * {@link ComponentPool#borrow(Object) borrowed} from the pool MUST BE
+     * {@link ComponentPool#release(Object, Object) released} after usage.
+     * @return the pool
+     */
+    public ComponentPool<POSModel,POSTaggerME> getPartOfSpeechTaggerPool() {
+        return posTaggerPool;
+    }
+    /**
+     * Getter for the pool of {@link ChunkerME} instances
+     * @return the pool
+     * @see #getPartOfSpeechTaggerPool()
+     */
+    public ComponentPool<ChunkerModel,ChunkerME> getChunkerPool() {
+        return chunkerPool;
+    }
+    /**
+     * Getter for the pool of {@link TokenizerME} instances
+     * @return the pool
+     * @see #getPartOfSpeechTaggerPool()
+     */
+    public ComponentPool<TokenizerModel,TokenizerME> getTokenizerPool() {
+        return tokenizerPool;
+    }
+    /**
+     * Getter for the pool of {@link NameFinderME} instances
+     * @return the pool
+     * @see #getPartOfSpeechTaggerPool()
+     */
+    public ComponentPool<TokenNameFinderModel,NameFinderME> getNameFinderPool() {
+        return nameFinderPool;
+    }
+    
     /**
      * Getter for the Model with the parsed type, name and properties.
      * @param modelType the type of the Model (e.g. {@link ChunkerModel})
@@ -494,12 +573,16 @@ public class OpenNLP {
                 //not created in the meantime ... we need to create it!
                 T built = loadModel(name, modelType, modelProperties);
                 //register the model
+                Object replaced;
                 modelLock.writeLock().lock();
                 try {
-                    models.put(name, built);
+                    replaced = models.put(name, built);
                 } finally {
                     modelLock.writeLock().unlock();
                 }
+                if(replaced != null && replaced != built){
+                    clearPools(replaced);
+                }
                 return built;
             }
         } finally {
@@ -518,6 +601,22 @@ public class OpenNLP {
             }
         }
     }
+    /**
+     * Removes the idle components of a replaced model from the pools as
+     * those would keep the replaced model in memory
+     * @param model the replaced model
+     */
+    private void clearPools(Object model) {
+        if(model instanceof POSModel){
+            posTaggerPool.clear((POSModel)model);
+        } else if(model instanceof ChunkerModel){
+            chunkerPool.clear((ChunkerModel)model);
+        } else if(model instanceof TokenizerModel){
+            tokenizerPool.clear((TokenizerModel)model);
+        } else if(model instanceof TokenNameFinderModel){
+            nameFinderPool.clear((TokenNameFinderModel)model);
+        }
+    }
     private <T> T loadModel(String name, Class<T> modelType,
             Map<String, String> modelProperties) throws InvalidFormatException,
             IOException {
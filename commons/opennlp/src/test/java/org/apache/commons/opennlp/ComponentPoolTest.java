@@ -0,0 +1,256 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.commons.opennlp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.stanbol.commons.opennlp.ComponentPool;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ComponentPoolTest {
+
+    private static final int MAX_IDLE = 3;
+    private static final int MAX_MODELS = 2;
+
+    private TestPool pool;
+
+    @Before
+    public void init() {
+        pool = new TestPool();
+    }
+
+    @Test
+    public void testReuse() {
+        Model model = new Model("test");
+        Component c1 = pool.borrow(model);
+        assertNotNull(c1);
+        assertSame(model, c1.model);
+        //a borrowed component is never handed out twice
+        Component c2 = pool.borrow(model);
+        assertNotSame(c1, c2);
+        pool.release(model, c1);
+        assertEquals(1, c1.resets);
+        assertEquals(1, pool.getIdle());
+        assertSame(c1, pool.borrow(model));
+        assertEquals(0, pool.getIdle());
+        assertEquals(3, pool.getBorrowed());
+        assertEquals(2, pool.getCreated());
+        assertEquals(1, pool.getReleased());
+    }
+
+    @Test
+    public void testMaxIdle() {
+        Model model = new Model("test");
+        List<Component> components = new ArrayList<Component>();
+        for(int i = 0; i <= MAX_IDLE; i++){
+            components.add(pool.borrow(model));
+        }
+        for(Component component : components){
+            pool.release(model, component);
+        }
+        assertEquals(MAX_IDLE, pool.getIdle());
+        assertEquals(1, pool.getDiscarded());
+    }
+
+    /**
+     * Components are pooled by model identity. An equal but different model
+     * instance (e.g. a reloaded model) MUST NOT get components created for
+     * the other instance.
+     */
+    @Test
+    public void testModelIdentity() {
+        Model model = new Model("test");
+        Model reloaded = new Model("test");
+        assertEquals(model, reloaded);
+        pool.release(model, pool.borrow(model));
+        Component component = pool.borrow(reloaded);
+        assertSame(reloaded, component.model);
+        assertEquals(2, pool.getCreated());
+    }
+
+    @Test
+    public void testClearModel() {
+        Model model = new Model("test");
+        Model other = new Model("other");
+        pool.release(model, pool.borrow(model));
+        pool.release(other, pool.borrow(other));
+        assertEquals(2, pool.getIdle());
+        pool.clear(model);
+        assertEquals(1, pool.getIdle());
+        pool.borrow(model);
+        assertEquals(3, pool.getCreated());
+        pool.clear();
+        assertEquals(0, pool.getIdle());
+    }
+
+    /**
+     * The idle components of the least recently used model are evicted if
+     * components for more than {@link ComponentPool#getMaxModels()} models
+     * would be kept.
+     */
+    @Test
+    public void testModelEviction() {
+        assertEquals(MAX_MODELS, pool.getMaxModels());
+        Model m1 = new Model("m1");
+        Model m2 = new Model("m2");
+        Model m3 = new Model("m3");
+        pool.release(m1, pool.borrow(m1));
+        pool.release(m2, pool.borrow(m2));
+        //use m1 so that m2 is the least recently used model
+        pool.release(m1, pool.borrow(m1));
+        pool.release(m3, pool.borrow(m3));
+        assertEquals(2, pool.getIdle());
+        assertEquals(1, pool.getEvicted());
+        long created = pool.getCreated();
+        pool.borrow(m1); //still pooled
+        assertEquals(created, pool.getCreated());
+        pool.borrow(m2); //evicted
+        assertEquals(created + 1, pool.getCreated());
+    }
+
+    /**
+     * Idle components reference their model. Cleared and evicted models need
+     * to be garbage collectable.
+     */
+    @Test
+    public void testModelsAreCollectable() throws InterruptedException {
+        Model model = new Model("cleared");
+        pool.release(model, pool.borrow(model));
+        WeakReference<Model> cleared = new WeakReference<Model>(model);
+        pool.clear(model);
+        model = new Model("evicted");
+        pool.release(model, pool.borrow(model));
+        WeakReference<Model> evicted = new WeakReference<Model>(model);
+        for(int i = 0; i < MAX_MODELS; i++){
+            model = new Model("model" + i);
+            pool.release(model, pool.borrow(model));
+        }
+        model = null;
+        for(int i = 0; i < 10 && (cleared.get() != null || evicted.get() != null); i++){
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(cleared.get());
+        assertNull(evicted.get());
+        assertEquals(MAX_MODELS, pool.getIdle());
+    }
+
+    @Test
+    public void testConcurrentBorrowAndRelease() throws InterruptedException {
+        final Model model = new Model("test");
+        final int threads = 8;
+        final int operations = 10000;
+        final AtomicLong failed = new AtomicLong();
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> started = new ArrayList<Thread>(threads);
+        for(int i = 0; i < threads; i++){
+            Thread t = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for(int i = 0; i < operations; i++){
+                        Component component = pool.borrow(model);
+                        //a component MUST NOT be used by two threads
+                        if(!component.inUse.compareAndSet(0, 1)){
+                            failed.incrementAndGet();
+                        }
+                        component.inUse.set(0);
+                        pool.release(model, component);
+                    }
+                }
+            });
+            t.start();
+            started.add(t);
+        }
+        start.countDown();
+        for(Thread t : started){
+            t.join();
+        }
+        assertEquals(0, failed.get());
+        assertEquals(threads * operations, pool.getBorrowed());
+        assertEquals(threads * operations, pool.getReleased());
+        assertEquals(pool.getCreated(), pool.getIdle() + pool.getDiscarded());
+    }
+
+    /**
+     * A model with an {@link #equals(Object)} implementation based on its name
+     */
+    private static class Model {
+
+        private final String name;
+
+        Model(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Model && ((Model)obj).name.equals(name);
+        }
+    }
+
+    /**
+     * A component that references its model as OpenNLP components do
+     */
+    private static class Component {
+
+        private final Model model;
+        private final AtomicLong inUse = new AtomicLong();
+        private int resets = 0;
+
+        Component(Model model) {
+            this.model = model;
+        }
+    }
+
+    private static class TestPool extends ComponentPool<Model,Component> {
+
+        TestPool() {
+            super("Test", MAX_IDLE, MAX_MODELS);
+        }
+
+        @Override
+        protected Component create(Model model) {
+            return new Component(model);
+        }
+
+        @Override
+        protected void reset(Component component) {
+            component.resets++;
+        }
+    }
+}
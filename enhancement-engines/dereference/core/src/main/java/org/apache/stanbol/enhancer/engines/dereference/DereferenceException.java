@@ -16,6 +16,8 @@
  */
 package org.apache.stanbol.enhancer.engines.dereference;
 
+import java.util.Collection;
+
 import org.apache.clerezza.commons.rdf.IRI;
 
 public class DereferenceException extends Exception {
@@ -25,6 +27,9 @@ public class DereferenceException extends Exception {
     public DereferenceException(IRI entity, Throwable t){
         super("Unable to dereference Entity " + entity+ "!", t);
     }
+    public DereferenceException(Collection<IRI> entities, Throwable t){
+        super("Unable to dereference Entities " + entities + "!", t);
+    }
     public DereferenceException(IRI entity, String reason){
         super("Unable to dereference Entity " + entity + 
             (reason != null ? ": "+ reason : "") + "!");
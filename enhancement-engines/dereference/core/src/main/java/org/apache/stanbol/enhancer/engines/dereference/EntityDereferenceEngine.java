@@ -20,6 +20,7 @@ import static org.apache.stanbol.enhancer.servicesapi.rdf.Properties.DC_LANGUAGE
 import static org.apache.stanbol.enhancer.servicesapi.rdf.Properties.ENHANCER_ENTITY_REFERENCE;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -31,6 +32,7 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.locks.Lock;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -60,6 +62,17 @@ public class EntityDereferenceEngine implements EnhancementEngine, ServiceProper
      */
     public static final int DEFAULT_ENGINE_ORDERING = ServiceProperties.ORDERING_POST_PROCESSING;
     
+    /**
+     * The maximum number of Entities dereferenced by a single 
+     * {@link EntityDereferencer#dereference(Collection, Graph, Lock, DereferenceContext)}
+     * call when an {@link EntityDereferencer#getExecutor() executor} is present
+     * and the dereferencer {@link EntityDereferencer#supportsBatchDereferencing()
+     * supports batch dereferencing}. Otherwise Entities are distributed over
+     * the threads of the executor. Without an executor all Entities are 
+     * dereferenced by a single call.
+     */
+    public static final int DEREFERENCE_BATCH_SIZE = 50;
+    
     /**
      * If the offline mode is enabled enforced for dereferencing Entities
      */
@@ -284,22 +297,27 @@ public class EntityDereferenceEngine implements EnhancementEngine, ServiceProper
         ExecutorService executor = dereferencer.getExecutor();
         Set<IRI> failedEntities = new HashSet<IRI>();
         int dereferencedCount = 0;
-        List<DereferenceJob> dereferenceJobs = new ArrayList<DereferenceJob>(
-                referencedEntities.size());
         if(executor != null && !executor.isShutdown()){ //dereference using executor
-            //schedule all entities to dereference
-            for(final IRI entity : referencedEntities){
-                DereferenceJob dereferenceJob = new DereferenceJob(entity, 
-                    metadata, writeLock, derefContext);
-                dereferenceJob.setFuture(executor.submit(dereferenceJob));
-                dereferenceJobs.add(dereferenceJob);
+            //schedule batches of entities to dereference
+            int batchSize = getBatchSize(executor, referencedEntities.size());
+            log.trace(" - dereference in batches of {} Entities", batchSize);
+            List<DereferenceJob> dereferenceJobs = new ArrayList<DereferenceJob>(
+                    referencedEntities.size()/batchSize + 1);
+            List<IRI> batch = new ArrayList<IRI>(batchSize);
+            for(Iterator<IRI> it = referencedEntities.iterator(); it.hasNext();){
+                batch.add(it.next());
+                if(batch.size() >= batchSize || !it.hasNext()){
+                    DereferenceJob dereferenceJob = new DereferenceJob(batch, 
+                        metadata, writeLock, derefContext);
+                    dereferenceJob.setFuture(executor.submit(dereferenceJob));
+                    dereferenceJobs.add(dereferenceJob);
+                    batch = new ArrayList<IRI>(batchSize);
+                }
             }
-            //wait for all entities to be dereferenced
+            //wait for all batches to be dereferenced
             for(DereferenceJob dereferenceJob : dereferenceJobs){
                 try {
-                    if(dereferenceJob.await()){
-                        dereferencedCount++;
-                    }
+                    dereferencedCount += dereferenceJob.await().size();
                 } catch (InterruptedException e) {
                     // Restore the interrupted status
                     Thread.currentThread().interrupt();
@@ -307,30 +325,27 @@ public class EntityDereferenceEngine implements EnhancementEngine, ServiceProper
                         "Interupted while waiting for dereferencing Entities", e);
                 } catch (ExecutionException e) {
                     if(e.getCause() instanceof DereferenceException){
-                        failedEntities.add(dereferenceJob.entity);
-                        log.debug(" ... error while dereferencing " 
-                            + dereferenceJob.entity + "!", e);
+                        log.debug(" ... error while dereferencing batch of " 
+                            + dereferenceJob.entities.size() + " Entities! Will "
+                            + "dereference them one by one", e);
+                        dereferencedCount += dereferenceEach(dereferenceJob.entities, 
+                            metadata, writeLock, derefContext, failedEntities);
                     } else { //unknown error
                         throw new EngineException(this,ci, "Unchecked Error while "
-                            + "dereferencing Entity " + dereferenceJob.entity
+                            + "dereferencing Entities " + dereferenceJob.entities
                             + "!", e);
                     }
                 }
             }
-        } else { //dereference using the current thread
-            for(IRI entity : referencedEntities){
-                try {
-                    log.trace("  ... dereference {}", entity);
-                    if(dereferencer.dereference(entity, metadata, writeLock, derefContext)){
-                        dereferencedCount++;
-                        log.trace("    + success");
-                    } else {
-                        log.trace("    - not found");
-                    }
-                } catch (DereferenceException e) {
-                    log.debug(" ... error while dereferencing " + entity + "!", e);
-                    failedEntities.add(entity);
-                }
+        } else if(!referencedEntities.isEmpty()){ //dereference using the current thread
+            try {
+                dereferencedCount = dereferencer.dereference(referencedEntities, 
+                    metadata, writeLock, derefContext).size();
+            } catch (DereferenceException e) {
+                log.debug(" ... error while dereferencing " + referencedEntities.size()
+                    + " Entities! Will dereference them one by one", e);
+                dereferencedCount = dereferenceEach(referencedEntities, 
+                    metadata, writeLock, derefContext, failedEntities);
             }
         }
         long end = System.nanoTime();
@@ -352,6 +367,55 @@ public class EntityDereferenceEngine implements EnhancementEngine, ServiceProper
         
     }
 
+    /**
+     * Getter for the number of Entities dereferenced by a single
+     * {@link DereferenceJob}. Entities are distributed over the threads of the
+     * executor. If the {@link #dereferencer} 
+     * {@link EntityDereferencer#supportsBatchDereferencing() supports batch
+     * dereferencing} batches are limited to {@link #DEREFERENCE_BATCH_SIZE}. 
+     * Otherwise every thread gets a single batch. If the number of threads is
+     * unknown Entities are dereferenced one by one.
+     * @param executor the executor
+     * @param numEntities the number of Entities to dereference
+     * @return the batch size
+     */
+    private int getBatchSize(ExecutorService executor, int numEntities) {
+        int threads = executor instanceof ThreadPoolExecutor ? 
+                ((ThreadPoolExecutor)executor).getMaximumPoolSize() : -1;
+        if(threads <= 0 || threads == Integer.MAX_VALUE){ //unknown or unbounded
+            return dereferencer.supportsBatchDereferencing() ? DEREFERENCE_BATCH_SIZE : 1;
+        }
+        int batchSize = Math.max(1, (numEntities + threads - 1) / threads);
+        return dereferencer.supportsBatchDereferencing() ? 
+                Math.min(batchSize, DEREFERENCE_BATCH_SIZE) : batchSize;
+    }
+
+    /**
+     * Dereferences the parsed Entities one by one. Used as fallback if 
+     * dereferencing a batch of Entities failed to determine the Entities
+     * that can not be dereferenced.
+     * @return the number of dereferenced Entities
+     */
+    private int dereferenceEach(Collection<IRI> entities, Graph metadata, Lock writeLock,
+            DereferenceContext derefContext, Set<IRI> failedEntities) {
+        int dereferencedCount = 0;
+        for(IRI entity : entities){
+            try {
+                log.trace("  ... dereference {}", entity);
+                if(dereferencer.dereference(entity, metadata, writeLock, derefContext)){
+                    dereferencedCount++;
+                    log.trace("    + success");
+                } else {
+                    log.trace("    - not found");
+                }
+            } catch (DereferenceException e) {
+                log.debug(" ... error while dereferencing " + entity + "!", e);
+                failedEntities.add(entity);
+            }
+        }
+        return dereferencedCount;
+    }
+
 	@Override
     public String getName() {
         return name;
@@ -452,40 +516,36 @@ public class EntityDereferenceEngine implements EnhancementEngine, ServiceProper
      * 
      * @author Rupert Westenthaler
      */
-    class DereferenceJob implements Callable<Boolean> {
+    class DereferenceJob implements Callable<Set<IRI>> {
         
-        final IRI entity;
+        final Collection<IRI> entities;
         final Graph metadata;
         final Lock writeLock;
         final DereferenceContext derefContext;
 
-        private Future<Boolean> future;
+        private Future<Set<IRI>> future;
         
-        DereferenceJob(IRI entity, Graph metadata, Lock writeLock, 
+        DereferenceJob(Collection<IRI> entities, Graph metadata, Lock writeLock, 
             DereferenceContext derefContext){
-            this.entity = entity;
+            this.entities = entities;
             this.metadata = metadata;
             this.writeLock = writeLock;
             this.derefContext = derefContext;
         }
         
         @Override
-        public Boolean call() throws DereferenceException {
-            log.trace("  ... dereference {}", entity);
-            boolean state = dereferencer.dereference(entity, metadata, writeLock, derefContext);
-            if(state){
-                log.trace("    + success");
-            } else {
-                log.trace("    - not found");
-            }
-            return state;
+        public Set<IRI> call() throws DereferenceException {
+            log.trace("  ... dereference {} Entities", entities.size());
+            Set<IRI> dereferenced = dereferencer.dereference(entities, metadata, writeLock, derefContext);
+            log.trace("    + {} dereferenced", dereferenced.size());
+            return dereferenced;
         }
 
-        void setFuture(Future<Boolean> future){
+        void setFuture(Future<Set<IRI>> future){
             this.future = future;
         }
         
-        public boolean await() throws InterruptedException, ExecutionException {
+        public Set<IRI> await() throws InterruptedException, ExecutionException {
             return future.get();
         }
     }
@@ -16,7 +16,9 @@
  */
 package org.apache.stanbol.enhancer.engines.dereference;
 
+import java.util.Collection;
 import java.util.ConcurrentModificationException;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.locks.Lock;
 
@@ -52,6 +54,17 @@ public interface EntityDereferencer {
      * by this implementation
      */
     ExecutorService getExecutor();
+    
+    /**
+     * If this EntityDereferencer natively supports dereferencing of multiple
+     * Entities (e.g. by retrieving their data with a single request). If 
+     * <code>false</code> {@link #dereference(Collection, Graph, Lock, DereferenceContext)}
+     * is expected to retrieve the Entities one by one and the 
+     * {@link EntityDereferenceEngine} will distribute the Entities over the
+     * threads of the {@link #getExecutor() executor}.
+     * @return the batch dereferencing support state
+     */
+    boolean supportsBatchDereferencing();
 
     /**
      * Dereferences the Entity with the parsed {@link IRI} by copying the
@@ -74,5 +87,25 @@ public interface EntityDereferencer {
      */
     boolean dereference(IRI entity, Graph graph, Lock writeLock, 
             DereferenceContext dereferenceContext) throws DereferenceException;
+
+    /**
+     * Dereferences all parsed Entities by copying their data to the parsed
+     * graph. Implementations are expected to fetch the data of all Entities
+     * with as few requests as possible, collect the results in a local graph
+     * and add those to the parsed graph while holding the 
+     * <code>{@link Lock#lock() writeLock#lock()}</code> only once.
+     * @param entities the uris of the Entities to dereference
+     * @param graph the graph to add the dereferenced entities
+     * @param writeLock The writeLock for the graph. See 
+     * {@link #dereference(IRI, Graph, Lock, DereferenceContext)} for details
+     * @param dereferenceContext Context information for the {@link EntityDereferencer}
+     * @return the Entities that where dereferenced. Entities that are not
+     * present in the returned set where not found.
+     * @throws DereferenceException on any error while dereferencing one of 
+     * the requested Entities. In this case no data MUST BE added to the parsed
+     * graph.
+     */
+    Set<IRI> dereference(Collection<IRI> entities, Graph graph, Lock writeLock, 
+            DereferenceContext dereferenceContext) throws DereferenceException;
         
 }
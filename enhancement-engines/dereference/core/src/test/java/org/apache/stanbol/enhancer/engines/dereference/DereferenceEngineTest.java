@@ -25,11 +25,14 @@ import static org.apache.stanbol.enhancer.servicesapi.rdf.Properties.RDFS_LABEL;
 import static org.apache.stanbol.enhancer.servicesapi.rdf.Properties.RDF_TYPE;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Dictionary;
+import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.locks.Lock;
@@ -239,6 +242,31 @@ public class DereferenceEngineTest {
         validateDereferencedEntities(ci.getMetadata(), OTHER_ENTITY_REFERENCE, ENHANCER_ENTITY_REFERENCE);
     }
     
+    /**
+     * Tests that Entities are dereferenced one by one if dereferencing a batch
+     * of Entities fails
+     * @throws Exception
+     */
+    @Test
+    public void testBatchFailureFallback() throws Exception {
+        ContentItem ci = getContentItem("urn:test:testBatchFailureFallback");
+        EntityDereferencer failingDereferencer = new TestDereferencer(Executors.newFixedThreadPool(2)){
+            @Override
+            public Set<IRI> dereference(Collection<IRI> entities, Graph graph, Lock writeLock,
+                    DereferenceContext context) throws DereferenceException {
+                throw new DereferenceException(entities.iterator().next(), "batch not supported");
+            }
+        };
+        Dictionary<String,Object> dict = new Hashtable<String,Object>();
+        dict.put(EnhancementEngine.PROPERTY_NAME, "fallback");
+        dict.put(FILTER_CONTENT_LANGUAGES, false);
+        dict.put(FILTER_ACCEPT_LANGUAGES, false);
+        EntityDereferenceEngine engine = new EntityDereferenceEngine(failingDereferencer,
+            new DereferenceEngineConfig(dict,null));
+        engine.computeEnhancements(ci);
+        validateDereferencedEntities(ci.getMetadata(), ENHANCER_ENTITY_REFERENCE);
+    }
+    
     private void validateDereferencedEntities(Graph metadata, IRI...entityReferenceFields) {
         Graph expected = new IndexedGraph();
         for(IRI entityReferenceField : entityReferenceFields){
@@ -274,6 +302,11 @@ public class DereferenceEngineTest {
         public ExecutorService getExecutor() {
             return executorService;
         }
+        
+        @Override
+        public boolean supportsBatchDereferencing() {
+            return false;
+        }
 
         @Override
         public boolean dereference(IRI entity, Graph graph, Lock writeLock, DereferenceContext context) throws DereferenceException {
@@ -292,6 +325,31 @@ public class DereferenceEngineTest {
                 return false;
             }
         }
+
+        @Override
+        public Set<IRI> dereference(Collection<IRI> entities, Graph graph, Lock writeLock,
+                DereferenceContext context) throws DereferenceException {
+            Set<IRI> dereferenced = new HashSet<IRI>();
+            Graph results = new IndexedGraph();
+            for(IRI entity : entities){
+                Iterator<Triple> entityTriples = testData.filter(entity, null, null);
+                if(entityTriples.hasNext()){
+                    dereferenced.add(entity);
+                    do {
+                        results.add(entityTriples.next());
+                    } while (entityTriples.hasNext());
+                }
+            }
+            if(!results.isEmpty()){
+                writeLock.lock();
+                try {
+                    graph.addAll(results);
+                } finally {
+                    writeLock.unlock();
+                }
+            }
+            return dereferenced;
+        }
         
     }
     
@@ -16,6 +16,11 @@
 */
 package org.apache.stanbol.enhancer.engines.dereference.entityhub;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
 import org.apache.marmotta.ldpath.api.backend.RDFBackend;
 import org.apache.stanbol.enhancer.engines.dereference.EntityDereferencer;
 import org.apache.stanbol.entityhub.ldpath.backend.EntityhubBackend;
@@ -50,6 +55,22 @@ public final class EntityhubDereferencer extends TrackingDereferencerBase<Entity
         return e == null ? null : e.getRepresentation();
     }
     
+    @Override
+    public boolean supportsBatchDereferencing() {
+        return true;
+    }
+    
+    @Override
+    protected Map<String,Representation> getRepresentations(Entityhub eh, Collection<String> ids, 
+            boolean offlineMode) throws EntityhubException {
+        Map<String,Entity> entities = eh.getEntities(ids);
+        Map<String,Representation> reps = new HashMap<String,Representation>(entities.size());
+        for(Entry<String,Entity> entity : entities.entrySet()){
+            reps.put(entity.getKey(), entity.getValue().getRepresentation());
+        }
+        return reps;
+    }
+    
     @Override
     public boolean supportsOfflineMode() {
         return true; //the entityhub is always offline
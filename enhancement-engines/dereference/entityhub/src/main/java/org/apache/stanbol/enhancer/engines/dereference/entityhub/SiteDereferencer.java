@@ -16,7 +16,11 @@
 */
 package org.apache.stanbol.enhancer.engines.dereference.entityhub;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.concurrent.ExecutorService;
 
 import org.apache.marmotta.ldpath.api.backend.RDFBackend;
@@ -60,6 +64,22 @@ public final class SiteDereferencer extends TrackingDereferencerBase<Site> {
         Entity entity = site.getEntity(id);
         return entity == null ? null : entity.getRepresentation();
     }
+    @Override
+    public boolean supportsBatchDereferencing() {
+        return true;
+    }
+    
+    @Override
+    protected Map<String,Representation> getRepresentations(Site site, Collection<String> ids, 
+            boolean offlineMode) throws EntityhubException {
+        Map<String,Entity> entities = site.getEntities(ids);
+        Map<String,Representation> reps = new HashMap<String,Representation>(entities.size());
+        for(Entry<String,Entity> entity : entities.entrySet()){
+            reps.put(entity.getKey(), entity.getValue().getRepresentation());
+        }
+        return reps;
+    }
+    
     @Override
     protected RDFBackend<Object> createRdfBackend(Site service) {
         return new SiteBackend(service);
@@ -16,6 +16,10 @@
 */
 package org.apache.stanbol.enhancer.engines.dereference.entityhub;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.concurrent.ExecutorService;
 
 import org.apache.marmotta.ldpath.api.backend.RDFBackend;
@@ -53,6 +57,22 @@ public final class SitesDereferencer extends TrackingDereferencerBase<SiteManage
         return entity == null ? null : entity.getRepresentation();
     }
     
+    @Override
+    public boolean supportsBatchDereferencing() {
+        return true;
+    }
+    
+    @Override
+    protected Map<String,Representation> getRepresentations(SiteManager sm, Collection<String> ids, 
+            boolean offlineMode) throws EntityhubException {
+        Map<String,Entity> entities = sm.getEntities(ids);
+        Map<String,Representation> reps = new HashMap<String,Representation>(entities.size());
+        for(Entry<String,Entity> entity : entities.entrySet()){
+            reps.put(entity.getKey(), entity.getValue().getRepresentation());
+        }
+        return reps;
+    }
+    
     @Override
     protected RDFBackend<Object> createRdfBackend(SiteManager service) {
         return new SiteManagerBackend(service);
@@ -22,6 +22,7 @@ import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
@@ -281,43 +282,86 @@ public abstract class TrackingDereferencerBase<T> implements EntityDereferencer
     public final ExecutorService getExecutor() {
     	return executorServiceProvider == null ? null : executorServiceProvider.getExecutorService();
     }
+    /**
+     * Returns <code>false</code> as the default 
+     * {@link #getRepresentations(Object, Collection, boolean)} implementation
+     * retrieves Entities one by one. Subclasses that override that method
+     * should also override this one.
+     */
+    @Override
+    public boolean supportsBatchDereferencing() {
+        return false;
+    }
     
     @Override
     public final boolean dereference(IRI uri, Graph graph, Lock writeLock, DereferenceContext dc) throws DereferenceException {
+        return !dereference(Collections.singleton(uri), graph, writeLock, dc).isEmpty();
+    }
+    
+    @Override
+    public final Set<IRI> dereference(Collection<IRI> entities, Graph graph, Lock writeLock, 
+            DereferenceContext dc) throws DereferenceException {
+        if(entities.isEmpty()){
+            return Collections.emptySet();
+        }
         T service = getService();
         if(service == null){
-            throw new DereferenceException(uri, serviceClass.getClass().getSimpleName() 
+            throw new DereferenceException(entities.iterator().next(), 
+                serviceClass.getClass().getSimpleName() 
                 + "service is currently not available");
         }
         EntityhubDereferenceContext derefContext = (EntityhubDereferenceContext)dc;
-        Representation rep;
+        Map<String,IRI> ids = new HashMap<String,IRI>(entities.size());
+        for(IRI entity : entities){
+            ids.put(entity.getUnicodeString(), entity);
+        }
+        Map<String,Representation> reps;
         try {
-            rep = getRepresentation(service, uri.getUnicodeString(), derefContext.isOfflineMode());
+            reps = getRepresentations(service, ids.keySet(), derefContext.isOfflineMode());
         } catch(EntityhubException e){
-            throw new DereferenceException(uri,e);
+            throw new DereferenceException(entities,e);
+        }
+        if(reps.isEmpty()){
+            return Collections.emptySet();
         }
         //we need the languages as strings
         final Set<String> langs = derefContext.getLanguages();
         final FieldMapper fieldMapper = derefContext.getFieldMapper();
         final Program<Object>ldpathProgram = derefContext.getProgram();
-        if(rep != null){
+        //collect the results in a local graph so that the write lock on the
+        //parsed graph is only acquired once for all dereferenced entities
+        Graph results = new SimpleGraph();
+        Set<IRI> dereferenced = new HashSet<IRI>(reps.size());
+        for(Entry<String,Representation> entry : reps.entrySet()){
+            IRI uri = ids.get(entry.getKey());
+            Representation rep = entry.getValue();
+            if(uri == null || rep == null){
+                continue; //not requested or not found
+            }
             if(fieldMapper == null && ldpathProgram == null && 
                     (langs == null || langs.isEmpty())){
-                copyAll(uri, rep, graph, writeLock);
+                copyAll(uri, rep, results);
             } else { //we need to apply some filters while dereferencing
                 if(fieldMapper != null || (langs != null && !langs.isEmpty())){
                     //this considers speficied fields and included languages
-                    copyMapped(uri, rep, fieldMapper, langs, graph, writeLock);
+                    copyMapped(uri, rep, fieldMapper, langs, results);
                 }
                 if(ldpathProgram != null){
                     //this executes LDPath statements
-                    copyLdPath(uri, getRdfBackend(service), ldpathProgram, langs, graph, writeLock);
+                    copyLdPath(uri, getRdfBackend(service), ldpathProgram, langs, results);
                 }
             }
-            return true;
-        } else {
-            return false;
+            dereferenced.add(uri);
         }
+        if(!results.isEmpty()){ //copy the results
+            writeLock.lock();
+            try {
+                graph.addAll(results);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        return dereferenced;
     }
     /**
      * Executes the {@link #ldpathProgram} using the parsed URI as context and
@@ -327,12 +371,11 @@ public abstract class TrackingDereferencerBase<T> implements EntityDereferencer
      * @param ldpathProgram The {@link Program} parsed via the dereference context
      * @param langs the set of languages to dereference
      * @param graph the graph to store the results
-     * @param writeLock the write lock for the graph
      * @throws DereferenceException on any {@link EntityhubException} while
      * executing the LDPath program
      */
     private void copyLdPath(IRI uri, RDFBackend<Object> rdfBackend, Program<Object> ldpathProgram,
-            Set<String> langs, Graph graph, Lock writeLock) throws DereferenceException {
+            Set<String> langs, Graph graph) throws DereferenceException {
         //A RdfReference needs to be used as context
         RdfReference context = valueFactory.createReference(uri);
         //create the representation that stores results in an intermediate
@@ -370,12 +413,7 @@ public abstract class TrackingDereferencerBase<T> implements EntityDereferencer
     	}
 
         if(!ldPathResults.isEmpty()){ //copy the results
-            writeLock.lock();
-            try {
-                graph.addAll(ldPathResults);
-            } finally {
-                writeLock.unlock();
-            }
+            graph.addAll(ldPathResults);
         }
     }
     /**
@@ -403,10 +441,9 @@ public abstract class TrackingDereferencerBase<T> implements EntityDereferencer
      * @param fieldMapper the {@link FieldMapper} parsed from the dereference context
      * @param langs the set of languages to dereference
      * @param graph the graph to store the mapping results
-     * @param writeLock the write lock for the graph
      */
     private void copyMapped(IRI uri, Representation rep, FieldMapper fieldMapper, Set<String> langs, 
-            Graph graph, Lock writeLock) {
+            Graph graph) {
         //NOTE: The fieldMapper parsed via the context does already have a
         //      filter for the parsed languages. Because of that the old code
         //      adding such a language filter is no longer needed
@@ -420,15 +457,10 @@ public abstract class TrackingDereferencerBase<T> implements EntityDereferencer
 //            fieldMapper = this.fieldMapper;
 //        }
         //execute the field mappings
-        writeLock.lock();
-        try {
-            RdfRepresentation clerezzaRep = valueFactory.createRdfRepresentation(uri, graph);
-            fieldMapper.applyMappings(rep, clerezzaRep, valueFactory);
-           	if(log.isTraceEnabled()){
-        		log.trace("dereferenced via Mappings {}", ModelUtils.getRepresentationInfo(clerezzaRep));
-        	}
-        } finally {
-            writeLock.unlock();
+        RdfRepresentation clerezzaRep = valueFactory.createRdfRepresentation(uri, graph);
+        fieldMapper.applyMappings(rep, clerezzaRep, valueFactory);
+        if(log.isTraceEnabled()){
+            log.trace("dereferenced via Mappings {}", ModelUtils.getRepresentationInfo(clerezzaRep));
         }
     }
     /**
@@ -437,28 +469,22 @@ public abstract class TrackingDereferencerBase<T> implements EntityDereferencer
      * @param uri the uri of the entity to copy
      * @param rep the {@link Representation} with the data of the entity
      * @param graph the graph to copy the data
-     * @param writeLock the write lock for the graph
      */
-    private void copyAll(IRI uri, Representation rep, Graph graph, Lock writeLock) {
-        writeLock.lock();
-        try {
-        	if(log.isTraceEnabled()){
-        		log.trace("dereferenced all of {}", ModelUtils.getRepresentationInfo(rep));
-        	}
-            if(rep instanceof RdfRepresentation){
-                graph.addAll(((RdfRepresentation)rep).getRdfGraph());
-            } else {
-                RdfRepresentation clerezzaRep = valueFactory.createRdfRepresentation(uri,graph);
-                //convert all values for all fields
-                for (Iterator<String> fields = rep.getFieldNames(); fields.hasNext();) {
-                    String field = fields.next();
-                    for (Iterator<Object> fieldValues = rep.get(field); fieldValues.hasNext();) {
-                        clerezzaRep.add(field, fieldValues.next());
-                    }
+    private void copyAll(IRI uri, Representation rep, Graph graph) {
+        if(log.isTraceEnabled()){
+            log.trace("dereferenced all of {}", ModelUtils.getRepresentationInfo(rep));
+        }
+        if(rep instanceof RdfRepresentation){
+            graph.addAll(((RdfRepresentation)rep).getRdfGraph());
+        } else {
+            RdfRepresentation clerezzaRep = valueFactory.createRdfRepresentation(uri,graph);
+            //convert all values for all fields
+            for (Iterator<String> fields = rep.getFieldNames(); fields.hasNext();) {
+                String field = fields.next();
+                for (Iterator<Object> fieldValues = rep.get(field); fieldValues.hasNext();) {
+                    clerezzaRep.add(field, fieldValues.next());
                 }
             }
-        } finally {
-            writeLock.unlock();
         }
     }
     /**
@@ -469,6 +495,28 @@ public abstract class TrackingDereferencerBase<T> implements EntityDereferencer
      * @throws DereferenceException 
      */
     protected abstract Representation getRepresentation(T service, String id, boolean offlineMode) throws EntityhubException;
+    /**
+     * provides the Representations for the parsed ids. This default 
+     * implementation calls {@link #getRepresentation(Object, String, boolean)}
+     * for every parsed id. Subclasses should override this if the service
+     * supports retrieving multiple Entities with a single request.
+     * @param ids the ids
+     * @param offlineMode off line mode state
+     * @return the found Representations by id. Ids of Entities that where not
+     * found are not contained.
+     * @throws EntityhubException on any error while retrieving the Entities
+     */
+    protected Map<String,Representation> getRepresentations(T service, Collection<String> ids, 
+            boolean offlineMode) throws EntityhubException {
+        Map<String,Representation> reps = new HashMap<String,Representation>(ids.size());
+        for(String id : ids){
+            Representation rep = getRepresentation(service, id, offlineMode);
+            if(rep != null){
+                reps.put(id, rep);
+            }
+        }
+        return reps;
+    }
     /**
      * Creates an RDFBackend for the parsed service
      * @param service
@@ -21,16 +21,25 @@ import static org.apache.stanbol.enhancer.servicesapi.rdf.Properties.RDFS_LABEL;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Dictionary;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NavigableMap;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.clerezza.rdf.core.LiteralFactory;
 import org.apache.clerezza.commons.rdf.Graph;
@@ -91,7 +100,9 @@ import org.slf4j.LoggerFactory;
  */
 @Component(immediate = true, metatype = true)
 @Service
-@Properties(value = {@Property(name = EnhancementEngine.PROPERTY_NAME, value = "disambiguation-mlt")})
+@Properties(value = {@Property(name = EnhancementEngine.PROPERTY_NAME, value = "disambiguation-mlt"),
+        @Property(name = DisambiguatorEngine.THREAD_POOL_SIZE,
+            intValue = DisambiguatorEngine.DEFAULT_THREAD_POOL_SIZE)})
 public class DisambiguatorEngine extends AbstractEnhancementEngine<IOException,RuntimeException> implements
         EnhancementEngine, ServiceProperties {
 
@@ -118,6 +129,25 @@ public class DisambiguatorEngine extends AbstractEnhancementEngine<IOException,R
      */
     public static final Set<String> SUPPORTED_MIMETYPES = Collections.singleton(PLAIN_TEXT_MIMETYPE);
 
+    /**
+     * The number of threads used to concurrently send the similarity queries of a single
+     * {@link ContentItem} to the Entityhub {@link Site}s. The pool is shared by all ContentItems processed
+     * by this engine. If set to <code>0</code> queries are sent sequentially by the thread calling
+     * {@link #computeEnhancements(ContentItem)}.
+     */
+    public static final String THREAD_POOL_SIZE = "enhancer.engines.disambiguation.mlt.threads.size";
+
+    /**
+     * The default number of threads used to send similarity queries (4)
+     */
+    public static final int DEFAULT_THREAD_POOL_SIZE = 4;
+
+    /**
+     * The {@link ExecutorService} used to send similarity queries or <code>null</code> if queries are sent
+     * by the calling thread.
+     */
+    private ExecutorService executorService;
+
     /**
      * Used to lookup the Entityhub {@link Site} used to perform the disambiguation.
      */
@@ -219,7 +249,13 @@ public class DisambiguatorEngine extends AbstractEnhancementEngine<IOException,R
             ci.getLock().readLock().unlock();
         }
 
+        long start = System.nanoTime();
         // (2) Disambiguate the SavedEntities
+        // (2.a) determine the similarity queries. Mentions with the same label and
+        // disambiguation context (e.g. the same entity mentioned twice in a
+        // sentence) share a single query
+        Map<List<String>,DisambiguationQuery> queries = new LinkedHashMap<List<String>,DisambiguationQuery>();
+        int mentionCount = 0;
         for (SavedEntity savedEntity : disData.textAnnotations.values()) {
             if (savedEntity.getSuggestions().size() <= 1) {
                 // we need not to disambiguate if only one suggestion is present
@@ -275,26 +311,58 @@ public class DisambiguatorEngine extends AbstractEnhancementEngine<IOException,R
             // using URIs of Entities suggested for other TextAnnotations
             // within the context.
 
-            // make the similarity query on the Entityhub using the collected
-            // information
-            QueryResultList<Entity> results;
-            log.info(" - Query '{}' for {}@{} with context '{}'", new Object[] {site.getId(),
-                    savedEntityLabel, contentLangauge, disambiguationContext});
-            if (!StringUtils.isBlank(disambiguationContext)) {
+            if (StringUtils.isBlank(disambiguationContext)) {
+                log.debug(" - {} not disambiguated because of empty context!", savedEntity.getName());
+                continue;
+            }
+            mentionCount++;
+            List<String> key = Arrays.asList(site.getId(), savedEntityLabel, contentLangauge,
+                disambiguationContext);
+            DisambiguationQuery query = queries.get(key);
+            if (query == null) {
+                query = new DisambiguationQuery(site, savedEntityLabel, contentLangauge, disambiguationContext);
+                queries.put(key, query);
+            }
+            query.savedEntities.add(savedEntity);
+        }
+        long schedule = System.nanoTime();
+        // (2.b) make the similarity queries on the Entityhub using the collected
+        // information
+        ExecutorService executor = this.executorService;
+        if (executor != null && !executor.isShutdown() && queries.size() > 1) {
+            for (DisambiguationQuery query : queries.values()) {
+                query.future = executor.submit(query);
+            }
+        }
+        try {
+            for (DisambiguationQuery query : queries.values()) {
+                QueryResultList<Entity> results;
                 try {
-                    results = query(site, savedEntityLabel, contentLangauge, disambiguationContext);
+                    results = query.future == null ? query.call() : query.future.get();
+                } catch (InterruptedException e) {
+                    // Restore the interrupted status
+                    Thread.currentThread().interrupt();
+                    throw new EngineException(this, ci, "Interupted while waiting for disambiguation "
+                            + "query results", e);
+                } catch (ExecutionException e) {
+                    throw query.createEngineException(e.getCause());
                 } catch (SiteException e) {
-                    // TODO we could also try to catch those errors ...
-                    throw new EngineException("Unable to disambiguate Mention of '" + savedEntity.getName()
-                            + "' on Entityhub Site '" + site.getId() + "!", e);
+                    throw query.createEngineException(e);
                 }
                 log.debug(" - {} results returned by query {}", results.size(), results.getQuery());
                 // match the results with the suggestions
-                disambiguateSuggestions(results, savedEntity);
-            } else {
-                log.debug(" - not disambiguated because of empty context!");
+                for (SavedEntity savedEntity : query.savedEntities) {
+                    disambiguateSuggestions(results, savedEntity);
+                }
+            }
+        } finally { // cancel pending queries if one failed
+            for (DisambiguationQuery query : queries.values()) {
+                if (query.future != null) {
+                    query.future.cancel(true);
+                }
             }
         }
+        long end = System.nanoTime();
         // (3) Write back the Results of the Disambiguation process
         // NOTE (rwesten): In the original version of Kritarth this was done as
         // part of (2) - disambiguation. This is now changed as in (2) the
@@ -307,6 +375,54 @@ public class DisambiguatorEngine extends AbstractEnhancementEngine<IOException,R
         } finally {
             ci.getLock().writeLock().unlock();
         }
+        if (log.isDebugEnabled() && mentionCount > 0) {
+            float scheduleDuration = ((schedule - start) / 10000) / 100f;
+            float queryDuration = ((end - schedule) / 10000) / 100f;
+            float duration = ((System.nanoTime() - start) / 10000) / 100f;
+            log.debug(" - disambiguated {} mentions with {} queries in {}ms | context: {}ms | "
+                    + "query: {}ms ({}ms/query)", new Object[] {mentionCount, queries.size(), duration,
+                    scheduleDuration, queryDuration, queryDuration / queries.size()});
+        }
+    }
+
+    /**
+     * A similarity query for one or more {@link SavedEntity SavedEntities} with the same label and
+     * disambiguation context. Used as {@link Callable} submitted to the {@link #executorService}.
+     */
+    private class DisambiguationQuery implements Callable<QueryResultList<Entity>> {
+
+        private final Site site;
+        private final String label;
+        private final String language;
+        private final String context;
+        /**
+         * the mentions disambiguated by the results of this query
+         */
+        final List<SavedEntity> savedEntities = new ArrayList<SavedEntity>(2);
+        /**
+         * The future if this query was submitted to the {@link #executorService}
+         */
+        Future<QueryResultList<Entity>> future;
+
+        DisambiguationQuery(Site site, String label, String language, String context) {
+            this.site = site;
+            this.label = label;
+            this.language = language;
+            this.context = context;
+        }
+
+        @Override
+        public QueryResultList<Entity> call() throws SiteException {
+            log.info(" - Query '{}' for {}@{} with context '{}'", new Object[] {site.getId(), label,
+                    language, context});
+            return query(site, label, language, context);
+        }
+
+        EngineException createEngineException(Throwable cause) {
+            // TODO we could also try to catch those errors ...
+            return new EngineException("Unable to disambiguate Mention of '" + savedEntities.get(0).getName()
+                    + "' on Entityhub Site '" + site.getId() + "!", cause);
+        }
     }
 
     /*
@@ -826,6 +942,37 @@ public class DisambiguatorEngine extends AbstractEnhancementEngine<IOException,R
         }
         @SuppressWarnings("unchecked")
         Dictionary<String,Object> properties = ce.getProperties();
+        int threadPoolSize;
+        Object value = properties.get(THREAD_POOL_SIZE);
+        if (value instanceof Number) {
+            threadPoolSize = ((Number) value).intValue();
+        } else if (value != null && !StringUtils.isBlank(value.toString())) {
+            try {
+                threadPoolSize = Integer.parseInt(value.toString());
+            } catch (NumberFormatException e) {
+                throw new ConfigurationException(THREAD_POOL_SIZE, "Value '" + value + "'(type: "
+                        + value.getClass().getName() + ") can not be parsed as Integer");
+            }
+        } else {
+            threadPoolSize = DEFAULT_THREAD_POOL_SIZE;
+        }
+        if (threadPoolSize > 0) {
+            final String namePrefix = getClass().getSimpleName() + "-" + getName() + "-thread-";
+            log.debug(" - create Threadpool(namePrefix='{}' | size='{}')", namePrefix, threadPoolSize);
+            executorService = Executors.newFixedThreadPool(threadPoolSize, new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, namePrefix + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        } else {
+            log.debug(" - no thread pool configured (poolSize: {})", threadPoolSize);
+            executorService = null;
+        }
         // update the service URL if it is defined
         // if (properties.get(FORMCEPT_SERVICE_URL) != null) {
         // this.serviceURL = (String) properties.get(FORMCEPT_SERVICE_URL);
@@ -840,6 +987,10 @@ public class DisambiguatorEngine extends AbstractEnhancementEngine<IOException,R
      */
     @Deactivate
     protected void deactivate(ComponentContext ce) {
+        if (executorService != null) {
+            executorService.shutdown();
+            executorService = null;
+        }
         super.deactivate(ce);
     }
 
@@ -197,6 +197,9 @@ public class EntityCoMentionEngine extends AbstractEnhancementEngine<RuntimeExce
         linkerConfig.setMinMatchScore( //labelScore * token match factor
             linkerConfig.getMinLabelScore()*linkerConfig.getMinTokenMatchFactor());
         linkerConfig.setRedirectProcessingMode(RedirectProcessingMode.IGNORE);
+        //the InMemoryEntityIndex is updated while linking so results of
+        //batched lookups would be outdated
+        linkerConfig.setBatchLookups(false);
         //remove all type mappings
         linkerConfig.setDefaultDcType(null);
         Set<IRI> mappedUris = new HashSet<IRI>(linkerConfig.getTypeMappings().keySet());
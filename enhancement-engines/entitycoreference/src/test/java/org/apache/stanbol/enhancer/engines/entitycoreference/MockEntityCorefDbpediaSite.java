@@ -96,6 +96,18 @@ public class MockEntityCorefDbpediaSite implements Site {
 		return entities.get(id);
 	}
 
+	@Override
+	public Map<String, Entity> getEntities(Collection<String> ids) throws SiteException {
+		Map<String, Entity> found = new HashMap<>();
+		for (String id : ids) {
+			Entity entity = entities.get(id);
+			if (entity != null) {
+				found.put(id, entity);
+			}
+		}
+		return found;
+	}
+
 	@Override
 	public InputStream getContent(String id, String contentType) throws SiteException {
 		return null;
@@ -26,6 +26,12 @@ import static org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLin
 import static org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig.DEREFERENCE_ENTITIES;
 import static org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig.DEREFERENCE_ENTITIES_FIELDS;
 import static org.apache.stanbol.enhancer.engines.entitylinking.config.TextProcessingConfig.MIN_SEARCH_TOKEN_LENGTH;
+import static org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig.BATCH_LOOKUPS;
+import static org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig.DEFAULT_BATCH_LOOKUPS;
+import static org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig.DEFAULT_LOOKUP_CACHE_SIZE;
+import static org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig.DEFAULT_LOOKUP_CACHE_TTL;
+import static org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig.LOOKUP_CACHE_SIZE;
+import static org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig.LOOKUP_CACHE_TTL;
 import static org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig.DEFAULT_INCLUDE_SIMILAR_SCORE;
 import static org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig.ENTITY_TYPES;
 import static org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig.INCLUDE_SIMILAR_SCORE;
@@ -111,6 +117,11 @@ import org.slf4j.LoggerFactory;
     @Property(name=MIN_TOKEN_SCORE,floatValue=DEFAULT_MIN_TOKEN_SCORE),
     @Property(name=SUGGESTIONS, intValue=DEFAULT_SUGGESTIONS),
     @Property(name=INCLUDE_SIMILAR_SCORE, boolValue=DEFAULT_INCLUDE_SIMILAR_SCORE),
+    @Property(name=BATCH_LOOKUPS, boolValue=DEFAULT_BATCH_LOOKUPS),
+    @Property(name=EntityhubLinkingEngine.LOOKUP_THREADS, 
+        intValue=TrackingEntitySearcher.DEFAULT_LOOKUP_THREADS),
+    @Property(name=LOOKUP_CACHE_SIZE, intValue=DEFAULT_LOOKUP_CACHE_SIZE),
+    @Property(name=LOOKUP_CACHE_TTL, intValue=DEFAULT_LOOKUP_CACHE_TTL),
     @Property(name=PROCESS_ONLY_PROPER_NOUNS_STATE, boolValue=DEFAULT_PROCESS_ONLY_PROPER_NOUNS_STATE),
     @Property(name=PROCESSED_LANGUAGES,
         cardinality=Integer.MAX_VALUE,
@@ -144,6 +155,11 @@ public class EntityhubLinkingEngine implements ServiceTrackerCustomizer {
      * To match against the Entityhub use "entityhub" as value.
      */
     public static final String SITE_ID = "enhancer.engines.linking.entityhub.siteId";
+    /**
+     * The number of threads used to perform batched lookups in parallel. 
+     * Values <code>&lt;= 1</code> deactivate parallel lookups.
+     */
+    public static final String LOOKUP_THREADS = "enhancer.engines.linking.entityhub.lookupThreads";
 
     /**
      * The engine initialised based on the configuration of this component
@@ -219,6 +235,16 @@ public class EntityhubLinkingEngine implements ServiceTrackerCustomizer {
         } else {
             entitySearcher = new ReferencedSiteSearcher(bundleContext,siteName,10,this);
         }
+        value = properties.get(LOOKUP_THREADS);
+        if(value instanceof Number){
+            entitySearcher.setLookupThreads(((Number)value).intValue());
+        } else if(value != null && !value.toString().isEmpty()){
+            try {
+                entitySearcher.setLookupThreads(Integer.parseInt(value.toString()));
+            } catch(NumberFormatException e){
+                throw new ConfigurationException(LOOKUP_THREADS, "Values MUST be valid Integer values",e);
+            }
+        }
         labelTokenizerTracker = new ServiceTracker(bundleContext, LabelTokenizer.class.getName(), 
                 new ServiceTrackerCustomizer() {
                     
@@ -350,6 +376,7 @@ public class EntityhubLinkingEngine implements ServiceTrackerCustomizer {
                     
                 }
                 trackedServiceCount++;
+                invalidateLookupCache();
             }
             return service;
         } else {
@@ -358,10 +385,12 @@ public class EntityhubLinkingEngine implements ServiceTrackerCustomizer {
     }
     @Override
     public void modifiedService(ServiceReference reference, Object service) {
+        invalidateLookupCache();
     }
     
     @Override
     public void removedService(ServiceReference reference, Object service) {
+        invalidateLookupCache();
         BundleContext bc = this.bundleContext;
         if(bc != null){
             trackedServiceCount--;
@@ -371,4 +400,14 @@ public class EntityhubLinkingEngine implements ServiceTrackerCustomizer {
             bc.ungetService(reference);
         }
     }
+    /**
+     * Cached lookup results need to be invalidated if the tracked
+     * Entityhub/ReferencedSite changes.
+     */
+    private void invalidateLookupCache() {
+        EntityLinkingEngine engine = entityLinkingEngine;
+        if(engine != null){
+            engine.invalidateLookupCache();
+        }
+    }
 }
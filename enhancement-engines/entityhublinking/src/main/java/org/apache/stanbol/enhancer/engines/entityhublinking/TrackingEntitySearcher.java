@@ -16,10 +16,26 @@
 */
 package org.apache.stanbol.enhancer.engines.entityhublinking;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcher;
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.stanbol.enhancer.engines.entitylinking.BatchEntitySearcher;
+import org.apache.stanbol.enhancer.engines.entitylinking.Entity;
+import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcherException;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.Filter;
 import org.osgi.framework.InvalidSyntaxException;
@@ -28,14 +44,25 @@ import org.osgi.util.tracker.ServiceTrackerCustomizer;
 /**
  * Abstract super class for EntitySearchers that need to track the OSGI service
  * used to lookup Entities. Used by the {@link EntityhubSearcher} and the 
- * {@link ReferencedSiteSearcher} implementation
+ * {@link ReferencedSiteSearcher} implementation<p>
+ * Batched lookups are performed in parallel by using a fixed size thread 
+ * pool created by {@link #open()} and shut down by {@link #close()}. The
+ * size of the pool can be set by {@link #setLookupThreads(int)}.
  * @author Rupert Westenthaler
  *
  */
-public abstract class TrackingEntitySearcher<T> implements EntitySearcher {
+public abstract class TrackingEntitySearcher<T> implements BatchEntitySearcher {
+    
+    /**
+     * The default number of threads used to perform batched lookups in parallel
+     */
+    public static final int DEFAULT_LOOKUP_THREADS = 4;
     
     private ServiceTracker searchServiceTracker;
     protected BundleContext bundleContext; 
+    
+    private int lookupThreads = DEFAULT_LOOKUP_THREADS;
+    private ExecutorService lookupExecutor;
     /**
      * Creates a new instance for the parsed parameter
      * @param context the BundleContexed used to create the {@link ServiceTracker}
@@ -76,6 +103,28 @@ public abstract class TrackingEntitySearcher<T> implements EntitySearcher {
      */
     public void open(){
         searchServiceTracker.open();
+        if(lookupThreads <= 1){ //batched lookups are performed sequentially
+            return;
+        }
+        final String namePrefix = getClass().getSimpleName()+"-lookup-";
+        lookupExecutor = Executors.newFixedThreadPool(lookupThreads, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, namePrefix + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+    /**
+     * Setter for the number of threads used to perform batched lookups in
+     * parallel. Needs to be called before {@link #open()}.
+     * @param lookupThreads the number of threads. Values <code>&lt;= 1</code>
+     * deactivate parallel lookups.
+     */
+    public void setLookupThreads(int lookupThreads) {
+        this.lookupThreads = lookupThreads;
     }
     /**
      * Getter for the Service used to search for Entities. If the service is
@@ -95,10 +144,74 @@ public abstract class TrackingEntitySearcher<T> implements EntitySearcher {
      * Closes the {@link ServiceTracker} used to track the service.
      */
     public void close(){
-        searchServiceTracker.close();
-        searchServiceTracker = null;
+        if(lookupExecutor != null){
+            lookupExecutor.shutdown();
+            lookupExecutor = null;
+        }
+        if(searchServiceTracker != null){
+            searchServiceTracker.close();
+            searchServiceTracker = null;
+        }
         bundleContext = null;
     }
+    /**
+     * Performs the lookups for the parsed search token lists in parallel by
+     * calling {@link #lookup(IRI, Set, List, String[], Integer, Integer)}
+     * for every list.
+     */
+    @Override
+    public Map<List<String>,Collection<? extends Entity>> lookup(final IRI field,
+            final Set<IRI> selectedFields, Collection<List<String>> searches,
+            final String[] languages, final Integer limit, final Integer offset) 
+                    throws EntitySearcherException {
+        if(searches == null){
+            throw new IllegalArgumentException("The parsed search token lists MUST NOT be NULL!");
+        }
+        if(searches.isEmpty()){
+            return Collections.emptyMap();
+        }
+        Map<List<String>,Collection<? extends Entity>> results = 
+                new HashMap<List<String>,Collection<? extends Entity>>(searches.size());
+        ExecutorService executor = lookupExecutor;
+        if(searches.size() == 1 || executor == null){ //no need for parallel lookups
+            for(List<String> search : searches){
+                results.put(search, lookup(field, selectedFields, search, languages, limit, offset));
+            }
+            return results;
+        }
+        List<List<String>> searchList = new ArrayList<List<String>>(searches);
+        List<Future<Collection<? extends Entity>>> futures = 
+                new ArrayList<Future<Collection<? extends Entity>>>(searchList.size());
+        for(final List<String> search : searchList){
+            futures.add(executor.submit(new Callable<Collection<? extends Entity>>() {
+                @Override
+                public Collection<? extends Entity> call() throws EntitySearcherException {
+                    return lookup(field, selectedFields, search, languages, limit, offset);
+                }
+            }));
+        }
+        try {
+            for(int i = 0; i < searchList.size(); i++){
+                results.put(searchList.get(i), futures.get(i).get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EntitySearcherException("Interrupted while waiting for lookup results", e);
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof EntitySearcherException){
+                throw (EntitySearcherException)e.getCause();
+            } else if(e.getCause() instanceof RuntimeException){
+                throw (RuntimeException)e.getCause();
+            } else {
+                throw new EntitySearcherException("Exception while performing batched lookup", e.getCause());
+            }
+        } finally {
+            for(Future<?> future : futures){
+                future.cancel(true); //no-op for completed lookups
+            }
+        }
+        return results;
+    }
     @Override
     protected void finalize() throws Throwable {
         close();
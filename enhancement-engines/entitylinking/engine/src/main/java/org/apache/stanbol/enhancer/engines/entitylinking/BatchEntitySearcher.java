@@ -0,0 +1,62 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.engines.entitylinking;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.clerezza.commons.rdf.IRI;
+
+/**
+ * Extension of the {@link EntitySearcher} interface for implementations that
+ * can process the lookups for several lists of search tokens with a single
+ * call.<p>
+ * Callers holding an {@link EntitySearcher} need to check if the instance
+ * also implements this interface and fall back to
+ * {@link #lookup(IRI, Set, List, String[], Integer, Integer)} otherwise.
+ */
+public interface BatchEntitySearcher extends EntitySearcher {
+
+    /**
+     * Lookup Entities for several lists of search tokens with a single call.
+     * This allows implementations to resolve all lookups of a section of the
+     * text in a single request or by performing the requests in parallel.<p>
+     * The limit and offset are applied to each search token list.
+     * @param field the field used to search for values in the parsed languages
+     * @param selectedFields A set of fields that need to be included within the 
+     * returned {@link Representation}s.
+     * @param searches the lists with the tokens to search for. MUST NOT be
+     * <code>null</code> nor contain <code>null</code> or empty lists.
+     * @param languages the languages to include in the search 
+     * @param limit The maximum number of results per search token list or
+     * <code>null</code> to use the default
+     * @param offset The offset of the first requested search result
+     * @return the Entities found for the parsed search token lists. Keys are 
+     * the parsed lists. Lists without results are mapped to an empty collection.
+     * An empty map is returned if the parsed collection is empty.
+     * @throws EntitySearcherException An exception while searching for concepts
+     * @throws IllegalArgumentException if the parsed field is <code>null</code>;
+     * the collection with the search token lists is <code>null</code>;
+     * @see #lookup(IRI, Set, List, String[], Integer, Integer)
+     */
+    Map<List<String>,Collection<? extends Entity>> lookup(IRI field, Set<IRI> selectedFields, 
+        Collection<List<String>> searches, String[] languages, Integer limit, Integer offset) 
+                throws EntitySearcherException;
+
+}
@@ -32,6 +32,7 @@ import java.util.Set;
 import org.apache.clerezza.commons.rdf.IRI;
 import org.apache.stanbol.commons.namespaceprefix.NamespaceMappingUtils;
 import org.apache.stanbol.commons.namespaceprefix.NamespacePrefixService;
+import org.apache.stanbol.enhancer.engines.entitylinking.BatchEntitySearcher;
 import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcher;
 import org.apache.stanbol.enhancer.engines.entitylinking.impl.EntityLinker;
 import org.apache.stanbol.enhancer.engines.entitylinking.impl.Suggestion;
@@ -96,6 +97,28 @@ public class EntityLinkerConfig {
      * there might me more as {@link #SUGGESTIONS} results returned by the engine.
      */
     public static final String INCLUDE_SIMILAR_SCORE = "enhancer.engines.linking.includeSimilarScore";
+    /**
+     * If enabled the lookups for all tokens of a section are collected and
+     * resolved by a single batched 
+     * {@link BatchEntitySearcher#lookup(IRI, Set, java.util.Collection, String[], Integer, Integer)}
+     * call. Ignored if the {@link EntitySearcher} does not implement
+     * {@link BatchEntitySearcher}.
+     * @see #DEFAULT_BATCH_LOOKUPS
+     */
+    public static final String BATCH_LOOKUPS = "enhancer.engines.linking.batchLookups";
+    /**
+     * The maximum number of Entities kept in the lookup cache shared by all
+     * requests processed by an engine. Values <code>&lt;= 0</code> deactivate
+     * the cache.
+     * @see #DEFAULT_LOOKUP_CACHE_SIZE
+     */
+    public static final String LOOKUP_CACHE_SIZE = "enhancer.engines.linking.lookupCache.size";
+    /**
+     * The maximum time (in seconds) lookup results are kept in the cache.
+     * Values <code>&lt;= 0</code> deactivate time based expiration.
+     * @see #DEFAULT_LOOKUP_CACHE_TTL
+     */
+    public static final String LOOKUP_CACHE_TTL = "enhancer.engines.linking.lookupCache.ttl";
     /**
      * If enabled {@link MorphoFeatures#getLemma()} values are used instead of the {@link Token#getSpan()} to
      * search/match Entities within the Vocabulary linked against.
@@ -232,6 +255,18 @@ public class EntityLinkerConfig {
      * By default {@link #INCLUDE_SIMILAR_SCORE} is deactivated
      */
     public static final boolean DEFAULT_INCLUDE_SIMILAR_SCORE = false;
+    /**
+     * By default {@link #BATCH_LOOKUPS} are enabled
+     */
+    public static final boolean DEFAULT_BATCH_LOOKUPS = true;
+    /**
+     * The default size of the lookup cache is <code>10000</code> Entities
+     */
+    public static final int DEFAULT_LOOKUP_CACHE_SIZE = 10000;
+    /**
+     * By default lookup results are cached for one hour (<code>3600</code>sec)
+     */
+    public static final int DEFAULT_LOOKUP_CACHE_TTL = 3600;
     /**
      * Default value for the number of tokens that must be contained in
      * suggested terms. The default is <code>1</code>
@@ -377,6 +412,12 @@ public class EntityLinkerConfig {
     private int maxSuggestions = DEFAULT_SUGGESTIONS;
     
     private boolean includeSuggestionsWithSimilarScore = DEFAULT_INCLUDE_SIMILAR_SCORE;
+    
+    private boolean batchLookups = DEFAULT_BATCH_LOOKUPS;
+    
+    private int lookupCacheSize = DEFAULT_LOOKUP_CACHE_SIZE;
+    
+    private int lookupCacheTtl = DEFAULT_LOOKUP_CACHE_TTL;
     /**
      * The minimum number of Tokens in the text that must match with 
      * a label of the Entity so that also non-exact matches are
@@ -618,6 +659,35 @@ public class EntityLinkerConfig {
         } else if(value != null){
             linkerConfig.setIncludeSuggestionsWithSimilarScore(Boolean.parseBoolean(value.toString()));
         }
+        //init BATCH_LOOKUPS
+        value = configuration.get(BATCH_LOOKUPS);
+        if(value instanceof Boolean){
+            linkerConfig.setBatchLookups((Boolean)value);
+        } else if(value != null){
+            linkerConfig.setBatchLookups(Boolean.parseBoolean(value.toString()));
+        }
+        //init LOOKUP_CACHE_SIZE
+        value = configuration.get(LOOKUP_CACHE_SIZE);
+        if(value instanceof Number){
+            linkerConfig.setLookupCacheSize(((Number)value).intValue());
+        } else if(value != null && !value.toString().isEmpty()){
+            try {
+                linkerConfig.setLookupCacheSize(Integer.valueOf(value.toString()));
+            } catch(NumberFormatException e){
+                throw new ConfigurationException(LOOKUP_CACHE_SIZE, "Values MUST be valid Integer values",e);
+            }
+        }
+        //init LOOKUP_CACHE_TTL
+        value = configuration.get(LOOKUP_CACHE_TTL);
+        if(value instanceof Number){
+            linkerConfig.setLookupCacheTtl(((Number)value).intValue());
+        } else if(value != null && !value.toString().isEmpty()){
+            try {
+                linkerConfig.setLookupCacheTtl(Integer.valueOf(value.toString()));
+            } catch(NumberFormatException e){
+                throw new ConfigurationException(LOOKUP_CACHE_TTL, "Values MUST be valid Integer values",e);
+            }
+        }
         
         //init MIN_FOUND_TOKENS
         value = configuration.get(MIN_FOUND_TOKENS);
@@ -1101,6 +1171,62 @@ public class EntityLinkerConfig {
             includeSuggestionsWithSimilarScore = state;
         }
     }
+    /**
+     * If lookups for all tokens of a section are resolved by a single
+     * batched call to the {@link EntitySearcher}
+     * @return the state
+     * @see #BATCH_LOOKUPS
+     */
+    public boolean isBatchLookups(){
+        return batchLookups;
+    }
+    /**
+     * Setter for the batch lookup state
+     * @param state the state or <code>null</code> to reset to the default
+     * @see #BATCH_LOOKUPS
+     */
+    public void setBatchLookups(Boolean state){
+        if(state == null){
+            batchLookups = DEFAULT_BATCH_LOOKUPS;
+        } else {
+            batchLookups = state;
+        }
+    }
+    /**
+     * The maximum number of Entities kept in the lookup cache
+     * @return the size. Values <code>&lt;= 0</code> indicate that the cache is
+     * deactivated
+     * @see #LOOKUP_CACHE_SIZE
+     */
+    public int getLookupCacheSize() {
+        return lookupCacheSize;
+    }
+    /**
+     * Setter for the size of the lookup cache
+     * @param size the size, <code>null</code> to reset to the default or
+     * values <code>&lt;= 0</code> to deactivate the cache
+     * @see #LOOKUP_CACHE_SIZE
+     */
+    public void setLookupCacheSize(Integer size) {
+        lookupCacheSize = size == null ? DEFAULT_LOOKUP_CACHE_SIZE : size;
+    }
+    /**
+     * The time in seconds lookup results are kept in the cache
+     * @return the time to live in seconds. Values <code>&lt;= 0</code>
+     * indicate no time based expiration
+     * @see #LOOKUP_CACHE_TTL
+     */
+    public int getLookupCacheTtl() {
+        return lookupCacheTtl;
+    }
+    /**
+     * Setter for the time to live of cached lookup results
+     * @param ttl the time in seconds or <code>null</code> to reset to the default
+     * @see #LOOKUP_CACHE_TTL
+     */
+    public void setLookupCacheTtl(Integer ttl) {
+        lookupCacheTtl = ttl == null ? DEFAULT_LOOKUP_CACHE_TTL : ttl;
+    }
     
     /**
      * Setter for the minimum number of Tokens (of the content) that MUST match
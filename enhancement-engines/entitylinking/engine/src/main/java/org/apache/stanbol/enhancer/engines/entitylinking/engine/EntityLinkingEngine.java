@@ -56,9 +56,11 @@ import org.apache.stanbol.enhancer.engines.entitylinking.LabelTokenizer;
 import org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig;
 import org.apache.stanbol.enhancer.engines.entitylinking.config.LanguageProcessingConfig;
 import org.apache.stanbol.enhancer.engines.entitylinking.config.TextProcessingConfig;
+import org.apache.stanbol.enhancer.engines.entitylinking.impl.CachingEntitySearcher;
 import org.apache.stanbol.enhancer.engines.entitylinking.impl.EntityLinker;
 import org.apache.stanbol.enhancer.engines.entitylinking.impl.LinkedEntity;
 import org.apache.stanbol.enhancer.engines.entitylinking.impl.LinkedEntity.Occurrence;
+import org.apache.stanbol.enhancer.engines.entitylinking.impl.LookupCache;
 import org.apache.stanbol.enhancer.engines.entitylinking.impl.Suggestion;
 import org.apache.stanbol.enhancer.nlp.model.AnalysedText;
 import org.apache.stanbol.enhancer.servicesapi.ContentItem;
@@ -109,6 +111,12 @@ public class EntityLinkingEngine implements EnhancementEngine, ServiceProperties
      * The entitySearcher used for linking
      */
     protected final EntitySearcher entitySearcher;
+    /**
+     * The cache for lookup results shared over all processed {@link ContentItem}s
+     * or <code>null</code> if deactivated.
+     * @see EntityLinkerConfig#LOOKUP_CACHE_SIZE
+     */
+    private final LookupCache lookupCache;
     /**
      * configuration for entity linking
      */
@@ -185,9 +193,33 @@ public class EntityLinkingEngine implements EnhancementEngine, ServiceProperties
         this.name = name;
         this.linkerConfig = linkingConfig != null ? linkingConfig : new EntityLinkerConfig();
         this.textProcessingConfig = textProcessingConfig;
-        this.entitySearcher = entitySearcher;
+        if(entitySearcher != null && this.linkerConfig.getLookupCacheSize() > 0){
+            this.lookupCache = new LookupCache(this.linkerConfig.getLookupCacheSize(),
+                this.linkerConfig.getLookupCacheTtl() * 1000L);
+            this.entitySearcher = new CachingEntitySearcher(entitySearcher, name, lookupCache);
+        } else {
+            this.lookupCache = null;
+            this.entitySearcher = entitySearcher;
+        }
         this.labelTokenizer = labelTokenizer;
     }
+    /**
+     * Getter for the cache used for the results of Entity lookups
+     * @return the lookup cache or <code>null</code> if deactivated
+     * @see EntityLinkerConfig#LOOKUP_CACHE_SIZE
+     */
+    public final LookupCache getLookupCache() {
+        return lookupCache;
+    }
+    /**
+     * Invalidates the cached lookup results. Needs to be called if the
+     * Entities searched by the {@link EntitySearcher} have changed.
+     */
+    public final void invalidateLookupCache() {
+        if(lookupCache != null){
+            lookupCache.invalidate();
+        }
+    }
     /**
      * Getter for the {@link LabelTokenizer} used by this Engine
      * @return the labelTokenizer
@@ -268,6 +300,9 @@ public class EntityLinkingEngine implements EnhancementEngine, ServiceProperties
         }
         if(log.isInfoEnabled()){
             entityLinker.logStatistics(log);
+            if(lookupCache != null){
+                log.info(" - {}",lookupCache);
+            }
         }
         //write results (requires a write lock)
         ci.getLock().writeLock().lock();
@@ -0,0 +1,159 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.engines.entitylinking.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.clerezza.commons.rdf.RDFTerm;
+import org.apache.stanbol.enhancer.engines.entitylinking.BatchEntitySearcher;
+import org.apache.stanbol.enhancer.engines.entitylinking.Entity;
+import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcher;
+import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcherException;
+
+/**
+ * {@link EntitySearcher} wrapper that uses a {@link LookupCache} for the
+ * results of {@link #lookup(IRI, Set, List, String[], Integer, Integer)}
+ * requests. For batched lookups only search token lists not present in the
+ * cache are forwarded to the wrapped searcher. If the wrapped searcher is not
+ * a {@link BatchEntitySearcher} those are looked up one by one.<p>
+ * All other calls are directly forwarded to the wrapped {@link EntitySearcher}.
+ */
+public class CachingEntitySearcher implements BatchEntitySearcher {
+
+    private final EntitySearcher delegate;
+    private final String site;
+    private final LookupCache cache;
+    
+    /**
+     * Creates a caching entity searcher
+     * @param delegate the wrapped searcher
+     * @param site the name of the site searched by the delegate. Used as part
+     * of the cache keys so that a single cache can be used for several sites
+     * @param cache the cache
+     */
+    public CachingEntitySearcher(EntitySearcher delegate, String site, LookupCache cache) {
+        if(delegate == null){
+            throw new IllegalArgumentException("The parsed EntitySearcher MUST NOT be NULL!");
+        }
+        if(cache == null){
+            throw new IllegalArgumentException("The parsed LookupCache MUST NOT be NULL!");
+        }
+        this.delegate = delegate;
+        this.site = site;
+        this.cache = cache;
+    }
+    
+    public EntitySearcher getDelegate() {
+        return delegate;
+    }
+    
+    public LookupCache getCache() {
+        return cache;
+    }
+    
+    @Override
+    public Collection<? extends Entity> lookup(IRI field, Set<IRI> selectedFields, List<String> search,
+            String[] languages, Integer limit, Integer offset) throws EntitySearcherException {
+        LookupCache.Key key = new LookupCache.Key(site, field, selectedFields, search, 
+            languages, limit, offset);
+        Collection<? extends Entity> results = cache.get(key);
+        if(results == null){
+            long generation = cache.getGeneration();
+            results = delegate.lookup(field, selectedFields, search, languages, limit, offset);
+            if(results != null){
+                cache.put(key, results, generation);
+            }
+        }
+        return results;
+    }
+    
+    @Override
+    public Map<List<String>,Collection<? extends Entity>> lookup(IRI field, Set<IRI> selectedFields,
+            Collection<List<String>> searches, String[] languages, Integer limit, Integer offset) 
+                    throws EntitySearcherException {
+        Map<List<String>,Collection<? extends Entity>> results = 
+                new HashMap<List<String>,Collection<? extends Entity>>(searches.size());
+        Map<List<String>,LookupCache.Key> missing = new LinkedHashMap<List<String>,LookupCache.Key>();
+        for(List<String> search : searches){
+            LookupCache.Key key = new LookupCache.Key(site, field, selectedFields, search, 
+                languages, limit, offset);
+            Collection<? extends Entity> cached = cache.get(key);
+            if(cached != null){
+                results.put(search, cached);
+            } else {
+                missing.put(search, key);
+            }
+        }
+        if(!missing.isEmpty()){
+            long generation = cache.getGeneration();
+            Map<List<String>,Collection<? extends Entity>> found;
+            if(delegate instanceof BatchEntitySearcher){
+                found = ((BatchEntitySearcher)delegate).lookup(field, selectedFields, 
+                    new ArrayList<List<String>>(missing.keySet()), languages, limit, offset);
+            } else {
+                found = new HashMap<List<String>,Collection<? extends Entity>>(missing.size());
+                for(List<String> search : missing.keySet()){
+                    found.put(search, delegate.lookup(field, selectedFields, search, 
+                        languages, limit, offset));
+                }
+            }
+            if(found != null){
+                for(Entry<List<String>,Collection<? extends Entity>> entry : found.entrySet()){
+                    LookupCache.Key key = missing.get(entry.getKey());
+                    if(key != null && entry.getValue() != null){
+                        cache.put(key, entry.getValue(), generation);
+                    }
+                    results.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public Entity get(IRI id, Set<IRI> selectedFields, String... languages) throws EntitySearcherException {
+        return delegate.get(id, selectedFields, languages);
+    }
+
+    @Override
+    public boolean supportsOfflineMode() {
+        return delegate.supportsOfflineMode();
+    }
+
+    @Override
+    public Integer getLimit() {
+        return delegate.getLimit();
+    }
+
+    @Override
+    public Map<IRI,Collection<RDFTerm>> getOriginInformation() {
+        return delegate.getOriginInformation();
+    }
+    
+    @Override
+    public String toString() {
+        return "Caching" + delegate.toString();
+    }
+}
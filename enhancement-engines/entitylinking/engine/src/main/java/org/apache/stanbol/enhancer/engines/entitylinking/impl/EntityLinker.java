@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -37,6 +38,7 @@ import org.apache.clerezza.commons.rdf.IRI;
 import org.apache.clerezza.commons.rdf.Literal;
 import org.apache.clerezza.commons.rdf.impl.utils.TripleImpl;
 import org.apache.commons.lang.StringUtils;
+import org.apache.stanbol.enhancer.engines.entitylinking.BatchEntitySearcher;
 import org.apache.stanbol.enhancer.engines.entitylinking.Entity;
 import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcher;
 import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcherException;
@@ -97,6 +99,18 @@ public class EntityLinker {
     private long processingTime = -1;
 
     private Map<List<String>,List<Entity>> lookupCache;
+    /**
+     * The first page of the lookup results retrieved by
+     * {@link #prefetchLookups(List)} for the current section
+     */
+    private final Map<List<String>,Collection<? extends Entity>> prefetched = 
+            new HashMap<List<String>,Collection<? extends Entity>>();
+    /**
+     * The tokens of the section for that lookups where prefetched
+     */
+    private List<TokenData> prefetchedTokens;
+    private int numPrefetched = 0;
+    private int prefetchHits = 0;
 
 
     public EntityLinker(AnalysedText analysedText, String language,
@@ -161,104 +175,7 @@ public class EntityLinker {
                         token.isLinkable, token.isMatchable, token.inChunk != null ? 
                                 (token.inChunk.chunk + " "+ token.inChunk.chunk.getSpan()) : "none"});
             }
-            List<TokenData> searchStrings = new ArrayList<TokenData>(linkerConfig.getMaxSearchTokens());
-            getSearchString(token);
-            searchStrings.add(token);
-            //Determine the range we are allowed to search for tokens
-            final int minIncludeIndex;
-            final int maxIndcludeIndex;
-            int consumedIndex = state.getConsumedIndex();
-            //NOTE: testing has shown that using Chunks to restrict search for
-            //      additional matchable tokens does have an negative impact on
-            //      recall. Because of that this restriction is for now deactivated
-//            if(token.inChunk != null && !textProcessingConfig.isIgnoreChunks()){
-//                minIncludeIndex = token.inChunk.getStartTokenIndex();
-//                maxIndcludeIndex = token.inChunk.getEndTokenIndex();
-//                log.debug("  - restrict context to chunk[{}, {}]",
-//                    minIncludeIndex, maxIndcludeIndex);
-//            } else {
-                maxIndcludeIndex = state.getTokens().size() - 1;
-                minIncludeIndex = 0;
-//            }
-            int prevIndex = token.index;
-            int pastIndex = token.index;
-            int pastNonMatchable = 0;
-            int prevNonMatchable = 0;
-            int distance = 0;
-            do { 
-                distance++;//keep track of the distance
-                //get the past token at the given distance (However ignore
-                //non AlphaNumeric tokens when calculating the distance)
-                pastIndex++;
-                TokenData pastToken = null;
-                while(pastToken == null && maxIndcludeIndex >= pastIndex &&
-                        pastNonMatchable <= 1){
-                    TokenData td = state.getTokens().get(pastIndex);
-                    if(td.hasAlphaNumeric){
-                        pastToken = td;
-                    } else {
-                        pastIndex++;
-                    }
-                }
-                //get the previous token at the given distance (However ignore
-                //non AlphaNumeric tokens when calculating the distance)
-                prevIndex--;
-                TokenData prevToken = null;
-                while(prevToken == null && minIncludeIndex <= prevIndex &&
-                        //allow one nonMatchable token if prevIndex > the last
-                        //consumed one and zero nonMatchable if prevIndex is <=
-                        //the last consumed one
-                        ((prevIndex > consumedIndex && prevNonMatchable <= 1) ||
-                                prevIndex <= consumedIndex && prevNonMatchable < 1)){
-                    TokenData td = state.getTokens().get(prevIndex);
-                    if(td.hasAlphaNumeric){
-                        prevToken = td;
-                    } else {
-                        prevIndex--;
-                    }
-                }
-                //now that we know the tokens at this distance check if they are matchable
-                //Fist the past token
-                if(pastToken != null){
-                    if(log.isDebugEnabled()){
-                        log.debug("    {} {}:'{}' (lemma: {}) linkable={}, matchable={}",new Object[]{
-                                pastToken.isMatchable? '+':'-',pastToken.index,
-                                pastToken.getTokenText(), pastToken.getTokenLemma(),
-                                pastToken.isLinkable, pastToken.isMatchable
-                        });
-                    }
-                    if(pastToken.isMatchable){
-                        searchStrings.add(pastToken);
-                    } else {
-                        pastNonMatchable++;
-                    }
-                }
-                //Second in the previous token
-                if(prevToken != null){
-                    if(log.isDebugEnabled()){
-                        log.debug("    {} {}:'{}' (lemma: {}) linkable={}, matchable={}",new Object[]{
-                            prevToken.isMatchable? '+':'-',prevToken.index,
-                            prevToken.getTokenText(), prevToken.getTokenLemma(),
-                            prevToken.isLinkable, prevToken.isMatchable
-                        });
-                    }
-                    if(prevToken.isMatchable){
-                        getSearchString(prevToken);
-                        searchStrings.add(0,prevToken);
-                    } else {
-                        prevNonMatchable++;
-                    }
-                }
-            } while(searchStrings.size() < linkerConfig.getMaxSearchTokens() && distance <
-                    linkerConfig.getMaxSearchDistance() &&
-                    (prevIndex > minIncludeIndex || pastIndex < maxIndcludeIndex) &&
-                    (prevNonMatchable <= 1 || pastNonMatchable <= 1));
-            //we might have an additional element in the list
-            if(searchStrings.size() > linkerConfig.getMaxSearchTokens()){
-                searchStrings = searchStrings.subList( //the last part of the list
-                    searchStrings.size()-linkerConfig.getMaxSearchTokens(), 
-                    searchStrings.size());
-            }
+            List<TokenData> searchStrings = getSearchTokens(token, state.getConsumedIndex());
             if(log.isDebugEnabled()){
                 List<String> list = new ArrayList<String>(searchStrings.size());
                 for(TokenData dt : searchStrings){
@@ -406,6 +323,115 @@ public class EntityLinker {
         }
         this.processingTime = System.currentTimeMillis()-startTime;
     }
+    /**
+     * Collects the Tokens used to search Entities for the parsed token. This
+     * includes the parsed token and matchable tokens before and after it
+     * (see {@link EntityLinkerConfig#getMaxSearchTokens()} and
+     * {@link EntityLinkerConfig#getMaxSearchDistance()}).
+     * @param token the token
+     * @param consumedIndex the index of the last consumed token
+     * @return the tokens to search for
+     */
+    private List<TokenData> getSearchTokens(TokenData token, int consumedIndex) {
+        List<TokenData> searchStrings = new ArrayList<TokenData>(linkerConfig.getMaxSearchTokens());
+        getSearchString(token);
+        searchStrings.add(token);
+        //Determine the range we are allowed to search for tokens
+        final int minIncludeIndex;
+        final int maxIndcludeIndex;
+        //NOTE: testing has shown that using Chunks to restrict search for
+        //      additional matchable tokens does have an negative impact on
+        //      recall. Because of that this restriction is for now deactivated
+//            if(token.inChunk != null && !textProcessingConfig.isIgnoreChunks()){
+//                minIncludeIndex = token.inChunk.getStartTokenIndex();
+//                maxIndcludeIndex = token.inChunk.getEndTokenIndex();
+//                log.debug("  - restrict context to chunk[{}, {}]",
+//                    minIncludeIndex, maxIndcludeIndex);
+//            } else {
+            maxIndcludeIndex = state.getTokens().size() - 1;
+            minIncludeIndex = 0;
+//            }
+        int prevIndex = token.index;
+        int pastIndex = token.index;
+        int pastNonMatchable = 0;
+        int prevNonMatchable = 0;
+        int distance = 0;
+        do { 
+            distance++;//keep track of the distance
+            //get the past token at the given distance (However ignore
+            //non AlphaNumeric tokens when calculating the distance)
+            pastIndex++;
+            TokenData pastToken = null;
+            while(pastToken == null && maxIndcludeIndex >= pastIndex &&
+                    pastNonMatchable <= 1){
+                TokenData td = state.getTokens().get(pastIndex);
+                if(td.hasAlphaNumeric){
+                    pastToken = td;
+                } else {
+                    pastIndex++;
+                }
+            }
+            //get the previous token at the given distance (However ignore
+            //non AlphaNumeric tokens when calculating the distance)
+            prevIndex--;
+            TokenData prevToken = null;
+            while(prevToken == null && minIncludeIndex <= prevIndex &&
+                    //allow one nonMatchable token if prevIndex > the last
+                    //consumed one and zero nonMatchable if prevIndex is <=
+                    //the last consumed one
+                    ((prevIndex > consumedIndex && prevNonMatchable <= 1) ||
+                            prevIndex <= consumedIndex && prevNonMatchable < 1)){
+                TokenData td = state.getTokens().get(prevIndex);
+                if(td.hasAlphaNumeric){
+                    prevToken = td;
+                } else {
+                    prevIndex--;
+                }
+            }
+            //now that we know the tokens at this distance check if they are matchable
+            //Fist the past token
+            if(pastToken != null){
+                if(log.isDebugEnabled()){
+                    log.debug("    {} {}:'{}' (lemma: {}) linkable={}, matchable={}",new Object[]{
+                            pastToken.isMatchable? '+':'-',pastToken.index,
+                            pastToken.getTokenText(), pastToken.getTokenLemma(),
+                            pastToken.isLinkable, pastToken.isMatchable
+                    });
+                }
+                if(pastToken.isMatchable){
+                    searchStrings.add(pastToken);
+                } else {
+                    pastNonMatchable++;
+                }
+            }
+            //Second in the previous token
+            if(prevToken != null){
+                if(log.isDebugEnabled()){
+                    log.debug("    {} {}:'{}' (lemma: {}) linkable={}, matchable={}",new Object[]{
+                        prevToken.isMatchable? '+':'-',prevToken.index,
+                        prevToken.getTokenText(), prevToken.getTokenLemma(),
+                        prevToken.isLinkable, prevToken.isMatchable
+                    });
+                }
+                if(prevToken.isMatchable){
+                    getSearchString(prevToken);
+                    searchStrings.add(0,prevToken);
+                } else {
+                    prevNonMatchable++;
+                }
+            }
+        } while(searchStrings.size() < linkerConfig.getMaxSearchTokens() && distance <
+                linkerConfig.getMaxSearchDistance() &&
+                (prevIndex > minIncludeIndex || pastIndex < maxIndcludeIndex) &&
+                (prevNonMatchable <= 1 || pastNonMatchable <= 1));
+        //we might have an additional element in the list
+        if(searchStrings.size() > linkerConfig.getMaxSearchTokens()){
+            searchStrings = searchStrings.subList( //the last part of the list
+                searchStrings.size()-linkerConfig.getMaxSearchTokens(), 
+                searchStrings.size());
+        }
+        return searchStrings;
+    }
     /**
      * @param suggestions
      */
@@ -587,18 +613,8 @@ public class EntityLinker {
      * @throws EntitySearcherException 
      */
     private List<Suggestion> lookupEntities(List<TokenData> searchTokens) throws EntitySearcherException {
-        Set<String> languages = new HashSet<String>();
-        languages.add(linkerConfig.getDefaultLanguage());
-        languages.add(state.getLanguage());
-        int countryCodeIndex = state.getLanguage() == null ? -1 : state.getLanguage().indexOf('-');
-        if(countryCodeIndex >= 2){
-            languages.add(state.getLanguage().substring(0,countryCodeIndex));
-        }
-        List<String> searchStrings = new ArrayList<String>(searchTokens.size());
-        for(Iterator<TokenData> it = searchTokens.iterator();it.hasNext();){
-            searchStrings.add(getSearchString(it.next()));
-        }
-        String[] languageArray = languages.toArray(new String[languages.size()]);
+        List<String> searchStrings = getSearchStrings(searchTokens);
+        String[] languageArray = getLanguages();
         List<Suggestion> suggestions = new ArrayList<Suggestion>();
         //check if we have the search strings in the cache
         List<Entity> results = lookupCache.get(searchStrings);
@@ -609,6 +625,10 @@ public class EntityLinker {
                 processLookupResult(searchTokens, result, suggestions);
             }
         } else { // we need to perform a new query
+            if(linkerConfig.isBatchLookups() && entitySearcher instanceof BatchEntitySearcher
+                    && !prefetched.containsKey(searchStrings)){
+                prefetchLookups(searchTokens);
+            }
             results = new ArrayList<Entity>();
             //perform the lookup with the parsed parameter
             int numResults = performLookup(searchStrings, languageArray, suggestions, searchTokens, results);
@@ -645,6 +665,110 @@ public class EntityLinker {
         }
         return suggestions;
     }
+    /**
+     * Getter for the languages used for lookups
+     * @return the languages
+     */
+    private String[] getLanguages() {
+        Set<String> languages = new HashSet<String>();
+        languages.add(linkerConfig.getDefaultLanguage());
+        languages.add(state.getLanguage());
+        int countryCodeIndex = state.getLanguage() == null ? -1 : state.getLanguage().indexOf('-');
+        if(countryCodeIndex >= 2){
+            languages.add(state.getLanguage().substring(0,countryCodeIndex));
+        }
+        return languages.toArray(new String[languages.size()]);
+    }
+    /**
+     * Converts the parsed search tokens to the search strings
+     * @param searchTokens the search tokens
+     * @return the search strings
+     */
+    private List<String> getSearchStrings(List<TokenData> searchTokens) {
+        List<String> searchStrings = new ArrayList<String>(searchTokens.size());
+        for(Iterator<TokenData> it = searchTokens.iterator();it.hasNext();){
+            searchStrings.add(getSearchString(it.next()));
+        }
+        return searchStrings;
+    }
+    /**
+     * The number of Entities requested by a lookup
+     * @param numSearchTokens the number of search tokens
+     * @return the limit
+     */
+    private int getLookupLimit(int numSearchTokens){
+        return Math.max(MIN_SEARCH_LIMIT, linkerConfig.getMaxSuggestions()*2*numSearchTokens);
+    }
+    /**
+     * Retrieves the first page of results for the parsed search tokens of the
+     * current token together with those of following linkable tokens of the
+     * current section by a single call to
+     * {@link BatchEntitySearcher#lookup(IRI, Set, Collection, String[], Integer, Integer)}.
+     * Only called if the {@link #entitySearcher} is a {@link BatchEntitySearcher}.
+     * Results are consumed by 
+     * {@link #performLookup(List, String[], List, List, List)}.<p>
+     * To avoid lookups that are never used only tokens outside of the search
+     * window of all linkable tokens in between are included, as those tokens
+     * can not be consumed by a match of an earlier token. Tokens within such
+     * a window trigger an other batch if they are not consumed. Only tokens
+     * with the same number of search tokens are included, as this number
+     * defines the lookup limit. So every batch replaces the single lookup for
+     * the current token and never requires more round trips.<p>
+     * Search strings are calculated based on the current consumed index. If
+     * tokens are consumed while processing the section the search strings of
+     * some tokens might differ. Those are looked up as before.
+     * @param searchTokens the search tokens of the current token
+     * @throws EntitySearcherException
+     */
+    private void prefetchLookups(List<TokenData> searchTokens) throws EntitySearcherException {
+        if(state.getTokens() != prefetchedTokens){
+            prefetched.clear(); //results of the previous section are no longer needed
+            prefetchedTokens = state.getTokens();
+        }
+        int consumedIndex = state.getConsumedIndex();
+        int numSearchTokens = searchTokens.size();
+        Set<List<String>> searches = new LinkedHashSet<List<String>>();
+        searches.add(getSearchStrings(searchTokens));
+        int coveredIndex = getMaxIndex(searchTokens);
+        List<TokenData> tokens = state.getTokens();
+        for(int i = state.getToken().index + 1; i < tokens.size(); i++){
+            TokenData token = tokens.get(i);
+            if(token.isLinkable){
+                List<TokenData> tokenSearch = getSearchTokens(token, consumedIndex);
+                if(token.index > coveredIndex && tokenSearch.size() == numSearchTokens){
+                    List<String> searchStrings = getSearchStrings(tokenSearch);
+                    if(!lookupCache.containsKey(searchStrings) && !prefetched.containsKey(searchStrings)){
+                        searches.add(searchStrings);
+                    }
+                }
+                coveredIndex = Math.max(coveredIndex, getMaxIndex(tokenSearch));
+            }
+        }
+        if(searches.size() < 2){ //no need for a batched lookup
+            return;
+        }
+        log.debug("   > prefetch {} lookups with {} search tokens",
+            searches.size(), numSearchTokens);
+        lookupStats.begin(); //keep statistics
+        Map<List<String>,Collection<? extends Entity>> results = ((BatchEntitySearcher)entitySearcher).lookup(
+            linkerConfig.getNameField(), linkerConfig.getSelectedFields(), 
+            searches, getLanguages(), getLookupLimit(numSearchTokens), 0);
+        lookupStats.complete();
+        prefetched.putAll(results);
+        numPrefetched = numPrefetched + searches.size();
+    }
+    /**
+     * The maximum {@link TokenData#index} of the parsed tokens
+     * @param tokens the tokens
+     * @return the maximum index
+     */
+    private static int getMaxIndex(List<TokenData> tokens){
+        int max = -1;
+        for(TokenData token : tokens){
+            max = Math.max(max, token.index);
+        }
+        return max;
+    }
     /**
      * @param searchStrings
      * @param languageArray
@@ -661,7 +785,7 @@ public class EntityLinker {
             List<Suggestion> suggestions, List<TokenData> searchTokens, 
             List<Entity> queryResults) throws EntitySearcherException {
         int minProcessedResults = linkerConfig.getMaxSuggestions()*3;
-        int lookupLimit = Math.max(MIN_SEARCH_LIMIT, linkerConfig.getMaxSuggestions()*2*searchTokens.size());
+        int lookupLimit = getLookupLimit(searchTokens.size());
         int maxResults = lookupLimit*2;
         int offset = 0;
         int numFiltered = 0;
@@ -680,13 +804,19 @@ public class EntityLinker {
         while(suggestions.size() < linkerConfig.getMaxSuggestions() &&
                 moreResultsAvailable && (numResults-numFiltered) < (minProcessedResults) &&
                 numResults < maxResults){
-            Collection<? extends Entity> results;
-            log.debug("   > request entities [{}-{}] entities ...",offset,(offset+lookupLimit));
-            lookupStats.begin(); //keep statistics
-            results = entitySearcher.lookup(linkerConfig.getNameField(),
-                linkerConfig.getSelectedFields(), searchStrings, languageArray,
-                lookupLimit, offset);
-            lookupStats.complete();
+            Collection<? extends Entity> results = offset == 0 ? 
+                    prefetched.remove(searchStrings) : null;
+            if(results != null){
+                log.debug("   > use prefetched entities [0-{}] ...",lookupLimit);
+                prefetchHits++;
+            } else {
+                log.debug("   > request entities [{}-{}] entities ...",offset,(offset+lookupLimit));
+                lookupStats.begin(); //keep statistics
+                results = entitySearcher.lookup(linkerConfig.getNameField(),
+                    linkerConfig.getSelectedFields(), searchStrings, languageArray,
+                    lookupLimit, offset);
+                lookupStats.complete();
+            }
             log.debug("      < found {} entities ...",results.size());
             //queries might return more as the requested results
             moreResultsAvailable = results.size() >= lookupLimit;
@@ -1292,6 +1422,9 @@ public class EntityLinker {
         float cacheHitPercentage = lookupStats.count > 0 ? //avoid division by zero
                 cacheHits*100f/(float)lookupStats.count : Float.NaN;
         log.info("    - cache hits: {} ({}%)",cacheHits,cacheHitPercentage);
+        if(numPrefetched > 0){
+            log.info("    - prefetched: {} lookups ({} used)",numPrefetched, prefetchHits);
+        }
         log.info("      - {} query results ({} filtered - {}%)",
             new Object[]{numQueryResults,numFilteredResults, 
                 numFilteredResults*100f/(float)numQueryResults});
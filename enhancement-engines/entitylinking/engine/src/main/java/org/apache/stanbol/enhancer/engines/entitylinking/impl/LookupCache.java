@@ -0,0 +1,349 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.engines.entitylinking.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.stanbol.enhancer.engines.entitylinking.Entity;
+import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcher;
+
+/**
+ * Bounded cache for the results of {@link EntitySearcher} lookups that is
+ * shared over the processing of several documents.<p>
+ * The cache is split into segments that are locked independently. Each
+ * segment is an LRU map with a budget of <code>maxWeight / segments</code>.
+ * The weight of an entry is the number of {@link Entity Entities} it holds
+ * (at least <code>1</code>). Entries older than the configured max age
+ * are not returned.<p>
+ * {@link #invalidate()} clears the cache and also prevents results of
+ * lookups started before the invalidation from being added (see
+ * {@link #getGeneration()}).
+ */
+public class LookupCache {
+
+    private static final int SEGMENTS = 16;
+    
+    private final Segment[] segments;
+    
+    private final long maxWeight;
+    
+    private final long maxAge;
+
+    private final AtomicLong generation = new AtomicLong();
+    
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    
+    /**
+     * Creates a lookup cache
+     * @param maxWeight the maximum number of entities held by the cache
+     * @param maxAge the maximum age of cached results in milliseconds. Values
+     * <code>&lt;= 0</code> deactivate time based expiration
+     */
+    public LookupCache(long maxWeight, long maxAge) {
+        if(maxWeight < 1){
+            throw new IllegalArgumentException("The parsed maximum weight MUST BE > 0");
+        }
+        this.maxWeight = maxWeight;
+        this.maxAge = maxAge;
+        this.segments = new Segment[SEGMENTS];
+        long segmentWeight = Math.max(1, maxWeight / SEGMENTS);
+        for(int i = 0; i < SEGMENTS; i++){
+            segments[i] = new Segment(segmentWeight);
+        }
+    }
+    
+    private Segment getSegment(Key key){
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & (SEGMENTS - 1)];
+    }
+    /**
+     * Getter for the cached results
+     * @param key the key
+     * @return the results or <code>null</code> if not cached
+     */
+    public Collection<? extends Entity> get(Key key){
+        CacheEntry entry = getSegment(key).get(key);
+        if(entry != null && maxAge > 0 && 
+                System.currentTimeMillis() - entry.created > maxAge){
+            getSegment(key).remove(key, entry);
+            entry = null;
+        }
+        if(entry == null){
+            misses.incrementAndGet();
+            return null;
+        } else {
+            hits.incrementAndGet();
+            return entry.results;
+        }
+    }
+    /**
+     * Adds the results for the parsed key. Results are only added if the
+     * parsed generation is the current one.
+     * @param key the key
+     * @param results the results of the lookup
+     * @param generation the {@link #getGeneration()} before the lookup was
+     * started.
+     */
+    public void put(Key key, Collection<? extends Entity> results, long generation){
+        if(generation != this.generation.get()){
+            return; //the cache was invalidated while performing the lookup
+        }
+        List<Entity> copy = Collections.unmodifiableList(new ArrayList<Entity>(results));
+        getSegment(key).put(key, new CacheEntry(copy), generation);
+    }
+    /**
+     * The current generation. Needs to be retrieved before a lookup and
+     * parsed to {@link #put(Key, Collection, long)} with the results.
+     * @return the generation
+     */
+    public long getGeneration(){
+        return generation.get();
+    }
+    /**
+     * Removes all cached results (e.g. because the data of the linked
+     * vocabulary have changed).
+     */
+    public void invalidate(){
+        //NOTE: the generation MUST BE increased before the segments are
+        //      cleared (see Segment#put(..))
+        generation.incrementAndGet();
+        invalidations.incrementAndGet();
+        for(Segment segment : segments){
+            segment.clear();
+        }
+    }
+    
+    public long getHitCount() {
+        return hits.get();
+    }
+    
+    public long getMissCount() {
+        return misses.get();
+    }
+    
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+    
+    public long getInvalidationCount() {
+        return invalidations.get();
+    }
+    /**
+     * The ratio of lookups answered from the cache
+     * @return the hit ratio [0..1] or {@link Double#NaN} if no lookups
+     * where made
+     */
+    public double getHitRatio(){
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? Double.NaN : h / (double)total;
+    }
+    /**
+     * The number of cached lookups
+     * @return the size
+     */
+    public int size(){
+        int size = 0;
+        for(Segment segment : segments){
+            size = size + segment.size();
+        }
+        return size;
+    }
+    /**
+     * The number of cached entities
+     * @return the weight
+     */
+    public long getWeight(){
+        long weight = 0;
+        for(Segment segment : segments){
+            weight = weight + segment.getWeight();
+        }
+        return weight;
+    }
+    
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("LookupCache[size: %d | weight: %d/%d | hits: %d | misses: %d "
+            + "(ratio: %.1f%%) | evictions: %d | invalidations: %d]", size(), getWeight(), maxWeight, 
+            hits.get(), misses.get(), getHitRatio()*100, evictions.get(), invalidations.get());
+    }
+    
+    private static final class CacheEntry {
+        
+        final Collection<? extends Entity> results;
+        final int weight;
+        final long created;
+        
+        CacheEntry(Collection<? extends Entity> results){
+            this.results = results;
+            this.weight = Math.max(1, results.size());
+            this.created = System.currentTimeMillis();
+        }
+    }
+    
+    /**
+     * A LRU segment of the cache
+     */
+    private final class Segment {
+        
+        private final LinkedHashMap<Key,CacheEntry> map = new LinkedHashMap<Key,CacheEntry>(64, 0.75f, true);
+        private final long maxSegmentWeight;
+        private long weight;
+        
+        Segment(long maxWeight){
+            this.maxSegmentWeight = maxWeight;
+        }
+        
+        synchronized CacheEntry get(Key key){
+            return map.get(key);
+        }
+        
+        /**
+         * Adds the entry if the parsed generation is still the current one.
+         * The generation is checked while holding the lock of this segment.
+         * As {@link LookupCache#invalidate()} increases the generation
+         * before it clears the segments, an entry is either rejected or
+         * added before the segment is cleared.
+         */
+        synchronized void put(Key key, CacheEntry entry, long generation){
+            if(generation != LookupCache.this.generation.get()){
+                return; //invalidated after the check in LookupCache#put(..)
+            }
+            CacheEntry old = map.put(key, entry);
+            weight = weight + entry.weight;
+            if(old != null){
+                weight = weight - old.weight;
+            }
+            Iterator<CacheEntry> it = map.values().iterator();
+            while(weight > maxSegmentWeight && it.hasNext()){
+                CacheEntry eldest = it.next();
+                if(eldest == entry){ //keep the added entry
+                    continue;
+                }
+                weight = weight - eldest.weight;
+                it.remove();
+                evictions.incrementAndGet();
+            }
+        }
+        
+        synchronized void remove(Key key, CacheEntry entry){
+            if(map.get(key) == entry){
+                map.remove(key);
+                weight = weight - entry.weight;
+            }
+        }
+        
+        synchronized void clear(){
+            map.clear();
+            weight = 0;
+        }
+        
+        synchronized int size(){
+            return map.size();
+        }
+        
+        synchronized long getWeight(){
+            return weight;
+        }
+    }
+    
+    /**
+     * The key of a lookup. Consists of the site, the field, the selected
+     * fields, the search strings, the languages, the limit and the offset.
+     */
+    public static final class Key {
+        
+        private final String site;
+        private final IRI field;
+        private final Set<IRI> selectedFields;
+        private final List<String> search;
+        private final Set<String> languages;
+        private final Integer limit;
+        private final Integer offset;
+        private final int hash;
+        
+        public Key(String site, IRI field, Set<IRI> selectedFields, List<String> search, 
+                String[] languages, Integer limit, Integer offset) {
+            this.site = site;
+            this.field = field;
+            this.selectedFields = selectedFields == null ? Collections.<IRI>emptySet() :
+                Collections.unmodifiableSet(new HashSet<IRI>(selectedFields));
+            this.search = Collections.unmodifiableList(new ArrayList<String>(search));
+            Set<String> langs = new TreeSet<String>();
+            if(languages != null){
+                for(String lang : languages){
+                    //null is used for labels without language
+                    langs.add(lang == null ? "" : lang);
+                }
+            }
+            this.languages = Collections.unmodifiableSet(langs);
+            this.limit = limit;
+            this.offset = offset != null && offset.intValue() <= 0 ? null : offset;
+            this.hash = Arrays.hashCode(new Object[]{site, field, this.selectedFields,
+                    this.search, this.languages, limit, this.offset});
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if(obj == this){
+                return true;
+            }
+            if(!(obj instanceof Key)){
+                return false;
+            }
+            Key o = (Key)obj;
+            return hash == o.hash && eq(site, o.site) && eq(field, o.field) && 
+                    selectedFields.equals(o.selectedFields) && search.equals(o.search) &&
+                    languages.equals(o.languages) && eq(limit, o.limit) && eq(offset, o.offset);
+        }
+        
+        private static boolean eq(Object a, Object b){
+            return a == null ? b == null : a.equals(b);
+        }
+        
+        @Override
+        public String toString() {
+            return "Key[site=" + site + ", field=" + field + ", search=" + search
+                    + ", languages=" + languages + ", limit=" + limit + ", offset=" + offset + "]";
+        }
+    }
+}
@@ -34,11 +34,13 @@ import static org.junit.Assert.assertTrue;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.clerezza.commons.rdf.Literal;
 import org.apache.clerezza.rdf.core.LiteralFactory;
@@ -51,6 +53,8 @@ import org.apache.clerezza.commons.rdf.impl.utils.TripleImpl;
 import org.apache.stanbol.commons.indexedgraph.IndexedGraph;
 import org.apache.stanbol.enhancer.contentitem.inmemory.InMemoryContentItemFactory;
 import org.apache.stanbol.enhancer.engines.entitylinking.Entity;
+import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcher;
+import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcherException;
 import org.apache.stanbol.enhancer.engines.entitylinking.LabelTokenizer;
 import org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig;
 import org.apache.stanbol.enhancer.engines.entitylinking.config.LanguageProcessingConfig;
@@ -59,6 +63,7 @@ import org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConf
 import org.apache.stanbol.enhancer.engines.entitylinking.impl.EntityLinker;
 import org.apache.stanbol.enhancer.engines.entitylinking.impl.LinkedEntity;
 import org.apache.stanbol.enhancer.engines.entitylinking.impl.Suggestion;
+import org.apache.stanbol.enhancer.engines.entitylinking.impl.LookupCache;
 import org.apache.stanbol.enhancer.engines.entitylinking.impl.TestSearcherImpl;
 import org.apache.stanbol.enhancer.engines.entitylinking.labeltokenizer.SimpleLabelTokenizer;
 import org.apache.stanbol.enhancer.nlp.model.AnalysedText;
@@ -342,6 +347,126 @@ public class EntityLinkingEngineTest {
                 Arrays.asList("urn:test:UniversityOfOtago","urn:test:UniversityOfOtago_Texas")));
         validateEntityLinkerResults(linker, expectedResults);
     }
+    /**
+     * Tests that batched lookups do not change the linking results and that
+     * they reduce the number of requests without increasing the number of
+     * lookups
+     * @throws Exception
+     */
+    @Test
+    public void testEntityLinkerBatchedLookups() throws Exception {
+        LanguageProcessingConfig tpc = new LanguageProcessingConfig();
+        tpc.setLinkedLexicalCategories(LanguageProcessingConfig.DEFAULT_LINKED_LEXICAL_CATEGORIES);
+        tpc.setLinkedPos(Collections.EMPTY_SET);
+        Map<String,LinkedEntity> expected = null;
+        int expectedLookups = -1;
+        int expectedRoundTrips = -1;
+        for(boolean batched : new boolean[]{false, true}){
+            EntityLinkerConfig config = new EntityLinkerConfig();
+            config.setMinFoundTokens(2);//this is assumed by this test
+            config.setRedirectProcessingMode(RedirectProcessingMode.FOLLOW);
+            config.setBatchLookups(batched);
+            searcher.resetStatistics();
+            EntityLinker linker = new EntityLinker(TEST_ANALYSED_TEXT,"en",
+                tpc, searcher, config, labelTokenizer);
+            linker.process();
+            log.info(" - batched: {} | lookups: {} | requests: {} (batched: {})", new Object[]{
+                    batched, searcher.getNumLookups(), searcher.getNumRoundTrips(), 
+                    searcher.getNumBatchedLookups()});
+            if(batched){
+                assertTrue(searcher.getNumBatchedLookups() > 0);
+                assertTrue(searcher.getNumRoundTrips() < expectedRoundTrips);
+                assertTrue(searcher.getNumLookups() <= expectedLookups);
+                assertEquals(expected.keySet(), linker.getLinkedEntities().keySet());
+                for(LinkedEntity linkedEntity : linker.getLinkedEntities().values()){
+                    List<Suggestion> expectedSuggestions = expected.get(
+                        linkedEntity.getSelectedText()).getSuggestions();
+                    assertEquals(expectedSuggestions.size(), linkedEntity.getSuggestions().size());
+                    for(int i=0; i < expectedSuggestions.size(); i++){
+                        assertEquals(expectedSuggestions.get(i).getEntity().getId(), 
+                            linkedEntity.getSuggestions().get(i).getEntity().getId());
+                        assertEquals(expectedSuggestions.get(i).getScore(), 
+                            linkedEntity.getSuggestions().get(i).getScore(), 0.0d);
+                    }
+                }
+            } else {
+                assertEquals(0, searcher.getNumBatchedLookups());
+                expected = linker.getLinkedEntities();
+                expectedLookups = searcher.getNumLookups();
+                expectedRoundTrips = searcher.getNumRoundTrips();
+            }
+        }
+    }
+    /**
+     * Tests that the {@link EntityLinker} falls back to single lookups if
+     * batched lookups are enabled but the {@link EntitySearcher} does not
+     * implement {@link org.apache.stanbol.enhancer.engines.entitylinking.BatchEntitySearcher}
+     * @throws Exception
+     */
+    @Test
+    public void testEntityLinkerBatchedLookupsFallback() throws Exception {
+        LanguageProcessingConfig tpc = new LanguageProcessingConfig();
+        tpc.setLinkedLexicalCategories(LanguageProcessingConfig.DEFAULT_LINKED_LEXICAL_CATEGORIES);
+        tpc.setLinkedPos(Collections.EMPTY_SET);
+        EntityLinkerConfig config = new EntityLinkerConfig();
+        config.setMinFoundTokens(2);//this is assumed by this test
+        config.setRedirectProcessingMode(RedirectProcessingMode.FOLLOW);
+        config.setBatchLookups(false);
+        searcher.resetStatistics();
+        EntityLinker linker = new EntityLinker(TEST_ANALYSED_TEXT,"en",
+            tpc, searcher, config, labelTokenizer);
+        linker.process();
+        Map<String,LinkedEntity> expected = linker.getLinkedEntities();
+        int expectedLookups = searcher.getNumLookups();
+        //now with batched lookups and a searcher that does not support them
+        config.setBatchLookups(true);
+        searcher.resetStatistics();
+        linker = new EntityLinker(TEST_ANALYSED_TEXT,"en",
+            tpc, new SingleLookupSearcher(searcher), config, labelTokenizer);
+        linker.process();
+        assertEquals(0, searcher.getNumBatchedLookups());
+        assertEquals(expectedLookups, searcher.getNumLookups());
+        assertEquals(expected.keySet(), linker.getLinkedEntities().keySet());
+    }
+    /**
+     * {@link EntitySearcher} that only supports single lookups
+     */
+    private static class SingleLookupSearcher implements EntitySearcher {
+        
+        private final EntitySearcher delegate;
+
+        SingleLookupSearcher(EntitySearcher delegate){
+            this.delegate = delegate;
+        }
+        
+        @Override
+        public Collection<? extends Entity> lookup(IRI field, Set<IRI> selectedFields, 
+                List<String> search, String[] languages, Integer limit, Integer offset) 
+                        throws EntitySearcherException {
+            return delegate.lookup(field, selectedFields, search, languages, limit, offset);
+        }
+        
+        @Override
+        public Entity get(IRI id, Set<IRI> selectedFields, String... languages) 
+                throws EntitySearcherException {
+            return delegate.get(id, selectedFields, languages);
+        }
+        
+        @Override
+        public boolean supportsOfflineMode() {
+            return delegate.supportsOfflineMode();
+        }
+        
+        @Override
+        public Integer getLimit() {
+            return delegate.getLimit();
+        }
+        
+        @Override
+        public Map<IRI,Collection<RDFTerm>> getOriginInformation() {
+            return delegate.getOriginInformation();
+        }
+    }
     private void validateEntityLinkerResults(EntityLinker linker, Map<String,List<String>> expectedResults) {
         log.info("---------------------");
         log.info("- Validating Results-");
@@ -409,6 +534,50 @@ public class EntityLinkingEngineTest {
         int numEntityAnnotations = validateAllEntityAnnotations(ci, expectedValues);
         assertEquals("Five fise:EntityAnnotations are expected by this Test", 5, numEntityAnnotations);
     }
+    /**
+     * Tests that lookup results are shared over several processed
+     * ContentItems and that invalidating the cache results in new lookups
+     */
+    @Test
+    public void testSharedLookupCache() throws IOException, EngineException {
+        EntityLinkerConfig linkerConfig = new EntityLinkerConfig();
+        linkerConfig.setRedirectProcessingMode(RedirectProcessingMode.FOLLOW);
+        linkerConfig.setMinFoundTokens(2);
+        EntityLinkingEngine engine = new EntityLinkingEngine("dummy",
+            searcher, new TextProcessingConfig(), 
+            linkerConfig, labelTokenizer);
+        LookupCache cache = engine.getLookupCache();
+        assertNotNull("The lookup cache is expected to be active by default",cache);
+        searcher.resetStatistics();
+        int numTextAnnotations = -1;
+        for(int run = 0; run < 3; run++){
+            if(run == 2){
+                engine.invalidateLookupCache();
+            }
+            ContentItem ci = ciFactory.createContentItem(new StringSource(TEST_TEXT));
+            ci.getMetadata().add(new TripleImpl(ci.getUri(), DC_LANGUAGE, new PlainLiteralImpl("en")));
+            ci.addPart(AnalysedText.ANALYSED_TEXT_URI, TEST_ANALYSED_TEXT);
+            engine.computeEnhancements(ci);
+            int lookups = searcher.getNumLookups() + searcher.getNumBatchedLookups();
+            log.info(" - run {}: {} lookups | {}", new Object[]{run, lookups, cache});
+            if(run == 1){ //all lookups answered by the cache
+                assertEquals("No lookups expected for an already processed text",0,lookups);
+                assertTrue(cache.getHitRatio() > 0);
+            } else {
+                assertTrue("Lookups expected for run "+run,lookups > 0);
+            }
+            //results MUST NOT be affected by the cache
+            int num = validateAllTextAnnotations(ci.getMetadata(), TEST_TEXT, 
+                new HashMap<IRI,RDFTerm>());
+            if(numTextAnnotations < 0){
+                numTextAnnotations = num;
+            } else {
+                assertEquals(numTextAnnotations, num);
+            }
+            searcher.resetStatistics();
+        }
+        assertEquals(1, cache.getInvalidationCount());
+    }
     /**
      * Similar to {@link EnhancementStructureHelper#validateAllEntityAnnotations(org.apache.clerezza.commons.rdf.Graph, Map)}
      * but in addition checks fise:confidence [0..1] and entityhub:site properties
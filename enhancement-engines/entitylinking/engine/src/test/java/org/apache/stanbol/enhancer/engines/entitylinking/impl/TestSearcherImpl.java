@@ -33,12 +33,12 @@ import org.apache.clerezza.commons.rdf.RDFTerm;
 import org.apache.clerezza.commons.rdf.IRI;
 import org.apache.clerezza.commons.rdf.Literal;
 import org.apache.clerezza.commons.rdf.impl.utils.PlainLiteralImpl;
+import org.apache.stanbol.enhancer.engines.entitylinking.BatchEntitySearcher;
 import org.apache.stanbol.enhancer.engines.entitylinking.Entity;
-import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcher;
 import org.apache.stanbol.enhancer.engines.entitylinking.LabelTokenizer;
 import org.apache.stanbol.enhancer.servicesapi.rdf.NamespaceEnum;
 
-public class TestSearcherImpl implements EntitySearcher {
+public class TestSearcherImpl implements BatchEntitySearcher {
 
     private final IRI nameField;
     private final LabelTokenizer tokenizer;
@@ -46,6 +46,11 @@ public class TestSearcherImpl implements EntitySearcher {
     private SortedMap<String,Collection<Entity>> data = new TreeMap<String,Collection<Entity>>(String.CASE_INSENSITIVE_ORDER);
     private Map<IRI,Entity> entities = new HashMap<IRI,Entity>();
     private Map<IRI,Collection<RDFTerm>> originInfo;
+    
+    private int numLookups;
+    private int numBatchedLookups;
+    private int numRoundTrips;
+    private boolean inBatch;
 
     
     public TestSearcherImpl(String siteId,IRI nameField, LabelTokenizer tokenizer) {
@@ -85,6 +90,10 @@ public class TestSearcherImpl implements EntitySearcher {
                                            Set<IRI> includeFields,
                                            List<String> search,
                                            String[] languages,Integer numResults, Integer offset) throws IllegalStateException {
+        numLookups++;
+        if(!inBatch){
+            numRoundTrips++;
+        }
         if(field.equals(nameField)){
             //we do not need sorting
             //Representation needs to implement equals, therefore results filters multiple matches
@@ -112,6 +121,49 @@ public class TestSearcherImpl implements EntitySearcher {
         }
     }
 
+    @Override
+    public Map<List<String>,Collection<? extends Entity>> lookup(IRI field,
+                                           Set<IRI> includeFields,
+                                           Collection<List<String>> searches,
+                                           String[] languages,Integer numResults, Integer offset) throws IllegalStateException {
+        numBatchedLookups++;
+        numRoundTrips++;
+        Map<List<String>,Collection<? extends Entity>> results = new HashMap<List<String>,Collection<? extends Entity>>();
+        inBatch = true;
+        try {
+            for(List<String> search : searches){
+                results.put(search, lookup(field, includeFields, search, languages, numResults, offset));
+            }
+        } finally {
+            inBatch = false;
+        }
+        return results;
+    }
+    /**
+     * The number of lookups (including those made as part of batched lookups)
+     */
+    public int getNumLookups() {
+        return numLookups;
+    }
+    /**
+     * The number of batched lookups
+     */
+    public int getNumBatchedLookups() {
+        return numBatchedLookups;
+    }
+    /**
+     * The number of requests (single lookups plus batched lookups)
+     */
+    public int getNumRoundTrips() {
+        return numRoundTrips;
+    }
+    
+    public void resetStatistics(){
+        numLookups = 0;
+        numBatchedLookups = 0;
+        numRoundTrips = 0;
+    }
+
     @Override
     public boolean supportsOfflineMode() {
         return true;
@@ -18,7 +18,9 @@ package org.apache.stanbol.enhancer.engines.entitytagging.impl;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedList;
+import java.util.Map;
 
 import org.apache.solr.client.solrj.SolrServer;
 import org.apache.stanbol.commons.solr.IndexReference;
@@ -120,6 +122,11 @@ class MockEntityhub implements Entityhub {
         return null;
     }
 
+    @Override
+    public Map<String,Entity> getEntities(Collection<String> entityIds) throws IllegalArgumentException, EntityhubException {
+        return Collections.emptyMap();
+    }
+
     @Override
     public Entity importEntity(String reference) throws IllegalStateException,
                                                 IllegalArgumentException,
@@ -16,15 +16,30 @@
  */
 package org.apache.stanbol.enhancer.engines.htmlextractor.impl;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.Source;
+import javax.xml.transform.sax.SAXSource;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.DTDHandler;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXNotRecognizedException;
+import org.xml.sax.SAXNotSupportedException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
 
 /**
  *
@@ -121,6 +136,88 @@ public final class DOMBuilder {
     }
   }
   
+  /**
+   * Returns a SAX {@link Source} that streams the content of the supplied Jsoup document as SAX events.
+   * The events expose the same content as {@link #jsoup2DOM(org.jsoup.nodes.Document)}, but no W3C DOM is
+   * built, so the XSLT processor can build its own (compact) tree directly from the events. A Source can
+   * only be consumed once.
+   * @param jsoupDocument The Jsoup document to stream.
+   * @return A SAX Source.
+   */
+  public static SAXSource jsoup2SAX(org.jsoup.nodes.Document jsoupDocument) {
+    return new SAXSource(new JsoupXMLReader(jsoupDocument), new InputSource());
+  }
+  
+  /**
+   * The internal helper that reports the content of the specified Jsoup <tt>Node</tt> as SAX events. This
+   * follows {@link #createDOM(org.jsoup.nodes.Node, Node, Document, Map)}: namespace declarations are
+   * reported as prefix mappings instead of attributes.
+   * @param node The Jsoup node containing the content to report.
+   * @param handler The SAX handler that receives the events.
+   * @param depth The element depth of the node. Text outside of the root element is omitted.
+   */
+  private static void createSAX(org.jsoup.nodes.Node node, ContentHandler handler, Map<String,String> ns,
+                                int depth) throws SAXException {
+    
+    if (node instanceof org.jsoup.nodes.Document) {
+      
+      org.jsoup.nodes.Document d = ((org.jsoup.nodes.Document) node);
+      for (org.jsoup.nodes.Node n : d.childNodes()) {
+        createSAX(n, handler, ns, depth);
+      }
+      
+    } else if (node instanceof org.jsoup.nodes.Element) {
+      
+      org.jsoup.nodes.Element e = ((org.jsoup.nodes.Element) node);
+      AttributesImpl atts = new AttributesImpl();
+      List<String> prefixes = new ArrayList<String>();
+      
+      for(org.jsoup.nodes.Attribute a : e.attributes()){
+        String attName = a.getKey();
+        //omit xhtml namespace
+        if (attName.equals("xmlns")) {
+          continue;
+        }
+        String attPrefix = getNSPrefix(attName);
+        if (attPrefix != null) {
+          if (attPrefix.equals("xmlns")) {
+            String prefix = getLocalName(attName);
+            ns.put(prefix, a.getValue());
+            handler.startPrefixMapping(prefix, a.getValue());
+            prefixes.add(prefix);
+            continue;
+          }
+          else if (!attPrefix.equals("xml")) {
+            String namespace = ns.get(attPrefix);
+            if (namespace == null) {
+              //fix attribute names looking like qnames
+              attName = attName.replace(':','_');
+            }
+          }
+        }
+        atts.addAttribute("", getLocalName(attName), attName, "CDATA", a.getValue());
+      }
+      
+      String tagName = e.tagName();
+      handler.startElement("", getLocalName(tagName), tagName, atts);
+      for (org.jsoup.nodes.Node n : e.childNodes()) {
+        createSAX(n, handler, ns, depth + 1);
+      }
+      handler.endElement("", getLocalName(tagName), tagName);
+      for (String prefix : prefixes) {
+        handler.endPrefixMapping(prefix);
+      }
+      
+    } else if (node instanceof org.jsoup.nodes.TextNode) {
+      
+      org.jsoup.nodes.TextNode t = ((org.jsoup.nodes.TextNode) node);
+      if (depth > 0) {
+        char[] text = t.text().toCharArray();
+        handler.characters(text, 0, text.length);
+      }
+    }
+  }
+  
   // some hacks for handling namespace in jsoup2DOM conversion
   private static String getNSPrefix(String name) {
     if (name != null) {
@@ -141,5 +238,97 @@ public final class DOMBuilder {
     }
     return name;
   }
+  
+  /**
+   * {@link XMLReader} that streams a parsed Jsoup document as SAX events. The parsed {@link InputSource} is
+   * ignored.
+   */
+  private static final class JsoupXMLReader implements XMLReader {
+    
+    private static final String NAMESPACES = "http://xml.org/sax/features/namespaces";
+    
+    private static final String NAMESPACE_PREFIXES = "http://xml.org/sax/features/namespace-prefixes";
+    
+    private final org.jsoup.nodes.Document jsoupDocument;
+    
+    private ContentHandler contentHandler;
+    
+    private DTDHandler dtdHandler;
+    
+    private EntityResolver entityResolver;
+    
+    private ErrorHandler errorHandler;
+    
+    JsoupXMLReader(org.jsoup.nodes.Document jsoupDocument) {
+      this.jsoupDocument = jsoupDocument;
+    }
+    
+    public boolean getFeature(String name) throws SAXNotRecognizedException {
+      if (NAMESPACES.equals(name)) {
+        return true;
+      } else if (NAMESPACE_PREFIXES.equals(name)) {
+        return false;
+      }
+      throw new SAXNotRecognizedException(name);
+    }
+    
+    public void setFeature(String name, boolean value) throws SAXNotRecognizedException,
+                                                              SAXNotSupportedException {
+      if (getFeature(name) != value) {
+        throw new SAXNotSupportedException(name);
+      }
+    }
+    
+    public Object getProperty(String name) throws SAXNotRecognizedException {
+      throw new SAXNotRecognizedException(name);
+    }
+    
+    public void setProperty(String name, Object value) throws SAXNotRecognizedException {
+      throw new SAXNotRecognizedException(name);
+    }
+    
+    public void setEntityResolver(EntityResolver resolver) {
+      this.entityResolver = resolver;
+    }
+    
+    public EntityResolver getEntityResolver() {
+      return entityResolver;
+    }
+    
+    public void setDTDHandler(DTDHandler handler) {
+      this.dtdHandler = handler;
+    }
+    
+    public DTDHandler getDTDHandler() {
+      return dtdHandler;
+    }
+    
+    public void setContentHandler(ContentHandler handler) {
+      this.contentHandler = handler;
+    }
+    
+    public ContentHandler getContentHandler() {
+      return contentHandler;
+    }
+    
+    public void setErrorHandler(ErrorHandler handler) {
+      this.errorHandler = handler;
+    }
+    
+    public ErrorHandler getErrorHandler() {
+      return errorHandler;
+    }
+    
+    public void parse(InputSource input) throws SAXException {
+      ContentHandler handler = contentHandler == null ? new DefaultHandler() : contentHandler;
+      handler.startDocument();
+      createSAX(jsoupDocument, handler, new HashMap<String,String>(), 0);
+      handler.endDocument();
+    }
+    
+    public void parse(String systemId) throws SAXException {
+      parse(new InputSource(systemId));
+    }
+  }
 
 }
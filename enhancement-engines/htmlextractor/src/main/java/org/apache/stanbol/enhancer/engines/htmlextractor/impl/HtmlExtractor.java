@@ -92,7 +92,16 @@ public class HtmlExtractor {
         else {
             encoding = charset.name();
         }
-        Document doc = htmlParser.getDOM(input, encoding);
+        org.jsoup.nodes.Document html;
+        try {
+            html = htmlParser.parse(input, encoding);
+        } catch (IOException e) {
+            throw new ExtractorException("HTML parsing problem: "
+                + e.getMessage(), e);
+        }
+        // the W3C DOM is only built for extractors that can not consume
+        // the SAX events streamed from the parsed document
+        Document doc = null;
         Map<String, HtmlExtractionComponent> extractors =
             registry.getRegistry();
         List<String> formats = new ArrayList<String>();
@@ -102,8 +111,16 @@ public class HtmlExtractor {
             HtmlExtractionComponent extractor = extractors.get(s);
             // TODO: Handle dependencies between Microformat extractors, e.g.
             // formats used also in other formats
-            if (extractor != null) {
+            if (extractor instanceof HtmlSourceExtractionComponent) {
+                ((HtmlSourceExtractionComponent) extractor).extract(id,
+                    DOMBuilder.jsoup2SAX(html), null, result);
+            } else if (extractor != null) {
+                if (doc == null) {
+                    doc = DOMBuilder.jsoup2DOM(html);
+                }
                 extractor.extract(id, doc, null, result);
+            }
+            if (extractor != null) {
                 long tmpSize = result.size();
                 if (modelSize < tmpSize) {
                     LOG.debug("{} Statements added: {}",(tmpSize - modelSize),s);
@@ -74,7 +74,7 @@ public class HtmlParser {
     public Document getDOM(InputStream html, String charset) {
         Document doc = null;
         try {
-            doc = DOMBuilder.jsoup2DOM(Jsoup.parse(html, charset, baseURI));
+            doc = DOMBuilder.jsoup2DOM(parse(html, charset));
         } catch (RuntimeException e) {
             e.printStackTrace();
         } catch (IOException e) {
@@ -82,6 +82,16 @@ public class HtmlParser {
         }
         return doc;
     }
+
+    /**
+     * Parses the HTML document without converting it to a W3C DOM. Use
+     * {@link DOMBuilder#jsoup2SAX(org.jsoup.nodes.Document)} to stream it
+     * to the extractors.
+     */
+    public org.jsoup.nodes.Document parse(InputStream html, String charset)
+            throws IOException {
+        return Jsoup.parse(html, charset, baseURI);
+    }
     
     public static void main(String[] args) throws Exception {
       int argv = 0;
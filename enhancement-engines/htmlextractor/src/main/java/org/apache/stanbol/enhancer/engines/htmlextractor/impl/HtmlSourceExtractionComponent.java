@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.enhancer.engines.htmlextractor.impl;
+
+import java.util.Map;
+
+import javax.xml.transform.Source;
+
+import org.apache.clerezza.commons.rdf.Graph;
+
+/**
+ * An {@link HtmlExtractionComponent} that can also extract from a
+ * {@link Source}, e.g. the SAX events created by
+ * {@link DOMBuilder#jsoup2SAX(org.jsoup.nodes.Document)}. This avoids
+ * building a W3C DOM of the HTML document.
+ *
+ */
+public interface HtmlSourceExtractionComponent extends HtmlExtractionComponent {
+
+    /**
+     * Extracts from the parsed source. A source may be consumed only once.
+     */
+    void extract(String id, Source source, Map<String, Object> params, Graph result)
+            throws ExtractorException;
+
+}
@@ -25,9 +25,10 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
+import java.util.Map.Entry;
 
 import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
@@ -45,10 +46,13 @@ import org.w3c.dom.Document;
 
 /**
  * XsltExtractor.java
+ * <p>
+ * The XSLT script is compiled once to {@link Templates}. Each extraction
+ * uses its own {@link Transformer}, so extractions may run concurrently.
  *
  * @author <a href="mailto:kasper@dfki.de">Walter Kasper</a>
  */
-public class XsltExtractor implements HtmlExtractionComponent {
+public class XsltExtractor implements HtmlSourceExtractionComponent {
 
     /**
      * This contains the logger.
@@ -56,7 +60,7 @@ public class XsltExtractor implements HtmlExtractionComponent {
     private static final Logger LOG =
         LoggerFactory.getLogger(XsltExtractor.class);
     private String uriParameter = "uri";
-    private Transformer transformer;
+    private Templates templates;
     private String id;
     private URI source;
     private String syntax ="application/rdf+xml";
@@ -87,12 +91,12 @@ public class XsltExtractor implements HtmlExtractionComponent {
         this.uriParameter = uriParameter;
     }
 
-    public Transformer getTransformer() {
-        return transformer;
+    public Templates getTemplates() {
+        return templates;
     }
 
-    public void setTransformer(Transformer transformer) {
-        this.transformer = transformer;
+    public void setTemplates(Templates templates) {
+        this.templates = templates;
     }
 
     public String getId() {
@@ -125,20 +129,26 @@ public class XsltExtractor implements HtmlExtractionComponent {
         this.syntax = syntax;
     }
 
-    public synchronized void extract(String id, Document doc, Map<String, Object> params,
+    public void extract(String id, Document doc, Map<String, Object> params,
+            Graph result)
+            throws ExtractorException {
+        extract(id, new DOMSource(doc), params, result);
+    }
+
+    public void extract(String id, Source source, Map<String, Object> params,
             Graph result)
             throws ExtractorException {
 
-        if (params == null) {
-            params = new HashMap<String, Object>();
+        Map<String, Object> parameters = new HashMap<String, Object>();
+        if (params != null) {
+            parameters.putAll(params);
         }
-        params.put(this.uriParameter, id);
-        initTransformerParameters(params);
-        Source source = new DOMSource(doc);
+        parameters.put(this.uriParameter, id);
         ByteArrayOutputStream writer = new ByteArrayOutputStream(8192);
         StreamResult output = new StreamResult(writer);
         try {
-            this.transformer.transform(source, output);
+            Transformer transformer = newTransformer(parameters);
+            transformer.transform(source, output);
             if (LOG.isDebugEnabled()) {
                 String rdf = writer.toString("UTF-8");
                 LOG.debug(rdf);
@@ -167,20 +177,23 @@ public class XsltExtractor implements HtmlExtractionComponent {
         StreamSource xsltSource = new StreamSource(source.toString());
         xsltSource.setSystemId(source.toString());
         try {
-            transformer = factory.newTransformer(xsltSource);
+            templates = factory.newTemplates(xsltSource);
         } catch (TransformerConfigurationException e) {
             throw new InitializationException(e.getMessage(), e);
         }
     }
 
-    public void initTransformerParameters(Map<String, Object> params) {
-        transformer.clearParameters();
-        if (params != null) {
-            Set<String> parms = params.keySet();
-            for (String piter : parms) {
-                transformer.setParameter(piter, params.get(piter));
-            }
+    /**
+     * Creates a Transformer for a single extraction. Transformers are not
+     * thread-safe, but creating one from the compiled Templates is cheap.
+     */
+    private Transformer newTransformer(Map<String, Object> params)
+            throws TransformerConfigurationException {
+        Transformer transformer = templates.newTransformer();
+        for (Entry<String, Object> param : params.entrySet()) {
+            transformer.setParameter(param.getKey(), param.getValue());
         }
+        return transformer;
     }
 
 }
@@ -20,10 +20,14 @@ import java.io.IOException;
 import java.security.AccessController;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 
-import org.apache.commons.io.FileUtils;
+import org.apache.lucene.index.AtomicReader;
+import org.apache.lucene.index.AtomicReaderContext;
 import org.apache.lucene.index.IndexReader;
 import org.apache.solr.core.SolrCore;
 import org.apache.solr.search.SolrIndexSearcher;
@@ -35,11 +39,23 @@ import org.slf4j.LoggerFactory;
 /**
  * Runtime creation of FST corpora is done as {@link Callable}. This allows
  * users to decide by the configuration of the {@link ExecutorService} to
- * control how Corpora are build (e.g. how many can be built at a time.
+ * control how Corpora are build (e.g. how many can be built at a time.<p>
+ * Corpora are built incrementally: FSTs of segments already present in the
+ * current {@link SegmentedCorpus} or stored in the 
+ * {@link CorpusInfo#segmentDirectory} are reused. Only FSTs of new segments
+ * are built. Requests continue to use the previous version of the corpus
+ * until the new one is set to the {@link CorpusInfo}.
  * @author Rupert Westenthaler
  *
  */
-public class CorpusCreationTask implements Callable<TaggerFstCorpus>{
+public class CorpusCreationTask implements Callable<SegmentedCorpus>{
+    
+    /**
+     * The maximum number of segments with a FST. Content is tagged once per
+     * segment, so indexes with more segments are represented by a single
+     * FST for the whole index.
+     */
+    public static final int MAX_SEGMENTS = 32;
 
     private final Logger log = LoggerFactory.getLogger(CorpusCreationTask.class);
     
@@ -55,7 +71,7 @@ public class CorpusCreationTask implements Callable<TaggerFstCorpus>{
     }
     
     @Override
-    public TaggerFstCorpus call() {
+    public SegmentedCorpus call() {
         if(!indexConfig.isActive()){
             String msg = "Index Configuration already deactivated";
             fstInfo.setError(msg);
@@ -67,21 +83,55 @@ public class CorpusCreationTask implements Callable<TaggerFstCorpus>{
             fstInfo.setError(msg);
             throw new IllegalStateException(msg);
         }
-        final TaggerFstCorpus corpus;
         RefCounted<SolrIndexSearcher> searcherRef = core.getSearcher();
-        try { //STANBOL-1177: create FST models in AccessController.doPrivileged(..)
+        try {
             final SolrIndexSearcher searcher = searcherRef.get();
-            //we do get the AtomicReader, because TaggerFstCorpus will need it
-            //anyways. This prevents to create another SlowCompositeReaderWrapper.
-            final IndexReader reader = searcher.getAtomicReader();
-            log.info(" ... build FST corpus for {}",fstInfo);
-            corpus = AccessController.doPrivileged(new PrivilegedExceptionAction<TaggerFstCorpus>() {
-                public TaggerFstCorpus run() throws IOException {
-                    return new TaggerFstCorpus(reader, searcher.getIndexReader().getVersion(),
-                        null, fstInfo.indexedField, fstInfo.storedField, fstInfo.analyzer,
-                        fstInfo.partialMatches,1,100);
+            final IndexReader reader = searcher.getIndexReader();
+            final long version = searcher.getIndexReader().getVersion();
+            SegmentedCorpus current = fstInfo.getCorpus();
+            log.info(" ... build FST corpus for {} (version: {}, previous: {})", 
+                new Object[]{fstInfo, version, current});
+            Map<String,TaggerFstCorpus> segments = new LinkedHashMap<String,TaggerFstCorpus>();
+            Map<String,String> identities = new HashMap<String,String>();
+            int reused = 0;
+            int loaded = 0;
+            int built = 0;
+            long start = System.currentTimeMillis();
+            for(AtomicReaderContext leaf : reader.leaves()){
+                String name = SegmentedCorpus.getSegmentName(leaf.reader());
+                if(name == null || reader.leaves().size() > MAX_SEGMENTS){
+                    //not a SegmentReader or too many segments ... build a single FST
+                    log.info("  - index contains a leaf that is not a SegmentReader or more "
+                        + "than {} segments (build FST for the whole index)", MAX_SEGMENTS);
+                    segments.clear();
+                    segments.put(SegmentedCorpus.COMPOSITE, 
+                        build(searcher.getAtomicReader(),version));
+                    built = 1;
+                    break;
                 }
-            });
+                String identity = SegmentedCorpus.getSegmentIdentity(leaf.reader());
+                TaggerFstCorpus segmentCorpus = current == null ? null : 
+                    current.getSegment(name, identity);
+                if(segmentCorpus != null){
+                    reused++;
+                } else {
+                    segmentCorpus = fstInfo.loadSegment(name, identity);
+                    if(segmentCorpus != null){
+                        loaded++;
+                    } else {
+                        log.debug("  - build FST for segment {} ({} docs)", name, leaf.reader().maxDoc());
+                        segmentCorpus = build(leaf.reader(), version);
+                        fstInfo.saveSegment(name, identity, segmentCorpus);
+                        built++;
+                    }
+                }
+                segments.put(name, segmentCorpus);
+                identities.put(name, identity);
+            }
+            SegmentedCorpus corpus = new SegmentedCorpus(version, segments, identities);
+            log.info(" ... FST corpus for {} ready in {}ms ({} segments: {} reused, {} loaded, {} built)",
+                new Object[]{fstInfo.language, System.currentTimeMillis() - start, 
+                        segments.size(), reused, loaded, built});
             if(indexConfig.isActive()){
                 //set the created corpus to the FST Info
                 fstInfo.setCorpus(corpus);
@@ -90,16 +140,38 @@ public class CorpusCreationTask implements Callable<TaggerFstCorpus>{
                         + "Built FST will be ignored.");
             }
             return corpus;
+        } catch (IOException e) {
+            String msg = "Unable to read Information to build " + fstInfo 
+                    + " from SolrIndex '" + core.getName() + "'!";
+            fstInfo.setError(msg); //allows to enqueue this task again
+            throw new IllegalStateException(msg, e);
+        } finally {
+            searcherRef.decref(); //ensure that we dereference the searcher
+        }
+    }
+    /**
+     * Builds the FST for the parsed reader
+     * @param reader the reader (of a segment or the whole index)
+     * @param version the version of the index
+     * @return the FST
+     * @throws IOException on any error while reading from the index
+     */
+    private TaggerFstCorpus build(final AtomicReader reader, final long version) throws IOException {
+        try { //STANBOL-1177: create FST models in AccessController.doPrivileged(..)
+            return AccessController.doPrivileged(new PrivilegedExceptionAction<TaggerFstCorpus>() {
+                public TaggerFstCorpus run() throws IOException {
+                    return new TaggerFstCorpus(reader, version,
+                        null, fstInfo.indexedField, fstInfo.storedField, fstInfo.analyzer,
+                        fstInfo.partialMatches,1,100);
+                }
+            });
         } catch (PrivilegedActionException pae) {
             Exception e = pae.getException();
-            if(e instanceof IOException){ //IO Exception while loading the file
-                throw new IllegalStateException("Unable to read Information to build "
-                        + fstInfo + " from SolrIndex '" + core.getName() + "'!", e);
+            if(e instanceof IOException){ //IO Exception while reading the index
+                throw (IOException)e;
             } else { //Runtime exception
                 throw RuntimeException.class.cast(e);
             }
-        } finally {
-            searcherRef.decref(); //ensure that we dereference the searcher
         }
     }
     
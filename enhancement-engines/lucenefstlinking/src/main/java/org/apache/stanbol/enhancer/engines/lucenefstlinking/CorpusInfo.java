@@ -17,11 +17,10 @@
 package org.apache.stanbol.enhancer.engines.lucenefstlinking;
 
 import java.io.File;
+import java.io.FilenameFilter;
 import java.io.IOException;
-import java.lang.ref.Reference;
-import java.lang.ref.SoftReference;
-import java.lang.ref.WeakReference;
 import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
 import java.text.SimpleDateFormat;
@@ -31,6 +30,7 @@ import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang.ObjectUtils;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.solr.schema.FieldType;
@@ -40,7 +40,11 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Holds the information required for Lucene FST based tagging in a specific
- * language by using a given field.
+ * language by using a given field.<p>
+ * The current {@link SegmentedCorpus} is kept by a hard reference until it
+ * is replaced by a newer version. If runtime creation is enabled the FSTs of
+ * the single segments are stored in the {@link #segmentDirectory} so that
+ * they can be reused after a restart and for later versions of the index.
  * @author Rupert Westenthaler
  *
  */
@@ -48,6 +52,14 @@ public class CorpusInfo {
 
     private final Logger log = LoggerFactory.getLogger(CorpusInfo.class);
     
+    private static final String FST_FILE_EXTENSION = ".fst";
+    /**
+     * Extension of the file storing the {@link SegmentedCorpus#getSegmentIdentity(
+     * org.apache.lucene.index.AtomicReader) identity} of the segment a FST 
+     * file was built for
+     */
+    private static final String ID_FILE_EXTENSION = ".id";
+    
     /**
      * The language
      */
@@ -56,6 +68,12 @@ public class CorpusInfo {
      * The Corpus FST
      */
     protected final File fst;
+    /**
+     * The directory holding the FST files of the single segments of the index
+     * ('<code>{name}.{lang}.segments</code>' in the directory of the {@link #fst}
+     * file)
+     */
+    protected final File segmentDirectory;
     /**
      * used to detect fst file changes
      */
@@ -84,10 +102,12 @@ public class CorpusInfo {
     public final Analyzer taggingAnalyzer;
     
     protected final ReadWriteLock corpusLock = new ReentrantReadWriteLock();
+    /**
+     * The current version of the corpus. Replaced on {@link #setCorpus(SegmentedCorpus)}
+     */
+    private SegmentedCorpus corpus;
     
-    protected Reference<TaggerFstCorpus> taggerCorpusRef;
-    
-    private Future<TaggerFstCorpus> enqueuedCorpus;
+    private Future<SegmentedCorpus> enqueuedCorpus;
     /**
      * Allows to store an error message encountered while loading/creating the
      * FST corpus.
@@ -115,19 +135,27 @@ public class CorpusInfo {
         this.indexedField = indexField;
         this.storedField = storeField;
         this.fst = fst;
+        this.segmentDirectory = new File(fst.getParentFile(), 
+            FilenameUtils.getBaseName(fst.getName()) + ".segments");
         this.allowCreation = allowCreation;
         this.analyzer = fieldType.getAnalyzer();
         this.taggingAnalyzer = fieldType.getQueryAnalyzer();
         this.fstDate = fst.isFile() ? new Date(fst.lastModified()) : null;
     }
     /**
-     * Allows to set an error occurring during the creation of 
+     * Allows to set an error occurring during the creation of the corpus.
+     * A previous version of the corpus is kept.
      * @param message
      */
     protected void setError(String message){
-        this.errorMessage = message;
-        this.creationError = true;
-        setCorpus(null);
+        corpusLock.writeLock().lock();
+        try {
+            this.errorMessage = message;
+            this.creationError = true;
+            this.enqueuedCorpus = null;
+        } finally {
+            corpusLock.writeLock().unlock();
+        }
     }
     public boolean isFstFile(){
         return fst != null && fst.isFile();
@@ -147,154 +175,210 @@ public class CorpusInfo {
     
     /**
      * Allows to explicitly set the corpus after runtime creation has finished.
-     * The corpus will be linked by using a {@link WeakReference} to allow the
-     * GC to free the memory it consumes. If this happens the corpus will be
-     * loaded from the {@link #fst} file.
-     * @param enqueued the version of the corpus
+     * The parsed corpus replaces the current one. FST files of segments that
+     * are no longer part of the corpus are deleted from the 
+     * {@link #segmentDirectory}.
      * @param corpus the corpus
      */
-    protected final void setCorpus(final TaggerFstCorpus corpus) {
+    protected final void setCorpus(final SegmentedCorpus corpus) {
         corpusLock.writeLock().lock();
         try {
             enqueuedCorpus = null; //clear the future ref
-            if(taggerCorpusRef != null){
-                taggerCorpusRef.clear();
-                taggerCorpusRef = null;
-            }
+            this.corpus = corpus;
             if(corpus != null){
                 //reset any error
                 this.errorMessage = null; 
                 this.creationError = false;
-                //we set the corpus as a weak reference. This allows the
-                //GC to free the corpus earlier.
-                //This is done, because here the corpus was just built and not
-                //yet requested. So we want those to be GCed earlier.
-                taggerCorpusRef = new WeakReference<TaggerFstCorpus>(corpus);
             }
         } finally {
             corpusLock.writeLock().unlock();
         }
-        //Store the newly built FST corpus to disc. A read level lock is sufficient
-        //for this.
-        //NOTE: the WeakReference to the corpus can only be GC'ed after we
-        //      have written the corpus to disc, as we still have a reference
-        //      to corpus!
-        if(corpus != null){
-            try {
-                corpusLock.readLock().lock();
-                try { //STANBOL-1177: save FST models in AccessController.doPrivileged(..)
-                    AccessController.doPrivileged(new PrivilegedExceptionAction<Object>() {
-                        public Object run() throws IOException {
-                            if(fst.exists()){
-                                if(!FileUtils.deleteQuietly(fst)){
-                                    log.warn("Unable to delete existing FST file for {}", fst);
-                                }
-                            }
-                            corpus.save(fst);
-                            return null; //not used
+        if(corpus != null && !corpus.isComposite()){
+            //STANBOL-1177: access FST files in AccessController.doPrivileged(..)
+            AccessController.doPrivileged(new PrivilegedAction<Object>() {
+                public Object run() {
+                    File[] files = segmentDirectory.listFiles(new FilenameFilter() {
+                        @Override
+                        public boolean accept(File dir, String name) {
+                            String ext = name.endsWith(FST_FILE_EXTENSION) ? FST_FILE_EXTENSION :
+                                name.endsWith(ID_FILE_EXTENSION) ? ID_FILE_EXTENSION : null;
+                            return ext != null && !corpus.getSegmentNames().contains(
+                                name.substring(0, name.length() - ext.length()));
                         }
                     });
-                } finally {
-                    corpusLock.readLock().unlock();
-                }
-            } catch (PrivilegedActionException pae) {
-                Exception e = pae.getException();
-                if(e instanceof IOException){ //IO Exception while loading the file
-                    log.warn("Unable to store FST corpus to "
-                            + fst.getAbsolutePath() + "!", e);
-                    //if we can not save the FST corpus we replace the WeakReference
-                    //with a SoftReference to avoid frequent rebuilding of the corpus
-                    corpusLock.writeLock().lock();
-                    try {
-                        if(taggerCorpusRef instanceof WeakReference<?>){
-                            taggerCorpusRef.clear();
-                            taggerCorpusRef = new SoftReference<TaggerFstCorpus>(corpus);
+                    if(files != null){
+                        for(File file : files){
+                            log.debug(" ... delete FST of outdated segment {}", file);
+                            FileUtils.deleteQuietly(file);
                         }
-                    } finally {
-                        corpusLock.writeLock().lock();
                     }
-                } else { //Runtime exception
-                    throw RuntimeException.class.cast(e);
+                    return null; //not used
+                }
+            });
+        }
+    }
+    /**
+     * Loads the FST of the parsed segment from the {@link #segmentDirectory}.
+     * Segment names are only unique within an index. Because of that the
+     * FST is only loaded if the stored identity equals the parsed one.
+     * Otherwise the files are deleted (e.g. because the index was replaced).
+     * @param segment the name of the segment
+     * @param identity the identity of the segment
+     * @return the FST or <code>null</code> if not present, not built for
+     * the parsed segment identity or the file could not be loaded
+     * @see SegmentedCorpus#getSegmentIdentity(org.apache.lucene.index.AtomicReader)
+     */
+    protected TaggerFstCorpus loadSegment(final String segment, final String identity){
+        final File file = new File(segmentDirectory, segment + FST_FILE_EXTENSION);
+        final File idFile = new File(segmentDirectory, segment + ID_FILE_EXTENSION);
+        try { //STANBOL-1177: load FST models in AccessController.doPrivileged(..)
+            return AccessController.doPrivileged(new PrivilegedExceptionAction<TaggerFstCorpus>() {
+                public TaggerFstCorpus run() throws IOException {
+                    if(!file.isFile()){
+                        return null;
+                    }
+                    String stored = idFile.isFile() ? 
+                            FileUtils.readFileToString(idFile, "UTF-8").trim() : null;
+                    if(!identity.equals(stored)){
+                        log.info("  - FST for segment {} was built for {} (current: {}) and will be rebuilt",
+                            new Object[]{segment, stored, identity});
+                        FileUtils.deleteQuietly(idFile);
+                        FileUtils.deleteQuietly(file);
+                        return null;
+                    }
+                    return TaggerFstCorpus.load(file);
                 }
+            });
+        } catch (PrivilegedActionException pae) {
+            Exception e = pae.getException();
+            if(e instanceof IOException){ //IO Exception while loading the file
+                log.warn("Unable to load FST for segment " + segment + " from "
+                    + file.getAbsolutePath() + " (will be rebuilt)!", e);
+                FileUtils.deleteQuietly(idFile);
+                FileUtils.deleteQuietly(file);
+                return null;
+            } else { //Runtime exception
+                throw RuntimeException.class.cast(e);
             }
         }
     }
-
-    public TaggerFstCorpus getCorpus() {
-        TaggerFstCorpus corpus;
+    /**
+     * Stores the FST of the parsed segment in the {@link #segmentDirectory}.
+     * The identity of the segment is stored alongside so that it can be 
+     * validated on {@link #loadSegment(String, String)}. Failures are 
+     * logged, as the corpus can still be used.
+     * @param segment the name of the segment
+     * @param identity the identity of the segment
+     * @param segmentCorpus the FST for the segment
+     */
+    protected void saveSegment(String segment, final String identity, 
+            final TaggerFstCorpus segmentCorpus){
+        final File file = new File(segmentDirectory, segment + FST_FILE_EXTENSION);
+        final File idFile = new File(segmentDirectory, segment + ID_FILE_EXTENSION);
+        try { //STANBOL-1177: save FST models in AccessController.doPrivileged(..)
+            AccessController.doPrivileged(new PrivilegedExceptionAction<Object>() {
+                public Object run() throws IOException {
+                    FileUtils.forceMkdir(segmentDirectory);
+                    //delete the identity first so that a FST file is never
+                    //validated against the identity of a previous segment
+                    FileUtils.deleteQuietly(idFile);
+                    //write to a temp file so that no partial files are loaded
+                    File tmp = new File(segmentDirectory, file.getName() + ".tmp");
+                    segmentCorpus.save(tmp);
+                    FileUtils.deleteQuietly(file);
+                    if(!tmp.renameTo(file)){
+                        FileUtils.deleteQuietly(tmp);
+                        throw new IOException("Unable to rename " + tmp + " to " + file);
+                    }
+                    FileUtils.writeStringToFile(idFile, identity, "UTF-8");
+                    return null; //not used
+                }
+            });
+        } catch (PrivilegedActionException pae) {
+            Exception e = pae.getException();
+            if(e instanceof IOException){ //IO Exception while saving the file
+                log.warn("Unable to store FST for segment " + segment + " to "
+                        + file.getAbsolutePath() + "!", e);
+            } else { //Runtime exception
+                throw RuntimeException.class.cast(e);
+            }
+        }
+    }
+    /**
+     * Getter for the current version of the corpus. If no corpus is present
+     * this tries to load the {@link #fst} file. If runtime creation is 
+     * enabled and the {@link #segmentDirectory} is present this returns 
+     * <code>null</code> as the FSTs of the segments are loaded by the
+     * {@link CorpusCreationTask}.
+     * @return the corpus or <code>null</code> if not available
+     */
+    public SegmentedCorpus getCorpus() {
         corpusLock.readLock().lock();
         try {
-            corpus = taggerCorpusRef == null ? null : taggerCorpusRef.get();
             if(corpus != null){
-                //on first usage replace a WeakReference with a SoftReference
-                if(taggerCorpusRef instanceof WeakReference<?>){
-                    log.debug(" ... convert Weak to Soft Reference for Corpus {}", fst);
-                    taggerCorpusRef.clear();
-                    taggerCorpusRef = new SoftReference<TaggerFstCorpus>(corpus);
-                }
-            } else if(taggerCorpusRef != null){
-                taggerCorpusRef = null; //reset to null as the reference was taken
+                return corpus;
             }
         } finally {
             corpusLock.readLock().unlock();
         }
-        if(corpus == null) {
-            log.info(" ... load FST corpus {}",fst);
-            corpusLock.writeLock().lock();
-            try { //STANBOL-1177: load FST models in AccessController.doPrivileged(..)
-                corpus = taggerCorpusRef == null ? null : taggerCorpusRef.get();
-                if(corpus == null){ //corpus not loaded while waiting for the write lock
-                    corpus = AccessController.doPrivileged(new PrivilegedExceptionAction<TaggerFstCorpus>() {
-                        public TaggerFstCorpus run() throws IOException {
-                            if(fst.exists() && //if the file exists AND the file was not yet failing to load 
-                                    //OR the file is newer as the last version failing to load
-                                    (!fstFileError || FileUtils.isFileNewer(fst, fstDate))){
-                                TaggerFstCorpus corpus = TaggerFstCorpus.load(fst);
-                                if(corpus != null){
-                                    //I need to set fstDate here, because I can not
-                                    //access lastModified() outside doPrivileged
-                                    fstDate = new Date(fst.lastModified());
-                                    if(log.isInfoEnabled()){
-                                        log.info(" ... loaded FST (date: {})", 
-                                            SimpleDateFormat.getDateTimeInstance().format(fstDate));
-                                    }
-                                } else {
-                                    log.warn(" ... no corpus loaded from {}",fst);
+        if(allowCreation && segmentDirectory.isDirectory()){
+            return null; //FSTs of segments are loaded by the CorpusCreationTask
+        }
+        log.info(" ... load FST corpus {}",fst);
+        corpusLock.writeLock().lock();
+        try { //STANBOL-1177: load FST models in AccessController.doPrivileged(..)
+            if(corpus == null){ //corpus not loaded while waiting for the write lock
+                TaggerFstCorpus fstCorpus = AccessController.doPrivileged(new PrivilegedExceptionAction<TaggerFstCorpus>() {
+                    public TaggerFstCorpus run() throws IOException {
+                        if(fst.exists() && //if the file exists AND the file was not yet failing to load 
+                                //OR the file is newer as the last version failing to load
+                                (!fstFileError || FileUtils.isFileNewer(fst, fstDate))){
+                            TaggerFstCorpus corpus = TaggerFstCorpus.load(fst);
+                            if(corpus != null){
+                                //I need to set fstDate here, because I can not
+                                //access lastModified() outside doPrivileged
+                                fstDate = new Date(fst.lastModified());
+                                if(log.isInfoEnabled()){
+                                    log.info(" ... loaded FST (date: {})", 
+                                        SimpleDateFormat.getDateTimeInstance().format(fstDate));
                                 }
-                                return corpus;
                             } else {
-                                log.warn(" ... unable to load FST from {} (exists: {}, fileError {})",
-                                    new Object[]{fst, fst.exists(),fstFileError});
-                                return null;
+                                log.warn(" ... no corpus loaded from {}",fst);
                             }
+                            return corpus;
+                        } else {
+                            log.warn(" ... unable to load FST from {} (exists: {}, fileError {})",
+                                new Object[]{fst, fst.exists(),fstFileError});
+                            return null;
                         }
-                    });
-                    if(corpus != null){
-                        fstFileError = false;
-                        taggerCorpusRef = new SoftReference<TaggerFstCorpus>(corpus);
-                    } //else not loaded from file
-                } //else corpus was loaded while waiting for the write lock
-            } catch (PrivilegedActionException pae) {
-                Exception e = pae.getException();
-                if(e instanceof IOException){ //IO Exception while loading the file
-                    this.errorMessage = new StringBuilder("Unable to load FST corpus from "
-                            + "FST file: '").append(fst.getAbsolutePath())
-                            .append("' (Message: ").append(e.getMessage()).append(")!").toString();
-                        log.warn(errorMessage,e);
-                        fstFileError = true;
-                } else { //Runtime exception
-                    throw RuntimeException.class.cast(e);
-                }
-            } finally {
-                corpusLock.writeLock().unlock();
+                    }
+                });
+                if(fstCorpus != null){
+                    fstFileError = false;
+                    corpus = SegmentedCorpus.composite(fstCorpus);
+                } //else not loaded from file
+            } //else corpus was loaded while waiting for the write lock
+            return corpus;
+        } catch (PrivilegedActionException pae) {
+            Exception e = pae.getException();
+            if(e instanceof IOException){ //IO Exception while loading the file
+                this.errorMessage = new StringBuilder("Unable to load FST corpus from "
+                        + "FST file: '").append(fst.getAbsolutePath())
+                        .append("' (Message: ").append(e.getMessage()).append(")!").toString();
+                    log.warn(errorMessage,e);
+                    fstFileError = true;
+                    return null;
+            } else { //Runtime exception
+                throw RuntimeException.class.cast(e);
             }
+        } finally {
+            corpusLock.writeLock().unlock();
         }
-        return corpus;
     }
     /**
      * Called after the curpus was enqueued for rebuilding
      */
-    protected void enqueued(Future<TaggerFstCorpus> enqueued){
+    protected void enqueued(Future<SegmentedCorpus> enqueued){
         this.enqueuedCorpus = enqueued;
     }
     /**
@@ -302,19 +386,19 @@ public class CorpusInfo {
      * @return returns a {@link Future} that allows to wait for a corpus that is
      * currently be built. 
      */
-    public Future<TaggerFstCorpus> getEnqueued(){
+    public Future<SegmentedCorpus> getEnqueued(){
         return enqueuedCorpus;
     }
     
     /**
      * Returns if the FST corpus described by this FST info is queued for
      * generation. NOTE: that {@link #getCorpus()} might still return a 
-     * {@link TaggerCorpus}, but in this case it will be based on an outdated
+     * {@link SegmentedCorpus}, but in this case it will be based on an outdated
      * version of the index.
      * @return <code>true</code> if the FST corpus is enqueued for (re)generation.
      */
     public boolean isEnqueued(){
-        return taggerCorpusRef != null;
+        return enqueuedCorpus != null;
     }
     
     
@@ -329,6 +413,8 @@ public class CorpusInfo {
         }
         sb.append(" | file: ").append(fst.getName())
             .append("(exists: ").append(fst.isFile()).append(')')
+            .append(" | segments: ").append(segmentDirectory.getName())
+            .append("(exists: ").append(segmentDirectory.isDirectory()).append(')')
             .append(" | runtime creation: ").append(allowCreation)
             .append("]");
         return sb.toString();
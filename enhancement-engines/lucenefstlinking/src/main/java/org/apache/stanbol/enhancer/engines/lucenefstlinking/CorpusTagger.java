@@ -0,0 +1,332 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.engines.lucenefstlinking;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.util.IntsRef;
+import org.apache.stanbol.enhancer.engines.lucenefstlinking.SegmentedCorpus.SegmentFst;
+import org.opensextant.solrtexttagger.TagClusterReducer;
+import org.opensextant.solrtexttagger.Tagger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tags a text with the FSTs of all segments of a {@link SegmentedCorpus}.<p>
+ * If the corpus consists of a single FST the {@link Tagger} uses the
+ * {@link TagClusterReducer} of the {@link LinkingModeEnum linking mode}.<p>
+ * If the corpus consists of several segments the content is tokenized and
+ * tagged once for the FST of every segment. So the costs for tagging grow
+ * linear with the number of segments (bounded by
+ * {@link CorpusCreationTask#MAX_SEGMENTS}). As the reduction of a cluster
+ * depends on all tags of the cluster the Tagger only applies the filters
+ * of the linking mode that are evaluated for every single tag:<ul>
+ * <li> {@link LinkingModeEnum#PLAIN}: none
+ * <li> {@link LinkingModeEnum#NER}: the {@link NamedEntityTokenFilter}
+ * <li> {@link LinkingModeEnum#LINKABLE_TOKEN}: the first phase of the
+ * {@link LinkableTokenFilter} that also calculates the matchable spans
+ * </ul>
+ * The tags of all segments are merged and the longest dominant right
+ * reduction of the linking mode (based on the full span for PLAIN and NER
+ * and on the matchable span for LINKABLE_TOKEN) is applied on clusters of
+ * overlapping tags. Tags where all matching documents are deleted are
+ * ignored by the reduction. So the results are the same as for a single FST
+ * built for the current version of the whole index.
+ * @author Rupert Westenthaler
+ *
+ */
+abstract class CorpusTagger {
+
+    private final Logger log = LoggerFactory.getLogger(CorpusTagger.class);
+    /**
+     * Sorts spans by start and spans with the same start by end. This is the
+     * order of tags in the clusters of the {@link Tagger}
+     */
+    static final Comparator<int[]> CLUSTER_ORDER = new Comparator<int[]>() {
+
+        @Override
+        public int compare(int[] a, int[] b) {
+            int c = a[0] < b[0] ? -1 : a[0] > b[0] ? 1 : 0;
+            if(c == 0){
+                c = a[1] < b[1] ? -1 : a[1] > b[1] ? 1 : 0;
+            }
+            return c;
+        }
+
+    };
+
+    private final LinkingModeEnum linkingMode;
+    private final boolean skipAltTokens;
+
+    /**
+     * @param linkingMode the linking mode
+     * @param skipAltTokens parsed to the {@link Tagger}
+     */
+    protected CorpusTagger(LinkingModeEnum linkingMode, boolean skipAltTokens){
+        if(linkingMode == null){
+            throw new IllegalArgumentException("The parsed LinkingMode MUST NOT be NULL!");
+        }
+        this.linkingMode = linkingMode;
+        this.skipAltTokens = skipAltTokens;
+    }
+    /**
+     * Creates the {@link TokenStream} for the text. Called once for every
+     * segment. For {@link LinkingModeEnum#NER} this needs to return a
+     * {@link NamedEntityTokenFilter} and for
+     * {@link LinkingModeEnum#LINKABLE_TOKEN} a {@link LinkableTokenFilter}.
+     * @return the token stream
+     * @throws IOException on any error while creating the token stream
+     */
+    protected abstract TokenStream createTokenStream() throws IOException;
+    /**
+     * Creates the {@link Match} for a document of the index
+     * @param docId the id of the document within the index
+     * @return the match
+     */
+    protected abstract Match createMatch(int docId);
+
+    /**
+     * Tags the text with the parsed segments and adds the tagging results to
+     * the parsed tag map.
+     * @param segments the FSTs of the segments of the corpus
+     * @param tags the Tags map used to store the tagging results
+     * @return the time in milliseconds spent in the tag callback.
+     * @throws IOException on any error while tagging the text
+     */
+    public int tag(List<SegmentFst> segments, Map<int[],Tag> tags) throws IOException {
+        if(segments.size() == 1){ //the Tagger reduces the tags of the single FST
+            TokenStream tokenStream = createTokenStream();
+            final TagClusterReducer reducer;
+            switch (linkingMode) {
+                case PLAIN: //will link all tokens and search longest dominant right
+                    reducer = TagClusterReducer.LONGEST_DOMINANT_RIGHT;
+                    break;
+                case NER:
+                    //a combination of the NamedEntityTokenFilter with the
+                    //longest dominant right as reducer
+                    reducer = new ChainedTagClusterReducer(toReducer(tokenStream),
+                        TagClusterReducer.LONGEST_DOMINANT_RIGHT);
+                    break;
+                case LINKABLE_TOKEN:
+                    //NOTE that the  LinkableTokenFilter implements longest dominant right
+                    // based on the matchable span of tags (instead of the whole span).
+                    reducer = new ChainedTagClusterReducer(toReducer(tokenStream),
+                        TagClusterReducer.ALL);
+                    break;
+                default:
+                    throw new IllegalStateException("Unrecognized LinkingMode '"
+                        + linkingMode + "! Please adapt implementation to changed Enumeration!");
+            }
+            log.debug(" - tokenStream: {}", tokenStream);
+            log.debug(" - reducer: {} (class: {})", reducer, reducer.getClass().getName());
+            return tag(segments.get(0), tokenStream, reducer, tags);
+        }
+        NavigableMap<int[],Tag> merged = new TreeMap<int[],Tag>(CLUSTER_ORDER);
+        Map<int[],int[]> matchableSpans = linkingMode == LinkingModeEnum.LINKABLE_TOKEN ?
+                new TreeMap<int[],int[]>(Tag.SPAN_COMPARATOR) : null;
+        int time = 0;
+        for(SegmentFst segment : segments){
+            TokenStream tokenStream = createTokenStream();
+            final TagClusterReducer reducer;
+            switch (linkingMode) {
+                case PLAIN:
+                    reducer = TagClusterReducer.ALL;
+                    break;
+                case NER: //filters only
+                    reducer = toReducer(tokenStream);
+                    break;
+                case LINKABLE_TOKEN:
+                    //only the first phase. Matchable spans are collected
+                    reducer = toReducer(tokenStream);
+                    ((LinkableTokenFilter)reducer).setMatchableSpans(matchableSpans);
+                    break;
+                default:
+                    throw new IllegalStateException("Unrecognized LinkingMode '"
+                        + linkingMode + "! Please adapt implementation to changed Enumeration!");
+            }
+            time = time + tag(segment, tokenStream, reducer, merged);
+        }
+        reduce(merged, matchableSpans, tags);
+        return time;
+    }
+
+    private TagClusterReducer toReducer(TokenStream tokenStream){
+        if(!(tokenStream instanceof TagClusterReducer)){
+            throw new IllegalStateException("The TokenStream for LinkingMode '"
+                + linkingMode + "' MUST implement TagClusterReducer (tokenStream: "
+                + tokenStream.getClass().getName()+")!");
+        }
+        return (TagClusterReducer)tokenStream;
+    }
+    /**
+     * Reduces clusters of overlapping tags of the merged segments by using
+     * the longest dominant right rule of the linking mode and adds the
+     * remaining tags with matches to the parsed tags.
+     * @param merged the merged tags sorted by {@link #CLUSTER_ORDER}
+     * @param matchableSpans the matchable spans of the tags or <code>null</code>
+     * if not {@link LinkingModeEnum#LINKABLE_TOKEN}
+     * @param tags the map to add the reduced tags to
+     */
+    private void reduce(NavigableMap<int[],Tag> merged, Map<int[],int[]> matchableSpans,
+            Map<int[],Tag> tags){
+        List<Tag> cluster = new ArrayList<Tag>();
+        int clusterEnd = -1;
+        for(Tag tag : merged.values()){
+            if(tag.getStart() >= clusterEnd){
+                reduceCluster(cluster, matchableSpans, tags);
+                cluster.clear();
+            }
+            cluster.add(tag);
+            clusterEnd = Math.max(clusterEnd, tag.getEnd());
+        }
+        reduceCluster(cluster, matchableSpans, tags);
+    }
+
+    private void reduceCluster(List<Tag> cluster, Map<int[],int[]> matchableSpans,
+            Map<int[],Tag> tags){
+        List<int[]> spans = new ArrayList<int[]>(cluster.size());
+        for(Tag tag : cluster){
+            spans.add(matchableSpans == null ? tag.span : matchableSpans.get(tag.span));
+        }
+        boolean[] removed = matchableSpans == null ? longestDominantRight(spans) :
+            LinkableTokenFilter.reduceMatchableSpans(spans);
+        for(int i = 0; i < removed.length; i++){
+            if(!removed[i]){
+                Tag tag = cluster.get(i);
+                Tag present = tags.get(tag.span);
+                if(present == null){
+                    tags.put(tag.span, tag);
+                } else { //also found by an other corpus
+                    present.addIds(tag.getMatches());
+                }
+            }
+        }
+    }
+    /**
+     * Reduces Tags of a cluster by using the longest dominant right rule.<p>
+     * NOTE: This is the same code as TagClusterReducer#LONGEST_DOMINANT_RIGHT
+     *       but adapted to operate on spans
+     * @param spans the spans of the tags of the cluster in the order of the
+     * cluster (see {@link #CLUSTER_ORDER})
+     * @return the removed state for the parsed spans
+     */
+    static boolean[] longestDominantRight(List<int[]> spans){
+        boolean[] removed = new boolean[spans.size()];
+        if(spans.size() < 2){
+            return removed; //single token optimization
+        }
+        boolean[] marked = new boolean[spans.size()];
+        while (true) {
+            // --Find longest not already marked
+            int longest = -1;
+            int longestCharLen = -1;
+            for (int i = 0; i < removed.length; i++) {
+                int charLen = spans.get(i)[1] - spans.get(i)[0];
+                if (!removed[i] && !marked[i] && (longest < 0 || charLen >= longestCharLen)) {
+                    longest = i;
+                    longestCharLen = charLen;
+                }
+            }
+            if (longest < 0) break;
+            // --Mark longest (so we return it eventually)
+            marked[longest] = true;
+            int[] longestSpan = spans.get(longest);
+            // --Remove tags overlapping this longest
+            for (int i = 0; i < removed.length; i++) {
+                if (removed[i] || marked[i]) {
+                    continue;
+                }
+                int[] span = spans.get(i);
+                boolean overlaps = span[0] < longestSpan[0] ?
+                        span[1] > longestSpan[0] : span[0] < longestSpan[1];
+                if (overlaps) {
+                    removed[i] = true;
+                } else if (span[0] >= longestSpan[1]) {
+                    break;// no subsequent can possibly overlap
+                }
+            }
+        }// loop
+        return removed;
+    }
+    /**
+     * Tags the content with the FST of a single segment
+     * @return the time in milliseconds spent in the tag callback.
+     */
+    private int tag(final SegmentFst segment, TokenStream tokenStream, TagClusterReducer reducer,
+            final Map<int[],Tag> tags) throws IOException {
+        final long[] time = new long[]{0};
+        new Tagger(segment.getFst(), tokenStream, reducer, skipAltTokens) {
+
+            @Override
+            protected void tagCallback(int startOffset, int endOffset, long docIdsKey) {
+                long start = System.nanoTime();
+                Set<Match> matches = createMatches(docIdsKey);
+                if(matches.isEmpty()){ //all matching documents of the segment are deleted
+                    time[0] = time[0]+(System.nanoTime()-start);
+                    return;
+                }
+                int[] span = new int[]{startOffset,endOffset};
+                Tag tag = tags.get(span);
+                if(tag == null){
+                    tag = new Tag(span);
+                    tags.put(span, tag);
+                }
+                if(log.isTraceEnabled()){
+                    log.trace(" > tagCallback for {}: {} matches", tag, matches.size());
+                }
+                tag.addIds(matches);
+                long dif = System.nanoTime()-start;
+                time[0] = time[0]+dif;
+            }
+
+            //NOTE: We can not use a cache, because we need to create different
+            //      Match instances even for the same 'docIdsKey'. This is because
+            //      the same result list might get generated for different
+            //      surface forms in the text (e.g. if the SolrIndex is case
+            //      insensitive, but the linking does consider the case when
+            //      calculating the score). If we would use this cache Match
+            //      instances would be used for several occurrences in the text
+            //      and Match#getScore() values would get overridden when
+            //      processing those multiple occurrences.
+            //Map<Long,Set<Match>> docIdsListCache = new HashMap<Long,Set<Match>>(1024);
+
+            private Set<Match> createMatches(long docIdsKey) {
+                IntsRef docIds = lookupDocIds(docIdsKey);
+                Set<Match> matches = new HashSet<Match>(docIds.length);
+                for (int i = docIds.offset; i < docIds.offset + docIds.length; i++) {
+                    int docId = segment.toIndexDocId(docIds.ints[i]);
+                    if(docId < 0){ //deleted document
+                        continue;
+                    }
+                    matches.add(createMatch(docId));// translates here
+                }
+                return matches;
+            }
+
+        }.process();
+        return (int)(time[0]/1000000);
+    }
+}
@@ -50,8 +50,6 @@ import org.apache.clerezza.commons.rdf.impl.utils.TripleImpl;
 import org.apache.commons.io.input.CharSequenceReader;
 import org.apache.commons.lang.StringUtils;
 import org.apache.lucene.analysis.TokenStream;
-import org.apache.lucene.util.IntsRef;
-import org.apache.lucene.util.OpenBitSet;
 import org.apache.solr.core.SolrCore;
 import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcher;
 import org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig;
@@ -72,8 +70,6 @@ import org.apache.stanbol.enhancer.servicesapi.helper.ContentItemHelper;
 import org.apache.stanbol.enhancer.servicesapi.helper.EnhancementEngineHelper;
 import org.apache.stanbol.enhancer.servicesapi.rdf.NamespaceEnum;
 import org.apache.stanbol.enhancer.servicesapi.rdf.Properties;
-import org.opensextant.solrtexttagger.TagClusterReducer;
-import org.opensextant.solrtexttagger.Tagger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -490,7 +486,9 @@ public class FstLinkingEngine implements EnhancementEngine, ServiceProperties {
     }
     /**
      * Uses the {@link Corpus} to tag the the {@link AnalysedText} and adds 
-     * tagging results to the parsed tag map.
+     * tagging results to the parsed tag map. If the corpus consists of 
+     * several segments the {@link CorpusTagger} merges the tags of the 
+     * segments before they are reduced by the rules of the {@link #linkingMode}.
      * @param content the content to link
      * @param at the AnalyzedText. not required if {@link LinkingModeEnum#PLAIN}
      * @param session the tagging session of the text
@@ -501,95 +499,37 @@ public class FstLinkingEngine implements EnhancementEngine, ServiceProperties {
      */
     private int tag(final String content, final AnalysedText at, final TaggingSession session, 
             final Corpus corpus, final Map<int[],Tag> tags) throws IOException{
-        final OpenBitSet matchDocIdsBS = new OpenBitSet(session.getSearcher().maxDoc());
-        TokenStream baseTokenStream = corpus.getTaggingAnalyzer().tokenStream("", 
-            new CharSequenceReader(content));
-        final TokenStream tokenStream;
-        final TagClusterReducer reducer;
         log.debug(" ... set up TokenStream and TagClusterReducer for linking mode {}", linkingMode);
-        switch (linkingMode) {
-            case PLAIN: //will link all tokens and search longest dominant right
-                tokenStream = baseTokenStream;
-                reducer = TagClusterReducer.LONGEST_DOMINANT_RIGHT;
-                break;
-            case NER:
-                //this uses the NamedEntityTokenFilter as tokenStream and a
-                //combination with the longest dominant right as reducer 
-                NamedEntityTokenFilter neTokenFilter = new NamedEntityTokenFilter(
-                    baseTokenStream, at, session.getLanguage(), neTypeMappings.keySet(),
-                    session.entityMentionTypes);
-                tokenStream = neTokenFilter;
-                reducer = new ChainedTagClusterReducer(neTokenFilter,
-                    TagClusterReducer.LONGEST_DOMINANT_RIGHT);
-                break;
-            case LINKABLE_TOKEN:
-                //this uses the LinkableTokenFilter as tokenStream
-                LinkableTokenFilter linkableTokenFilter = new LinkableTokenFilter(baseTokenStream, 
-                    at, session.getLanguage(), tpConfig.getConfiguration(session.getLanguage()),
-                    elConfig.getMinChunkMatchScore(), elConfig.getMinFoundTokens());
-                //NOTE that the  LinkableTokenFilter implements longest dominant right
-                // based on the matchable span of tags (instead of the whole span).
-                reducer = new ChainedTagClusterReducer(
-                    linkableTokenFilter,TagClusterReducer.ALL);
-                tokenStream = linkableTokenFilter;
-                break;
-            default:
-                throw new IllegalStateException("Unrecognized LinkingMode '"
-                    + linkingMode + "! Please adapt implementation to changed Enumeration!");
-        }
-        log.debug(" - tokenStream: {}", tokenStream);
-        log.debug(" - reducer: {} (class: {})", reducer, reducer.getClass().getName());
-        
-        //Now process the document
-        final long[] time = new long[]{0};
-        new Tagger(corpus.getFst(), tokenStream, reducer,session.isSkipAltTokens()) {
+        return new CorpusTagger(linkingMode, session.isSkipAltTokens()) {
             
             @Override
-            protected void tagCallback(int startOffset, int endOffset, long docIdsKey) {
-                long start = System.nanoTime();
-                if(log.isTraceEnabled()){
-                    log.trace(" > tagCallback for {}", content.subSequence(startOffset, endOffset));
-                }
-                int[] span = new int[]{startOffset,endOffset};
-                Tag tag = tags.get(span);
-                if(tag == null){
-                    tag = new Tag(span);
-                    tags.put(span, tag);
+            protected TokenStream createTokenStream() throws IOException {
+                TokenStream baseTokenStream = corpus.getTaggingAnalyzer().tokenStream("", 
+                    new CharSequenceReader(content));
+                switch (linkingMode) {
+                    case PLAIN: //will link all tokens
+                        return baseTokenStream;
+                    case NER:
+                        //this uses the NamedEntityTokenFilter as tokenStream
+                        return new NamedEntityTokenFilter(baseTokenStream, at,
+                            session.getLanguage(), neTypeMappings.keySet(),
+                            session.entityMentionTypes);
+                    case LINKABLE_TOKEN:
+                        //this uses the LinkableTokenFilter as tokenStream
+                        return new LinkableTokenFilter(baseTokenStream, at, 
+                            session.getLanguage(), tpConfig.getConfiguration(session.getLanguage()),
+                            elConfig.getMinChunkMatchScore(), elConfig.getMinFoundTokens());
+                    default:
+                        throw new IllegalStateException("Unrecognized LinkingMode '"
+                            + linkingMode + "! Please adapt implementation to changed Enumeration!");
                 }
-                // below caches, and also flags matchDocIdsBS
-                Set<Match> matches = createMatches(docIdsKey);
-                if(log.isTraceEnabled()){
-                    log.trace("  - {} matches", matches.size());
-                }
-                tag.addIds(matches);
-                long dif = System.nanoTime()-start;
-                time[0] = time[0]+dif;
             }
             
-            //NOTE: We can not use a cache, because we need to create different
-            //      Match instances even for the same 'docIdsKey'. This is because
-            //      the same result list might get generated for different
-            //      surface forms in the text (e.g. if the SolrIndex is case
-            //      insensitive, but the linking does consider the case when
-            //      calculating the score). If we would use this cache Match
-            //      instances would be used for several occurrences in the text
-            //      and Match#getScore() values would get overridden when 
-            //      processing those multiple occurrences.
-            //Map<Long,Set<Match>> docIdsListCache = new HashMap<Long,Set<Match>>(1024);
-
-            private Set<Match> createMatches(long docIdsKey) {
-                IntsRef docIds = lookupDocIds(docIdsKey);
-                Set<Match> matches = new HashSet<Match>(docIds.length);
-                for (int i = docIds.offset; i < docIds.offset + docIds.length; i++) {
-                    int docId = docIds.ints[i];
-                    matchDocIdsBS.set(docId);// also, flip docid in bitset
-                    matches.add(session.createMatch(docId));// translates here
-                }
-                return matches;
+            @Override
+            protected Match createMatch(int docId) {
+                return session.createMatch(docId);
             }
-
-        }.process();
-        return (int)(time[0]/1000000);
+        }.tag(corpus.getSegments(), tags);
     }
     /**
      * Adapts the scores of Matches with the same {@link Match#getScore() score}
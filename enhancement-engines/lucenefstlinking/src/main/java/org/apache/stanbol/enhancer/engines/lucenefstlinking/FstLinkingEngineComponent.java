@@ -80,7 +80,6 @@ import org.apache.stanbol.enhancer.nlp.ner.NerTag;
 import org.apache.stanbol.enhancer.nlp.utils.LanguageConfiguration;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
 import org.apache.stanbol.enhancer.servicesapi.ServiceProperties;
-import org.opensextant.solrtexttagger.TaggerFstCorpus;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.Constants;
 import org.osgi.framework.InvalidSyntaxException;
@@ -144,6 +143,8 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
         intValue=FstLinkingEngineComponent.DEFAULT_FST_THREAD_POOL_SIZE),
     @Property(name=FstLinkingEngineComponent.ENTITY_CACHE_SIZE, 
         intValue=FstLinkingEngineComponent.DEFAULT_ENTITY_CACHE_SIZE),
+    @Property(name=FstLinkingEngineComponent.ENTITY_CACHE_AUTOWARM, 
+        intValue=FstLinkingEngineComponent.DEFAULT_ENTITY_CACHE_AUTOWARM),
     @Property(name=SUGGESTIONS, intValue=DEFAULT_SUGGESTIONS),
     @Property(name=INCLUDE_SIMILAR_SCORE, boolValue=DEFAULT_INCLUDE_SIMILAR_SCORE),
     @Property(name=CASE_SENSITIVE,boolValue=DEFAULT_CASE_SENSITIVE_MATCHING_STATE),
@@ -223,6 +224,17 @@ public class FstLinkingEngineComponent {
      * The default size of the Entity Cache is set to 65k entities.
      */
     public static final int DEFAULT_ENTITY_CACHE_SIZE = 65536;
+    /**
+     * Parameter used to configure the number of the most recently used entities
+     * that are carried over to the EntityCache of a new version of the Solr index.
+     * Entities that where added or updated in the new version are not carried
+     * over. Values <code>&lt;= 0</code> deactivate autowarming.
+     */
+    public static final String ENTITY_CACHE_AUTOWARM = "enhancer.engines.linking.lucenefst.entityCacheAutowarm";
+    /**
+     * By default 16k entities are carried over to the cache of a new index version
+     */
+    public static final int DEFAULT_ENTITY_CACHE_AUTOWARM = 16384;
 
     /**
      * Changed default for the {@link EntityLinkerConfig#MIN_FOUND_TOKENS} property.
@@ -344,6 +356,11 @@ public class FstLinkingEngineComponent {
      * The size of the EntityCache ( <code>0</code> ... means deactivated)
      */
     private int entityCacheSize;
+    /**
+     * The number of entities carried over to the EntityCache of a new index
+     * version ( <code>0</code> ... means deactivated)
+     */
+    private int entityCacheAutowarm;
 
     private Map<String,Set<String>> nerTypeMappings;
     
@@ -580,6 +597,25 @@ public class FstLinkingEngineComponent {
             this.entityCacheSize = entityCacheSize < 0 ? DEFAULT_ENTITY_CACHE_SIZE : entityCacheSize;
         	log.info(" ... EntityCache enabled (size: {})",this.entityCacheSize);
         }
+        value = properties.get(ENTITY_CACHE_AUTOWARM);
+        if(value instanceof Number){
+            entityCacheAutowarm = ((Number)value).intValue();
+        } else if (value != null && !StringUtils.isBlank(value.toString())){
+            try {
+                entityCacheAutowarm = Integer.parseInt(value.toString());
+            } catch (NumberFormatException e) {
+                throw new ConfigurationException(ENTITY_CACHE_AUTOWARM, 
+                    "Unable to parse the integer EntityCache autowarm count from the "
+                    + "configured "+value.getClass().getSimpleName()+" '" 
+                    + value+"'!",e);
+            }
+        } else {
+            entityCacheAutowarm = DEFAULT_ENTITY_CACHE_AUTOWARM;
+        }
+        if(this.entityCacheSize > 0){
+            log.info(" ... EntityCache autowarm count: {}", Math.max(0, 
+                Math.min(entityCacheAutowarm, this.entityCacheSize)));
+        }
         
         //(8) parse the Entity type field
         value = properties.get(IndexConfiguration.SOLR_TYPE_FIELD);
@@ -775,7 +811,8 @@ public class FstLinkingEngineComponent {
                 indexConfig.setFstDirectory(getFstDirectory(core, fstFolder));
                 //set the DocumentCacheFactory
                 if(entityCacheSize > 0){
-                    indexConfig.setEntityCacheManager(new FastLRUCacheManager(entityCacheSize));
+                    indexConfig.setEntityCacheManager(new FastLRUCacheManager(entityCacheSize,
+                        Math.min(entityCacheAutowarm, entityCacheSize)));
                 } //else no entityCache is used
                 if(skipAltTokensConfig != null){
                     indexConfig.setSkipAltTokens(skipAltTokensConfig);
@@ -802,12 +839,14 @@ public class FstLinkingEngineComponent {
                 }
                 //check if we need to create some FST files
                 for(CorpusInfo fstInfo : indexConfig.getCorpora()){
-                    //check if the fst does not exist and the fstInfo allows creation
-                    if(!fstInfo.fst.exists() && fstInfo.allowCreation){
+                    //check if the fst does not exist (or the FSTs of segments need
+                    //to be loaded) and the fstInfo allows creation
+                    if(fstInfo.allowCreation && (!fstInfo.fst.exists() || 
+                            fstInfo.segmentDirectory.isDirectory())){
                         //create a task on the FST corpus creation service
                         fstInfo.corpusLock.writeLock().lock();
                         try {
-                            Future<TaggerFstCorpus> enqueued = fstCreatorService.submit(new CorpusCreationTask(indexConfig, fstInfo));
+                            Future<SegmentedCorpus> enqueued = fstCreatorService.submit(new CorpusCreationTask(indexConfig, fstInfo));
                             fstInfo.enqueued(enqueued);
                         } finally {
                             fstInfo.corpusLock.writeLock().unlock();
@@ -975,6 +1014,7 @@ public class FstLinkingEngineComponent {
         textProcessingConfig = null;
         entityLinkerConfig = null;
         entityCacheSize = -1;
+        entityCacheAutowarm = -1;
         bundleContext = null;
         skipAltTokensConfig = null;
         
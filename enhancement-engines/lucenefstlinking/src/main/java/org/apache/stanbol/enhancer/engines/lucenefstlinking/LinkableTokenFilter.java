@@ -21,11 +21,11 @@ import static org.apache.stanbol.enhancer.engines.entitylinking.config.TextProce
 import java.io.IOException;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -170,6 +170,12 @@ public final class LinkableTokenFilter extends TokenFilter implements TagCluster
      * considered. Only used within processable chunks
      */
     private int minFoundTokens;
+    /**
+     * If not <code>null</code> {@link #reduce(TagLL[])} only applies the
+     * first phase and stores the matchable spans of the remaining tags in
+     * this map.
+     */
+    private Map<int[],int[]> matchableSpans;
     
     protected LinkableTokenFilter(TokenStream input, AnalysedText at, 
             String lang, LanguageProcessingConfig lpc, double minChunkMatchScore, int minFoundTokens) {
@@ -367,6 +373,19 @@ public final class LinkableTokenFilter extends TokenFilter implements TagCluster
             linkableTokens.add(new LinkableTokenContext(token, sectionData.getTokens()));
         }
     }
+    /**
+     * Disables the 2nd phase of {@link #reduce(TagLL[])}. Instead the
+     * matchable spans of all tags remaining after the first phase are stored
+     * in the parsed map. This is used if the {@link Tag}s of several FSTs
+     * are merged before the 2nd phase is applied by calling
+     * {@link #reduceMatchableSpans(List)} for clusters of the merged tags.
+     * @param matchableSpans the map used to store the matchable spans. The
+     * tag span is used as key. MUST compare keys by value (e.g. by using
+     * {@link Tag#SPAN_COMPARATOR}).
+     */
+    void setMatchableSpans(Map<int[],int[]> matchableSpans) {
+        this.matchableSpans = matchableSpans;
+    }
     /**
      * Getter for the current Token
      * @return
@@ -493,47 +512,82 @@ public final class LinkableTokenFilter extends TokenFilter implements TagCluster
                 }
             }
         }
+        if(matchableSpans != null){ //phase (2) is applied on the merged tags
+            for(TagLL tag = head[0]; tag != null; tag = tag.getNextTag()) {
+                matchableSpans.put(new int[]{tag.getStartOffset(),tag.getEndOffset()},
+                    matchableTagSpan.get(tag));
+            }
+            return;
+        }
         //(2) reduce Tags base on longest dominant right based on the matchable
         //    spans
-        //NOTE: This is the same code as TagClusterReducer#LONGEST_DOMINANT_RIGHT
-        //      but adapted to use the matchable spans instead of the full Tag
-        //      spans
         if (head.length == 0 || head[0] == null || head[0].getNextTag() == null) {
             return; //no tag left from phase one or single token optimization
         }
-        Set<TagLL> marked = new HashSet<TagLL>(); //can not use TagLL#mark
+        List<TagLL> cluster = new ArrayList<TagLL>();
+        List<int[]> clusterMSpans = new ArrayList<int[]>();
+        for (TagLL t = head[0]; t != null; t = t.getNextTag()) {
+            cluster.add(t);
+            clusterMSpans.add(matchableTagSpan.get(t));
+        }
+        boolean[] removed = reduceMatchableSpans(clusterMSpans);
+        for(int i = 0; i < removed.length; i++){
+            if(removed[i]){
+                cluster.get(i).removeLL();
+            }
+        }
+    }
+    /**
+     * Reduces Tags of a cluster based on longest dominant right based on the
+     * matchable spans of the tags.<p>
+     * NOTE: This is the same code as TagClusterReducer#LONGEST_DOMINANT_RIGHT
+     *       but adapted to use the matchable spans instead of the full Tag
+     *       spans
+     * @param mSpans the matchable spans of the tags of the cluster in the
+     * order of the cluster (by start offset and for the same start by end offset)
+     * @return the removed state for the parsed matchable spans
+     */
+    static boolean[] reduceMatchableSpans(List<int[]> mSpans){
+        boolean[] removed = new boolean[mSpans.size()];
+        if(mSpans.size() < 2){
+            return removed; //single token optimization
+        }
+        boolean[] marked = new boolean[mSpans.size()]; //can not use TagLL#mark
         while (true) {
             // --Find longest not already marked
-            TagLL longest = null;
+            int longest = -1;
             int longestMCharLen = -1;
-            int[] longestMSpan = null;
-            for (TagLL t = head[0]; t != null; t = t.getNextTag()) {
-                int[] mSpan = matchableTagSpan.get(t);
+            for (int i = 0; i < removed.length; i++) {
+                if(removed[i]){
+                    continue;
+                }
+                int[] mSpan = mSpans.get(i);
                 int mCharLen = mSpan[1] - mSpan[0];
-                if (!marked.contains(t) && (longest == null || mCharLen >= longestMCharLen)) {
-                    longest = t;
-                    longestMSpan = mSpan;
+                if (!marked[i] && (longest < 0 || mCharLen >= longestMCharLen)) {
+                    longest = i;
                     longestMCharLen = mCharLen;
                 }
             }
-            if (longest == null) break;
+            if (longest < 0) break;
             // --Mark longest (so we return it eventually)
-            marked.add(longest);
+            marked[longest] = true;
+            int[] longestMSpan = mSpans.get(longest);
             // --Remove tags overlapping this longest
-            for (TagLL t = head[0]; t != null; t = t.getNextTag()) {
-                if (marked.contains(t)) {
+            for (int i = 0; i < removed.length; i++) {
+                if (removed[i] || marked[i]) {
                     continue;
                 }
-                int[] mSpan = matchableTagSpan.get(t);
+                int[] mSpan = mSpans.get(i);
                 boolean overlaps =
                         mSpan[0] < longestMSpan[0] ? mSpan[1] > longestMSpan[1] : mSpan[0] < longestMSpan[1];
                 if (overlaps) {
-                    t.removeLL();
+                    removed[i] = true;
                 } else if (mSpan[0] >= longestMSpan[1]) {
                     break;// no subsequent can possibly overlap
                 }
             }
         }// loop
+        return removed;
     }
     /**
      * Holds the context for a linkable {@link Token}s. This ensures that the
@@ -0,0 +1,230 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.engines.lucenefstlinking;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.lucene.index.AtomicReader;
+import org.apache.lucene.index.AtomicReaderContext;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.SegmentInfo;
+import org.apache.lucene.index.SegmentReader;
+import org.apache.lucene.util.Bits;
+import org.opensextant.solrtexttagger.TaggerFstCorpus;
+
+/**
+ * A FST corpus for a specific version of the Solr index that consists of
+ * one {@link TaggerFstCorpus} per Lucene segment. As segments are immutable
+ * (with the exception of deletions) the {@link TaggerFstCorpus} of a segment
+ * can be reused for later versions of the index. So after a commit only
+ * the FSTs of new segments need to be built.<p>
+ * Corpora built for the whole index (e.g. loaded from a FST file provided
+ * with the index) are represented by a single {@link #COMPOSITE} segment.
+ * @author Rupert Westenthaler
+ *
+ */
+public class SegmentedCorpus {
+
+    /**
+     * The name used for a {@link TaggerFstCorpus} built for the whole index
+     */
+    public static final String COMPOSITE = "";
+    
+    private final long indexVersion;
+    
+    private final Map<String,TaggerFstCorpus> segments;
+    
+    private final Map<String,String> identities;
+    
+    /**
+     * Creates a segmented corpus
+     * @param indexVersion the version of the index
+     * @param segments the FSTs by segment name
+     * @param identities the {@link #getSegmentIdentity(AtomicReader) identities}
+     * by segment name or <code>null</code> if not known
+     */
+    public SegmentedCorpus(long indexVersion, Map<String,TaggerFstCorpus> segments,
+            Map<String,String> identities){
+        if(segments == null){
+            throw new IllegalArgumentException("The parsed segments MUST NOT be NULL!");
+        }
+        this.indexVersion = indexVersion;
+        this.segments = Collections.unmodifiableMap(new LinkedHashMap<String,TaggerFstCorpus>(segments));
+        this.identities = identities == null ? Collections.<String,String>emptyMap() :
+            Collections.unmodifiableMap(new HashMap<String,String>(identities));
+    }
+    /**
+     * Creates a corpus based on a single FST built for the whole index
+     * @param fst the FST
+     * @return the corpus
+     */
+    public static SegmentedCorpus composite(TaggerFstCorpus fst){
+        return new SegmentedCorpus(fst.getIndexVersion(), 
+            Collections.singletonMap(COMPOSITE, fst), null);
+    }
+    /**
+     * The version of the index this corpus was built for
+     * @return the version
+     */
+    public long getIndexVersion() {
+        return indexVersion;
+    }
+    /**
+     * If this corpus uses a single FST for the whole index
+     * @return the state
+     */
+    public boolean isComposite(){
+        return segments.containsKey(COMPOSITE);
+    }
+    
+    public Set<String> getSegmentNames(){
+        return segments.keySet();
+    }
+    
+    public TaggerFstCorpus getSegment(String name){
+        return segments.get(name);
+    }
+    /**
+     * Getter for the FST of the segment with the parsed name if it was
+     * built for a segment with the parsed identity.
+     * @param name the name of the segment
+     * @param identity the identity of the segment
+     * @return the FST or <code>null</code> if not present or built for an
+     * other segment with the same name
+     */
+    public TaggerFstCorpus getSegment(String name, String identity){
+        return identity.equals(identities.get(name)) ? segments.get(name) : null;
+    }
+    
+    public int size(){
+        return segments.size();
+    }
+    /**
+     * Resolves the FSTs of this corpus against the segments of the parsed
+     * reader. Segments of the reader that are not part of this corpus
+     * (because this corpus is outdated) are ignored.
+     * @param reader the reader
+     * @return the FSTs with the docBase and live docs of their segment
+     */
+    public List<SegmentFst> resolve(IndexReader reader){
+        if(isComposite()){
+            return Collections.singletonList(new SegmentFst(COMPOSITE, 
+                segments.get(COMPOSITE), 0, null));
+        }
+        List<SegmentFst> resolved = new ArrayList<SegmentFst>(segments.size());
+        for(AtomicReaderContext leaf : reader.leaves()){
+            String name = getSegmentName(leaf.reader());
+            TaggerFstCorpus fst = name == null ? null : segments.get(name);
+            if(fst != null){
+                resolved.add(new SegmentFst(name, fst, leaf.docBase, leaf.reader().getLiveDocs()));
+            }
+        }
+        return resolved;
+    }
+    /**
+     * The name of the segment read by the parsed reader
+     * @param reader the reader of a leaf of the index
+     * @return the name or <code>null</code> if the reader is not a
+     * {@link SegmentReader}
+     */
+    public static String getSegmentName(AtomicReader reader){
+        return reader instanceof SegmentReader ? 
+                ((SegmentReader)reader).getSegmentName() : null;
+    }
+    /**
+     * The identity of the segment read by the parsed reader. Segment names
+     * are only unique within an index (e.g. a rebuilt index will reuse them).
+     * The identity combines the number of documents, the size of the files
+     * and the creation time of the segment. Deletions are not part of the
+     * identity, as they are applied by using the live docs.
+     * @param reader the reader of a leaf of the index
+     * @return the identity or <code>null</code> if the reader is not a
+     * {@link SegmentReader}
+     * @throws IOException on any error while reading the size of the files
+     */
+    public static String getSegmentIdentity(AtomicReader reader) throws IOException {
+        if(!(reader instanceof SegmentReader)){
+            return null;
+        }
+        SegmentInfo info = ((SegmentReader)reader).getSegmentInfo().info;
+        long size = 0;
+        for(String file : info.files()){
+            size = size + info.dir.fileLength(file);
+        }
+        StringBuilder identity = new StringBuilder();
+        identity.append(info.getDocCount()).append('-').append(size);
+        String timestamp = info.getDiagnostics() == null ? null : 
+            info.getDiagnostics().get("timestamp");
+        if(timestamp != null){
+            identity.append('-').append(timestamp);
+        }
+        return identity.toString();
+    }
+    
+    @Override
+    public String toString() {
+        return new StringBuilder("SegmentedCorpus[version: ").append(indexVersion)
+                .append(" | segments: ").append(segments.keySet()).append(']').toString();
+    }
+    
+    /**
+     * The {@link TaggerFstCorpus} of a segment together with the information 
+     * needed to map segment local document ids to ids of the index.
+     */
+    public static class SegmentFst {
+        
+        private final String name;
+        private final TaggerFstCorpus fst;
+        private final int docBase;
+        private final Bits liveDocs;
+        
+        SegmentFst(String name, TaggerFstCorpus fst, int docBase, Bits liveDocs){
+            this.name = name;
+            this.fst = fst;
+            this.docBase = docBase;
+            this.liveDocs = liveDocs;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public TaggerFstCorpus getFst() {
+            return fst;
+        }
+        /**
+         * Maps a document id returned by the {@link #getFst() FST} to the
+         * id within the index.
+         * @param docId the segment local document id
+         * @return the id in the index or <code>-1</code> if the document was
+         * deleted
+         */
+        public int toIndexDocId(int docId){
+            if(liveDocs != null && !liveDocs.get(docId)){
+                return -1;
+            }
+            return docBase + docId;
+        }
+    }
+}
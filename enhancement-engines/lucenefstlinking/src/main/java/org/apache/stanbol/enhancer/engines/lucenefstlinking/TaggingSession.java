@@ -19,6 +19,7 @@ package org.apache.stanbol.enhancer.engines.lucenefstlinking;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -51,9 +52,9 @@ import org.apache.solr.search.SolrIndexSearcher;
 import org.apache.solr.util.RefCounted;
 import org.apache.stanbol.enhancer.engines.lucenefstlinking.Match.FieldLoader;
 import org.apache.stanbol.enhancer.engines.lucenefstlinking.Match.FieldType;
+import org.apache.stanbol.enhancer.engines.lucenefstlinking.SegmentedCorpus.SegmentFst;
 import org.apache.stanbol.enhancer.engines.lucenefstlinking.cache.EntityCache;
 import org.apache.stanbol.enhancer.nlp.ner.NerTag;
-import org.opensextant.solrtexttagger.TaggerFstCorpus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -166,7 +167,7 @@ public class TaggingSession implements Closeable {
         }
         if(langCorpusInfo != null){
             this.langCorpus = new Corpus(langCorpusInfo,
-                obtainFstCorpus(indexVersion,langCorpusInfo));
+                obtainFstCorpus(indexVersion,langCorpusInfo), indexReader);
             this.labelField = langCorpusInfo.storedField;
             solrDocfields.add(labelField);
             this.labelLang = langCorpusInfo.language == null || 
@@ -178,7 +179,7 @@ public class TaggingSession implements Closeable {
         }
         if(defaultCorpusInfo != null && !defaultCorpusInfo.equals(langCorpusInfo)){
             this.defaultCorpus = new Corpus(defaultCorpusInfo,
-                obtainFstCorpus(indexVersion,defaultCorpusInfo));
+                obtainFstCorpus(indexVersion,defaultCorpusInfo), indexReader);
             this.defaultLabelField = defaultCorpusInfo.storedField;
             solrDocfields.add(defaultLabelField);
             this.defaultLabelLang = defaultCorpusInfo.language == null || 
@@ -216,7 +217,7 @@ public class TaggingSession implements Closeable {
             this.rankingField = null;
         }
         if(config.getEntityCacheManager() != null){
-            documentCacheRef = config.getEntityCacheManager().getCache(indexVersion);
+            documentCacheRef = config.getEntityCacheManager().getCache(searcher);
         }
 //        uniqueKeyCache = null; //no longer used.
 //        uniqueKeyCache = new ValueSourceAccessor(searcher, idSchemaField.getType()
@@ -341,16 +342,18 @@ public class TaggingSession implements Closeable {
     
     /**
      * Obtains the FST corpus for the parsed CorpusInfo. The other parameters
-     * are just used for error messages in case this is not successful.
+     * are just used for error messages in case this is not successful.<p>
+     * If the corpus is outdated an incremental update is enqueued, but the
+     * outdated version is used until the update has completed.
      * @param indexVersion the current version of the index
      * @param fstInfo the info about the corpus
-     * @return the TaggerFstCorpus
+     * @return the SegmentedCorpus
      * @throws CorpusException if the requested corpus is currently not available
      */
-    private TaggerFstCorpus obtainFstCorpus(Long indexVersion, CorpusInfo fstInfo) throws CorpusException {
-        TaggerFstCorpus fstCorpus;
+    private SegmentedCorpus obtainFstCorpus(Long indexVersion, CorpusInfo fstInfo) throws CorpusException {
+        SegmentedCorpus fstCorpus;
         fstCorpus = fstInfo.getCorpus(); 
-        Future<TaggerFstCorpus> enqueuedCorpus = null;
+        Future<SegmentedCorpus> enqueuedCorpus = null;
         if (fstCorpus == null) {
             if (!fstInfo.allowCreation && fstInfo.isFstCreationError()) {
                 throw new CorpusException(fstInfo.getErrorMessage(), null);
@@ -384,7 +387,7 @@ public class TaggingSession implements Closeable {
                         fstInfo.allowCreation && config.getExecutorService() != null){
                     log.debug(" - enqueue creation of {}", fstInfo);
                     enqueuedCorpus = enqueue(fstInfo);
-                } else {
+                } else if(enqueuedCorpus == null){
                     log.warn("Unable to update outdated FST corpus for language '{}' "
                             + "because runtimeCreation is {} and ExecutorServic "
                             + "is {} available!", new Object[]{fstInfo.language,
@@ -398,8 +401,8 @@ public class TaggingSession implements Closeable {
             }
         }
         //TODO: maybe make this configurable
-        int waitTime = fstCorpus == null ? 30 : 10; 
-        if(enqueuedCorpus != null){ //we needed to build a new corpus
+        int waitTime = fstCorpus == null ? 30 : 0; //do not wait if a previous version is present
+        if(enqueuedCorpus != null && (fstCorpus == null || enqueuedCorpus.isDone())){ //we needed to build a new corpus
             try {
                 log.debug(" - will wait max {}sec for creation of {}", waitTime, fstInfo);
                 fstCorpus = enqueuedCorpus.get(waitTime, TimeUnit.SECONDS);
@@ -432,8 +435,8 @@ public class TaggingSession implements Closeable {
      * @param fstInfo
      * @return
      */
-    private Future<TaggerFstCorpus> enqueue(CorpusInfo fstInfo) {
-        Future<TaggerFstCorpus> enqueuedCorpus;
+    private Future<SegmentedCorpus> enqueue(CorpusInfo fstInfo) {
+        Future<SegmentedCorpus> enqueuedCorpus;
         fstInfo.corpusLock.writeLock().lock();
         try {
             enqueuedCorpus = fstInfo.getEnqueued(); //check again in write lock
@@ -623,11 +626,14 @@ public class TaggingSession implements Closeable {
     public class Corpus {
         
         private CorpusInfo corpusInfo;
-        private TaggerFstCorpus fst;
+        private SegmentedCorpus fst;
+        private List<SegmentFst> segments;
 
-        Corpus(CorpusInfo corpusInfo, TaggerFstCorpus fst){
+        Corpus(CorpusInfo corpusInfo, SegmentedCorpus fst, IndexReader indexReader){
             this.corpusInfo = corpusInfo;
             this.fst = fst;
+            this.segments = fst == null ? Collections.<SegmentFst>emptyList() : 
+                fst.resolve(indexReader);
         }
         
         public String getLanugage(){
@@ -641,9 +647,18 @@ public class TaggingSession implements Closeable {
             return corpusInfo.taggingAnalyzer;
         }
         
-        public TaggerFstCorpus getFst(){
+        public SegmentedCorpus getFst(){
             return fst;
         }
+        /**
+         * The FSTs of the segments of the {@link TaggingSession#getSearcher()}.
+         * If the corpus is outdated segments added after it was built
+         * are missing.
+         * @return the FSTs of the segments
+         */
+        public List<SegmentFst> getSegments(){
+            return segments;
+        }
 
         public String getIndexedField() {
             return corpusInfo.indexedField;
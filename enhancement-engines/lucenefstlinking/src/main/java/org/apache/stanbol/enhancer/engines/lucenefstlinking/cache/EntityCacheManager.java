@@ -26,10 +26,10 @@ import org.apache.solr.util.RefCounted;
  * <p>
  * This is expected to manage a single {@link EntityCache} for the current
  * version of the Lucene index. A 'new' version is expected as soon as
- * {@link #getCache(Object)} is called for a different version. In that case
- * the current {@link EntityCache} should be cleared and a new empty one
- * needs to be created. The new Cache might get autowarmed (if supported and
- * configured)
+ * {@link #getCache(SolrIndexSearcher)} is called for a different version of
+ * the index. In that case a new {@link EntityCache} needs to be created. The 
+ * new Cache might get autowarmed (if supported and configured) with entities
+ * of the previous version that have not changed.
  * <p>
  * Implementations need to wait with clearing/closing outdated {@link EntityCache}
  * instances until the old version is no longer used 
@@ -41,13 +41,12 @@ public interface EntityCacheManager {
      * Getter for a reference counting instance of the {@link EntityCache}.
      * Callers need to ensure that {@link RefCounted#decref()} is called when the
      * do no longer need the obtained DocumentCache instance.
-     * @param version the version object. Typically the current 
-     * {@link SolrIndexSearcher} instance can be used as version object as a new 
-     * cache instance should be created if a new index searcher was opened by 
-     * the SolrCore.
+     * @param searcher the current {@link SolrIndexSearcher}. The version of
+     * its {@link SolrIndexSearcher#getIndexReader() index reader} is used as
+     * version of the cache. The searcher is also used to autowarm a new cache.
      * @return A counting reference to the EntityCache
      */
-    RefCounted<EntityCache> getCache(Object version);
+    RefCounted<EntityCache> getCache(SolrIndexSearcher searcher);
 
     /**
      * Called if the EntityCacheManager is no longer used
@@ -0,0 +1,193 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.engines.lucenefstlinking.cache;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.AtomicReader;
+import org.apache.lucene.index.AtomicReaderContext;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.index.SegmentReader;
+import org.apache.lucene.index.Term;
+import org.apache.solr.search.CacheRegenerator;
+import org.apache.solr.search.SolrCache;
+import org.apache.solr.search.SolrIndexSearcher;
+
+/**
+ * {@link CacheRegenerator} that carries over cached entity {@link Document}s
+ * to the cache of a new version of the index.<p>
+ * Cached documents are keyed by the Lucene document id that changes between
+ * versions. Because of that the document id of the entity in the new version
+ * is looked up by the unique key (the {@link #idField} stored with the cached
+ * document). Entities that are deleted are not carried over. Entities
+ * contained in segments that are not part of the previous version (newly 
+ * flushed or merged segments) are only carried over if the 
+ * {@link #VERSION_FIELD} - or if not present all stored fields - of the new
+ * document are equal to the cached one.
+ * 
+ * @author Rupert Westenthaler
+ *
+ */
+public class EntityCacheRegenerator implements CacheRegenerator {
+
+    /**
+     * The field used by Solr to store the version of a document
+     */
+    public static final String VERSION_FIELD = "_version_";
+    
+    private final String idField;
+    
+    private final Set<String> previousSegments;
+    
+    private SolrIndexSearcher searcher;
+    private List<AtomicReaderContext> leaves;
+    private boolean[] changed;
+    
+    private int regenerated = 0;
+    private int invalidated = 0;
+    
+    /**
+     * Creates a regenerator for the warming of a cache for a new index version
+     * @param idField the unique key field of the index
+     * @param previousSegments the names of the segments of the previous version
+     * (see {@link #getSegmentNames(IndexReader)})
+     */
+    public EntityCacheRegenerator(String idField, Set<String> previousSegments) {
+        this.idField = idField;
+        this.previousSegments = previousSegments == null ? 
+                Collections.<String>emptySet() : previousSegments;
+    }
+    
+    @SuppressWarnings("rawtypes")
+    @Override
+    public boolean regenerateItem(SolrIndexSearcher newSearcher, SolrCache newCache, 
+            SolrCache oldCache, Object oldKey, Object oldVal) throws IOException {
+        if(!(oldVal instanceof Document)){
+            return true;
+        }
+        Document doc = (Document)oldVal;
+        String id = doc.get(idField);
+        if(id == null){
+            return true;
+        }
+        init(newSearcher);
+        int docId = newSearcher.getFirstMatch(new Term(idField, id));
+        if(docId < 0 || (changed[ReaderUtil.subIndex(docId, leaves)] &&
+                isChanged(doc, newSearcher, docId))){
+            invalidated++;
+            return true;
+        }
+        //create a copy, as cached documents are modified if additional fields are loaded
+        Document copy = new Document();
+        for(IndexableField field : doc.getFields()){
+            copy.add(field);
+        }
+        @SuppressWarnings("unchecked")
+        SolrCache<Integer,Document> cache = newCache;
+        cache.put(Integer.valueOf(docId), copy);
+        regenerated++;
+        return true;
+    }
+    
+    private void init(SolrIndexSearcher newSearcher){
+        if(searcher != newSearcher){
+            searcher = newSearcher;
+            leaves = newSearcher.getIndexReader().leaves();
+            changed = new boolean[leaves.size()];
+            for(int i = 0; i < changed.length; i++){
+                changed[i] = isChanged(leaves.get(i).reader());
+            }
+        }
+    }
+    /**
+     * If the segment read by the parsed reader may contain added or updated
+     * documents. This is the case for all segments that are not part of the
+     * previous version. This includes segments created by merges as those
+     * might also contain documents of flushed segments.
+     */
+    private boolean isChanged(AtomicReader reader){
+        if(!(reader instanceof SegmentReader)){
+            return true; //unknown
+        }
+        return !previousSegments.contains(((SegmentReader)reader).getSegmentName());
+    }
+    /**
+     * Checks if the cached document was changed in the new version. If the
+     * cached document has a {@link #VERSION_FIELD} only the version is 
+     * compared. Otherwise the values of all stored fields of the cached 
+     * document are compared with the new one.
+     * @param doc the cached document
+     * @param newSearcher the searcher for the new version
+     * @param docId the id of the document in the new version
+     * @return <code>true</code> if the document has changed
+     * @throws IOException on any error while loading the new document
+     */
+    private boolean isChanged(Document doc, SolrIndexSearcher newSearcher, int docId) throws IOException {
+        Set<String> fields = new HashSet<String>();
+        if(doc.getField(VERSION_FIELD) != null){
+            fields.add(VERSION_FIELD);
+        } else {
+            for(IndexableField field : doc.getFields()){
+                fields.add(field.name());
+            }
+        }
+        Document newDoc = newSearcher.doc(docId, fields);
+        for(String field : fields){
+            if(!Arrays.equals(doc.getValues(field), newDoc.getValues(field))){
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public int getRegenerated() {
+        return regenerated;
+    }
+    
+    public int getInvalidated() {
+        return invalidated;
+    }
+    /**
+     * Getter for the names of the segments of the parsed reader
+     * @param reader the reader
+     * @return the names of the segments
+     */
+    public static Set<String> getSegmentNames(IndexReader reader){
+        Set<String> names = new HashSet<String>();
+        for(AtomicReaderContext leaf : reader.leaves()){
+            if(leaf.reader() instanceof SegmentReader){
+                names.add(((SegmentReader)leaf.reader()).getSegmentName());
+            }
+        }
+        return names;
+    }
+    
+    @Override
+    public String toString() {
+        return new StringBuilder(getClass().getSimpleName()).append("[regenerated: ")
+                .append(regenerated).append(" | invalidated: ").append(invalidated)
+                .append(']').toString();
+    }
+}
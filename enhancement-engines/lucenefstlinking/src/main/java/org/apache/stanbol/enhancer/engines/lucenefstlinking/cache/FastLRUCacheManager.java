@@ -16,23 +16,34 @@
 */
 package org.apache.stanbol.enhancer.engines.lucenefstlinking.cache;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexReader;
 import org.apache.solr.search.CacheRegenerator;
 import org.apache.solr.search.FastLRUCache;
 import org.apache.solr.search.SolrCache;
+import org.apache.solr.search.SolrIndexSearcher;
 import org.apache.solr.util.RefCounted;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Implementation of the {@link EntityCacheManager} based on the Solr
- * {@link FastLRUCache} implementation
+ * {@link FastLRUCache} implementation.<p>
+ * If autowarming is enabled new caches are warmed by a background thread.
+ * Until warming completes requests use an empty cache for the new version
+ * that is replaced by the warmed one as soon as it is ready.
  * 
  * @author Rupert Westenthaler
  *
@@ -43,8 +54,18 @@ public class FastLRUCacheManager implements EntityCacheManager {
 	
     RefCounted<EntityCache> current;
     private final CacheRegenerator regenerator;
+    private final int autowarmCount;
     private final Map<String,String> config;
+    /**
+     * The names of the segments of the index version of the {@link #current}
+     * cache. Used to detect changed entities while autowarming.
+     */
+    private Set<String> currentSegments;
     private ReadWriteLock lock = new ReentrantReadWriteLock();
+    /**
+     * Lazily created single thread executor used for autowarming
+     */
+    private ExecutorService warmingExecutor;
     
     
     /**
@@ -55,13 +76,26 @@ public class FastLRUCacheManager implements EntityCacheManager {
     public FastLRUCacheManager(int size){
         this(size,0,null);
     }
+    /**
+     * Creates a cache manager instance with the parsed maximum size that 
+     * autowarms new caches by using the {@link EntityCacheRegenerator}.
+     * @param size the maximum size
+     * @param autowarmCount the number of the most recently used documents 
+     * carried over to the cache of a new version of the index. Values 
+     * <code>&lt;= 0</code> deactivate autowarming.
+     */
+    public FastLRUCacheManager(int size, int autowarmCount){
+        this(size,autowarmCount,null);
+    }
     /**
      * Creates a cache manager instance with the parsed maximum size and support
      * for autowarming.
      * @param size the maximum size
      * @param autowarmCount the number of documents added to the new cache based
      * on entries in an old version
-     * @param regenerator the regenerator instance used for autowarming
+     * @param regenerator the regenerator instance used for autowarming. If
+     * <code>null</code> and the autowarmCount is <code>&gt; 0</code> a
+     * {@link EntityCacheRegenerator} is used.
      */
     public FastLRUCacheManager(int size, int autowarmCount, CacheRegenerator regenerator){
         log.debug("> create {} (size: {}| autowarmCount: {}| regenerator: {})",
@@ -71,16 +105,18 @@ public class FastLRUCacheManager implements EntityCacheManager {
         if(size > 0){
             config.put("size",Integer.toString(size));
         }
-        if(regenerator != null){
+        if(regenerator != null || autowarmCount > 0){
             config.put("autowarmCount",Integer.toString(autowarmCount));
         }
         this.config = Collections.unmodifiableMap(config);
         this.regenerator = regenerator;
+        this.autowarmCount = autowarmCount;
     }
     
     
     @Override
-    public RefCounted<EntityCache> getCache(Object version) {
+    public RefCounted<EntityCache> getCache(SolrIndexSearcher searcher) {
+        Object version = Long.valueOf(searcher.getIndexReader().getVersion());
         lock.readLock().lock();
         try {
             if(current != null && current.get().getVersion().equals(version)){
@@ -98,22 +134,27 @@ public class FastLRUCacheManager implements EntityCacheManager {
             //check again ... an other thread might have already built the cache
             //for the requested version
             if(current == null || !current.get().getVersion().equals(version)){
-                if(current != null){
-                	log.debug(" > invalidate EntityCache for version {}", current.get().getVersion());
-                	//remove the reference to the old instance. This will allow to
-                	//destroy the old cache as soon as it is no longer used
-                	current.decref(); 
-                	log.debug("  ... {} remaining users for invalidated Cache", current.getRefcount());
-                	current = null;
-                }
                 //create a new cache
                 log.debug(" > create EntityCache for version {}", version);
-                SolrCache<Integer,Document> cache = new FastLRUCache<Integer,Document>();
-                cache.init(config, null, regenerator);
-                current = new RefCountedImpl(new SolrEntityCache(version, cache));
+                RefCounted<EntityCache> previous = current;
+                Set<String> previousSegments = currentSegments;
+                current = new RefCountedImpl(new SolrEntityCache(version, createCache(null)));
+                currentSegments = EntityCacheRegenerator.getSegmentNames(searcher.getIndexReader());
                 //add a reference to the new cache by this class. This will be removed
                 //as soon as the instance is outdated
                 current.incref(); 
+                if(previous != null && (regenerator != null || autowarmCount > 0)){
+                    //the warming task holds a reference to the previous cache
+                    previous.incref();
+                    warm(searcher, version, previous, previousSegments);
+                }
+                if(previous != null){
+                    log.debug(" > invalidate EntityCache for version {}", previous.get().getVersion());
+                    //remove the reference to the old instance. This will allow to
+                    //destroy the old cache as soon as it is no longer used
+                    previous.decref(); 
+                    log.debug("  ... {} remaining users for invalidated Cache", previous.getRefcount());
+                }
             }
             current.incref(); //this increase is for the holder of the returned instance
             log.debug(" > increase RefCount for EntityCache for version {} to {}", 
@@ -124,10 +165,117 @@ public class FastLRUCacheManager implements EntityCacheManager {
         }
     }
 
+    /**
+     * Creates and initialises a new {@link FastLRUCache}
+     * @param cacheRegenerator the regenerator or <code>null</code> if the
+     * cache is not warmed
+     * @return the cache
+     */
+    private SolrCache<Integer,Document> createCache(CacheRegenerator cacheRegenerator){
+        SolrCache<Integer,Document> cache = new FastLRUCache<Integer,Document>();
+        cache.init(config, null, cacheRegenerator);
+        return cache;
+    }
+    
+    /**
+     * Warms a cache for the parsed version with entries of the previous cache
+     * on the warming thread. The warmed cache replaces the {@link #current}
+     * one if the version has not changed in the meantime.<p>
+     * Needs to be called while holding the write lock. The parsed previous
+     * cache needs to be {@link RefCounted#incref() referenced} for the warming 
+     * task. This reference is released by this method.
+     * @param searcher the searcher of the new version
+     * @param version the new version
+     * @param previous the cache of the previous version
+     * @param previousSegments the segments of the previous version
+     */
+    private void warm(final SolrIndexSearcher searcher, final Object version,
+            final RefCounted<EntityCache> previous, final Set<String> previousSegments){
+        final IndexReader reader = searcher.getIndexReader();
+        if(!reader.tryIncRef()){ //reader already closed
+            previous.decref();
+            return;
+        }
+        if(warmingExecutor == null){
+            warmingExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "EntityCache autowarming");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+        try {
+            warmingExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        CacheRegenerator cacheRegenerator = regenerator;
+                        if(cacheRegenerator == null){
+                            cacheRegenerator = new EntityCacheRegenerator(
+                                searcher.getSchema().getUniqueKeyField().getName(), 
+                                previousSegments);
+                        }
+                        SolrCache<Integer,Document> cache = createCache(cacheRegenerator);
+                        long start = System.currentTimeMillis();
+                        cache.warm(searcher, ((SolrEntityCache)previous.get()).getSolrCache());
+                        log.debug(" > autowarmed EntityCache for version {} in {}ms ({})", 
+                            new Object[]{version, System.currentTimeMillis() - start, cacheRegenerator});
+                        swap(version, cache);
+                    } catch (RuntimeException e) {
+                        log.warn("Unable to autowarm EntityCache for version "+version, e);
+                    } finally {
+                        previous.decref();
+                        try {
+                            reader.decRef();
+                        } catch (IOException e) {
+                            log.warn("Unable to release IndexReader after autowarming", e);
+                        }
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Unable to autowarm EntityCache for version {} ({})", version, e.getMessage());
+            previous.decref();
+            try {
+                reader.decRef();
+            } catch (IOException e1) {
+                log.warn("Unable to release IndexReader", e1);
+            }
+        }
+    }
+    /**
+     * Replaces the {@link #current} cache with the parsed warmed cache if
+     * the version has not changed. Otherwise the warmed cache is closed.
+     * @param version the version of the warmed cache
+     * @param cache the warmed cache
+     */
+    private void swap(Object version, SolrCache<Integer,Document> cache){
+        lock.writeLock().lock();
+        try {
+            if(current != null && current.get().getVersion().equals(version)){
+                RefCounted<EntityCache> interim = current;
+                current = new RefCountedImpl(new SolrEntityCache(version, cache));
+                current.incref();
+                interim.decref();
+                return;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug(" > discard autowarmed EntityCache for outdated version {}", version);
+        cache.close();
+    }
+
     @Override
     public void close() {
         lock.writeLock().lock();
         try {
+            if(warmingExecutor != null){
+                warmingExecutor.shutdownNow();
+                warmingExecutor = null;
+            }
         	if(current != null){
             	    Object version = log.isDebugEnabled() ? current.get().getVersion() : null;
             		current.decref();
@@ -168,7 +316,7 @@ public class FastLRUCacheManager implements EntityCacheManager {
         	super.decref();
         	if(log.isDebugEnabled()){
 	            log.debug(" > decrease RefCount for EntityCache for version {} to {}", 
-	            		get().getVersion(), current.getRefcount());
+	            		get().getVersion(), getRefcount());
         	}
         }
         /**
@@ -177,7 +325,7 @@ public class FastLRUCacheManager implements EntityCacheManager {
         protected void close(){
         	if(log.isDebugEnabled()){
         		log.debug(" > close EntityCache for version {}", 
-        				current.get().getVersion());
+        				get().getVersion());
         	}
             ((SolrEntityCache)get()).close();
         }
@@ -63,6 +63,14 @@ public class SolrEntityCache implements EntityCache {
         }
     }
 
+    /**
+     * The {@link SolrCache} used by this EntityCache. Used to autowarm
+     * caches for new versions of the index.
+     */
+    SolrCache<Integer,Document> getSolrCache(){
+        return cache;
+    }
+
     @Override
     public int size() {
         return cache.size();
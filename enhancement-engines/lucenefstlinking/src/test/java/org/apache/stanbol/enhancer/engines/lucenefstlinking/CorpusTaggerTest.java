@@ -0,0 +1,279 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.engines.lucenefstlinking;
+
+import static org.apache.stanbol.enhancer.engines.entitylinking.config.TextProcessingConfig.PROCESSED_LANGUAGES;
+import static org.apache.stanbol.enhancer.engines.entitylinking.config.TextProcessingConfig.PROCESS_ONLY_PROPER_NOUNS_STATE;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Dictionary;
+import java.util.Hashtable;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.apache.commons.io.input.CharSequenceReader;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.LowerCaseFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.AtomicReaderContext;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.Version;
+import org.apache.stanbol.enhancer.contentitem.inmemory.InMemoryContentItemFactory;
+import org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig;
+import org.apache.stanbol.enhancer.engines.entitylinking.config.LanguageProcessingConfig;
+import org.apache.stanbol.enhancer.engines.entitylinking.config.TextProcessingConfig;
+import org.apache.stanbol.enhancer.engines.lucenefstlinking.SegmentedCorpus.SegmentFst;
+import org.apache.stanbol.enhancer.nlp.json.AnalyzedTextParser;
+import org.apache.stanbol.enhancer.nlp.model.AnalysedText;
+import org.apache.stanbol.enhancer.nlp.model.AnalysedTextFactory;
+import org.apache.stanbol.enhancer.servicesapi.ContentItem;
+import org.apache.stanbol.enhancer.servicesapi.impl.StreamSource;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opensextant.solrtexttagger.TaggerFstCorpus;
+
+/**
+ * Tests that tagging a text with the FSTs of several segments results in
+ * the same tags as tagging it with a single FST built for the whole index.
+ */
+public class CorpusTaggerTest {
+
+    public static final String TEST_TEXT_FILE = "merkel.txt";
+    public static final String TEST_TEXT_NLP_FILE = "merkel_nlp.json";
+
+    private static final String LABEL_FIELD = "label";
+    private static final String ID_FIELD = "id";
+    /**
+     * The number of segments of the test index
+     */
+    private static final int NUM_SEGMENTS = 5;
+    /**
+     * The maximum number of words of labels
+     */
+    private static final int MAX_LABEL_WORDS = 3;
+
+    private static AnalysedText at;
+    private static String content;
+    private static RAMDirectory dir;
+    private static DirectoryReader reader;
+    /**
+     * The FST built for the whole index
+     */
+    private static List<SegmentFst> composite;
+    /**
+     * The FSTs built for the segments of the index
+     */
+    private static List<SegmentFst> segments;
+    
+    private static LanguageProcessingConfig lpc;
+    private static EntityLinkerConfig elc;
+
+    private static final Analyzer analyzer = new Analyzer() {
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName, Reader reader) {
+            Tokenizer tokenizer = new StandardTokenizer(Version.LUCENE_44, reader);
+            return new TokenStreamComponents(tokenizer,
+                new LowerCaseFilter(Version.LUCENE_44, tokenizer));
+        }
+    };
+
+    @BeforeClass
+    public static void setup() throws Exception {
+        InputStream is = CorpusTaggerTest.class.getClassLoader().getResourceAsStream(TEST_TEXT_FILE);
+        Assert.assertNotNull("Unable to load '"+TEST_TEXT_FILE+"' via classpath",is);
+        ContentItem ci = InMemoryContentItemFactory.getInstance().createContentItem(
+            new StreamSource(is,"text/plain"));
+        at = AnalysedTextFactory.getDefaultInstance().createAnalysedText(ci, ci.getBlob());
+        is.close();
+        is = CorpusTaggerTest.class.getClassLoader().getResourceAsStream(TEST_TEXT_NLP_FILE);
+        Assert.assertNotNull("Unable to load '"+TEST_TEXT_NLP_FILE+"' via classpath",is);
+        AnalyzedTextParser.getDefaultInstance().parse(is, Charset.forName("UTF-8"), at);
+        is.close();
+        content = at.getText().toString();
+        Dictionary<String,Object> dict = new Hashtable<String,Object>();
+        dict.put(PROCESSED_LANGUAGES, Arrays.asList("en;lmmtip;uc=LINK;prob=0.75;pprob=0.75"));
+        dict.put(PROCESS_ONLY_PROPER_NOUNS_STATE, false);
+        lpc = TextProcessingConfig.createInstance(dict).getConfiguration("en");
+        elc = new EntityLinkerConfig();
+        elc.setMinFoundTokens(2);
+        //use all word n-grams of the text as labels. This creates a lot of
+        //overlapping tags
+        Set<String> labels = new LinkedHashSet<String>();
+        String[] words = content.split("[^\\p{L}\\p{N}]+");
+        for(int i = 0; i < words.length; i++){
+            StringBuilder label = new StringBuilder();
+            for(int j = i; j < words.length && j < i + MAX_LABEL_WORDS; j++){
+                if(words[j].isEmpty()){
+                    continue;
+                }
+                if(label.length() > 0){
+                    label.append(' ');
+                }
+                label.append(words[j]);
+                labels.add(label.toString());
+            }
+        }
+        //index the labels in several segments. Some labels are indexed in
+        //two segments
+        dir = new RAMDirectory();
+        IndexWriterConfig iwc = new IndexWriterConfig(Version.LUCENE_44, analyzer);
+        iwc.setMergePolicy(NoMergePolicy.NO_COMPOUND_FILES);
+        IndexWriter writer = new IndexWriter(dir, iwc);
+        List<String> labelList = new ArrayList<String>(labels);
+        int docNum = 0;
+        for(int s = 0; s < NUM_SEGMENTS; s++){
+            for(int i = s; i < labelList.size(); i = i + NUM_SEGMENTS){
+                writer.addDocument(createDocument("doc"+docNum++, labelList.get(i)));
+                if(i % 7 == 0){
+                    writer.addDocument(createDocument("doc"+docNum++,
+                        labelList.get((i + 1) % labelList.size())));
+                }
+            }
+            writer.commit();
+        }
+        DirectoryReader segmentReader = DirectoryReader.open(dir);
+        Assert.assertEquals(NUM_SEGMENTS, segmentReader.leaves().size());
+        List<TaggerFstCorpus> segmentFsts = new ArrayList<TaggerFstCorpus>(NUM_SEGMENTS);
+        for(AtomicReaderContext leaf : segmentReader.leaves()){
+            segmentFsts.add(createFst(leaf.reader(), segmentReader.getVersion()));
+        }
+        segmentReader.close();
+        //delete some documents after the FSTs of the segments where built
+        for(int i = 0; i < docNum; i = i + 11){
+            writer.deleteDocuments(new Term(ID_FIELD, "doc"+i));
+        }
+        writer.commit();
+        writer.close();
+        reader = DirectoryReader.open(dir);
+        Assert.assertTrue(reader.hasDeletions());
+        segments = new ArrayList<SegmentFst>(NUM_SEGMENTS);
+        for(AtomicReaderContext leaf : reader.leaves()){
+            segments.add(new SegmentFst(SegmentedCorpus.getSegmentName(leaf.reader()),
+                segmentFsts.get(leaf.ord), leaf.docBase, leaf.reader().getLiveDocs()));
+        }
+        composite = Collections.singletonList(new SegmentFst(SegmentedCorpus.COMPOSITE,
+            createFst(reader, reader.getVersion()), 0, null));
+    }
+
+    private static Document createDocument(String id, String label){
+        Document doc = new Document();
+        doc.add(new StringField(ID_FIELD, id, Field.Store.YES));
+        doc.add(new TextField(LABEL_FIELD, label, Field.Store.YES));
+        return doc;
+    }
+
+    private static TaggerFstCorpus createFst(org.apache.lucene.index.IndexReader reader,
+            long version) throws IOException {
+        return new TaggerFstCorpus(reader, version, null, LABEL_FIELD, LABEL_FIELD,
+            analyzer, false, 1, 100);
+    }
+
+    @AfterClass
+    public static void cleanup() throws IOException {
+        if(reader != null){
+            reader.close();
+        }
+        if(dir != null){
+            dir.close();
+        }
+    }
+
+    @Test
+    public void testPlainLinking() throws IOException {
+        assertSameTags(LinkingModeEnum.PLAIN);
+    }
+
+    @Test
+    public void testNamedEntityLinking() throws IOException {
+        assertSameTags(LinkingModeEnum.NER);
+    }
+
+    @Test
+    public void testLinkableTokenLinking() throws IOException {
+        assertSameTags(LinkingModeEnum.LINKABLE_TOKEN);
+    }
+
+    private void assertSameTags(LinkingModeEnum linkingMode) throws IOException{
+        Map<String,Set<Integer>> expected = tag(linkingMode, composite);
+        Assert.assertFalse("No tags for linking mode "+linkingMode, expected.isEmpty());
+        Map<String,Set<Integer>> actual = tag(linkingMode, segments);
+        Assert.assertEquals("Different tags for linking mode "+linkingMode
+            + " when using "+segments.size()+" segments", expected, actual);
+    }
+
+    private Map<String,Set<Integer>> tag(final LinkingModeEnum linkingMode,
+            List<SegmentFst> corpus) throws IOException {
+        NavigableMap<int[],Tag> tags = new TreeMap<int[],Tag>(Tag.SPAN_COMPARATOR);
+        new CorpusTagger(linkingMode, true) {
+
+            @Override
+            protected TokenStream createTokenStream() throws IOException {
+                TokenStream baseTokenStream = analyzer.tokenStream("",
+                    new CharSequenceReader(content));
+                switch (linkingMode) {
+                    case NER:
+                        return new NamedEntityTokenFilter(baseTokenStream, at, "en", null,
+                            new TreeMap<int[],Set<String>>(Tag.SPAN_COMPARATOR));
+                    case LINKABLE_TOKEN:
+                        return new LinkableTokenFilter(baseTokenStream, at, "en", lpc,
+                            elc.getMinChunkMatchScore(), elc.getMinFoundTokens());
+                    default:
+                        return baseTokenStream;
+                }
+            }
+
+            @Override
+            protected Match createMatch(int docId) {
+                return new Match(docId, null);
+            }
+        }.tag(corpus, tags);
+        Map<String,Set<Integer>> results = new TreeMap<String,Set<Integer>>();
+        for(Tag tag : tags.values()){
+            Set<Integer> ids = new TreeSet<Integer>();
+            for(Match match : tag.getMatches()){
+                ids.add(match.id);
+            }
+            results.put(new StringBuilder(content.substring(tag.getStart(), tag.getEnd()))
+                .append(Arrays.toString(tag.span)).toString(), ids);
+        }
+        return results;
+    }
+}
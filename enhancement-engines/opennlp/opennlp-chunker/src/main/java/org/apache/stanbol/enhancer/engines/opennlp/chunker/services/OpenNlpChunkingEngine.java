@@ -186,8 +186,8 @@ public class OpenNlpChunkingEngine extends AbstractEnhancementEngine<RuntimeExce
         AnalysedText at = getAnalysedText(this, ci, true);
         String language = getLanguage(this, ci, true);
         isLangaugeConfigured(this, languageConfiguration, language, true);
-        ChunkerME chunker = initChunker(language);
-        if(chunker == null){
+        ChunkerModel chunkerModel = initChunkerModel(language);
+        if(chunkerModel == null){
             return;
         }
         //init the Phrase TagSet
@@ -210,6 +210,8 @@ public class OpenNlpChunkingEngine extends AbstractEnhancementEngine<RuntimeExce
             adhocTags = new HashMap<String,PhraseTag>();
             languageAdhocTags.put(language, adhocTags);
         }        
+        //ChunkerME is not thread-safe. So borrow an instance from the pool
+        ChunkerME chunker = openNLP.getChunkerPool().borrow(chunkerModel);
         ci.getLock().writeLock().lock();
         try {
             Iterator<? extends Section> sentences = at.getSentences();
@@ -311,6 +313,7 @@ public class OpenNlpChunkingEngine extends AbstractEnhancementEngine<RuntimeExce
 
         } finally {
             ci.getLock().writeLock().unlock();
+            openNLP.getChunkerPool().release(chunkerModel, chunker);
         }
         if(log.isTraceEnabled()){
             logChunks(at);
@@ -408,7 +411,7 @@ public class OpenNlpChunkingEngine extends AbstractEnhancementEngine<RuntimeExce
     }
     
    
-    private ChunkerME initChunker(String language) {
+    private ChunkerModel initChunkerModel(String language) {
         isLangaugeConfigured(this,languageConfiguration,language, true); //check if the parsed language is ok
         String modelName = languageConfiguration.getParameter(language, MODEL_PARAM_NAME);
         ChunkerModel model;
@@ -431,10 +434,8 @@ public class OpenNlpChunkingEngine extends AbstractEnhancementEngine<RuntimeExce
         }
         if(model == null){
             log.trace("no Chunker Model for language {}",language);
-            return null;
-        } else {
-            return new ChunkerME(model);
         }
+        return model;
     }
 
 }
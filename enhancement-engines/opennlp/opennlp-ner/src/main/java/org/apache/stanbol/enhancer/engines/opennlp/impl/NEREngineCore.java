@@ -42,7 +42,10 @@ import opennlp.tools.namefind.NameFinderME;
 import opennlp.tools.namefind.TokenNameFinderModel;
 import opennlp.tools.sentdetect.SentenceDetectorME;
 import opennlp.tools.sentdetect.SentenceModel;
+import opennlp.tools.tokenize.SimpleTokenizer;
 import opennlp.tools.tokenize.Tokenizer;
+import opennlp.tools.tokenize.TokenizerME;
+import opennlp.tools.tokenize.TokenizerModel;
 import opennlp.tools.util.InvalidFormatException;
 import opennlp.tools.util.Span;
 
@@ -455,64 +458,69 @@ public abstract class NEREngineCore
         // version with explicit sentence endings to reflect heading / paragraph
         // structure of an HTML or PDF document converted to text
 
-        NameFinderME finder = new NameFinderME(nameFinderModel);
         Map<String,List<NameOccurrence>> nameOccurrences = new LinkedHashMap<String,List<NameOccurrence>>();
-        List<Section> sentences = new ArrayList<Section>();
-        //Holds the tokens of the previouse (pos 0) current (pos 1) and next (pos 2) sentence
-        AnalysedTextUtils.appandToList(at.getSentences(), sentences);
-        if(sentences.isEmpty()){ //no sentence annotations
-            sentences.add(at); //process as a single section
-        }
-        for (int i=0;i<sentences.size();i++) {
-            String sentence = sentences.get(i).getSpan();
+        //NameFinderME is not thread-safe. So borrow an instance from the pool
+        NameFinderME finder = openNLP.getNameFinderPool().borrow(nameFinderModel);
+        try {
+            List<Section> sentences = new ArrayList<Section>();
+            //Holds the tokens of the previouse (pos 0) current (pos 1) and next (pos 2) sentence
+            AnalysedTextUtils.appandToList(at.getSentences(), sentences);
+            if(sentences.isEmpty()){ //no sentence annotations
+                sentences.add(at); //process as a single section
+            }
+            for (int i=0;i<sentences.size();i++) {
+                String sentence = sentences.get(i).getSpan();
             
-            // build a context by concatenating three sentences to be used for
-            // similarity ranking / disambiguation + contextual snippet in the
-            // extraction structure
-            List<String> contextElements = new ArrayList<String>();
-            contextElements.add(sentence);
-            //three sentences as context
-            String context = at.getSpan().substring(
-                sentences.get(Math.max(0, i-1)).getStart(),
-                sentences.get(Math.min(sentences.size()-1, i+1)).getEnd());
+                // build a context by concatenating three sentences to be used for
+                // similarity ranking / disambiguation + contextual snippet in the
+                // extraction structure
+                List<String> contextElements = new ArrayList<String>();
+                contextElements.add(sentence);
+                //three sentences as context
+                String context = at.getSpan().substring(
+                    sentences.get(Math.max(0, i-1)).getStart(),
+                    sentences.get(Math.min(sentences.size()-1, i+1)).getEnd());
 
-            // get the tokens, words of the current sentence
-            List<Token> tokens = new ArrayList<Token>(32);
-            List<String> words = new ArrayList<String>(32);
-            for(Iterator<Token> it =sentences.get(i).getTokens();it.hasNext();){
-                Token t = it.next();
-                tokens.add(t);
-                words.add(t.getSpan());
-            }
-            Span[] nameSpans = finder.find(words.toArray(new String[words.size()]));
-            double[] probs = finder.probs();
-            //int lastStartPosition = 0;
-            for (int j = 0; j < nameSpans.length; j++) {
-                String name = at.getSpan().substring(tokens.get(nameSpans[j].getStart()).getStart(), 
-                    tokens.get(nameSpans[j].getEnd()-1).getEnd());
-                Double confidence = 1.0;
-                for (int k = nameSpans[j].getStart(); k < nameSpans[j].getEnd(); k++) {
-                    confidence *= probs[k];
+                // get the tokens, words of the current sentence
+                List<Token> tokens = new ArrayList<Token>(32);
+                List<String> words = new ArrayList<String>(32);
+                for(Iterator<Token> it =sentences.get(i).getTokens();it.hasNext();){
+                    Token t = it.next();
+                    tokens.add(t);
+                    words.add(t.getSpan());
                 }
-                int start = tokens.get(nameSpans[j].getStart()).getStart();
-                int end = start + name.length();
-                NerTag nerTag = config.getNerTag(nameSpans[j].getType());
-                //create the occurrence for writing fise:TextAnnotations
-                NameOccurrence occurrence = new NameOccurrence(name, start, end, nerTag.getType(),
-                    context, confidence);
-                List<NameOccurrence> occurrences = nameOccurrences.get(name);
-                if (occurrences == null) {
-                    occurrences = new ArrayList<NameOccurrence>();
+                Span[] nameSpans = finder.find(words.toArray(new String[words.size()]));
+                double[] probs = finder.probs();
+                //int lastStartPosition = 0;
+                for (int j = 0; j < nameSpans.length; j++) {
+                    String name = at.getSpan().substring(tokens.get(nameSpans[j].getStart()).getStart(), 
+                        tokens.get(nameSpans[j].getEnd()-1).getEnd());
+                    Double confidence = 1.0;
+                    for (int k = nameSpans[j].getStart(); k < nameSpans[j].getEnd(); k++) {
+                        confidence *= probs[k];
+                    }
+                    int start = tokens.get(nameSpans[j].getStart()).getStart();
+                    int end = start + name.length();
+                    NerTag nerTag = config.getNerTag(nameSpans[j].getType());
+                    //create the occurrence for writing fise:TextAnnotations
+                    NameOccurrence occurrence = new NameOccurrence(name, start, end, nerTag.getType(),
+                        context, confidence);
+                    List<NameOccurrence> occurrences = nameOccurrences.get(name);
+                    if (occurrences == null) {
+                        occurrences = new ArrayList<NameOccurrence>();
+                    }
+                    occurrences.add(occurrence);
+                    nameOccurrences.put(name, occurrences);
+                    //add also the NerAnnotation to the AnalysedText
+                    Chunk chunk = at.addChunk(start, end);
+                    //TODO: build AnnotationModel based on the configured Mappings
+                    chunk.addAnnotation(NER_ANNOTATION, Value.value(nerTag, confidence));
                 }
-                occurrences.add(occurrence);
-                nameOccurrences.put(name, occurrences);
-                //add also the NerAnnotation to the AnalysedText
-                Chunk chunk = at.addChunk(start, end);
-                //TODO: build AnnotationModel based on the configured Mappings
-                chunk.addAnnotation(NER_ANNOTATION, Value.value(nerTag, confidence));
             }
+        } finally {
+            //the pool clears the adaptive data on release
+            openNLP.getNameFinderPool().release(nameFinderModel, finder);
         }
-        finder.clearAdaptiveData();
         log.debug("{} name occurrences found: {}", nameOccurrences.size(), nameOccurrences);
         return nameOccurrences;
     }    
@@ -527,72 +535,101 @@ public abstract class NEREngineCore
 
         Span[] sentenceSpans = sentenceDetector.sentPosDetect(textWithDots);
 
-        NameFinderME finder = new NameFinderME(nameFinderModel);
-        Tokenizer tokenizer = openNLP.getTokenizer(language);
         Map<String,List<NameOccurrence>> nameOccurrences = new LinkedHashMap<String,List<NameOccurrence>>();
-        for (int i = 0; i < sentenceSpans.length; i++) {
-            String sentence = sentenceSpans[i].getCoveredText(text).toString().trim();
+        //NameFinderME is not thread-safe. So borrow an instance from the pool
+        NameFinderME finder = openNLP.getNameFinderPool().borrow(nameFinderModel);
+        //TokenizerME is not thread-safe. So also borrow it from the pool
+        TokenizerModel tokenizerModel = getTokenizerModel(language);
+        Tokenizer tokenizer = tokenizerModel == null ? SimpleTokenizer.INSTANCE :
+                openNLP.getTokenizerPool().borrow(tokenizerModel);
+        try {
+            for (int i = 0; i < sentenceSpans.length; i++) {
+                String sentence = sentenceSpans[i].getCoveredText(text).toString().trim();
 
-            // build a context by concatenating three sentences to be used for
-            // similarity ranking / disambiguation + contextual snippet in the
-            // extraction structure
-            List<String> contextElements = new ArrayList<String>();
-            if (i > 0) {
-                CharSequence previousSentence = sentenceSpans[i - 1].getCoveredText(text);
-                contextElements.add(previousSentence.toString().trim());
-            }
-            contextElements.add(sentence.trim());
-            if (i + 1 < sentenceSpans.length) {
-                CharSequence nextSentence = sentenceSpans[i + 1].getCoveredText(text);
-                contextElements.add(nextSentence.toString().trim());
-            }
-            String context = StringUtils.join(contextElements, " ");
+                // build a context by concatenating three sentences to be used for
+                // similarity ranking / disambiguation + contextual snippet in the
+                // extraction structure
+                List<String> contextElements = new ArrayList<String>();
+                if (i > 0) {
+                    CharSequence previousSentence = sentenceSpans[i - 1].getCoveredText(text);
+                    contextElements.add(previousSentence.toString().trim());
+                }
+                contextElements.add(sentence.trim());
+                if (i + 1 < sentenceSpans.length) {
+                    CharSequence nextSentence = sentenceSpans[i + 1].getCoveredText(text);
+                    contextElements.add(nextSentence.toString().trim());
+                }
+                String context = StringUtils.join(contextElements, " ");
 
-            // extract the names in the current sentence and
-            // keep them store them with the current context
-            Span[] tokenSpans = tokenizer.tokenizePos(sentence);
-            String[] tokens = Span.spansToStrings(tokenSpans, sentence);
-            Span[] nameSpans = finder.find(tokens);
-            double[] probs = finder.probs();
-            //int lastStartPosition = 0;
-            for (int j = 0; j < nameSpans.length; j++) {
-                String name = sentence.substring(tokenSpans[nameSpans[j].getStart()].getStart(), 
-                    tokenSpans[nameSpans[j].getEnd()-1].getEnd());
-                //NOTE: With OpenNLP 1.6 the probability is now stored in the span
-                double prob = nameSpans[j].getProb();
-                //prob == 0.0 := unspecified
-                Double confidence = prob != 0.0 ? Double.valueOf(prob) : null;
-                if(confidence == null){ //fall back to the old if it is not set.
-                    for (int k = nameSpans[j].getStart(); k < nameSpans[j].getEnd(); k++) {
-                        prob *= probs[k];
+                // extract the names in the current sentence and
+                // keep them store them with the current context
+                Span[] tokenSpans = tokenizer.tokenizePos(sentence);
+                String[] tokens = Span.spansToStrings(tokenSpans, sentence);
+                Span[] nameSpans = finder.find(tokens);
+                double[] probs = finder.probs();
+                //int lastStartPosition = 0;
+                for (int j = 0; j < nameSpans.length; j++) {
+                    String name = sentence.substring(tokenSpans[nameSpans[j].getStart()].getStart(), 
+                        tokenSpans[nameSpans[j].getEnd()-1].getEnd());
+                    //NOTE: With OpenNLP 1.6 the probability is now stored in the span
+                    double prob = nameSpans[j].getProb();
+                    //prob == 0.0 := unspecified
+                    Double confidence = prob != 0.0 ? Double.valueOf(prob) : null;
+                    if(confidence == null){ //fall back to the old if it is not set.
+                        for (int k = nameSpans[j].getStart(); k < nameSpans[j].getEnd(); k++) {
+                            prob *= probs[k];
+                        }
+                        confidence = Double.valueOf(prob);
+                    } else if(confidence < 0.5d){
+                        //It looks like as if preceptron based models do return
+                        //invalid probabilities. As it is expected the Named Entities
+                        //with a probability < 50% are not even returned by finder.find(..)
+                        //we will just ignore confidence values < 0.5 here
+                        confidence = null;
                     }
-                    confidence = Double.valueOf(prob);
-                } else if(confidence < 0.5d){
-                    //It looks like as if preceptron based models do return
-                    //invalid probabilities. As it is expected the Named Entities
-                    //with a probability < 50% are not even returned by finder.find(..)
-                    //we will just ignore confidence values < 0.5 here
-                    confidence = null;
-                }
-                int start = tokenSpans[nameSpans[j].getStart()].getStart();
-                int absoluteStart = sentenceSpans[i].getStart() + start;
-                int absoluteEnd = absoluteStart + name.length();
-                NerTag nerTag = config.getNerTag(nameSpans[j].getType());
-                NameOccurrence occurrence = new NameOccurrence(name, absoluteStart, absoluteEnd, 
-                    nerTag.getType(),context, confidence);
+                    int start = tokenSpans[nameSpans[j].getStart()].getStart();
+                    int absoluteStart = sentenceSpans[i].getStart() + start;
+                    int absoluteEnd = absoluteStart + name.length();
+                    NerTag nerTag = config.getNerTag(nameSpans[j].getType());
+                    NameOccurrence occurrence = new NameOccurrence(name, absoluteStart, absoluteEnd, 
+                        nerTag.getType(),context, confidence);
 
-                List<NameOccurrence> occurrences = nameOccurrences.get(name);
-                if (occurrences == null) {
-                    occurrences = new ArrayList<NameOccurrence>();
+                    List<NameOccurrence> occurrences = nameOccurrences.get(name);
+                    if (occurrences == null) {
+                        occurrences = new ArrayList<NameOccurrence>();
+                    }
+                    occurrences.add(occurrence);
+                    nameOccurrences.put(name, occurrences);
                 }
-                occurrences.add(occurrence);
-                nameOccurrences.put(name, occurrences);
+            }
+        } finally {
+            //the pool clears the adaptive data on release
+            openNLP.getNameFinderPool().release(nameFinderModel, finder);
+            if(tokenizerModel != null){
+                openNLP.getTokenizerPool().release(tokenizerModel, (TokenizerME)tokenizer);
             }
         }
-        finder.clearAdaptiveData();
         log.debug("{} name occurrences found: {}", nameOccurrences.size(), nameOccurrences);
         return nameOccurrences;
     }
+    /**
+     * Getter for the {@link TokenizerModel} of the parsed language
+     * @param language the language
+     * @return the model or <code>null</code> if not available. In this case
+     * the {@link SimpleTokenizer} is used.
+     */
+    private TokenizerModel getTokenizerModel(String language) {
+        if(language == null){
+            return null;
+        }
+        try {
+            return openNLP.getTokenizerModel(language);
+        } catch (IOException e) {
+            log.warn("Unable to load Tokenizer Model for " + language 
+                + ": Will use Simple Tokenizer instead", e);
+            return null;
+        }
+    }
 
     public int canEnhance(ContentItem ci) {
         if(ContentItemHelper.getBlob(ci, SUPPORTED_MIMETYPES) != null &&
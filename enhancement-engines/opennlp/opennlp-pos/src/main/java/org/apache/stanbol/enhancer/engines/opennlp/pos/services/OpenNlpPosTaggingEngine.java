@@ -35,7 +35,10 @@ import opennlp.tools.postag.POSTaggerME;
 import opennlp.tools.sentdetect.SentenceDetector;
 import opennlp.tools.sentdetect.SentenceDetectorME;
 import opennlp.tools.sentdetect.SentenceModel;
+import opennlp.tools.tokenize.SimpleTokenizer;
 import opennlp.tools.tokenize.Tokenizer;
+import opennlp.tools.tokenize.TokenizerME;
+import opennlp.tools.tokenize.TokenizerModel;
 import opennlp.tools.util.Sequence;
 
 import org.apache.clerezza.commons.rdf.IRI;
@@ -176,7 +179,7 @@ public class OpenNlpPosTaggingEngine extends AbstractEnhancementEngine<RuntimeEx
             return CANNOT_ENHANCE;
         }
 
-        if(getPOSTagger(language) == null) {
+        if(getPOSModel(language) == null) {
             log.trace(" > can NOT enhance ContentItem {} because no POSTagger is"
                     + "is present for language {}",ci,language);
             return CANNOT_ENHANCE;
@@ -205,71 +208,88 @@ public class OpenNlpPosTaggingEngine extends AbstractEnhancementEngine<RuntimeEx
         AnalysedText at = initAnalysedText(this,analysedTextFactory,ci);
         String language = getLanguage(this, ci, true);
         
-        POSTagger posTagger = getPOSTagger(language);
-        if(posTagger == null){
+        POSModel posModel = getPOSModel(language);
+        if(posModel == null){
             //this means that the POS tagger became unavailable in-between
             //the call to canEnhance and computeEnhancement
             throw new EngineException("PosTagger for langauge '"+language
                 + "is not available."); 
         }
-        TagSet<PosTag> tagSet = tagSetRegistry.getTagSet(language);
-        if(tagSet == null){
-            log.warn("No POS TagSet registered for Language '{}'. Will build an "
-                    + "adhoc set based on encountered Tags!",language);
-            //for now only created to avoid checks for tagSet == null
-            //TODO: in future we might want to automatically create posModels based
-            //on tagged texts. However this makes no sense as long we can not
-            //persist TagSets.
-            tagSet = new TagSet<PosTag>("dummy", language);
-        }
-        //holds PosTags created for POS tags that where not part of the posModel
-        //(will hold all PosTags in case tagSet is NULL
-        Map<String,PosTag> adhocTags = languageAdhocTags.get(language);
-        if(adhocTags == null){
-                adhocTags =  new HashMap<String,PosTag>();
-                languageAdhocTags.put(language, adhocTags);
-        }
-        //(1) Sentence detection
+        //POSTaggerME instances are not thread-safe but expensive to create.
+        //So borrow one from the pool and release it when done
+        POSTaggerME posTagger = openNLP.getPartOfSpeechTaggerPool().borrow(posModel);
+        TokenizerModel tokenizerModel = null;
+        Tokenizer tokenizer = null; //lazily initialised
+        try {
+            TagSet<PosTag> tagSet = tagSetRegistry.getTagSet(language);
+            if(tagSet == null){
+                log.warn("No POS TagSet registered for Language '{}'. Will build an "
+                        + "adhoc set based on encountered Tags!",language);
+                //for now only created to avoid checks for tagSet == null
+                //TODO: in future we might want to automatically create posModels based
+                //on tagged texts. However this makes no sense as long we can not
+                //persist TagSets.
+                tagSet = new TagSet<PosTag>("dummy", language);
+            }
+            //holds PosTags created for POS tags that where not part of the posModel
+            //(will hold all PosTags in case tagSet is NULL
+            Map<String,PosTag> adhocTags = languageAdhocTags.get(language);
+            if(adhocTags == null){
+                    adhocTags =  new HashMap<String,PosTag>();
+                    languageAdhocTags.put(language, adhocTags);
+            }
+            //(1) Sentence detection
         
-        //Try to read existing Sentence Annotations
-        Iterator<Sentence> sentences = at.getSentences();
-        List<Section> sentenceList;
-        if(!sentences.hasNext()){
-            //if non try to detect sentences
-            log.trace(" > detect sentences for {}",at);
-            sentenceList = detectSentences(at,language);
-        }
-        if(sentences.hasNext()){ //check if we have detected sentences
-            log.trace(" > use existing Sentence annotations for {}",at);
-            sentenceList = new ArrayList<Section>();
-            AnalysedTextUtils.appandToList(sentences, sentenceList);
-        } else {
-            //no sentence detected ... treat the whole text as a single sentence
-            //TODO: maybe apply here a limit to the text size!
-            log.trace(" > unable to detect Sentences for {} (langauge: {})",at,language);
-            sentenceList = Collections.singletonList((Section)at);
-        }
+            //Try to read existing Sentence Annotations
+            Iterator<Sentence> sentences = at.getSentences();
+            List<Section> sentenceList;
+            if(!sentences.hasNext()){
+                //if non try to detect sentences
+                log.trace(" > detect sentences for {}",at);
+                sentenceList = detectSentences(at,language);
+            }
+            if(sentences.hasNext()){ //check if we have detected sentences
+                log.trace(" > use existing Sentence annotations for {}",at);
+                sentenceList = new ArrayList<Section>();
+                AnalysedTextUtils.appandToList(sentences, sentenceList);
+            } else {
+                //no sentence detected ... treat the whole text as a single sentence
+                //TODO: maybe apply here a limit to the text size!
+                log.trace(" > unable to detect Sentences for {} (langauge: {})",at,language);
+                sentenceList = Collections.singletonList((Section)at);
+            }
         
-        //for all sentences (or the whole Text - if no sentences available)
-        for(Section sentence : sentenceList){
+            //for all sentences (or the whole Text - if no sentences available)
+            for(Section sentence : sentenceList){
 
-            //(2) Tokenize Sentences
+                //(2) Tokenize Sentences
             
-            List<Token> tokenList;
-            //check if there are already tokens
-            Iterator<Token> tokens = sentence.getTokens();
-            if(!tokens.hasNext()){ //no tokens present -> tokenize
-                log.trace(" > tokenize {}",sentence);
-                tokenList = tokenize(sentence,language);
-            } else { //use existing
-                log.trace(" > use existing Tokens for {}",sentence);
-                tokenList = new ArrayList<Token>(); //ensure an ArrayList is used
-                AnalysedTextUtils.appandToList(tokens, tokenList);
-            }
+                List<Token> tokenList;
+                //check if there are already tokens
+                Iterator<Token> tokens = sentence.getTokens();
+                if(!tokens.hasNext()){ //no tokens present -> tokenize
+                    log.trace(" > tokenize {}",sentence);
+                    if(tokenizer == null){
+                        tokenizerModel = getTokenizerModel(language);
+                        tokenizer = tokenizerModel == null ? SimpleTokenizer.INSTANCE :
+                            openNLP.getTokenizerPool().borrow(tokenizerModel);
+                    }
+                    tokenList = tokenize(sentence,tokenizer);
+                } else { //use existing
+                    log.trace(" > use existing Tokens for {}",sentence);
+                    tokenList = new ArrayList<Token>(); //ensure an ArrayList is used
+                    AnalysedTextUtils.appandToList(tokens, tokenList);
+                }
             
-            //(3) POS Tagging
-            posTag(tokenList, posTagger,tagSet,adhocTags,language);
+                //(3) POS Tagging
+                posTag(tokenList, posTagger,tagSet,adhocTags,language);
             
+            }
+        } finally {
+            openNLP.getPartOfSpeechTaggerPool().release(posModel, posTagger);
+            if(tokenizerModel != null){
+                openNLP.getTokenizerPool().release(tokenizerModel, (TokenizerME)tokenizer);
+            }
         }
         if(log.isTraceEnabled()){
             logAnnotations(at);
@@ -354,8 +374,7 @@ public class OpenNlpPosTaggingEngine extends AbstractEnhancementEngine<RuntimeEx
         return posTag;
     }
 
-    private List<Token> tokenize(Section section,String langauge) {
-        Tokenizer tokenizer = getTokenizer(langauge);
+    private List<Token> tokenize(Section section,Tokenizer tokenizer) {
         String text = section.getSpan();
         List<Token> tokens = new ArrayList<Token>(text.length()/5); //assume avr. token length is 5
         opennlp.tools.util.Span[] tokenSpans = tokenizer.tokenizePos(section.getSpan());
@@ -421,7 +440,7 @@ public class OpenNlpPosTaggingEngine extends AbstractEnhancementEngine<RuntimeEx
         log.debug("Sentence Detection Model for Language '{}' not available.", language);
         return null;
     }
-    private POSTagger getPOSTagger(String language) {
+    private POSModel getPOSModel(String language) {
         String modelName = languageConfig.getParameter(language,MODEL_NAME_PARAM);
         try {
             POSModel model;
@@ -435,7 +454,7 @@ public class OpenNlpPosTaggingEngine extends AbstractEnhancementEngine<RuntimeEx
                     new Object[]{model.getClass().getSimpleName(), 
                                  model.getLanguage(), 
                                  model.getVersion() != null ? model.getVersion() : "undefined"});
-                return new POSTaggerME(model);
+                return model;
             }
         } catch (Exception e) {
             log.warn("Unable to load POS model for language '"+language+"'!",e);
@@ -443,9 +462,20 @@ public class OpenNlpPosTaggingEngine extends AbstractEnhancementEngine<RuntimeEx
         log.debug("POS tagging Model for Language '{}' not available.", language);
         return null;
     }
-    
-    private Tokenizer getTokenizer(String language){
-        return openNLP.getTokenizer(language);
+    /**
+     * Getter for the tokenizer model of the parsed language
+     * @param language the language
+     * @return the model or <code>null</code> if not available (in this case
+     * the {@link SimpleTokenizer} is used)
+     */
+    private TokenizerModel getTokenizerModel(String language){
+        try {
+            return openNLP.getTokenizerModel(language);
+        } catch (Exception e) {
+            log.warn("Unable to load Tokenizer model for language '"+language
+                + "': Will use Simple Tokenizer instead",e);
+            return null;
+        }
     }
     
 }
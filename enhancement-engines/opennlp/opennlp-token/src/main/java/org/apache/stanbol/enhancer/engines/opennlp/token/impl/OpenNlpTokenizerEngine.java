@@ -19,6 +19,7 @@ package org.apache.stanbol.enhancer.engines.opennlp.token.impl;
 import static org.apache.stanbol.enhancer.nlp.utils.NlpEngineHelper.getLanguage;
 import static org.apache.stanbol.enhancer.nlp.utils.NlpEngineHelper.initAnalysedText;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.Dictionary;
 import java.util.HashMap;
@@ -151,11 +152,8 @@ public class OpenNlpTokenizerEngine extends AbstractEnhancementEngine<RuntimeExc
                 + "not enabled by this engines configuration",ci,language);
             return CANNOT_ENHANCE;
         }
-        if(getTokenizer(language) == null){
-            log.trace(" > can NOT tokenize plain text of {} because the tokenizer "
-                + "for language {} is not available.",ci,language);
-                return CANNOT_ENHANCE;
-        }
+        //validates that a custom configured model is available
+        getTokenizerModel(language);
         log.trace(" > can enhance ContentItem {} with language {}",ci,language);
         return ENHANCE_ASYNC;
     }
@@ -179,30 +177,32 @@ public class OpenNlpTokenizerEngine extends AbstractEnhancementEngine<RuntimeExc
         AnalysedText at = initAnalysedText(this,analysedTextFactory,ci);
         String language = getLanguage(this, ci, true);
         
-        Tokenizer tokenizer = getTokenizer(language);
-        if(tokenizer == null){
-            log.warn("Tokenizer for language {} is no longer available. "
-                    + "This might happen if the model becomes unavailable during enhancement. "
-                    + "If this happens more often it might also indicate an bug in the used "
-                    + "EnhancementJobManager implementation as the availability is also checked "
-                    + "in the canEnhance(..) method of this Enhancement Engine.");
-            return;
-        }
-        //Try to use sentences for tokenizing
-        Iterator<? extends Section> sections = at.getSentences();
-        if(!sections.hasNext()){
-            //if no sentences are annotated
-            sections = Collections.singleton(at).iterator();
-        }
-        
-        //for all sentences (or the whole Text - if no sentences available)
-        while(sections.hasNext()){
-            Section section = sections.next();
-            //Tokenize section
-            opennlp.tools.util.Span[] tokenSpans = tokenizer.tokenizePos(section.getSpan());
-            for(int i=0;i<tokenSpans.length;i++){
-                Token token = section.addToken(tokenSpans[i].getStart(), tokenSpans[i].getEnd());
-                log.trace(" > add {}",token);
+        TokenizerModel model = getTokenizerModel(language);
+        //TokenizerME is not thread-safe. So borrow an instance from the pool
+        TokenizerME tokenizerME = model == null ? null : 
+            openNLP.getTokenizerPool().borrow(model);
+        Tokenizer tokenizer = tokenizerME == null ? SimpleTokenizer.INSTANCE : tokenizerME;
+        try {
+            //Try to use sentences for tokenizing
+            Iterator<? extends Section> sections = at.getSentences();
+            if(!sections.hasNext()){
+                //if no sentences are annotated
+                sections = Collections.singleton(at).iterator();
+            }
+            
+            //for all sentences (or the whole Text - if no sentences available)
+            while(sections.hasNext()){
+                Section section = sections.next();
+                //Tokenize section
+                opennlp.tools.util.Span[] tokenSpans = tokenizer.tokenizePos(section.getSpan());
+                for(int i=0;i<tokenSpans.length;i++){
+                    Token token = section.addToken(tokenSpans[i].getStart(), tokenSpans[i].getEnd());
+                    log.trace(" > add {}",token);
+                }
+            }
+        } finally {
+            if(tokenizerME != null){
+                openNLP.getTokenizerPool().release(model, tokenizerME);
             }
         }
     }
@@ -232,20 +232,27 @@ public class OpenNlpTokenizerEngine extends AbstractEnhancementEngine<RuntimeExc
         super.deactivate(context);
     }
     /**
-     * Getter for the Tokenizer. This uses the {@link #languageConfig} to
+     * Getter for the TokenizerModel. This uses the {@link #languageConfig} to
      * check if a specific configuration for the given language is present
      * by checking for the {@link #MODEL_NAME_PARAM}.
      * @param language the language
-     * @return the {@link Tokenizer} guaranteed to be not <code>null</code>.
+     * @return the {@link TokenizerModel} or <code>null</code> if the
+     * {@link SimpleTokenizer} is to be used.
      * @throws EngineException in case a custom configured model is not
      * available or an error occurred during loading.
      */
-    private Tokenizer getTokenizer(String language) throws EngineException {
+    private TokenizerModel getTokenizerModel(String language) throws EngineException {
         String modelName = languageConfig.getParameter(language, MODEL_NAME_PARAM);
         if(modelName == null){
-            return openNLP.getTokenizer(language);
+            try {
+                return openNLP.getTokenizerModel(language);
+            } catch (IOException e) {
+                log.warn("Unable to load Tokenizer Model for "+language+": " +
+                    "Will use Simple Tokenizer instead",e);
+                return null;
+            }
         } else if(SIMPLE_MODEL_NAME.equals(modelName)){
-            return SimpleTokenizer.INSTANCE;
+            return null;
         } else { //try to load the configured model
             TokenizerModel model;
             try {
@@ -260,7 +267,7 @@ public class OpenNlpTokenizerEngine extends AbstractEnhancementEngine<RuntimeExc
                         + modelName +" is not available' ("+getClass().getSimpleName()
                         + " | name=" + getName() + ")!");
             }
-            return new TokenizerME(model);
+            return model;
         }
     }
     
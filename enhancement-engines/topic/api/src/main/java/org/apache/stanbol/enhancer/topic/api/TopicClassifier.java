@@ -149,6 +149,12 @@ public interface TopicClassifier {
     public int updatePerformanceEstimates(boolean incremental) throws ClassifierException,
                                                               TrainingSetException;
 
+    /**
+     * @return a short human readable report of the progress and throughput of the running (or last) model
+     *         update or performance evaluation, or null if none was started yet.
+     */
+    String getUpdateProgress();
+
     /**
      * Tell the classifier which slice of data to keep aside while training for model evaluation using k-folds
      * cross validation.
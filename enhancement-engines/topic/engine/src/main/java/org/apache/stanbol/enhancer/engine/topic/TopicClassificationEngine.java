@@ -34,6 +34,15 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.parsers.ParserConfigurationException;
 
 import org.apache.clerezza.commons.rdf.ImmutableGraph;
 import org.apache.clerezza.rdf.core.LiteralFactory;
@@ -112,6 +121,7 @@ import org.osgi.service.component.ComponentContext;
 import org.osgi.util.tracker.ServiceTracker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.xml.sax.SAXException;
 
 /**
  * Enhancement Engine that provides the ability to assign a text document to a set of concepts indexed in a
@@ -167,6 +177,7 @@ import org.slf4j.LoggerFactory;
 //             @Property(name = TopicClassificationEngine.NEGATIVE_SUPPORT_FIELD, value = TopicClassificationEngine.DEFAULT_NEGATIVE_SUPPORT_FIELD),
 //             @Property(name = TopicClassificationEngine.ORDER, intValue = TopicClassificationEngine.DEFAULT_ENGINE_ORDER),
         @Property(name = TopicClassificationEngine.TRAINING_SET_ID),
+        @Property(name = TopicClassificationEngine.UPDATE_THREADS, intValue = TopicClassificationEngine.DEFAULT_UPDATE_THREADS),
         @Property(name = Constants.SERVICE_RANKING, intValue = 0)
 })
 public class TopicClassificationEngine extends ConfiguredSolrCoreTracker implements EnhancementEngine,
@@ -258,6 +269,14 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
     
     public static final String TRAINING_SET_ID = "org.apache.stanbol.enhancer.engine.topic.trainingSetId";
 
+    /**
+     * The number of worker threads used to rebuild the topic models of a batch of concepts and to evaluate
+     * them during cross validation.
+     */
+    public static final String UPDATE_THREADS = "org.apache.stanbol.enhancer.engine.topic.updateThreads";
+
+    public static final int DEFAULT_UPDATE_THREADS = 4;
+
     private static final Logger log = LoggerFactory.getLogger(TopicClassificationEngine.class);
 
     /**
@@ -354,6 +373,14 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
 
     protected boolean evaluationRunning = false;
 
+    protected int updateThreads = DEFAULT_UPDATE_THREADS;
+
+    // short report on the progress of the running (or last) model update or evaluation
+    protected volatile String updateProgress;
+
+    // the CV folds are evaluated in parallel: serialize the read-modify-write of the performance metadata
+    private final Object performanceMetadataLock = new Object();
+
     @Reference(cardinality = ReferenceCardinality.OPTIONAL_UNARY, bind = "bindManagedSolrServer", unbind = "unbindManagedSolrServer", strategy = ReferenceStrategy.EVENT, policy = ReferencePolicy.DYNAMIC)
     protected ManagedSolrServer managedSolrServerDummy; // trick to call the super class binders
 
@@ -365,12 +392,12 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
     private File embeddedSolrServerDir;
 
     /**
-     * Embedded Solr server used for {@link #performCVFold(File, int, int, int, boolean)}
+     * Embedded Solr servers (one per fold index) used for {@link #performCVFold(int, int, int, boolean)}
      * if no ManagedSolrServer is present (e.g. when running outside of OSGI).
      * Lazily initialised relative to {@link #embeddedSolrServerDir} on the first
-     * call to performCVFold
+     * call to performCVFold for a fold and shut down at the end of the evaluation.
      */
-    private EmbeddedSolrServer __evaluationServer;
+    private final Map<Integer,EmbeddedSolrServer> __evaluationServers = new HashMap<Integer,EmbeddedSolrServer>();
 
     private File __evaluationServerDir;
 
@@ -411,16 +438,8 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
         if (trainingSetTracker != null) {
             trainingSetTracker.close();
         }
-        //shutdown the evaluation server and delete the data of the evaluation server
-        if(__evaluationServer != null){
-            try {
-                __evaluationServer.getCoreContainer().shutdown();
-            }catch (Exception e){
-              //ignore  
-            } finally {
-                FileUtils.deleteQuietly(__evaluationServerDir);
-            }
-        }
+        //shutdown the evaluation servers and delete the data of the evaluation servers
+        shutdownEvaluationServers();
         context = null;
     }
 
@@ -447,6 +466,23 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
         broaderField = getRequiredStringParam(config, BROADER_FIELD, DEFAULT_BROADER_FIELD);
         primaryTopicUriField = getRequiredStringParam(config, PRIMARY_TOPIC_URI_FIELD, DEFAULT_PRIMARY_TOPIC_URI_FIELD);
         trainingSetId = (String) config.get(TRAINING_SET_ID);
+        Object updateThreadsValue = config.get(UPDATE_THREADS);
+        if (updateThreadsValue instanceof Number) {
+            updateThreads = ((Number) updateThreadsValue).intValue();
+        } else if (updateThreadsValue != null && !updateThreadsValue.toString().trim().isEmpty()) {
+            try {
+                updateThreads = Integer.parseInt(updateThreadsValue.toString().trim());
+            } catch (NumberFormatException e) {
+                throw new ConfigurationException(UPDATE_THREADS, "The number of update threads "
+                    + "MUST BE an Integer value!", e);
+            }
+        } else {
+            updateThreads = DEFAULT_UPDATE_THREADS;
+        }
+        if (updateThreads < 1) {
+            throw new ConfigurationException(UPDATE_THREADS, "The number of update threads "
+                + "MUST BE greater than zero (parsed: " + updateThreads + ")!");
+        }
         Object orderParamValue = config.get(ORDER);
         if (orderParamValue instanceof Number) {
             order = ((Number) orderParamValue).intValue();
@@ -786,31 +822,14 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
         // ensure that there is no previous topic registered with the same id
         removeConcept(conceptUri);
 
-        SolrInputDocument metadataEntry = new SolrInputDocument();
-        String metadataEntryId = UUID.randomUUID().toString();
-        String modelEntryId = UUID.randomUUID().toString();
-        metadataEntry.addField(conceptUriField, conceptUri);
-        metadataEntry.addField(entryIdField, metadataEntryId);
-        metadataEntry.addField(modelEntryIdField, modelEntryId);
-        metadataEntry.addField(entryTypeField, METADATA_ENTRY);
-        if (broaderConcepts != null && broaderField != null) {
-            metadataEntry.addField(broaderField, broaderConcepts);
-        }
-        if (primaryTopicUri != null && primaryTopicUriField != null) {
-            metadataEntry.addField(primaryTopicUriField, primaryTopicUri);
-        }
-        SolrInputDocument modelEntry = new SolrInputDocument();
-        modelEntry.addField(entryIdField, modelEntryId);
-        modelEntry.addField(conceptUriField, conceptUri);
-        modelEntry.addField(entryTypeField, MODEL_ENTRY);
+        List<SolrInputDocument> entries = makeConceptEntries(conceptUri, primaryTopicUri, broaderConcepts);
         if (broaderConcepts != null) {
             invalidateModelFields(broaderConcepts, modelUpdateDateField, modelEvaluationDateField);
         }
         SolrServer solrServer = getActiveSolrServer();
         try {
             UpdateRequest request = new UpdateRequest();
-            request.add(metadataEntry);
-            request.add(modelEntry);
+            request.add(entries);
             solrServer.request(request);
             solrServer.commit();
         } catch (Exception e) {
@@ -825,6 +844,33 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
         addConcept(conceptId, null, broaderConcepts);
     }
 
+    /**
+     * Build the metadata and the (empty) model entries of a new concept. Sending them to the Solr core is
+     * the responsibility of the caller.
+     */
+    protected List<SolrInputDocument> makeConceptEntries(String conceptUri,
+                                                         String primaryTopicUri,
+                                                         Collection<String> broaderConcepts) {
+        SolrInputDocument metadataEntry = new SolrInputDocument();
+        String metadataEntryId = UUID.randomUUID().toString();
+        String modelEntryId = UUID.randomUUID().toString();
+        metadataEntry.addField(conceptUriField, conceptUri);
+        metadataEntry.addField(entryIdField, metadataEntryId);
+        metadataEntry.addField(modelEntryIdField, modelEntryId);
+        metadataEntry.addField(entryTypeField, METADATA_ENTRY);
+        if (broaderConcepts != null && broaderField != null) {
+            metadataEntry.addField(broaderField, broaderConcepts);
+        }
+        if (primaryTopicUri != null && primaryTopicUriField != null) {
+            metadataEntry.addField(primaryTopicUriField, primaryTopicUri);
+        }
+        SolrInputDocument modelEntry = new SolrInputDocument();
+        modelEntry.addField(entryIdField, modelEntryId);
+        modelEntry.addField(conceptUriField, conceptUri);
+        modelEntry.addField(entryTypeField, MODEL_ENTRY);
+        return Arrays.asList(metadataEntry, modelEntry);
+    }
+
     /*
      * The commit is the responsibility of the caller.
      */
@@ -919,8 +965,26 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
     }
 
     protected int batchOverTopics(BatchProcessor<SolrDocument> processor) throws TrainingSetException {
+        return batchOverTopics(null, processor, true);
+    }
+
+    /**
+     * Iterate over the metadata entries of all the registered topics by batches of 1000 topics.
+     * 
+     * @param task
+     *            optional name of the task used to report progress and throughput after each batch
+     * @param processor
+     *            the processor of the batches
+     * @param commit
+     *            if the Solr core of this classifier is committed after each batch and optimized at the end.
+     *            Processors that only read the metadata or do their own commits should disable it.
+     * @return the sum of the counts returned by the processor
+     */
+    protected int batchOverTopics(String task, BatchProcessor<SolrDocument> processor, boolean commit) throws TrainingSetException {
         // TODO: implement incremental update by using the date informations
         int processedCount = 0;
+        int visitedCount = 0;
+        long start = System.currentTimeMillis();
         SolrServer solrServer = getActiveSolrServer();
         SolrQuery query = new SolrQuery("*:*");
         query.addFilterQuery(entryTypeField + ":" + METADATA_ENTRY);
@@ -949,12 +1013,20 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
                     }
                 }
                 processedCount += processor.process(batchDocuments);
-                solrServer.commit();
+                if (commit) {
+                    solrServer.commit();
+                }
+                visitedCount += count;
+                if (task != null) {
+                    reportProgress(task, visitedCount, processedCount, start);
+                }
                 if (count < batchSize) {
                     done = true;
                 }
             }
-            solrServer.optimize();
+            if (commit) {
+                solrServer.optimize();
+            }
         } catch (Exception e) {
             String msg = String.format("Error while updating topics on Solr Core '%s'.", solrCoreId);
             throw new TrainingSetException(msg, e);
@@ -962,6 +1034,67 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
         return processedCount;
     }
 
+    /**
+     * Log the progress and throughput of a long running task and make it available to
+     * {@link #getUpdateProgress()}.
+     */
+    protected void reportProgress(String task, int visited, int processed, long start) {
+        double duration = Math.max(System.currentTimeMillis() - start, 1) / 1000.;
+        updateProgress = String.format("%s on classifier %s: visited %d topic(s) and processed %d in %.1fs"
+                                       + " (%.1f topics/s)", task, engineName, visited, processed, duration,
+            visited / duration);
+        log.info(updateProgress);
+    }
+
+    @Override
+    public String getUpdateProgress() {
+        return updateProgress;
+    }
+
+    /**
+     * Create a pool of daemon threads used to process the topics of a batch in parallel. It is the
+     * responsibility of the caller to shut it down.
+     */
+    protected ExecutorService createWorkerPool(String name, int size) {
+        return Executors.newFixedThreadPool(size, new WorkerThreadFactory(engineName + "-" + name));
+    }
+
+    /**
+     * Wait for the parsed tasks and return their results in submission order. If a task fails the
+     * remaining ones are cancelled and the {@link ClassifierException} or {@link TrainingSetException} of the
+     * failed task is re-thrown.
+     */
+    protected static <T> List<T> getResults(List<Future<T>> tasks) throws ClassifierException,
+                                                                  TrainingSetException {
+        List<T> results = new ArrayList<T>(tasks.size());
+        try {
+            for (Future<T> task : tasks) {
+                results.add(task.get());
+            }
+        } catch (InterruptedException e) {
+            cancel(tasks);
+            Thread.currentThread().interrupt();
+            throw new ClassifierException("Interrupted while waiting for the processing of topics", e);
+        } catch (ExecutionException e) {
+            cancel(tasks);
+            Throwable cause = e.getCause();
+            if (cause instanceof ClassifierException) {
+                throw (ClassifierException) cause;
+            } else if (cause instanceof TrainingSetException) {
+                throw (TrainingSetException) cause;
+            } else {
+                throw new ClassifierException(cause);
+            }
+        }
+        return results;
+    }
+
+    private static void cancel(List<? extends Future<?>> tasks) {
+        for (Future<?> task : tasks) {
+            task.cancel(true);
+        }
+    }
+
     @Override
     public int updateModel(boolean incremental) throws TrainingSetException, ClassifierException {
         checkTrainingSet();
@@ -971,41 +1104,85 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
             incremental = false;
         }
         final boolean incr = incremental;
-        int updatedTopics = batchOverTopics(new BatchProcessor<SolrDocument>() {
-
-            @Override
-            public int process(List<SolrDocument> batch) throws ClassifierException, TrainingSetException {
-                int processed = 0;
-                for (SolrDocument result : batch) {
-                    String conceptId = result.getFirstValue(conceptUriField).toString();
-                    List<String> impactedTopics = new ArrayList<String>();
-                    impactedTopics.add(conceptId);
-                    impactedTopics.addAll(getNarrowerConcepts(conceptId));
-                    if (incr) {
-                        Date lastModelUpdate = (Date) result.getFirstValue(modelUpdateDateField);
-                        if (lastModelUpdate != null
-                            && !getTrainingSet().hasChangedSince(impactedTopics, lastModelUpdate)) {
-                            continue;
+        final ExecutorService workers = createWorkerPool("update", updateThreads);
+        int updatedTopics;
+        try {
+            updatedTopics = batchOverTopics("Model update", new BatchProcessor<SolrDocument>() {
+
+                @Override
+                public int process(List<SolrDocument> batch) throws ClassifierException, TrainingSetException {
+                    // collect the examples of the topics of the batch in parallel ...
+                    List<Future<List<SolrInputDocument>>> tasks = new ArrayList<Future<List<SolrInputDocument>>>(
+                            batch.size());
+                    for (final SolrDocument result : batch) {
+                        tasks.add(workers.submit(new Callable<List<SolrInputDocument>>() {
+                            @Override
+                            public List<SolrInputDocument> call() throws ClassifierException,
+                                                                 TrainingSetException {
+                                return updateTopic(result, incr);
+                            }
+                        }));
+                    }
+                    // ... and send the updated entries with a single request (batchOverTopics commits)
+                    UpdateRequest request = new UpdateRequest();
+                    int processed = 0;
+                    for (List<SolrInputDocument> entries : getResults(tasks)) {
+                        if (entries != null) {
+                            request.add(entries);
+                            processed++;
                         }
                     }
-                    String metadataEntryId = result.getFirstValue(entryIdField).toString();
-                    String modelEntryId = result.getFirstValue(modelEntryIdField).toString();
-                    String primaryTopicUri = null;
-                    if (primaryTopicUriField != null) {
-                        primaryTopicUri = (String) result.getFirstValue(primaryTopicUriField);
+                    if (processed > 0) {
+                        try {
+                            getActiveSolrServer().request(request);
+                        } catch (Exception e) {
+                            String msg = String.format("Error updating %d topics on Solr Core '%s'",
+                                processed, solrCoreId);
+                            throw new ClassifierException(msg, e);
+                        }
                     }
-                    updateTopic(conceptId, metadataEntryId, modelEntryId, impactedTopics, primaryTopicUri,
-                        result.getFieldValues(broaderField));
-                    processed++;
+                    return processed;
                 }
-                return processed;
-            }
-        });
+            }, true);
+        } finally {
+            workers.shutdownNow();
+        }
         long stop = System.currentTimeMillis();
         log.info("Sucessfully updated {} topics in {}s", updatedTopics, (double) (stop - start) / 1000.);
         return updatedTopics;
     }
 
+    /**
+     * @param metadata
+     *            the metadata entry of the topic to update
+     * @param incremental
+     *            if the topic should be skipped when none of the examples of the topic and its direct
+     *            children has changed since the last update of its model
+     * @return the updated metadata and model entries of the topic or <code>null</code> if the topic was
+     *         skipped. It is the responsibility of the caller to send them to the Solr core.
+     */
+    protected List<SolrInputDocument> updateTopic(SolrDocument metadata, boolean incremental) throws TrainingSetException,
+                                                                                             ClassifierException {
+        String conceptId = metadata.getFirstValue(conceptUriField).toString();
+        List<String> impactedTopics = new ArrayList<String>();
+        impactedTopics.add(conceptId);
+        impactedTopics.addAll(getNarrowerConcepts(conceptId));
+        if (incremental) {
+            Date lastModelUpdate = (Date) metadata.getFirstValue(modelUpdateDateField);
+            if (lastModelUpdate != null && !getTrainingSet().hasChangedSince(impactedTopics, lastModelUpdate)) {
+                return null;
+            }
+        }
+        String metadataEntryId = metadata.getFirstValue(entryIdField).toString();
+        String modelEntryId = metadata.getFirstValue(modelEntryIdField).toString();
+        String primaryTopicUri = null;
+        if (primaryTopicUriField != null) {
+            primaryTopicUri = (String) metadata.getFirstValue(primaryTopicUriField);
+        }
+        return updateTopic(conceptId, metadataEntryId, modelEntryId, impactedTopics, primaryTopicUri,
+            metadata.getFieldValues(broaderField));
+    }
+
     /**
      * @param conceptUri
      *            the topic model to update
@@ -1018,14 +1195,16 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
      * @param primaryTopicUri
      * @param broaderConcepts
      *            the collection of broader to re-add in the broader field
+     * @return the updated metadata and model entries of the topic. It is the responsibility of the caller to
+     *         send them to the Solr core.
      */
-    protected void updateTopic(String conceptUri,
-                               String metadataId,
-                               String modelId,
-                               List<String> impactedTopics,
-                               String primaryTopicUri,
-                               Collection<Object> broaderConcepts) throws TrainingSetException,
-                                                                  ClassifierException {
+    protected List<SolrInputDocument> updateTopic(String conceptUri,
+                                                  String metadataId,
+                                                  String modelId,
+                                                  List<String> impactedTopics,
+                                                  String primaryTopicUri,
+                                                  Collection<Object> broaderConcepts) throws TrainingSetException,
+                                                                                     ClassifierException {
         long start = System.currentTimeMillis();
         Batch<Example> examples = Batch.emtpyBatch(Example.class);
         StringBuffer sb = new StringBuffer();
@@ -1069,20 +1248,10 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
         if (modelUpdateDateField != null) {
             metadataEntry.addField(modelUpdateDateField, UTCTimeStamper.nowUtcDate());
         }
-        SolrServer solrServer = getActiveSolrServer();
-        try {
-            UpdateRequest request = new UpdateRequest();
-            request.add(metadataEntry);
-            request.add(modelEntry);
-            solrServer.request(request);
-            // the commit is done by the caller in batch
-        } catch (Exception e) {
-            String msg = String.format("Error updating topic with id '%s' on Solr Core '%s'", conceptUri,
-                solrCoreId);
-            throw new ClassifierException(msg, e);
-        }
         long stop = System.currentTimeMillis();
-        log.debug("Sucessfully updated topic {} in {}s", conceptUri, (double) (stop - start) / 1000.);
+        log.debug("Sucessfully collected the examples of topic {} in {}s", conceptUri,
+            (double) (stop - start) / 1000.);
+        return Arrays.asList(metadataEntry, modelEntry);
     }
 
     protected void checkTrainingSet() throws TrainingSetException {
@@ -1137,30 +1306,45 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
             throw new ClassifierException("Another evaluation is already running");
         }
         int updatedTopics = 0;
-        // NOTE: The folder used to create the SolrServer used for CVFold
-        //       is now created within the #embeddedSolrServerDir
+        // NOTE: The folders used to create the SolrServers used for CVFold
+        //       are now created within the #embeddedSolrServerDir
+        ExecutorService folds = null;
         try {
             evaluationRunning = true;
-            int cvFoldCount = 3; // 3-folds CV is hardcoded for now
-            int cvIterationCount = 3; // make it possible to limit the number of folds to use
+            final int cvFoldCount = 3; // 3-folds CV is hardcoded for now
+            final int cvIterationCount = 3; // make it possible to limit the number of folds to use
+            final boolean incr = incremental;
 
             // We will use the training set quite intensively, ensure that the index is packed and its
             // statistics are up to date
             getTrainingSet().optimize();
+            // the folds use distinct evaluation cores and can therefore be evaluated in parallel
+            folds = createWorkerPool("cv", cvIterationCount);
+            List<Future<Integer>> foldTasks = new ArrayList<Future<Integer>>(cvIterationCount);
             for (int cvFoldIndex = 0; cvFoldIndex < cvIterationCount; cvFoldIndex++) {
-                updatedTopics = performCVFold(cvFoldIndex, cvFoldCount, cvIterationCount,
-                    incremental);
+                final int foldIndex = cvFoldIndex;
+                foldTasks.add(folds.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws ConfigurationException, TrainingSetException,
+                                         ClassifierException {
+                        return performCVFold(foldIndex, cvFoldCount, cvIterationCount, incr);
+                    }
+                }));
+            }
+            for (Integer foldUpdatedTopics : getResults(foldTasks)) {
+                updatedTopics = foldUpdatedTopics;
             }
             SolrServer solrServer = getActiveSolrServer();
             solrServer.optimize();
-        } catch (ConfigurationException e) {
-            throw new ClassifierException(e);
         } catch (IOException e) {
             throw new ClassifierException(e);
         } catch (SolrServerException e) {
             throw new ClassifierException(e);
         } finally {
-            FileUtils.deleteQuietly(__evaluationServerDir);
+            if (folds != null) {
+                folds.shutdownNow();
+            }
+            shutdownEvaluationServers();
             evaluationRunning = false;
         }
         return updatedTopics;
@@ -1173,25 +1357,24 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
         log.info(String.format("Performing evaluation %d-fold CV iteration %d/%d on classifier %s",
             cvFoldCount, cvFoldIndex + 1, cvIterations, engineName));
         long start = System.currentTimeMillis();
+        // the folds run in parallel: share the configured number of threads among them
+        int foldThreads = Math.max(1, updateThreads / cvIterations);
         final TopicClassificationEngine classifier = new TopicClassificationEngine();
         try {
+            Dictionary<String,Object> config;
             if (managedSolrServer != null) {
                 // OSGi setup: the evaluation server will be generated automatically using the
                 // managedSolrServer
                 classifier.bindManagedSolrServer(managedSolrServer);
-                classifier.activate(context, getCanonicalConfiguration(
-                    engineName + "-evaluation", //TODO: maybe we should use the SolrCoreName instead
-                    solrCoreConfig));
+                config = getCanonicalConfiguration(
+                    engineName + "-evaluation-" + cvFoldIndex, //TODO: maybe we should use the SolrCoreName instead
+                    solrCoreConfig);
+                config.put(UPDATE_THREADS, foldThreads);
+                classifier.activate(context, config);
             } else {
-                if(__evaluationServer == null){
-                    __evaluationServerDir = new File(embeddedSolrServerDir,engineName + "-evaluation");
-                    if(!__evaluationServerDir.exists()){
-                        FileUtils.forceMkdir(__evaluationServerDir);
-                    }
-                    __evaluationServer = EmbeddedSolrHelper.makeEmbeddedSolrServer(__evaluationServerDir,
-                        "evaluationclassifierserver", "default-topic-model", "default-topic-model");
-                }
-                classifier.configure(getCanonicalConfiguration(__evaluationServer,solrCoreConfig));
+                config = getCanonicalConfiguration(getEvaluationServer(cvFoldIndex), solrCoreConfig);
+                config.put(UPDATE_THREADS, foldThreads);
+                classifier.configure(config);
             }
         } catch (Exception e) {
             throw new ClassifierException(e);
@@ -1202,25 +1385,39 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
         classifier.removeAllConcepts();
 
         // iterate over all the topics to register them in the evaluation classifier
-        batchOverTopics(new BatchProcessor<SolrDocument>() {
+        batchOverTopics(null, new BatchProcessor<SolrDocument>() {
             @Override
             public int process(List<SolrDocument> batch) throws ClassifierException {
+                List<SolrInputDocument> entries = new ArrayList<SolrInputDocument>(batch.size() * 2);
                 for (SolrDocument topicEntry : batch) {
                     String conceptId = topicEntry.getFirstValue(conceptUriField).toString();
                     Collection<Object> broader = topicEntry.getFieldValues(broaderField);
-                    if (broader == null) {
-                        classifier.addConcept(conceptId, null, null);
-                    } else {
-                        List<String> broaderConcepts = new ArrayList<String>();
+                    List<String> broaderConcepts = null;
+                    if (broader != null) {
+                        broaderConcepts = new ArrayList<String>();
                         for (Object broaderConcept : broader) {
                             broaderConcepts.add(broaderConcept.toString());
                         }
-                        classifier.addConcept(conceptId, null, broaderConcepts);
+                    }
+                    entries.addAll(classifier.makeConceptEntries(conceptId, null, broaderConcepts));
+                }
+                if (!entries.isEmpty()) {
+                    // the evaluation core was cleaned: add the concepts of the batch with a single request
+                    SolrServer evaluationServer = classifier.getActiveSolrServer();
+                    try {
+                        UpdateRequest request = new UpdateRequest();
+                        request.add(entries);
+                        evaluationServer.request(request);
+                        evaluationServer.commit();
+                    } catch (Exception e) {
+                        throw new ClassifierException(String.format(
+                            "Error registering %d topics in the evaluation classifier %s", batch.size(),
+                            classifier.getName()), e);
                     }
                 }
                 return batch.size();
             }
-        });
+        }, false);
 
         // build the model on the for the current train CV folds
         classifier.setCrossValidationInfo(cvFoldIndex, cvFoldCount);
@@ -1230,117 +1427,56 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
 
         final int foldCount = cvFoldCount;
         final int foldIndex = cvFoldIndex;
+        final ExecutorService workers = createWorkerPool("cv" + cvFoldIndex, foldThreads);
 
         // iterate over the topics again to compute scores on the test fold
-        int updatedTopics = batchOverTopics(new BatchProcessor<SolrDocument>() {
-
-            @Override
-            public int process(List<SolrDocument> batch) throws TrainingSetException, ClassifierException {
-                int offset;
-                int updated = 0;
-                for (SolrDocument topicMetadata : batch) {
-                    String topic = topicMetadata.getFirstValue(conceptUriField).toString();
-                    List<String> topics = Arrays.asList(topic);
-                    List<String> falseNegativeExamples = new ArrayList<String>();
-                    int truePositives = 0;
-                    int falseNegatives = 0;
-                    int positiveSupport = 0;
-                    offset = 0;
-                    Batch<Example> examples = Batch.emtpyBatch(Example.class);
-                    boolean skipTopic = false;
-                    do {
-                        examples = getTrainingSet().getPositiveExamples(topics, examples.nextOffset);
-                        if (offset == 0 && examples.items.size() < MIN_EVALUATION_SAMPLES) {
-                            // we need a minimum about of examples otherwise it's really not
-                            // worth computing statistics
-                            skipTopic = true;
-                            break;
-                        }
-                        for (Example example : examples.items) {
-                            if (!(offset % foldCount == foldIndex)) {
-                                // this example is not part of the test fold, skip it
-                                offset++;
-                                continue;
-                            }
-                            positiveSupport++;
-                            offset++;
-                            List<TopicSuggestion> suggestedTopics = classifier
-                                    .suggestTopics(example.contents);
-                            boolean match = false;
-                            for (TopicSuggestion suggestedTopic : suggestedTopics) {
-                                if (topic.equals(suggestedTopic.conceptUri)) {
-                                    match = true;
-                                    truePositives++;
-                                    break;
-                                }
-                            }
-                            if (!match) {
-                                falseNegatives++;
-                                if (falseNegativeExamples.size() < MAX_COLLECTED_EXAMPLES / foldCount) {
-                                    falseNegativeExamples.add(example.id);
-                                }
-                            }
-                        }
-                    } while (!skipTopic && examples.hasMore && offset < MAX_EVALUATION_SAMPLES);
-
-                    List<String> falsePositiveExamples = new ArrayList<String>();
-                    int falsePositives = 0;
-                    int negativeSupport = 0;
-                    offset = 0;
-                    examples = Batch.emtpyBatch(Example.class);
-                    do {
-                        if (skipTopic) {
-                            break;
-                        }
-                        examples = getTrainingSet().getNegativeExamples(topics, examples.nextOffset);
-                        for (Example example : examples.items) {
-                            if (!(offset % foldCount == foldIndex)) {
-                                // this example is not part of the test fold, skip it
-                                offset++;
-                                continue;
+        int updatedTopics;
+        try {
+            String task = String.format("Evaluation of CV fold %d/%d", cvFoldIndex + 1, cvFoldCount);
+            updatedTopics = batchOverTopics(task, new BatchProcessor<SolrDocument>() {
+
+                @Override
+                public int process(List<SolrDocument> batch) throws TrainingSetException, ClassifierException {
+                    List<String> topics = new ArrayList<String>(batch.size());
+                    List<Future<ClassificationReport>> tasks = new ArrayList<Future<ClassificationReport>>(
+                            batch.size());
+                    for (SolrDocument topicMetadata : batch) {
+                        final String topic = topicMetadata.getFirstValue(conceptUriField).toString();
+                        topics.add(topic);
+                        tasks.add(workers.submit(new Callable<ClassificationReport>() {
+                            @Override
+                            public ClassificationReport call() throws TrainingSetException,
+                                                              ClassifierException {
+                                return evaluateTopic(classifier, topic, foldIndex, foldCount);
                             }
-                            negativeSupport++;
-                            offset++;
-                            List<TopicSuggestion> suggestedTopics = classifier
-                                    .suggestTopics(example.contents);
-                            for (TopicSuggestion suggestedTopic : suggestedTopics) {
-                                if (topic.equals(suggestedTopic.conceptUri)) {
-                                    falsePositives++;
-                                    if (falsePositiveExamples.size() < MAX_COLLECTED_EXAMPLES / foldCount) {
-                                        falsePositiveExamples.add(example.id);
-                                    }
-                                    break;
-                                }
+                        }));
+                    }
+                    List<ClassificationReport> reports = getResults(tasks);
+                    int updated = 0;
+                    // the other folds update the same metadata entries: the read-modify-write of the
+                    // entries and the commit need to happen atomically
+                    synchronized (performanceMetadataLock) {
+                        for (int i = 0; i < reports.size(); i++) {
+                            ClassificationReport report = reports.get(i);
+                            if (report != null) {
+                                updatePerformanceMetadata(topics.get(i), report.precision, report.recall,
+                                    report.positiveSupport, report.negativeSupport,
+                                    report.falsePositiveExampleIds, report.falseNegativeExampleIds);
+                                updated += 1;
                             }
-                            // we don't need to collect true negatives
                         }
-                    } while (examples.hasMore && offset < MAX_EVALUATION_SAMPLES);
-
-                    if (skipTopic) {
-                        log.debug("Skipping evaluation of {} because too few positive examples.", topic);
-                    } else {
-                        // compute precision, recall and f1 score for the current test fold and topic
-                        float precision = 0;
-                        if (truePositives != 0 || falsePositives != 0) {
-                            precision = truePositives / (float) (truePositives + falsePositives);
+                        try {
+                            getActiveSolrServer().commit();
+                        } catch (Exception e) {
+                            throw new ClassifierException(e);
                         }
-                        float recall = 0;
-                        if (truePositives != 0 || falseNegatives != 0) {
-                            recall = truePositives / (float) (truePositives + falseNegatives);
-                        }
-                        updatePerformanceMetadata(topic, precision, recall, positiveSupport, negativeSupport,
-                            falsePositiveExamples, falseNegativeExamples);
-                        updated += 1;
                     }
+                    return updated;
                 }
-                try {
-                    getActiveSolrServer().commit();
-                } catch (Exception e) {
-                    throw new ClassifierException(e);
-                }
-                return updated;
-            }
-        });
+            }, false);
+        } finally {
+            workers.shutdownNow();
+        }
 
         long stop = System.currentTimeMillis();
         log.info(String.format("Finished CV iteration %d/%d on classifier %s in %fs.", cvFoldIndex + 1,
@@ -1352,6 +1488,152 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
         return updatedTopics;
     }
 
+    /**
+     * Compute the performance of the evaluation classifier of a CV fold on the examples of the test fold of
+     * a topic.
+     * 
+     * @return the performance report or <code>null</code> if the topic has too few positive examples to be
+     *         evaluated.
+     */
+    protected ClassificationReport evaluateTopic(TopicClassificationEngine classifier,
+                                                 String topic,
+                                                 int foldIndex,
+                                                 int foldCount) throws TrainingSetException,
+                                                               ClassifierException {
+        int offset;
+        List<String> topics = Arrays.asList(topic);
+        List<String> falseNegativeExamples = new ArrayList<String>();
+        int truePositives = 0;
+        int falseNegatives = 0;
+        int positiveSupport = 0;
+        offset = 0;
+        Batch<Example> examples = Batch.emtpyBatch(Example.class);
+        boolean skipTopic = false;
+        do {
+            examples = getTrainingSet().getPositiveExamples(topics, examples.nextOffset);
+            if (offset == 0 && examples.items.size() < MIN_EVALUATION_SAMPLES) {
+                // we need a minimum about of examples otherwise it's really not
+                // worth computing statistics
+                skipTopic = true;
+                break;
+            }
+            for (Example example : examples.items) {
+                if (!(offset % foldCount == foldIndex)) {
+                    // this example is not part of the test fold, skip it
+                    offset++;
+                    continue;
+                }
+                positiveSupport++;
+                offset++;
+                List<TopicSuggestion> suggestedTopics = classifier.suggestTopics(example.contents);
+                boolean match = false;
+                for (TopicSuggestion suggestedTopic : suggestedTopics) {
+                    if (topic.equals(suggestedTopic.conceptUri)) {
+                        match = true;
+                        truePositives++;
+                        break;
+                    }
+                }
+                if (!match) {
+                    falseNegatives++;
+                    if (falseNegativeExamples.size() < MAX_COLLECTED_EXAMPLES / foldCount) {
+                        falseNegativeExamples.add(example.id);
+                    }
+                }
+            }
+        } while (!skipTopic && examples.hasMore && offset < MAX_EVALUATION_SAMPLES);
+
+        if (skipTopic) {
+            log.debug("Skipping evaluation of {} because too few positive examples.", topic);
+            return null;
+        }
+
+        List<String> falsePositiveExamples = new ArrayList<String>();
+        int falsePositives = 0;
+        int negativeSupport = 0;
+        offset = 0;
+        examples = Batch.emtpyBatch(Example.class);
+        do {
+            examples = getTrainingSet().getNegativeExamples(topics, examples.nextOffset);
+            for (Example example : examples.items) {
+                if (!(offset % foldCount == foldIndex)) {
+                    // this example is not part of the test fold, skip it
+                    offset++;
+                    continue;
+                }
+                negativeSupport++;
+                offset++;
+                List<TopicSuggestion> suggestedTopics = classifier.suggestTopics(example.contents);
+                for (TopicSuggestion suggestedTopic : suggestedTopics) {
+                    if (topic.equals(suggestedTopic.conceptUri)) {
+                        falsePositives++;
+                        if (falsePositiveExamples.size() < MAX_COLLECTED_EXAMPLES / foldCount) {
+                            falsePositiveExamples.add(example.id);
+                        }
+                        break;
+                    }
+                }
+                // we don't need to collect true negatives
+            }
+        } while (examples.hasMore && offset < MAX_EVALUATION_SAMPLES);
+
+        // compute precision, recall and f1 score for the current test fold and topic
+        float precision = 0;
+        if (truePositives != 0 || falsePositives != 0) {
+            precision = truePositives / (float) (truePositives + falsePositives);
+        }
+        float recall = 0;
+        if (truePositives != 0 || falseNegatives != 0) {
+            recall = truePositives / (float) (truePositives + falseNegatives);
+        }
+        ClassificationReport report = new ClassificationReport(precision, recall, positiveSupport,
+                negativeSupport, true, null);
+        report.falsePositiveExampleIds.addAll(falsePositiveExamples);
+        report.falseNegativeExampleIds.addAll(falseNegativeExamples);
+        return report;
+    }
+
+    /**
+     * Lazily create the embedded Solr server used by the evaluation classifier of a CV fold if no
+     * ManagedSolrServer is present.
+     */
+    private EmbeddedSolrServer getEvaluationServer(int cvFoldIndex) throws IOException,
+                                                                    ParserConfigurationException,
+                                                                    SAXException {
+        synchronized (__evaluationServers) {
+            EmbeddedSolrServer evaluationServer = __evaluationServers.get(cvFoldIndex);
+            if (evaluationServer == null) {
+                __evaluationServerDir = new File(embeddedSolrServerDir, engineName + "-evaluation");
+                if (!__evaluationServerDir.exists()) {
+                    FileUtils.forceMkdir(__evaluationServerDir);
+                }
+                evaluationServer = EmbeddedSolrHelper.makeEmbeddedSolrServer(__evaluationServerDir,
+                    "evaluationclassifierserver-" + cvFoldIndex, "default-topic-model", "default-topic-model");
+                __evaluationServers.put(cvFoldIndex, evaluationServer);
+            }
+            return evaluationServer;
+        }
+    }
+
+    /**
+     * Shut down the embedded Solr servers of the evaluation classifiers and delete their data.
+     */
+    private void shutdownEvaluationServers() {
+        synchronized (__evaluationServers) {
+            for (EmbeddedSolrServer evaluationServer : __evaluationServers.values()) {
+                try {
+                    evaluationServer.getCoreContainer().shutdown();
+                } catch (Exception e) {
+                    //ignore
+                }
+            }
+            __evaluationServers.clear();
+            if (__evaluationServerDir != null) {
+                FileUtils.deleteQuietly(__evaluationServerDir);
+            }
+        }
+    }
+
     /**
      * Update the performance statistics in a metadata entry of a topic. It is the responsibility of the
      * caller to commit.
@@ -1535,4 +1817,25 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
         }
         return importedCount;
     }
-}
\ No newline at end of file
+
+    /**
+     * Creates the named daemon threads of the worker pools used to update and evaluate the topic models.
+     */
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        WorkerThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
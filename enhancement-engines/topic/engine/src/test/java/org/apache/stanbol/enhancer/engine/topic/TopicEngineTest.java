@@ -309,6 +309,8 @@ public class TopicEngineTest extends EmbeddedSolrHelper {
         // train the classifier on an empty dataset
         classifier.setTrainingSet(trainingSet);
         assertEquals(7, classifier.updateModel(true));
+        // the progress of the last update is reported
+        assertNotNull(classifier.getUpdateProgress());
 
         // the model is updated but does not predict anything
         List<TopicSuggestion> suggestions = classifier
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.enhancer.web.topic.resource;
+
+import org.apache.stanbol.commons.jobs.api.Job;
+import org.apache.stanbol.commons.jobs.api.JobResult;
+import org.apache.stanbol.enhancer.topic.api.TopicClassifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Background {@link Job} updating the statistical model or the performance estimates of a
+ * {@link TopicClassifier}. The progress and throughput of the running job are available at the result
+ * location.
+ */
+public class ClassifierUpdateJob implements Job {
+
+    private static final Logger log = LoggerFactory.getLogger(ClassifierUpdateJob.class);
+
+    private final TopicClassifier classifier;
+
+    private final boolean evaluation;
+
+    private final boolean incremental;
+
+    /**
+     * @param classifier
+     *            the classifier to update
+     * @param evaluation
+     *            if the performance estimates should be updated instead of the model
+     * @param incremental
+     *            if only the concepts with changed training examples should be updated
+     */
+    public ClassifierUpdateJob(TopicClassifier classifier, boolean evaluation, boolean incremental) {
+        this.classifier = classifier;
+        this.evaluation = evaluation;
+        this.incremental = incremental;
+    }
+
+    @Override
+    public JobResult call() throws Exception {
+        try {
+            if (evaluation) {
+                int updated = classifier.updatePerformanceEstimates(incremental);
+                return new ClassifierUpdateResult(true, String.format(
+                    "Successfully updated the performance estimates of %d concept(s).", updated));
+            } else {
+                int updated = classifier.updateModel(incremental);
+                return new ClassifierUpdateResult(true, String.format(
+                    "Successfully updated the statistical model(s) of %d concept(s).", updated));
+            }
+        } catch (Exception e) {
+            log.error("Unable to update classifier " + classifier.getName(), e);
+            return new ClassifierUpdateResult(false, String.format("Unable to update classifier %s: %s",
+                classifier.getName(), e.getMessage()));
+        }
+    }
+
+    @Override
+    public String buildResultLocation(String jobId) {
+        return "topic/model/" + classifier.getName() + "/progress";
+    }
+
+    private static class ClassifierUpdateResult implements JobResult {
+
+        private final boolean success;
+
+        private final String message;
+
+        ClassifierUpdateResult(boolean success, String message) {
+            this.success = success;
+            this.message = message;
+        }
+
+        @Override
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public boolean isSuccess() {
+            return success;
+        }
+    }
+}
@@ -17,7 +17,9 @@
 package org.apache.stanbol.enhancer.web.topic.resource;
 
 import static javax.ws.rs.core.MediaType.TEXT_HTML;
+import static javax.ws.rs.core.MediaType.TEXT_PLAIN;
 
+import java.net.URI;
 import java.util.List;
 
 import javax.servlet.ServletContext;
@@ -43,7 +45,11 @@ import org.apache.clerezza.commons.rdf.IRI;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Property;
+import org.apache.felix.scr.annotations.Reference;
+import org.apache.felix.scr.annotations.ReferenceCardinality;
+import org.apache.felix.scr.annotations.ReferencePolicy;
 import org.apache.felix.scr.annotations.Service;
+import org.apache.stanbol.commons.jobs.api.JobManager;
 import org.apache.stanbol.commons.web.viewable.Viewable;
 import org.apache.stanbol.commons.web.base.resource.BaseStanbolResource;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
@@ -71,6 +77,12 @@ public final class TopicModelResource extends BaseStanbolResource {
 
     private BundleContext bundleContext;
 
+    /**
+     * Used to run model updates and evaluations as background jobs (optional)
+     */
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL_UNARY, policy = ReferencePolicy.DYNAMIC)
+    protected volatile JobManager jobManager;
+
     @Activate
     protected void activate(ComponentContext context) {
         bundleContext = context.getBundleContext();
@@ -149,11 +161,15 @@ public final class TopicModelResource extends BaseStanbolResource {
         @Path("performance")
         @Consumes(MediaType.WILDCARD)
         public Response updatePerformance(@QueryParam(value = "incremental") Boolean incremental,
+                @QueryParam(value = "background") Boolean background,
                 @Context HttpHeaders headers) throws TrainingSetException,
                 ClassifierException {
             if (incremental == null) {
                 incremental = Boolean.TRUE;
             }
+            if (Boolean.TRUE.equals(background)) {
+                return startBackgroundJob(new ClassifierUpdateJob(classifier, true, incremental));
+            }
             int updated = classifier.updatePerformanceEstimates(incremental);
             ResponseBuilder rb = Response.ok(String.format(
                     "Successfully updated the performance estimates of %d concept(s).\n", updated));
@@ -165,17 +181,50 @@ public final class TopicModelResource extends BaseStanbolResource {
         @Path("trainer")
         @Consumes(MediaType.WILDCARD)
         public Response updateModel(@QueryParam(value = "incremental") Boolean incremental,
+                @QueryParam(value = "background") Boolean background,
                 @Context HttpHeaders headers) throws TrainingSetException,
                 ClassifierException {
             if (incremental == null) {
                 incremental = Boolean.TRUE;
             }
+            if (Boolean.TRUE.equals(background)) {
+                return startBackgroundJob(new ClassifierUpdateJob(classifier, false, incremental));
+            }
             int updated = classifier.updateModel(incremental);
             ResponseBuilder rb = Response.ok(String.format(
                     "Successfully updated the statistical model(s) of %d concept(s).\n", updated));
             return rb.build();
         }
 
+        @GET
+        @Path("progress")
+        @Produces(TEXT_PLAIN)
+        public Response getProgress(@Context HttpHeaders headers) {
+            String progress = classifier.getUpdateProgress();
+            if (progress == null) {
+                progress = String.format("No model update or evaluation was started on classifier %s.",
+                    classifier.getName());
+            }
+            return Response.ok(progress + "\n").build();
+        }
+
+        /**
+         * Runs the parsed job with the {@link JobManager}. Returns 201 with the location of the Job resource
+         * or 503 if no JobManager is available.
+         */
+        private Response startBackgroundJob(ClassifierUpdateJob job) {
+            JobManager manager = jobManager;
+            if (manager == null) {
+                return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity(
+                    "Background jobs are not available: no JobManager is active.\n").build();
+            }
+            String jid = manager.execute(job);
+            URI location = URI.create(getPublicBaseUri() + "jobs/" + jid);
+            return Response.created(location).entity(String.format(
+                "Started background job %s, progress is available at %s%s\n", jid, getPublicBaseUri(),
+                job.buildResultLocation(jid))).build();
+        }
+
         // TODO: make it possible browse the training set content on the GET verb using a subresource
         @POST
         @Path("trainingset")
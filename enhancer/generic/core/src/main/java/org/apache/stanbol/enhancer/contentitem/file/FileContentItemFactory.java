@@ -23,6 +23,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -39,14 +40,16 @@ import org.apache.felix.scr.annotations.Deactivate;
 import org.apache.felix.scr.annotations.Properties;
 import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Service;
-import org.apache.stanbol.commons.indexedgraph.IndexedGraph;
+import org.apache.stanbol.commons.indexedgraph.CompactGraph;
 import org.apache.stanbol.enhancer.servicesapi.Blob;
 import org.apache.stanbol.enhancer.servicesapi.ContentItem;
 import org.apache.stanbol.enhancer.servicesapi.ContentItemFactory;
 import org.apache.stanbol.enhancer.servicesapi.ContentSink;
 import org.apache.stanbol.enhancer.servicesapi.ContentSource;
+import org.apache.stanbol.enhancer.servicesapi.TextCachingBlob;
 import org.apache.stanbol.enhancer.servicesapi.helper.ContentItemHelper;
 import org.apache.stanbol.enhancer.servicesapi.impl.AbstractContentItemFactory;
+import org.apache.stanbol.enhancer.servicesapi.impl.BlobTextCache;
 import org.apache.stanbol.enhancer.servicesapi.impl.ContentItemImpl;
 import org.osgi.framework.Constants;
 import org.osgi.service.cm.ConfigurationException;
@@ -219,17 +222,30 @@ public class FileContentItemFactory extends AbstractContentItemFactory implement
         
     }
     
-    public class WriteableFileBlob implements Blob {
+    public class WriteableFileBlob implements TextCachingBlob {
         
         private final File file;
         private final OutputStream out;
+        private final BlobTextCache textCache = new BlobTextCache();
         private String mimeType;
         private Map<String,String> parameters;
 
         protected WriteableFileBlob(String mediaType){
             this.file = createTempFile("blob");
             try {
-                this.out = new FileOutputStream(file);
+                //invalidate the cached text on any write to the sink
+                this.out = new FilterOutputStream(new FileOutputStream(file)){
+                    @Override
+                    public void write(int b) throws IOException {
+                        out.write(b);
+                        textCache.invalidate();
+                    }
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        out.write(b, off, len);
+                        textCache.invalidate();
+                    }
+                };
             } catch (FileNotFoundException e) {
                 throw new IllegalStateException("temporary file '"
                         + file.getAbsolutePath()+"' was not created as expected!",e);
@@ -277,6 +293,10 @@ public class FileContentItemFactory extends AbstractContentItemFactory implement
             return file.length();
         }
         @Override
+        public BlobTextCache getTextCache() {
+            return textCache;
+        }
+        @Override
         protected void finalize() throws Throwable {
             IOUtils.closeQuietly(out);
             file.delete();
@@ -292,9 +312,10 @@ public class FileContentItemFactory extends AbstractContentItemFactory implement
      * @author Rupert Westenthaler
      *
      */
-    public class FileBlob implements Blob {
+    public class FileBlob implements TextCachingBlob {
 
         private final File file;
+        private final BlobTextCache textCache = new BlobTextCache();
         /**
          * This implementation generates the sha1 while copying the data
          * in the constructor to the file to avoid reading the data twice if a
@@ -373,6 +394,10 @@ public class FileContentItemFactory extends AbstractContentItemFactory implement
             return file.length();
         }
         @Override
+        public BlobTextCache getTextCache() {
+            return textCache;
+        }
+        @Override
         protected void finalize() throws Throwable {
             //delete the file
             file.delete();
@@ -410,11 +435,11 @@ public class FileContentItemFactory extends AbstractContentItemFactory implement
         
         public FileContentItem(IRI id, Blob blob,Graph metadata) {
             super(id == null ? getDefaultUri(blob, DEFAULT_CONTENT_ITEM_PREFIX) : id, blob,
-                    metadata == null ? new IndexedGraph() : metadata);
+                    metadata == null ? new CompactGraph() : metadata);
         }
         public FileContentItem(String prefix, Blob blob,Graph metadata) {
             super(getDefaultUri(blob, prefix), blob,
-                metadata == null ? new IndexedGraph() : metadata);
+                metadata == null ? new CompactGraph() : metadata);
         }
 
         
@@ -0,0 +1,449 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.enhancer.contentitem.file;
+
+import static org.apache.stanbol.enhancer.servicesapi.helper.ContentItemHelper.SHA1;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.commons.io.IOUtils;
+import org.apache.felix.scr.annotations.Activate;
+import org.apache.felix.scr.annotations.Component;
+import org.apache.felix.scr.annotations.Properties;
+import org.apache.felix.scr.annotations.Property;
+import org.apache.felix.scr.annotations.Service;
+import org.apache.stanbol.enhancer.servicesapi.Blob;
+import org.apache.stanbol.enhancer.servicesapi.ContentItemFactory;
+import org.apache.stanbol.enhancer.servicesapi.ContentSink;
+import org.apache.stanbol.enhancer.servicesapi.ContentSource;
+import org.apache.stanbol.enhancer.servicesapi.TextCachingBlob;
+import org.apache.stanbol.enhancer.servicesapi.helper.ContentItemHelper;
+import org.apache.stanbol.enhancer.servicesapi.impl.BlobTextCache;
+import org.osgi.framework.Constants;
+import org.osgi.service.cm.ConfigurationException;
+import org.osgi.service.component.ComponentContext;
+
+/**
+ * ContentItemFactory that keeps small contents in memory and stores contents
+ * that exceed the configured {@link #PARAM_HEAP_THRESHOLD} in memory mapped
+ * temp files.<p>
+ * Data parsed by {@link ContentSource}s are streamed to an in-memory buffer.
+ * Only if the {@link #PARAM_HEAP_THRESHOLD} is exceeded the buffered data
+ * and the remaining content are written to a temp file (see
+ * {@link FileContentItemFactory#createTempFile(String)}). This file is
+ * mapped into memory (outside of the Java heap) and {@link Blob#getStream()}
+ * returns read-only views on the mapped buffer. Because of that large
+ * contents do not consume heap space nor do they require to copy data when
+ * the stream of the {@link Blob} is read.<p>
+ * {@link ContentSink}s are not affected and use the
+ * {@link FileContentItemFactory.WriteableFileBlob} implementation.<p>
+ * NOTE: The service ranking of this factory is lower as the one of the
+ * InMemoryContentItemFactory. To use this factory as default the
+ * {@link Constants#SERVICE_RANKING} needs to be configured accordingly.
+ */
+@Component(inherit=true)
+@Service(value=ContentItemFactory.class)
+@Properties(value={
+    @Property(name=FileContentItemFactory.PARAM_BASE_DIR,value=""),
+    @Property(name=MappedFileContentItemFactory.PARAM_HEAP_THRESHOLD,
+        intValue=MappedFileContentItemFactory.DEFAULT_HEAP_THRESHOLD),
+    @Property(name=Constants.SERVICE_RANKING, intValue=60)
+})
+public class MappedFileContentItemFactory extends FileContentItemFactory implements ContentItemFactory {
+
+    /**
+     * The maximum number of bytes kept in memory. Contents with more bytes
+     * are stored in memory mapped temp files.
+     */
+    public static final String PARAM_HEAP_THRESHOLD = "stanbol.enhancer.contentitem.mapped.heapThreshold";
+    /**
+     * The default heap threshold (1MByte)
+     */
+    public static final int DEFAULT_HEAP_THRESHOLD = 1024 * 1024;
+
+    private static MappedFileContentItemFactory instance;
+
+    private int heapThreshold = DEFAULT_HEAP_THRESHOLD;
+
+    /**
+     * Getter for the singleton instance of this factory. Within an OSGI
+     * environment this should not be used as this Factory is also registered
+     * as OSGI service.
+     * @return the singleton instance using the system default temporary file
+     * directory and the {@link #DEFAULT_HEAP_THRESHOLD}.
+     */
+    public static MappedFileContentItemFactory getInstance(){
+        if(instance == null){
+            instance = new MappedFileContentItemFactory();
+        }
+        return instance;
+    }
+
+    public MappedFileContentItemFactory() {
+        super();
+    }
+
+    public MappedFileContentItemFactory(File baseDir) throws IOException {
+        super(baseDir);
+    }
+    /**
+     * Creates a factory with a custom heap threshold
+     * @param baseDir the base directory for temp files or <code>null</code>
+     * to use the system default.
+     * @param heapThreshold the maximum number of bytes kept in memory.
+     * <code>0</code> to store all contents in memory mapped files.
+     * @throws IOException if the parsed base directory can not be created
+     */
+    public MappedFileContentItemFactory(File baseDir, int heapThreshold) throws IOException {
+        super(baseDir);
+        if(heapThreshold < 0){
+            throw new IllegalArgumentException("The parsed heap threshold MUST NOT be negative!");
+        }
+        this.heapThreshold = heapThreshold;
+    }
+
+    @Activate
+    @Override
+    protected void activate(ComponentContext ctx) throws ConfigurationException {
+        super.activate(ctx);
+        Object value = ctx.getProperties().get(PARAM_HEAP_THRESHOLD);
+        if(value instanceof Number){
+            heapThreshold = ((Number)value).intValue();
+        } else if(value != null && !value.toString().isEmpty()){
+            try {
+                heapThreshold = Integer.parseInt(value.toString());
+            } catch (NumberFormatException e) {
+                throw new ConfigurationException(PARAM_HEAP_THRESHOLD,
+                    "Unable to parse the heap threshold from '"+value+"'!",e);
+            }
+        } else {
+            heapThreshold = DEFAULT_HEAP_THRESHOLD;
+        }
+        if(heapThreshold < 0){
+            throw new ConfigurationException(PARAM_HEAP_THRESHOLD,
+                "The heap threshold MUST NOT be negative (parsed: "+value+")!");
+        }
+    }
+
+    /**
+     * Getter for the maximum number of bytes of contents kept in memory
+     * @return the heap threshold
+     */
+    public final int getHeapThreshold() {
+        return heapThreshold;
+    }
+
+    @Override
+    public Blob createBlob(ContentSource source) throws IOException {
+        return new MappedBlob(source);
+    }
+
+    @Override
+    protected IRI getDefaultUri(Blob blob, String prefix) {
+        if(blob instanceof MappedBlob && prefix != null){
+            return new IRI(prefix+SHA1.toLowerCase()+ '-' + ((MappedBlob)blob).getSha1());
+        } else {
+            return super.getDefaultUri(blob, prefix);
+        }
+    }
+
+    /**
+     * Blob implementation that keeps the data either in an <code>byte[]</code>
+     * or in a memory mapped temp file. NOTE that all the other information
+     * such as {@link #getMimeType()}, {@link #getParameter()} are kept in
+     * memory. So this can NOT be used to persist a ContentItem!
+     */
+    public class MappedBlob implements TextCachingBlob {
+
+        private final String sha1;
+        private final String mimeType;
+        private final Map<String,String> parameters;
+        private final long length;
+        /**
+         * The data (if kept in memory)
+         */
+        private final byte[] data;
+        /**
+         * The temp file (if data exceed the heap threshold)
+         */
+        private final File file;
+        /**
+         * The mapped data of the temp file. <code>null</code> if the
+         * content is kept in memory or the file is to big to be mapped.
+         */
+        private final ByteBuffer buffer;
+        
+        private final BlobTextCache textCache = new BlobTextCache();
+
+        protected MappedBlob(ContentSource source) throws IOException {
+            if(source == null){
+                throw new IllegalArgumentException("The parsed ConentSource MUST NOT be NULL!");
+            }
+            //parse the media type first to fail early on invalid values
+            Map<String,String> parameters;
+            if(source.getMediaType() == null){
+                this.mimeType = DEFAULT_BINARY_MIMETYPE;
+                parameters = new HashMap<String,String>();
+            } else {
+                parameters = ContentItemHelper.parseMimeType(source.getMediaType());
+                this.mimeType = parameters.remove(null);
+            }
+            this.parameters = Collections.unmodifiableMap(parameters);
+            ThresholdOutputStream out = new ThresholdOutputStream(heapThreshold);
+            InputStream in = null;
+            try {
+                in = source.getStream();
+                sha1 = ContentItemHelper.streamDigest(in, out, SHA1);
+            } finally {
+                IOUtils.closeQuietly(in);
+                IOUtils.closeQuietly(out);
+            }
+            file = out.getFile();
+            if(file == null){
+                data = out.getBuffer();
+                length = out.getCount();
+                buffer = null;
+            } else {
+                data = null;
+                length = file.length();
+                buffer = length <= Integer.MAX_VALUE ? map(file, length) : null;
+            }
+        }
+        /**
+         * The sha1 of this Blob - typically used to generate the default IDs
+         * of a ContentItem
+         * @return the sha1
+         */
+        protected final String getSha1() {
+            return sha1;
+        }
+        /**
+         * If the data of this Blob are stored outside of the Java heap
+         * @return <code>true</code> if the data are stored in a temp file
+         */
+        public final boolean isOffHeap() {
+            return file != null;
+        }
+
+        @Override
+        public String getMimeType() {
+            return mimeType;
+        }
+
+        @Override
+        public InputStream getStream() {
+            if(data != null){
+                return new ByteArrayInputStream(data, 0, (int)length);
+            } else if(buffer != null){
+                return new ByteBufferInputStream(buffer.duplicate());
+            } else {
+                try {
+                    return new FileInputStream(file);
+                } catch (FileNotFoundException e) {
+                    throw new IllegalStateException("temporary file '"
+                            + file.getAbsolutePath()+"' no longer present!",e);
+                }
+            }
+        }
+
+        @Override
+        public Map<String,String> getParameter() {
+            return parameters;
+        }
+
+        @Override
+        public long getContentLength() {
+            return length;
+        }
+        @Override
+        public BlobTextCache getTextCache() {
+            return textCache;
+        }
+        @Override
+        protected void finalize() throws Throwable {
+            //delete the file
+            if(file != null){
+                file.delete();
+            }
+            super.finalize();
+        }
+    }
+
+    /**
+     * Maps the parsed file read-only into memory
+     */
+    private static ByteBuffer map(File file, long length) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            //the mapping stays valid after the channel is closed
+            return raf.getChannel().map(MapMode.READ_ONLY, 0, length);
+        } finally {
+            IOUtils.closeQuietly(raf);
+        }
+    }
+
+    /**
+     * {@link OutputStream} that keeps data in memory until the parsed threshold
+     * is reached. Than all data are written to a temp file.
+     */
+    private class ThresholdOutputStream extends OutputStream {
+
+        private final int threshold;
+        private HeapBuffer heapBuffer;
+        private File file;
+        private OutputStream fileOut;
+
+        ThresholdOutputStream(int threshold){
+            this.threshold = threshold;
+            this.heapBuffer = new HeapBuffer(Math.min(threshold, 8192));
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            getTarget(1).write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            getTarget(len).write(b, off, len);
+        }
+        /**
+         * Getter for the stream to write the parsed number of bytes
+         */
+        private OutputStream getTarget(int len) throws IOException {
+            if(fileOut == null && heapBuffer.size() + len > threshold){
+                file = createTempFile("blob");
+                fileOut = new BufferedOutputStream(new FileOutputStream(file));
+                heapBuffer.writeTo(fileOut);
+                heapBuffer = null;
+            }
+            return fileOut == null ? heapBuffer : fileOut;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if(fileOut != null){
+                fileOut.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if(fileOut != null){
+                fileOut.close();
+            }
+        }
+
+        File getFile(){
+            return file;
+        }
+
+        byte[] getBuffer(){
+            return heapBuffer.getBuffer();
+        }
+
+        int getCount(){
+            return heapBuffer.size();
+        }
+    }
+    /**
+     * Allows to access the internal buffer to avoid copying data
+     */
+    private static class HeapBuffer extends ByteArrayOutputStream {
+
+        HeapBuffer(int size){
+            super(size);
+        }
+
+        byte[] getBuffer(){
+            return buf;
+        }
+    }
+    /**
+     * {@link InputStream} over a {@link ByteBuffer}
+     */
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer){
+            this.buffer = buffer;
+            this.buffer.mark(); //reset to the start if mark was not called
+        }
+
+        @Override
+        public int read() throws IOException {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if(len == 0){
+                return 0;
+            }
+            if(!buffer.hasRemaining()){
+                return -1;
+            }
+            len = Math.min(len, buffer.remaining());
+            buffer.get(b, off, len);
+            return len;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            int skip = (int)Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skip);
+            return skip;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return buffer.remaining();
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public synchronized void mark(int readlimit) {
+            buffer.mark();
+        }
+
+        @Override
+        public synchronized void reset() throws IOException {
+            buffer.reset();
+        }
+    }
+}
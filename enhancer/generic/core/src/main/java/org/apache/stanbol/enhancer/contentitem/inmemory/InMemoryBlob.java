@@ -30,7 +30,9 @@ import org.apache.stanbol.enhancer.servicesapi.Blob;
 import org.apache.stanbol.enhancer.servicesapi.ContentReference;
 import org.apache.stanbol.enhancer.servicesapi.ContentSink;
 import org.apache.stanbol.enhancer.servicesapi.ContentSource;
+import org.apache.stanbol.enhancer.servicesapi.TextCachingBlob;
 import org.apache.stanbol.enhancer.servicesapi.helper.ContentItemHelper;
+import org.apache.stanbol.enhancer.servicesapi.impl.BlobTextCache;
 import org.apache.stanbol.enhancer.servicesapi.impl.ByteArraySource;
 import org.apache.stanbol.enhancer.servicesapi.impl.StreamSource;
 import org.apache.stanbol.enhancer.servicesapi.impl.StringSource;
@@ -41,6 +43,10 @@ import org.apache.stanbol.enhancer.servicesapi.impl.StringSource;
  * case of an {@link ByteArrayOutputStream} data are retrieved from the stream
  * on each call to {@link #getStream()} if new data where added to the output
  * stream in the meantime.<p>
+ * The decoded text of the data is cached (see {@link TextCachingBlob}). In
+ * case of an {@link ByteArrayOutputStream} this is only supported if a
+ * {@link TextCacheOutputStream} is used. Users that modify the parsed byte[]
+ * need to call {@link ContentItemHelper#invalidateText(Blob)}.<p>
  * Also NOTE that all public constructors are deprecated. Users are
  * encouraged to use the {@link InMemoryContentItemFactory} with a fitting
  * {@link ContentSource} or {@link ContentReference} to create {@link Blob}
@@ -51,7 +57,7 @@ import org.apache.stanbol.enhancer.servicesapi.impl.StringSource;
  * The default mime-types (if <code>null</code> is parsed as mimeType) are for
  * Strings "text/plain" and in all other cases "application/octet-stream".
  */
-public class InMemoryBlob implements Blob {
+public class InMemoryBlob implements TextCachingBlob {
     private static final Charset UTF8 = Charset.forName("utf-8");
     public static final String DEFAULT_TEXT_MIMETYPE = "text/plain";
     public static final String DEFAULT_BINARY_MIMETYPE = "application/octet-stream";
@@ -62,6 +68,7 @@ public class InMemoryBlob implements Blob {
     private ByteArrayOutputStream bao;
     private int size = -1;
     private byte[] data;
+    private BlobTextCache textCache;
     
 	/**
 	 * Creates an {@link InMemoryBlob} for the parsed String. If a "charset"
@@ -118,6 +125,7 @@ public class InMemoryBlob implements Blob {
             throw new IllegalArgumentException("The parsed content MUST NOT be NULL!");
         }
         this.data = data;
+        this.textCache = new BlobTextCache();
 	}
     /**
      * Allows to create a in-memory {@link Blob} that represents the data as
@@ -141,6 +149,9 @@ public class InMemoryBlob implements Blob {
             throw new IllegalArgumentException("The parsed ByteArrayOutputStream MUST NOT be NULL!");
         }
         this.bao = bao;
+        if(bao instanceof TextCacheOutputStream){
+            this.textCache = ((TextCacheOutputStream)bao).textCache;
+        } //else modifications can not be tracked
     }
     /**
      * Internally used to correctly init the parsed mimeType and parameter
@@ -184,4 +195,32 @@ public class InMemoryBlob implements Blob {
     public final Map<String,String> getParameter() {
         return parameters;
     }
+    @Override
+    public final BlobTextCache getTextCache() {
+        return textCache;
+    }
+    /**
+     * {@link ByteArrayOutputStream} that invalidates the cached text of the
+     * {@link InMemoryBlob} on every modification.
+     */
+    protected static class TextCacheOutputStream extends ByteArrayOutputStream {
+        
+        private final BlobTextCache textCache = new BlobTextCache();
+        
+        @Override
+        public synchronized void write(int b) {
+            super.write(b);
+            textCache.invalidate();
+        }
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            super.write(b, off, len);
+            textCache.invalidate();
+        }
+        @Override
+        public synchronized void reset() {
+            super.reset();
+            textCache.invalidate();
+        }
+    }
 }
@@ -20,7 +20,7 @@ package org.apache.stanbol.enhancer.contentitem.inmemory;
 import org.apache.clerezza.commons.rdf.Graph;
 import org.apache.clerezza.commons.rdf.IRI;
 import org.apache.clerezza.commons.rdf.impl.utils.simple.SimpleGraph;
-import org.apache.stanbol.commons.indexedgraph.IndexedGraph;
+import org.apache.stanbol.commons.indexedgraph.CompactGraph;
 import org.apache.stanbol.enhancer.servicesapi.Blob;
 import org.apache.stanbol.enhancer.servicesapi.ContentItemFactory;
 import org.apache.stanbol.enhancer.servicesapi.ContentSource;
@@ -119,7 +119,7 @@ public class InMemoryContentItem extends ContentItemImpl {
     }
     protected InMemoryContentItem(IRI uri, Blob blob, Graph metadata) {
         super(uri == null ? ContentItemHelper.makeDefaultUrn(blob): uri,blob,
-                metadata == null ? new IndexedGraph() : metadata);
+                metadata == null ? new CompactGraph() : metadata);
     }
 
     /**
@@ -92,7 +92,7 @@ public class InMemoryContentItemFactory extends AbstractContentItemFactory imple
         private final InMemoryBlob blob;
         
         protected InMemoryContentSink(String mt){
-            out = new ByteArrayOutputStream();
+            out = new InMemoryBlob.TextCacheOutputStream();
             blob = new InMemoryBlob(out, mt, null);
         }
         
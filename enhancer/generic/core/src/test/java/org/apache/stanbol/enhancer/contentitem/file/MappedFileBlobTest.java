@@ -0,0 +1,77 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.contentitem.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.stanbol.enhancer.contentitem.file.MappedFileContentItemFactory.MappedBlob;
+import org.apache.stanbol.enhancer.servicesapi.Blob;
+import org.apache.stanbol.enhancer.servicesapi.ContentSource;
+import org.apache.stanbol.enhancer.servicesapi.impl.ByteArraySource;
+import org.apache.stanbol.enhancer.test.BlobTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MappedFileBlobTest extends BlobTest {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final int HEAP_THRESHOLD = 8;
+
+    private MappedFileContentItemFactory factory;
+    
+    public MappedFileBlobTest() throws IOException {
+        factory = new MappedFileContentItemFactory(null, HEAP_THRESHOLD);
+    }
+
+    @Override
+    protected Blob createBlob(ContentSource cs) throws IOException {
+        return factory.createBlob(cs);
+    }
+
+    @Test
+    public void testHeapThreshold() throws IOException {
+        MappedBlob small = (MappedBlob)createBlob(new ByteArraySource(
+            "small".getBytes(UTF8), "text/plain"));
+        Assert.assertFalse(small.isOffHeap());
+        Assert.assertEquals(5, small.getContentLength());
+        Assert.assertEquals("small", IOUtils.toString(small.getStream(), "UTF-8"));
+        
+        String content = "This content exceeds the heap threshold";
+        MappedBlob large = (MappedBlob)createBlob(new ByteArraySource(
+            content.getBytes(UTF8), "text/plain"));
+        Assert.assertTrue(large.isOffHeap());
+        Assert.assertEquals(content.length(), large.getContentLength());
+        //multiple streams MUST NOT interfere with each other
+        InputStream in1 = large.getStream();
+        InputStream in2 = large.getStream();
+        Assert.assertEquals('T', in1.read());
+        Assert.assertEquals(content, IOUtils.toString(in2, "UTF-8"));
+        Assert.assertEquals(content.substring(1), IOUtils.toString(in1, "UTF-8"));
+        //test mark and reset
+        InputStream in = large.getStream();
+        Assert.assertTrue(in.markSupported());
+        Assert.assertEquals(5, in.skip(5));
+        in.mark(100);
+        Assert.assertEquals('c', in.read());
+        in.reset();
+        Assert.assertEquals(content.substring(5), IOUtils.toString(in, "UTF-8"));
+    }
+}
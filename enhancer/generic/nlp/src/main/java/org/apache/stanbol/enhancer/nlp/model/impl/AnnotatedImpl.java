@@ -35,13 +35,42 @@ public class AnnotatedImpl implements Annotated{
     public Set<String> getKeys(){
         return annotations == null ? Collections.EMPTY_SET : annotations.keySet();
     }
+    /**
+     * Getter for the raw annotation value stored for the parsed key. This is
+     * either a single {@link Value} or an array of {@link Value}s sorted by
+     * {@link Value#PROBABILITY_COMPARATOR}.<p>
+     * Subclasses that store annotations outside of this instance need to
+     * override this method, {@link #setAnnotationValue(String, Object)} and
+     * {@link #getKeys()}.
+     * @param key the key
+     * @return the raw value or <code>null</code> if none
+     */
+    protected Object getAnnotationValue(String key){
+        return annotations == null ? null : annotations.get(key);
+    }
+    /**
+     * Setter for the raw annotation value of the parsed key.
+     * @param key the key
+     * @param value the {@link Value}, the sorted {@link Value} array or
+     * <code>null</code> to remove the annotation
+     * @see #getAnnotationValue(String)
+     */
+    protected void setAnnotationValue(String key, Object value){
+        if(value == null){
+            if(annotations != null){
+                annotations.remove(key);
+            }
+        } else {
+            if(annotations == null){ //avoid sync for the typical case
+                annotations = new HashMap<String,Object>();
+            }
+            annotations.put(key, value);
+        }
+    }
     
     @Override
     public final Value<?> getValue(String key) {
-        if(annotations == null){
-            return null;
-        }
-        Object value = annotations.get(key);
+        Object value = getAnnotationValue(key);
         if(value instanceof Value<?>){
             return (Value<?>)value;
         } else if(value != null){
@@ -53,10 +82,7 @@ public class AnnotatedImpl implements Annotated{
     @SuppressWarnings("unchecked")
     @Override
     public final List<Value<?>> getValues(String key) {
-        if(annotations == null){
-            return Collections.emptyList();
-        }
-        Object value = annotations.get(key);
+        Object value = getAnnotationValue(key);
         if(value instanceof Value<?>){
             List<?> singleton = Collections.singletonList((Value<?>)value);
             return (List<Value<?>>)singleton;
@@ -69,10 +95,7 @@ public class AnnotatedImpl implements Annotated{
     @SuppressWarnings("unchecked")
     @Override
     public final <V> Value<V> getAnnotation(Annotation<V> annotation) {
-        if(annotations == null){
-            return null;
-        }
-        Object value = annotations.get(annotation.getKey());
+        Object value = getAnnotationValue(annotation.getKey());
         if(value instanceof Value<?>){
             return (Value<V>)value;
         } else if(value != null){
@@ -85,10 +108,7 @@ public class AnnotatedImpl implements Annotated{
     @SuppressWarnings("unchecked")
     @Override
     public final <V> List<Value<V>> getAnnotations(Annotation<V> annotation) {
-        if(annotations == null){
-            return Collections.emptyList();
-        }
-        Object value = annotations.get(annotation.getKey());
+        Object value = getAnnotationValue(annotation.getKey());
         if(value instanceof Value<?>){
             List<?> singleton = Collections.singletonList((Value<?>)value);
             return (List<Value<V>>)singleton;
@@ -98,7 +118,6 @@ public class AnnotatedImpl implements Annotated{
             return Collections.emptyList();
         }
     }
-    
     @Override
     public <V> void addAnnotations(Annotation<V> annotation, List<Value<V>> values) {
         addValuesInternal(annotation.getKey(), values);
@@ -116,8 +135,7 @@ public class AnnotatedImpl implements Annotated{
         if(values == null || values.isEmpty()){
             return;
         }
-        Map<String, Object> map = initAnnotations();
-        Object currentValue = annotations.get(key);
+        Object currentValue = getAnnotationValue(key);
         Object newValues;
         if(currentValue == null){
             if(values.size() == 1){
@@ -145,7 +163,7 @@ public class AnnotatedImpl implements Annotated{
             }
             Arrays.sort((Value<?>[])newValues,Value.PROBABILITY_COMPARATOR);
         }
-        map.put(key, newValues);
+        setAnnotationValue(key, newValues);
     }
     @Override
     public <V> void setAnnotations(Annotation<V> annotation, List<Value<V>> values) {
@@ -161,26 +179,19 @@ public class AnnotatedImpl implements Annotated{
      * @param values
      */
     private void setValuesInternal(String key, List<?> values){
-        Map<String, Object> map = initAnnotations();
         if(values == null || values.isEmpty()){
-            map.remove(key);
+            setAnnotationValue(key, null);
         } else if(values.size() == 1){
-            map.put(key, values.get(0));
+            setAnnotationValue(key, values.get(0));
         } else {
             //we need to copy, because users might change the parsed Array!
             Value<?>[] copy = values.toArray(new Value<?>[values.size()]);
             Arrays.sort(copy,Value.PROBABILITY_COMPARATOR);
-            map.put(key,copy);
+            setAnnotationValue(key,copy);
         }
         
     }
     
-    private Map<String,Object> initAnnotations(){
-        if(annotations == null){ //avoid sync for the typical case
-            annotations = new HashMap<String,Object>();
-        }
-        return annotations;
-    }
     @Override
     public <V> void addAnnotation(Annotation<V> annotation, Value<V> value) {
         addValue(annotation.getKey(), value);
@@ -188,21 +199,20 @@ public class AnnotatedImpl implements Annotated{
     @Override
     public void addValue(String key, Value<?> value) {
         if(value != null){
-          Map<String,Object> map = initAnnotations();  
-          Object currentValue = map.get(key);
+          Object currentValue = getAnnotationValue(key);
           if(currentValue == null){
-              map.put(key, value);
+              setAnnotationValue(key, value);
           } else if (currentValue instanceof Value<?>){
               Value<?>[] newValues =  new Value<?>[]{(Value<?>)currentValue,value};
               Arrays.sort(newValues,Value.PROBABILITY_COMPARATOR);
-              map.put(key, newValues);
+              setAnnotationValue(key, newValues);
           } else { //array
               int length = ((Value<?>[])currentValue).length;
               Value<?>[] newValues = new Value<?>[length+1];
               System.arraycopy(currentValue, 0, newValues, 0, length);
               newValues[length] = value;
               Arrays.sort(newValues,Value.PROBABILITY_COMPARATOR);
-              map.put(key, newValues);
+              setAnnotationValue(key, newValues);
           }
         } 
     }
@@ -212,14 +222,6 @@ public class AnnotatedImpl implements Annotated{
     }
     @Override
     public void setValue(String key, Value<?> value) {
-        if(annotations == null && value == null){
-            return;
-        }
-        Map<String,Object> map = initAnnotations();
-        if(value == null){
-            map.remove(key);
-        } else {
-            map.put(key,value);
-        }
+        setAnnotationValue(key, value);
     }
 }
@@ -0,0 +1,161 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.nlp.model.impl.compact;
+
+import java.util.Iterator;
+import java.util.Set;
+
+import org.apache.stanbol.enhancer.nlp.model.AnalysedText;
+import org.apache.stanbol.enhancer.nlp.model.Chunk;
+import org.apache.stanbol.enhancer.nlp.model.Sentence;
+import org.apache.stanbol.enhancer.nlp.model.Span;
+import org.apache.stanbol.enhancer.nlp.model.SpanTypeEnum;
+import org.apache.stanbol.enhancer.servicesapi.Blob;
+
+/**
+ * {@link AnalysedText} implementation that stores all {@link Span}s in the
+ * primitive columns of a {@link SpanIndex}. {@link Span}s returned by this
+ * implementation are flyweight views created on demand.
+ */
+public class CompactAnalysedText extends CompactSection implements AnalysedText {
+
+    /**
+     * The id of the analysed text within the {@link SpanIndex}
+     */
+    private static final int TEXT_ID = 0;
+    
+    private final Blob blob;
+    
+    private final String text;
+    
+    final SpanIndex index;
+    
+    public CompactAnalysedText(Blob blob, String text) {
+        super(null, TEXT_ID);
+        this.blob = blob;
+        this.text = text;
+        //assume about one span for every five chars (tokens, sentences, chunks)
+        this.index = new SpanIndex(text.length(), text.length() / 5);
+    }
+    
+    @Override
+    public SpanTypeEnum getType() {
+        return SpanTypeEnum.Text;
+    }
+    
+    @Override
+    public int getStart() {
+        return 0;
+    }
+    
+    @Override
+    public int getEnd() {
+        return text.length();
+    }
+    
+    @Override
+    protected Object getAnnotationValue(String key) {
+        return index.getAnnotation(TEXT_ID, key);
+    }
+    
+    @Override
+    protected void setAnnotationValue(String key, Object value) {
+        index.setAnnotation(TEXT_ID, key, value);
+    }
+    
+    @Override
+    public Set<String> getKeys() {
+        return index.getAnnotationKeys(TEXT_ID);
+    }
+    
+    @Override
+    public String getSpan() {
+        return text;
+    }
+
+    @Override
+    public Sentence addSentence(int start, int end) {
+        return (Sentence)register(SpanTypeEnum.Sentence, this, start, end);
+    }
+
+    @Override
+    public Chunk addChunk(int start, int end) {
+        return (Chunk)register(SpanTypeEnum.Chunk, this, start, end);
+    }
+
+    @Override
+    public Iterator<Sentence> getSentences() {
+        return filter(SpanTypeEnum.Sentence);
+    }
+
+    @Override
+    public Iterator<Chunk> getChunks() {
+        return filter(SpanTypeEnum.Chunk);
+    }
+
+    @Override
+    public CharSequence getText() {
+        return text;
+    }
+
+    @Override
+    public Blob getBlob() {
+        return blob;
+    }
+    
+    /**
+     * Registers a span relative to the parsed span. If an equal span is
+     * already present a view of the existing span is returned.
+     * @param type the type of the span
+     * @param relativeTo the span the parsed start/end are relative to
+     * @param start the relative start
+     * @param end the relative end
+     * @return the view over the added or already existing span
+     * @throws IllegalArgumentException if the span is illegal or extends
+     * the span it is relative to.
+     */
+    CompactSpan register(SpanTypeEnum type, Span relativeTo, int start, int end){
+        int absStart = relativeTo.getStart() + start;
+        int absEnd = relativeTo.getStart() + end;
+        if(absStart < 0 || absEnd < absStart){
+            throw new IllegalArgumentException("Illegal span ["+absStart+','+absEnd+']');
+        }
+        if(relativeTo.getEnd() < absEnd){
+            throw new IllegalArgumentException("Illegal span ["+start+','+end
+                + "] for "+type+" relative to "+relativeTo+" : Span of the "
+                + " contained Token MUST NOT extend the others!");
+        }
+        return getSpan(index.add(type, absStart, absEnd));
+    }
+    /**
+     * Creates the view for the span with the parsed id
+     */
+    CompactSpan getSpan(int id){
+        switch (index.getType(id)) {
+            case Token:
+                return new CompactToken(this, id);
+            case Chunk:
+                return new CompactChunk(this, id);
+            case Sentence:
+                return new CompactSentence(this, id);
+            case Text:
+                return this;
+            default:
+                throw new IllegalStateException("Unsupported SpanType "+index.getType(id));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.nlp.model.impl.compact;
+
+import java.io.IOException;
+
+import org.apache.felix.scr.annotations.Component;
+import org.apache.felix.scr.annotations.ConfigurationPolicy;
+import org.apache.felix.scr.annotations.Properties;
+import org.apache.felix.scr.annotations.Property;
+import org.apache.felix.scr.annotations.Service;
+import org.apache.stanbol.enhancer.nlp.model.AnalysedText;
+import org.apache.stanbol.enhancer.nlp.model.AnalysedTextFactory;
+import org.apache.stanbol.enhancer.servicesapi.Blob;
+import org.apache.stanbol.enhancer.servicesapi.helper.ContentItemHelper;
+import org.osgi.framework.Constants;
+
+/**
+ * {@link AnalysedTextFactory} that creates {@link CompactAnalysedText}
+ * instances. Those store spans and annotations in primitive arrays and
+ * therefore need considerable less memory for texts with a lot of 
+ * {@link org.apache.stanbol.enhancer.nlp.model.Token}s.<p>
+ * This component is opt-in: it is only activated if a configuration for
+ * its PID is present. If activated, the default service ranking is higher
+ * as the one of the 
+ * {@link org.apache.stanbol.enhancer.nlp.model.impl.AnalysedTextFactoryImpl}
+ * so this implementation is preferred over the default one.
+ */
+@Component(immediate=true, policy=ConfigurationPolicy.REQUIRE)
+@Service(value=AnalysedTextFactory.class)
+@Properties(value={
+    @Property(name=Constants.SERVICE_RANKING,intValue=-100)
+})
+public class CompactAnalysedTextFactory extends AnalysedTextFactory {
+
+    private static final CompactAnalysedTextFactory INSTANCE = new CompactAnalysedTextFactory();
+    
+    /**
+     * Getter for the instance to be used outside an OSGI environment
+     * @return the instance
+     */
+    public static CompactAnalysedTextFactory getInstance(){
+        return INSTANCE;
+    }
+    
+    @Override
+    public AnalysedText createAnalysedText(Blob blob) throws IOException {
+        if(blob == null){
+            throw new IllegalArgumentException("The parsed Blob MUST NOT be NULL!");
+        }
+        String text = ContentItemHelper.getText(blob);
+        return new CompactAnalysedText(blob,text);
+    }
+}
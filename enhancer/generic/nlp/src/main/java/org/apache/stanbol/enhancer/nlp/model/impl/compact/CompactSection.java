@@ -0,0 +1,162 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.nlp.model.impl.compact;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.stanbol.enhancer.nlp.model.Section;
+import org.apache.stanbol.enhancer.nlp.model.Span;
+import org.apache.stanbol.enhancer.nlp.model.SpanTypeEnum;
+import org.apache.stanbol.enhancer.nlp.model.Token;
+
+/**
+ * A {@link CompactSpan} that contains other spans.
+ */
+public abstract class CompactSection extends CompactSpan implements Section {
+
+    protected CompactSection(CompactAnalysedText context, int id) {
+        super(context, id);
+    }
+
+    @Override
+    public Iterator<Span> getEnclosed(Set<SpanTypeEnum> types) {
+        return new SpanIterator<Span>(getStart(), getEnd(), getType(), getEnd(), types);
+    }
+
+    @Override
+    public Iterator<Span> getEnclosed(Set<SpanTypeEnum> types, int startOffset, int endOffset) {
+        int start = getStart();
+        int end = getEnd();
+        if(startOffset >= (end - start)){ //start is outside the span
+            return Collections.<Span>emptySet().iterator();
+        }
+        int startIdx = startOffset < 0 ? start : (start + startOffset);
+        int endIdx = start + endOffset;
+        if(endIdx <= startIdx) {
+            return Collections.<Span>emptySet().iterator();
+        } else if(endIdx > end){
+            endIdx = end;
+        }
+        //start after the virtual Text span [startIdx,endIdx] (lowest type)
+        return new SpanIterator<Span>(startIdx, endIdx, SpanTypeEnum.Text, endIdx, types);
+    }
+
+    @Override
+    public Token addToken(int start, int end) {
+        return (Token)context.register(SpanTypeEnum.Token, this, start, end);
+    }
+
+    @Override
+    public Iterator<Token> getTokens() {
+        return filter(SpanTypeEnum.Token);
+    }
+    /**
+     * Iterator over the enclosed spans of the parsed type
+     */
+    protected <T extends Span> Iterator<T> filter(SpanTypeEnum type){
+        return new SpanIterator<T>(getStart(), getEnd(), getType(), getEnd(), 
+                EnumSet.of(type));
+    }
+    
+    /**
+     * Iterator over the spans of a section. Spans that do not match the 
+     * requested types are skipped based on the type column of the 
+     * {@link SpanIndex} so that no views are created for them.<p>
+     * Like the iterators of {@link org.apache.stanbol.enhancer.nlp.model.impl.SectionImpl}
+     * this iterator does not throw {@link java.util.ConcurrentModificationException}s
+     * and considers {@link Span}s added while iterating.
+     */
+    private class SpanIterator<T extends Span> implements Iterator<T> {
+        
+        private final SpanIndex.Cursor cursor;
+        private final Set<SpanTypeEnum> types;
+        
+        private int lastStart;
+        private int lastEnd;
+        private SpanTypeEnum lastType;
+        private int last = -1;
+        private boolean removed = false;
+        
+        private boolean peeked = false;
+        private int next;
+        private int nextModCount;
+        
+        SpanIterator(int start, int end, SpanTypeEnum type, int limit, Set<SpanTypeEnum> types){
+            this.cursor = context.index.cursor(start, end, type, limit);
+            this.types = types;
+            this.lastStart = start;
+            this.lastEnd = end;
+            this.lastType = type;
+        }
+        
+        private int peek(){
+            SpanIndex index = context.index;
+            if(peeked){
+                if(nextModCount == index.modCount){
+                    return next;
+                } //else the index was modified after the lookahead
+                cursor.seek(lastStart, lastEnd, lastType);
+            }
+            int id = cursor.next();
+            while(id >= 0 && !types.contains(index.getType(id))){
+                id = cursor.next();
+            }
+            peeked = true;
+            next = id;
+            nextModCount = index.modCount;
+            return id;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return peek() >= 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T next() {
+            int id = peek();
+            if(id < 0){
+                throw new NoSuchElementException();
+            }
+            peeked = false;
+            SpanIndex index = context.index;
+            last = id;
+            lastStart = index.getStart(id);
+            lastEnd = index.getEnd(id);
+            lastType = index.getType(id);
+            removed = false;
+            return (T)context.getSpan(id);
+        }
+
+        @Override
+        public void remove() {
+            if(last < 0){
+                throw new IllegalStateException("remove can not be called before the first call to next");
+            }
+            if(removed){
+                throw new IllegalStateException("the current Span was already removed!");
+            }
+            context.index.remove(last);
+            removed = true;
+        }
+    }
+}
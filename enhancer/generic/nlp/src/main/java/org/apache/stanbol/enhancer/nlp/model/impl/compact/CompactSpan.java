@@ -0,0 +1,140 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.nlp.model.impl.compact;
+
+import java.util.Set;
+
+import org.apache.stanbol.enhancer.nlp.model.Span;
+import org.apache.stanbol.enhancer.nlp.model.SpanTypeEnum;
+import org.apache.stanbol.enhancer.nlp.model.impl.AnnotatedImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Flyweight {@link Span} view over a span stored in the {@link SpanIndex} of
+ * a {@link CompactAnalysedText}. Instances only hold the context and the id
+ * of the span. Start, end, type and annotations are stored in the columns
+ * of the {@link SpanIndex}.<p>
+ * Two views are equal if they have the same type, start and end. This is
+ * consistent with the natural order defined by {@link #compareTo(Span)}.
+ */
+public abstract class CompactSpan extends AnnotatedImpl implements Span {
+
+    private final static Logger log = LoggerFactory.getLogger(CompactSpan.class);
+
+    protected final CompactAnalysedText context;
+    
+    protected final int id;
+    
+    protected CompactSpan(CompactAnalysedText context, int id){
+        //the analysed text parses null as it is its own context
+        this.context = context == null ? (CompactAnalysedText)this : context;
+        this.id = id;
+    }
+    
+    @Override
+    public SpanTypeEnum getType() {
+        return context.index.getType(id);
+    }
+
+    @Override
+    public int getStart() {
+        return context.index.getStart(id);
+    }
+
+    @Override
+    public int getEnd() {
+        return context.index.getEnd(id);
+    }
+
+    @Override
+    public final CompactAnalysedText getContext() {
+        return context;
+    }
+    /**
+     * The text is not cached by the flyweight views. Callers that need
+     * the text several times should keep a reference to it.
+     */
+    @Override
+    public String getSpan() {
+        return context.getText().subSequence(getStart(), getEnd()).toString();
+    }
+    
+    @Override
+    protected Object getAnnotationValue(String key) {
+        return context.index.getAnnotation(id, key);
+    }
+    
+    @Override
+    protected void setAnnotationValue(String key, Object value) {
+        context.index.setAnnotation(id, key, value);
+    }
+    
+    @Override
+    public Set<String> getKeys() {
+        return context.index.getAnnotationKeys(id);
+    }
+    
+    @Override
+    public int hashCode() {
+        //same as Arrays.hashCode(new int[]{start,end}) used by SpanImpl
+        return 31 * (31 + getStart()) + getEnd();
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if(obj == this){
+            return true;
+        }
+        if(!(obj instanceof CompactSpan)){
+            return false;
+        }
+        CompactSpan other = (CompactSpan)obj;
+        if(other.context == context && other.id == id){
+            return true;
+        }
+        return getType() == other.getType() && getStart() == other.getStart() &&
+                getEnd() == other.getEnd();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s: [%d, %d]", getType(), getStart(), getEnd());
+    }
+    
+    @Override
+    public int compareTo(Span o) {
+        if(o.getContext() != null && o.getContext() != context){
+            log.warn("Comparing Spans with different Context. This is not an " +
+                    "intended usage of this class as start|end|type parameters " +
+                    "do not have a natural oder over different texts.");
+        }
+        int start = getStart();
+        int oStart = o.getStart();
+        if(start != oStart){
+            return start < oStart ? -1 : 1;
+        }
+        int end = getEnd();
+        int oEnd = o.getEnd();
+        if(end != oEnd){ //sort end in DESC order
+            return end < oEnd ? 1 : -1;
+        }
+        int o1 = getType().ordinal();
+        int o2 = o.getType().ordinal();
+        return (o1 < o2) ? -1 : ((o1 == o2) ? 0 : 1);
+    }
+}
@@ -0,0 +1,457 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.nlp.model.impl.compact;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.apache.stanbol.enhancer.nlp.model.SpanTypeEnum;
+
+/**
+ * Array backed index over all {@link CompactSpan}s of a
+ * {@link CompactAnalysedText}.<p>
+ * Spans are identified by an <code>int</code> id. The start, end and type
+ * of a span are stored in primitive columns indexed by that id. The order
+ * of spans (start ASC, end DESC, type ASC - the same as defined by
+ * {@link org.apache.stanbol.enhancer.nlp.model.impl.SpanImpl#compareTo(org.apache.stanbol.enhancer.nlp.model.Span)})
+ * is kept in a list of sorted blocks holding span ids. This keeps inserts
+ * cheap (at most {@link #BLOCK_SIZE} elements need to be moved) while still
+ * allowing binary searches.<p>
+ * Annotations are stored in columns per {@link SpanTypeEnum} and annotation
+ * key. Those columns are indexed by the position of a span within the spans
+ * of its type.<p>
+ * The span with the id <code>0</code> is the {@link CompactAnalysedText}
+ * itself. It is not part of the order.<p>
+ * Like the {@link org.apache.stanbol.enhancer.nlp.model.impl.AnalysedTextImpl}
+ * this class is not thread safe.
+ * 
+ */
+final class SpanIndex {
+
+    /**
+     * The maximum number of span ids stored in a single block
+     */
+    static final int BLOCK_SIZE = 128;
+    
+    private static final SpanTypeEnum[] SPAN_TYPES = SpanTypeEnum.values();
+    
+    private int[] starts;
+    private int[] ends;
+    private byte[] types;
+    /**
+     * the position of the span within all spans of the same type. Used as
+     * index for the annotation columns.
+     */
+    private int[] typeIndexes;
+    /**
+     * the number of allocated span ids
+     */
+    private int size;
+    
+    private final int[] typeCounts = new int[SPAN_TYPES.length];
+    
+    @SuppressWarnings("unchecked")
+    private final Map<String,Object[]>[] annotations = new Map[SPAN_TYPES.length];
+    
+    private int[][] blocks = new int[8][];
+    private int[] blockSizes = new int[8];
+    private int blockCount;
+    
+    int modCount;
+    
+    SpanIndex(int textLength, int expectedSpans){
+        int capacity = Math.max(16, expectedSpans);
+        starts = new int[capacity];
+        ends = new int[capacity];
+        types = new byte[capacity];
+        typeIndexes = new int[capacity];
+        allocate(SpanTypeEnum.Text, 0, textLength); //the analysed text
+    }
+    
+    int getStart(int id){
+        return starts[id];
+    }
+    
+    int getEnd(int id){
+        return ends[id];
+    }
+    
+    SpanTypeEnum getType(int id){
+        return SPAN_TYPES[types[id]];
+    }
+    
+    int getTypeOrdinal(int id){
+        return types[id];
+    }
+    /**
+     * The number of spans (excluding the analysed text itself)
+     * @return the number of spans
+     */
+    int size(){
+        int count = 0;
+        for(int i=0; i < blockCount; i++){
+            count += blockSizes[i];
+        }
+        return count;
+    }
+    
+    /**
+     * Compares the span with the parsed id with the span parsed by start, end
+     * and the type ordinal
+     */
+    private int compare(int id, int start, int end, int type){
+        int s = starts[id];
+        if(s != start){
+            return s < start ? -1 : 1;
+        }
+        int e = ends[id];
+        if(e != end){ //end is sorted DESC
+            return e < end ? 1 : -1;
+        }
+        int t = types[id];
+        return t < type ? -1 : (t == type ? 0 : 1);
+    }
+    /**
+     * Binary search within a block
+     * @return the offset or <code>-(insertion point + 1)</code>
+     */
+    private int search(int block, int start, int end, int type){
+        int[] ids = blocks[block];
+        int low = 0;
+        int high = blockSizes[block] - 1;
+        while(low <= high){
+            int mid = (low + high) >>> 1;
+            int c = compare(ids[mid], start, end, type);
+            if(c < 0){
+                low = mid + 1;
+            } else if(c > 0){
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+    /**
+     * Searches the first block with a last element that is greater or equals
+     * (<code>strict == false</code>) or greater (<code>strict == true</code>)
+     * than the parsed span.
+     * @return the index of the block or {@link #blockCount} if no such block
+     * exists
+     */
+    private int searchBlock(int start, int end, int type, boolean strict){
+        int low = 0;
+        int high = blockCount - 1;
+        while(low <= high){
+            int mid = (low + high) >>> 1;
+            int c = compare(blocks[mid][blockSizes[mid]-1], start, end, type);
+            if(c < 0 || (strict && c == 0)){
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+    /**
+     * Getter for the id of the span
+     * @return the id or <code>-1</code> if no such span is present
+     */
+    int find(SpanTypeEnum type, int start, int end){
+        int t = type.ordinal();
+        int block = searchBlock(start, end, t, false);
+        if(block >= blockCount){
+            return -1;
+        }
+        int offset = search(block, start, end, t);
+        return offset < 0 ? -1 : blocks[block][offset];
+    }
+    /**
+     * Adds a span if not already present
+     * @return the id of the added or already present span
+     */
+    int add(SpanTypeEnum type, int start, int end){
+        int t = type.ordinal();
+        if(blockCount == 0){
+            int id = allocate(type, start, end);
+            blocks[0] = new int[BLOCK_SIZE];
+            blocks[0][0] = id;
+            blockSizes[0] = 1;
+            blockCount = 1;
+            modCount++;
+            return id;
+        }
+        int block = searchBlock(start, end, t, false);
+        int offset;
+        if(block >= blockCount){ //append to the last block
+            block = blockCount - 1;
+            offset = blockSizes[block];
+        } else {
+            offset = search(block, start, end, t);
+            if(offset >= 0){
+                return blocks[block][offset];
+            }
+            offset = -(offset + 1);
+        }
+        int id = allocate(type, start, end);
+        if(blockSizes[block] == BLOCK_SIZE){
+            split(block);
+            if(offset > blockSizes[block]){
+                offset = offset - blockSizes[block];
+                block++;
+            }
+        }
+        int[] ids = blocks[block];
+        int bSize = blockSizes[block];
+        System.arraycopy(ids, offset, ids, offset + 1, bSize - offset);
+        ids[offset] = id;
+        blockSizes[block] = bSize + 1;
+        modCount++;
+        return id;
+    }
+    /**
+     * Removes the span with the parsed id from the order
+     * @return if the span was removed
+     */
+    boolean remove(int id){
+        if(id <= 0 || id >= size){
+            return false;
+        }
+        int start = starts[id];
+        int end = ends[id];
+        int t = types[id];
+        int block = searchBlock(start, end, t, false);
+        if(block >= blockCount){
+            return false;
+        }
+        int offset = search(block, start, end, t);
+        if(offset < 0 || blocks[block][offset] != id){
+            return false;
+        }
+        int bSize = blockSizes[block] - 1;
+        if(bSize == 0){ //remove the block
+            System.arraycopy(blocks, block + 1, blocks, block, blockCount - block - 1);
+            System.arraycopy(blockSizes, block + 1, blockSizes, block, blockCount - block - 1);
+            blockCount--;
+            blocks[blockCount] = null;
+        } else {
+            int[] ids = blocks[block];
+            System.arraycopy(ids, offset + 1, ids, offset, bSize - offset);
+            blockSizes[block] = bSize;
+        }
+        //clear the annotations of the removed span
+        Map<String,Object[]> columns = annotations[t];
+        if(columns != null){
+            int index = typeIndexes[id];
+            for(Object[] column : columns.values()){
+                if(index < column.length){
+                    column[index] = null;
+                }
+            }
+        }
+        modCount++;
+        return true;
+    }
+    
+    private void split(int block){
+        if(blockCount == blocks.length){
+            int capacity = blockCount + (blockCount >> 1);
+            blocks = Arrays.copyOf(blocks, capacity);
+            blockSizes = Arrays.copyOf(blockSizes, capacity);
+        }
+        System.arraycopy(blocks, block + 1, blocks, block + 2, blockCount - block - 1);
+        System.arraycopy(blockSizes, block + 1, blockSizes, block + 2, blockCount - block - 1);
+        int half = BLOCK_SIZE >>> 1;
+        int[] upper = new int[BLOCK_SIZE];
+        System.arraycopy(blocks[block], half, upper, 0, BLOCK_SIZE - half);
+        blocks[block + 1] = upper;
+        blockSizes[block + 1] = BLOCK_SIZE - half;
+        blockSizes[block] = half;
+        blockCount++;
+    }
+    
+    private int allocate(SpanTypeEnum type, int start, int end){
+        if(size == starts.length){
+            int capacity = size + (size >> 1);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            types = Arrays.copyOf(types, capacity);
+            typeIndexes = Arrays.copyOf(typeIndexes, capacity);
+        }
+        int id = size;
+        int t = type.ordinal();
+        starts[id] = start;
+        ends[id] = end;
+        types[id] = (byte)t;
+        typeIndexes[id] = typeCounts[t]++;
+        size++;
+        return id;
+    }
+    
+    /*
+     * Annotation columns
+     */
+    
+    Object getAnnotation(int id, String key){
+        Map<String,Object[]> columns = annotations[types[id]];
+        if(columns == null){
+            return null;
+        }
+        Object[] column = columns.get(key);
+        int index = typeIndexes[id];
+        return column == null || index >= column.length ? null : column[index];
+    }
+    
+    void setAnnotation(int id, String key, Object value){
+        int t = types[id];
+        Map<String,Object[]> columns = annotations[t];
+        if(columns == null){
+            if(value == null){
+                return;
+            }
+            columns = new HashMap<String,Object[]>();
+            annotations[t] = columns;
+        }
+        int index = typeIndexes[id];
+        Object[] column = columns.get(key);
+        if(column == null){
+            if(value == null){
+                return;
+            }
+            column = new Object[Math.max(typeCounts[t], index + 1)];
+            columns.put(key, column);
+        } else if(index >= column.length){
+            if(value == null){
+                return;
+            }
+            column = Arrays.copyOf(column, Math.max(typeCounts[t], 
+                column.length + (column.length >> 1)));
+            columns.put(key, column);
+        }
+        column[index] = value;
+    }
+    
+    Set<String> getAnnotationKeys(int id){
+        Map<String,Object[]> columns = annotations[types[id]];
+        if(columns == null){
+            return Collections.emptySet();
+        }
+        int index = typeIndexes[id];
+        Set<String> keys = new HashSet<String>();
+        for(Entry<String,Object[]> column : columns.entrySet()){
+            Object[] values = column.getValue();
+            if(index < values.length && values[index] != null){
+                keys.add(column.getKey());
+            }
+        }
+        return keys;
+    }
+    
+    /**
+     * Creates a new {@link Cursor} that starts after the parsed span and
+     * iterates over all spans with a start lower than the parsed limit.
+     */
+    Cursor cursor(int start, int end, SpanTypeEnum type, int limit){
+        return new Cursor(start, end, type.ordinal(), limit);
+    }
+    
+    /**
+     * Iterates over the span ids following a given span. Like the 
+     * {@link java.util.NavigableMap#higherKey(Object)} based iterator used by
+     * {@link org.apache.stanbol.enhancer.nlp.model.impl.SectionImpl} this 
+     * does not throw {@link java.util.ConcurrentModificationException}s but
+     * considers spans added while iterating. As long as the index is not
+     * modified the position within the current block is used as hint to
+     * avoid binary searches.
+     */
+    final class Cursor {
+        
+        private int start;
+        private int end;
+        private int type;
+        private final int limit;
+        private int block = -1;
+        private int offset;
+        private int expectedModCount;
+        
+        private Cursor(int start, int end, int type, int limit){
+            this.start = start;
+            this.end = end;
+            this.type = type;
+            this.limit = limit;
+        }
+        /**
+         * moves to the next span
+         * @return the id of the next span or <code>-1</code> if none
+         */
+        int next(){
+            int nb;
+            int no;
+            if(block >= 0 && expectedModCount == modCount){
+                nb = block;
+                no = offset + 1;
+                if(no >= blockSizes[nb]){
+                    nb++;
+                    no = 0;
+                }
+            } else {
+                nb = searchBlock(start, end, type, true);
+                if(nb < blockCount){
+                    no = search(nb, start, end, type);
+                    no = no < 0 ? -(no + 1) : no + 1;
+                    if(no >= blockSizes[nb]){ //can not happen for strict block search
+                        nb++;
+                        no = 0;
+                    }
+                } else {
+                    no = 0;
+                }
+            }
+            if(nb >= blockCount){
+                return -1;
+            }
+            int id = blocks[nb][no];
+            if(starts[id] >= limit){
+                return -1;
+            }
+            block = nb;
+            offset = no;
+            expectedModCount = modCount;
+            start = starts[id];
+            end = ends[id];
+            type = types[id];
+            return id;
+        }
+        /**
+         * Moves the cursor to the parsed span. Subsequent calls to
+         * {@link #next()} will return the spans after the parsed one. The
+         * parsed span does not need to be present in the index (e.g. if it 
+         * was removed in the meantime).
+         */
+        void seek(int start, int end, SpanTypeEnum type){
+            this.start = start;
+            this.end = end;
+            this.type = type.ordinal();
+            this.block = -1;
+        }
+    }
+}
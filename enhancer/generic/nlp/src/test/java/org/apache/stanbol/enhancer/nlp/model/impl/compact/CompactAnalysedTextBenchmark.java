@@ -0,0 +1,98 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.nlp.model.impl.compact;
+
+import static org.apache.stanbol.enhancer.nlp.model.AnalysedTextTest.testAnnotation;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+import org.apache.stanbol.enhancer.contentitem.inmemory.InMemoryContentItemFactory;
+import org.apache.stanbol.enhancer.nlp.model.AnalysedText;
+import org.apache.stanbol.enhancer.nlp.model.AnalysedTextFactory;
+import org.apache.stanbol.enhancer.nlp.model.Sentence;
+import org.apache.stanbol.enhancer.nlp.model.Token;
+import org.apache.stanbol.enhancer.servicesapi.Blob;
+import org.apache.stanbol.enhancer.servicesapi.impl.StringSource;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the memory and iteration performance of the 
+ * {@link CompactAnalysedTextFactory} with the default implementation.<p>
+ * This benchmark is NOT executed by the default build (the class name does
+ * not match the surefire includes) because the heap estimation requires
+ * explicit garbage collections. Use
+ * <code>mvn test -Dtest=CompactAnalysedTextBenchmark</code> to run it.
+ */
+public class CompactAnalysedTextBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(CompactAnalysedTextBenchmark.class);
+    
+    private static final int NUM_TOKENS = 100000;
+    
+    @Test
+    public void benchmark() throws IOException {
+        String content = CompactAnalysedTextTest.createContent(NUM_TOKENS);
+        Blob blob = InMemoryContentItemFactory.getInstance().createBlob(new StringSource(content));
+        AnalysedTextFactory[] factories = new AnalysedTextFactory[]{
+                AnalysedTextFactory.getDefaultInstance(), CompactAnalysedTextFactory.getInstance()};
+        int[] counts = new int[factories.length];
+        for(int run = 0; run < 2; run++){ //first run is a warm up
+            for(int f = 0; f < factories.length; f++){
+                String name = factories[f].getClass().getSimpleName();
+                long mem = usedMemory();
+                long start = System.currentTimeMillis();
+                AnalysedText at = CompactAnalysedTextTest.createAnalysedText(factories[f], 
+                    blob, content, NUM_TOKENS);
+                long created = System.currentTimeMillis();
+                long used = usedMemory() - mem;
+                int count = 0;
+                double sum = 0;
+                for(Iterator<Sentence> sentences = at.getSentences(); sentences.hasNext();){
+                    for(Iterator<Token> tokens = sentences.next().getTokens(); tokens.hasNext();){
+                        sum += tokens.next().getAnnotation(testAnnotation).value().doubleValue();
+                        count++;
+                    }
+                }
+                long iterated = System.currentTimeMillis();
+                Assert.assertEquals(NUM_TOKENS, count);
+                Assert.assertEquals((double)NUM_TOKENS * (NUM_TOKENS - 1) / 2, sum, 0.0d);
+                counts[f] = count;
+                if(run > 0){
+                    log.info(" - {}: created {} tokens in {}ms (heap: {}kByte) | iterated in {}ms", 
+                        new Object[]{name, count, created - start, used / 1024, iterated - created});
+                }
+                Assert.assertNotNull(at); //keep a reference until the memory is measured
+            }
+        }
+        Assert.assertEquals(counts[0], counts[1]);
+    }
+    
+    /**
+     * Best effort estimation of the used heap
+     */
+    private static long usedMemory(){
+        Runtime rt = Runtime.getRuntime();
+        for(int i = 0; i < 3; i++){
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,174 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.nlp.model.impl.compact;
+
+import static org.apache.stanbol.enhancer.nlp.model.AnalysedTextTest.testAnnotation;
+import static org.apache.stanbol.enhancer.nlp.model.AnalysedTextTest.text;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.stanbol.enhancer.contentitem.inmemory.InMemoryContentItemFactory;
+import org.apache.stanbol.enhancer.nlp.model.AnalysedText;
+import org.apache.stanbol.enhancer.nlp.model.AnalysedTextFactory;
+import org.apache.stanbol.enhancer.nlp.model.Sentence;
+import org.apache.stanbol.enhancer.nlp.model.Span;
+import org.apache.stanbol.enhancer.nlp.model.SpanTypeEnum;
+import org.apache.stanbol.enhancer.nlp.model.Token;
+import org.apache.stanbol.enhancer.nlp.model.annotation.Value;
+import org.apache.stanbol.enhancer.servicesapi.Blob;
+import org.apache.stanbol.enhancer.servicesapi.impl.StringSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the {@link CompactAnalysedText} and compares the created spans with
+ * the default implementation. See {@link CompactAnalysedTextBenchmark} for
+ * the comparison of the memory and iteration performance.
+ */
+public class CompactAnalysedTextTest {
+
+    private static final int NUM_TOKENS = 10000;
+    private static final int SENTENCE_LENGTH = 20;
+    private static final int CHUNK_LENGTH = 3;
+
+    @Test
+    public void testBlockSplits(){
+        //add more tokens as fit in a single block in reverse order
+        AnalysedText at = new CompactAnalysedText(null, text);
+        List<Token> tokens = new ArrayList<Token>();
+        for(int i = text.length() - 1; i >= 0; i--){
+            tokens.add(0,at.addToken(i, i+1));
+        }
+        Assert.assertTrue(tokens.size() > SpanIndex.BLOCK_SIZE);
+        Iterator<Token> it = at.getTokens();
+        for(Token expected : tokens){
+            Assert.assertTrue(it.hasNext());
+            Assert.assertEquals(expected, it.next());
+        }
+        Assert.assertFalse(it.hasNext());
+        //adding existing tokens MUST NOT create new spans
+        Assert.assertEquals(tokens.get(10), at.addToken(10, 11));
+        Assert.assertEquals(tokens.size(), ((CompactAnalysedText)at).index.size());
+        //remove every second token
+        it = at.getTokens();
+        boolean remove = false;
+        while(it.hasNext()){
+            it.next();
+            if(remove){
+                it.remove();
+            }
+            remove = !remove;
+        }
+        it = at.getTokens();
+        for(int i = 0; i < tokens.size(); i = i+2){
+            Assert.assertEquals(tokens.get(i), it.next());
+        }
+        Assert.assertFalse(it.hasNext());
+    }
+    
+    /**
+     * Builds the same {@link AnalysedText} with the default and the compact
+     * implementation and asserts that both return the same spans (in the
+     * same order) and annotations.
+     */
+    @Test
+    public void testSameAsDefaultImplementation() throws IOException {
+        String content = createContent(NUM_TOKENS);
+        Blob blob = InMemoryContentItemFactory.getInstance().createBlob(new StringSource(content));
+        AnalysedText expected = createAnalysedText(AnalysedTextFactory.getDefaultInstance(), 
+            blob, content, NUM_TOKENS);
+        AnalysedText compact = createAnalysedText(CompactAnalysedTextFactory.getInstance(), 
+            blob, content, NUM_TOKENS);
+        Assert.assertTrue(compact instanceof CompactAnalysedText);
+        Iterator<Span> expectedSpans = expected.getEnclosed(EnumSet.allOf(SpanTypeEnum.class));
+        Iterator<Span> compactSpans = compact.getEnclosed(EnumSet.allOf(SpanTypeEnum.class));
+        int tokens = 0;
+        while(expectedSpans.hasNext()){
+            Assert.assertTrue(compactSpans.hasNext());
+            Span e = expectedSpans.next();
+            Span c = compactSpans.next();
+            Assert.assertEquals(e.getType(), c.getType());
+            Assert.assertEquals(e.getStart(), c.getStart());
+            Assert.assertEquals(e.getEnd(), c.getEnd());
+            Assert.assertEquals(e.getSpan(), c.getSpan());
+            if(e.getType() == SpanTypeEnum.Token){
+                Assert.assertEquals(e.getAnnotation(testAnnotation).value(), 
+                    c.getAnnotation(testAnnotation).value());
+                tokens++;
+            }
+        }
+        Assert.assertFalse(compactSpans.hasNext());
+        Assert.assertEquals(NUM_TOKENS, tokens);
+        //the tokens of a sentence
+        Iterator<Sentence> sentences = compact.getSentences();
+        Assert.assertTrue(sentences.hasNext());
+        Sentence sentence = sentences.next();
+        int count = 0;
+        for(Iterator<Token> it = sentence.getTokens(); it.hasNext(); it.next()){
+            count++;
+        }
+        Assert.assertEquals(SENTENCE_LENGTH, count);
+    }
+    
+    /**
+     * Creates a text with the parsed number of tokens and a sentence
+     * break after every {@link #SENTENCE_LENGTH} tokens
+     */
+    static String createContent(int numTokens){
+        StringBuilder sb = new StringBuilder(numTokens * 8);
+        for(int i = 0; i < numTokens; i++){
+            sb.append("token").append(i % 100).append(i % SENTENCE_LENGTH == SENTENCE_LENGTH - 1 ? ". " : " ");
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Adds the sentences, tokens (with an annotation) and chunks of a
+     * text created by {@link #createContent(int)} to an AnalysedText created
+     * by the parsed factory
+     */
+    static AnalysedText createAnalysedText(AnalysedTextFactory factory, Blob blob, 
+            String content, int numTokens) throws IOException {
+        AnalysedText at = factory.createAnalysedText(blob);
+        int tokenStart = 0;
+        int sentenceStart = 0;
+        Sentence sentence = null;
+        for(int i = 0; i < numTokens; i++){
+            if(i % SENTENCE_LENGTH == 0){
+                int end = content.indexOf(". ", sentenceStart) + 1;
+                sentence = at.addSentence(sentenceStart, end);
+                sentenceStart = end + 1;
+            }
+            int tokenEnd = content.indexOf(' ', tokenStart);
+            if(content.charAt(tokenEnd - 1) == '.'){
+                tokenEnd--;
+            }
+            Token token = at.addToken(tokenStart, tokenEnd);
+            token.addAnnotation(testAnnotation, new Value<Number>(i, 0.9));
+            if(i % CHUNK_LENGTH == 0){
+                sentence.addChunk(tokenStart - sentence.getStart(), 
+                    Math.min(sentence.getEnd(), tokenEnd + 10) - sentence.getStart());
+            }
+            tokenStart = content.charAt(tokenEnd) == '.' ? tokenEnd + 2 : tokenEnd + 1;
+        }
+        return at;
+    }
+}
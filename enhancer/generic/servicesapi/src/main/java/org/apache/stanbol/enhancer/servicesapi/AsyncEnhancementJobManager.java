@@ -0,0 +1,54 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.servicesapi;
+
+import java.util.concurrent.Future;
+
+/**
+ * Extension of the {@link EnhancementJobManager} interface for implementations
+ * that can process {@link ContentItem}s without blocking the calling thread
+ * until the enhancement has completed.<p>
+ * Callers holding an {@link EnhancementJobManager} need to check if the
+ * instance also implements this interface and fall back to
+ * {@link #enhanceContent(ContentItem, Chain)} otherwise.
+ */
+public interface AsyncEnhancementJobManager extends EnhancementJobManager {
+
+    /**
+     * Asynchronously processes the parsed {@link ContentItem} by using the 
+     * {@link Chain#getExecutionPlan() execution plan} provided by the
+     * {@link Chain}. In contrast to {@link #enhanceContent(ContentItem, Chain)}
+     * this method returns immediately after the enhancement job was
+     * started. Callers will typically want to parse an 
+     * {@link EnhancementCallback} to get notified about the completion of
+     * the enhancement job without blocking a thread.
+     * @param ci : ContentItem to be enhanced
+     * @param chain : The enhancement Chain used to process the content item
+     * @param callback : The callback notified as soon as the enhancement job
+     * completes or fails. <code>null</code> if none.
+     * @return The completion handle for the started enhancement job. 
+     * {@link Future#get()} will throw an 
+     * {@link java.util.concurrent.ExecutionException} with the
+     * {@link EnhancementException} as cause if the enhancement fails. Enhancement
+     * jobs can not be cancelled.
+     * @throws EnhancementException : if the enhancement job could not be 
+     * started (e.g. because the execution plan of the Chain is not valid)
+     */
+    Future<ContentItem> enhanceContentAsync(ContentItem ci, Chain chain, 
+            EnhancementCallback callback) throws EnhancementException;
+
+}
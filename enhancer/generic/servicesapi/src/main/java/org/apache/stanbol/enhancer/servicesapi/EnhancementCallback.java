@@ -0,0 +1,46 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.servicesapi;
+
+/**
+ * Callback notified by an {@link AsyncEnhancementJobManager} as soon as the
+ * asynchronous enhancement of a {@link ContentItem} started by
+ * {@link AsyncEnhancementJobManager#enhanceContentAsync(ContentItem, Chain, EnhancementCallback)}
+ * has completed or failed.<p>
+ * Implementations are called by the threads of the {@link EnhancementJobManager}
+ * and MUST NOT block for a long time (e.g. perform I/O other than writing a
+ * response to an already connected client).
+ */
+public interface EnhancementCallback {
+
+    /**
+     * Notifies that the parsed {@link ContentItem} was successfully enhanced
+     * @param ci the enhanced content item
+     */
+    void completed(ContentItem ci);
+
+    /**
+     * Notifies that the enhancement of the parsed {@link ContentItem} has
+     * failed (including the case where the enhancement did not complete
+     * within the time configured for the {@link EnhancementJobManager}).
+     * @param ci the content item
+     * @param e the exception. Typically an {@link EnhancementException} but
+     * other exceptions (e.g. {@link SecurityException}s) are possible.
+     */
+    void failed(ContentItem ci, Exception e);
+
+}
@@ -0,0 +1,39 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.servicesapi;
+
+import org.apache.stanbol.enhancer.servicesapi.helper.ContentItemHelper;
+import org.apache.stanbol.enhancer.servicesapi.impl.BlobTextCache;
+
+/**
+ * Optional interface for {@link Blob}s that keep the decoded text of their
+ * data. Used by {@link ContentItemHelper#getText(Blob)} so that all engines
+ * of a chain share a single decoded text of a Blob.<p>
+ * Implementations MUST {@link BlobTextCache#invalidate() invalidate} the
+ * cache whenever the data of the Blob change (e.g. when data are written to
+ * the {@link ContentSink} of the Blob).
+ */
+public interface TextCachingBlob extends Blob {
+
+    /**
+     * Getter for the cache holding the decoded text of this Blob.
+     * @return the cache or <code>null</code> if this Blob can currently not
+     * track modifications of its data (and therefore MUST NOT be cached)
+     */
+    BlobTextCache getTextCache();
+
+}
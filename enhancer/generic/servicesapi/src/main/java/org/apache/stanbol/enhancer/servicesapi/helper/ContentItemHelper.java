@@ -37,7 +37,10 @@ import org.apache.clerezza.commons.rdf.IRI;
 import org.apache.commons.io.IOUtils;
 import org.apache.stanbol.enhancer.servicesapi.Blob;
 import org.apache.stanbol.enhancer.servicesapi.ContentItem;
+import org.apache.stanbol.enhancer.servicesapi.ContentSink;
 import org.apache.stanbol.enhancer.servicesapi.NoSuchPartException;
+import org.apache.stanbol.enhancer.servicesapi.TextCachingBlob;
+import org.apache.stanbol.enhancer.servicesapi.impl.BlobTextCache;
 
 
 /**
@@ -326,19 +329,65 @@ public final class ContentItemHelper {
     /**
      * Getter for the Text of an {@link Blob}. This method respects the
      * "charset" if present in the {@link Blob#getParameter() parameter} of the
-     * Blob.
+     * Blob.<p>
+     * For {@link TextCachingBlob}s the decoded text is cached by the Blob so
+     * that multiple calls (e.g. by all the engines of an enhancement chain) do
+     * not need to decode the data again.
      * @param blob the {@link Blob}. MUST NOT be <code>null</code>.
      * @return the text
      * @throws IOException on any exception while reading from the
      * {@link InputStream} provided by the Blob.
      * @throws IllegalArgumentException if the parsed Blob is <code>null</code>
+     * @see #getTextView(Blob)
      */
     public static String getText(Blob blob) throws IOException {
+        return getTextView(blob).toString();
+    }
+    /**
+     * Getter for a read-only {@link CharSequence} view over the text of an
+     * {@link Blob}. Same as {@link #getText(Blob)} but allows callers that
+     * do not need a {@link String} to avoid copying the text.
+     * @param blob the {@link Blob}. MUST NOT be <code>null</code>.
+     * @return the text
+     * @throws IOException on any exception while reading from the
+     * {@link InputStream} provided by the Blob.
+     * @throws IllegalArgumentException if the parsed Blob is <code>null</code>
+     */
+    public static CharSequence getTextView(Blob blob) throws IOException {
         if(blob == null){
             throw new IllegalArgumentException("The parsed Blob MUST NOT be NULL!");
         }
         String charset = blob.getParameter().get("charset");
-        return IOUtils.toString(blob.getStream(), charset != null ? charset : UTF8);
+        if(charset == null){
+            charset = UTF8;
+        }
+        BlobTextCache cache = blob instanceof TextCachingBlob ?
+                ((TextCachingBlob)blob).getTextCache() : null;
+        if(cache == null){ //unable to detect modifications
+            return IOUtils.toString(blob.getStream(), charset);
+        }
+        CharSequence text = cache.get(charset);
+        if(text == null){
+            long version = cache.getVersion(); //read the version before the data
+            text = IOUtils.toString(blob.getStream(), charset);
+            cache.put(charset, version, text);
+        }
+        return text;
+    }
+    /**
+     * Removes the cached text for the parsed Blob. Only required if the
+     * data of a {@link TextCachingBlob} are changed by other means as its
+     * {@link ContentSink}.
+     * @param blob the blob
+     * @see #getText(Blob)
+     */
+    public static void invalidateText(Blob blob){
+        if(blob instanceof TextCachingBlob){
+            BlobTextCache cache = ((TextCachingBlob)blob).getTextCache();
+            if(cache != null){
+                cache.invalidate();
+            }
+        }
     }
     /**
      * Creates the "{type}/{subtime}; [{param}={value}]+" mime type representation
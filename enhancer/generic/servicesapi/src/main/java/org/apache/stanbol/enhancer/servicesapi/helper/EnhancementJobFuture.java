@@ -0,0 +1,198 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.servicesapi.helper;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.stanbol.enhancer.servicesapi.ChainException;
+import org.apache.stanbol.enhancer.servicesapi.ContentItem;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementCallback;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementException;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementJobManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link Future} implementation used by {@link EnhancementJobManager}
+ * implementations as completion handle for asynchronous enhancement requests.
+ * <p>
+ * {@link EnhancementJobManager} implementations are expected to call 
+ * {@link #completed()} or {@link #failed(Exception)} when the enhancement
+ * job ends. Only the first call has an effect. This will release
+ * threads waiting on {@link #get()} and notify the {@link EnhancementCallback}
+ * (if one was parsed to the constructor).<p>
+ * Enhancement jobs can not be cancelled. {@link #cancel(boolean)} will
+ * always return <code>false</code>.
+ * 
+ */
+public class EnhancementJobFuture implements Future<ContentItem> {
+
+    private static final Logger log = LoggerFactory.getLogger(EnhancementJobFuture.class);
+    
+    private final ContentItem contentItem;
+    private final EnhancementCallback callback;
+    private final CountDownLatch done = new CountDownLatch(1);
+    /**
+     * Guarded by <code>this</code>. Only set once
+     */
+    private boolean completed;
+    /**
+     * Set before {@link #done} is counted down
+     */
+    private volatile Exception error;
+    
+    /**
+     * Creates a future for the enhancement of the parsed content item
+     * @param ci the content item
+     * @param callback the callback or <code>null</code> if none
+     */
+    public EnhancementJobFuture(ContentItem ci, EnhancementCallback callback) {
+        if(ci == null){
+            throw new IllegalArgumentException("The parsed ContentItem MUST NOT be NULL!");
+        }
+        this.contentItem = ci;
+        this.callback = callback;
+    }
+    /**
+     * The content item enhanced by this job
+     * @return the content item
+     */
+    public final ContentItem getContentItem() {
+        return contentItem;
+    }
+    /**
+     * Marks the enhancement job as successfully completed
+     * @return <code>true</code> if this call completed the future or
+     * <code>false</code> if it was already completed before
+     */
+    public boolean completed(){
+        return complete(null);
+    }
+    /**
+     * Marks the enhancement job as failed
+     * @param e the exception. MUST NOT be <code>null</code>
+     * @return <code>true</code> if this call completed the future or
+     * <code>false</code> if it was already completed before
+     */
+    public boolean failed(Exception e){
+        if(e == null){
+            throw new IllegalArgumentException("The parsed Exception MUST NOT be NULL!");
+        }
+        return complete(e);
+    }
+    
+    private boolean complete(Exception e){
+        synchronized (this) {
+            if(completed){
+                return false;
+            }
+            completed = true;
+        }
+        error = e;
+        done.countDown();
+        if(callback != null){
+            try {
+                if(e == null){
+                    callback.completed(contentItem);
+                } else {
+                    callback.failed(contentItem, e);
+                }
+            } catch (RuntimeException re) {
+                log.warn("Exception while notifying EnhancementCallback "+callback
+                    + " about the completion of ContentItem "+contentItem.getUri(), re);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Enhancement jobs can not be cancelled
+     * @return always <code>false</code>
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return false;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return false;
+    }
+
+    @Override
+    public boolean isDone() {
+        return done.getCount() == 0;
+    }
+
+    @Override
+    public ContentItem get() throws InterruptedException, ExecutionException {
+        done.await();
+        return getResult();
+    }
+
+    @Override
+    public ContentItem get(long timeout, TimeUnit unit) throws InterruptedException,
+                                                       ExecutionException,
+                                                       TimeoutException {
+        if(!done.await(timeout, unit)){
+            throw new TimeoutException("Enhancement of ContentItem "
+                + contentItem.getUri() + " not completed after " + timeout + unit);
+        }
+        return getResult();
+    }
+    
+    private ContentItem getResult() throws ExecutionException {
+        Exception e = error;
+        if(e != null){
+            throw new ExecutionException(e.getMessage(), e);
+        }
+        return contentItem;
+    }
+    
+    /**
+     * Blocking variant of {@link #get()} that re-throws the exceptions
+     * as expected by {@link EnhancementJobManager#enhanceContent(ContentItem, 
+     * org.apache.stanbol.enhancer.servicesapi.Chain)}. This allows to implement
+     * the synchronous enhancement methods based on the asynchronous one.
+     * @return the enhanced content item
+     * @throws EnhancementException if the enhancement failed or the waiting
+     * thread was interrupted
+     */
+    public ContentItem await() throws EnhancementException {
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ChainException("Interrupted while waiting for the enhancement "
+                + "of ContentItem "+contentItem.getUri(), e);
+        }
+        Exception e = error;
+        if(e == null){
+            return contentItem;
+        } else if(e instanceof EnhancementException){
+            throw (EnhancementException)e;
+        } else if(e instanceof RuntimeException){
+            throw (RuntimeException)e;
+        } else {
+            throw new ChainException(e.getMessage(), e);
+        }
+    }
+}
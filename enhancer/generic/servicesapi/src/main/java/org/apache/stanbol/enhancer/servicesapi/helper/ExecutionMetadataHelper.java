@@ -58,7 +58,7 @@ import org.apache.clerezza.commons.rdf.IRI;
 import org.apache.clerezza.commons.rdf.impl.utils.PlainLiteralImpl;
 import org.apache.clerezza.commons.rdf.impl.utils.TripleImpl;
 import org.apache.clerezza.rdf.core.LiteralFactory;
-import org.apache.stanbol.commons.indexedgraph.IndexedGraph;
+import org.apache.stanbol.commons.indexedgraph.CompactGraph;
 import org.apache.stanbol.enhancer.servicesapi.Chain;
 import org.apache.stanbol.enhancer.servicesapi.ContentItem;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementJobManager;
@@ -295,7 +295,7 @@ public final class ExecutionMetadataHelper {
             try {
                 executionMetadata = contentItem.getPart(CHAIN_EXECUTION, Graph.class);
             } catch (NoSuchPartException e) {
-                executionMetadata = new IndexedGraph();
+                executionMetadata = new CompactGraph();
                 contentItem.addPart(CHAIN_EXECUTION, executionMetadata);
             }
         } finally {
@@ -32,6 +32,7 @@ import org.apache.stanbol.enhancer.servicesapi.ContentItemFactory;
 import org.apache.stanbol.enhancer.servicesapi.ContentReference;
 import org.apache.stanbol.enhancer.servicesapi.ContentSink;
 import org.apache.stanbol.enhancer.servicesapi.ContentSource;
+import org.apache.stanbol.enhancer.servicesapi.TextCachingBlob;
 import org.apache.stanbol.enhancer.servicesapi.helper.ContentItemHelper;
 
 /**
@@ -186,7 +187,7 @@ public abstract class AbstractContentItemFactory implements ContentItemFactory {
      * @author westei
      *
      */
-    protected class LazyDereferencingBlob implements Blob {
+    protected class LazyDereferencingBlob implements TextCachingBlob {
         
         private final ContentReference contentReference;
         private Blob _blob;
@@ -218,6 +219,12 @@ public abstract class AbstractContentItemFactory implements ContentItemFactory {
                 return _blob.getContentLength();
             }
         }
+
+        @Override
+        public BlobTextCache getTextCache() {
+            Blob blob = getLazy();
+            return blob instanceof TextCachingBlob ? ((TextCachingBlob)blob).getTextCache() : null;
+        }
         public Blob getLazy() {
             if(_blob == null){
                 try {
@@ -0,0 +1,93 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.servicesapi.impl;
+
+import java.lang.ref.SoftReference;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.stanbol.enhancer.servicesapi.Blob;
+import org.apache.stanbol.enhancer.servicesapi.TextCachingBlob;
+
+/**
+ * Holds the decoded text of a {@link TextCachingBlob}. The text is softly
+ * referenced so it is released on low memory.<p>
+ * Every {@link #invalidate()} increases the version of the cache. Texts are
+ * only {@link #put(String, long, CharSequence) stored} and returned if they
+ * were decoded from the current version of the data. This ensures that a
+ * text decoded concurrently to a modification of the {@link Blob} is never
+ * returned.
+ */
+public final class BlobTextCache {
+
+    private final AtomicLong version = new AtomicLong();
+    
+    private volatile SoftReference<CachedText> cached;
+
+    /**
+     * The current version of the data. Needs to be retrieved before the
+     * data of the {@link Blob} are read.
+     * @return the version
+     */
+    public long getVersion() {
+        return version.get();
+    }
+    /**
+     * Getter for the cached text
+     * @param charset the charset used to decode the data
+     * @return the text or <code>null</code> if not present for the current
+     * version and the parsed charset
+     */
+    public CharSequence get(String charset) {
+        SoftReference<CachedText> ref = cached;
+        CachedText text = ref == null ? null : ref.get();
+        return text != null && text.version == version.get() && text.charset.equals(charset) ?
+                text.text : null;
+    }
+    /**
+     * Caches the parsed text if the data where not modified since the parsed
+     * version was retrieved
+     * @param charset the charset used to decode the data
+     * @param version the {@link #getVersion() version} retrieved before
+     * reading the data
+     * @param text the decoded text
+     */
+    public void put(String charset, long version, CharSequence text) {
+        if(version == this.version.get()){
+            cached = new SoftReference<CachedText>(new CachedText(charset, version, text));
+        }
+    }
+    /**
+     * Invalidates the cached text. Needs to be called by the {@link Blob}
+     * whenever its data change.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        cached = null;
+    }
+    
+    private static final class CachedText {
+        final String charset;
+        final long version;
+        final CharSequence text;
+        
+        CachedText(String charset, long version, CharSequence text){
+            this.charset = charset;
+            this.version = version;
+            this.text = text;
+        }
+    }
+}
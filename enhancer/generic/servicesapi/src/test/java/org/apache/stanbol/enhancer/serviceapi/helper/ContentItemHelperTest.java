@@ -0,0 +1,144 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.serviceapi.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.stanbol.enhancer.servicesapi.Blob;
+import org.apache.stanbol.enhancer.servicesapi.TextCachingBlob;
+import org.apache.stanbol.enhancer.servicesapi.helper.ContentItemHelper;
+import org.apache.stanbol.enhancer.servicesapi.impl.BlobTextCache;
+import org.junit.Test;
+
+public class ContentItemHelperTest {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    @Test
+    public void testCachedText() throws IOException {
+        CountingBlob blob = new CountingBlob();
+        blob.out.write("This is a test".getBytes(UTF8));
+        String text = ContentItemHelper.getText(blob);
+        assertEquals("This is a test", text);
+        assertSame(text, ContentItemHelper.getText(blob));
+        assertEquals(1, blob.streamCount);
+        //append data (as done by ContentSinks)
+        blob.out.write(" with more data".getBytes(UTF8));
+        assertEquals("This is a test with more data", ContentItemHelper.getText(blob));
+        assertEquals(2, blob.streamCount);
+        ContentItemHelper.getText(blob);
+        assertEquals(2, blob.streamCount);
+        //replace data with the same length
+        blob.out.reset();
+        blob.out.write("THIS IS A TEST WITH MORE DATA".getBytes(UTF8));
+        assertEquals("THIS IS A TEST WITH MORE DATA", ContentItemHelper.getText(blob));
+        assertEquals(3, blob.streamCount);
+        //explicit invalidation
+        ContentItemHelper.invalidateText(blob);
+        ContentItemHelper.getText(blob);
+        assertEquals(4, blob.streamCount);
+    }
+
+    @Test
+    public void testNoCacheForPlainBlob() throws IOException {
+        final CountingBlob delegate = new CountingBlob();
+        delegate.out.write("This is a test".getBytes(UTF8));
+        Blob blob = new Blob() { //does not implement TextCachingBlob
+            @Override
+            public String getMimeType() {
+                return delegate.getMimeType();
+            }
+            @Override
+            public InputStream getStream() {
+                return delegate.getStream();
+            }
+            @Override
+            public Map<String,String> getParameter() {
+                return delegate.getParameter();
+            }
+            @Override
+            public long getContentLength() {
+                return delegate.getContentLength();
+            }
+        };
+        assertEquals("This is a test", ContentItemHelper.getTextView(blob).toString());
+        assertEquals("This is a test", ContentItemHelper.getText(blob));
+        assertEquals(2, delegate.streamCount);
+    }
+
+    /**
+     * Blob implementation that counts the calls to {@link #getStream()} and
+     * invalidates its {@link BlobTextCache} on every modification
+     */
+    private static class CountingBlob implements TextCachingBlob {
+
+        private final BlobTextCache cache = new BlobTextCache();
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(){
+            @Override
+            public synchronized void write(int b) {
+                super.write(b);
+                cache.invalidate();
+            }
+            @Override
+            public synchronized void write(byte[] b, int off, int len) {
+                super.write(b, off, len);
+                cache.invalidate();
+            }
+            @Override
+            public synchronized void reset() {
+                super.reset();
+                cache.invalidate();
+            }
+        };
+        private int streamCount;
+
+        @Override
+        public String getMimeType() {
+            return "text/plain";
+        }
+
+        @Override
+        public InputStream getStream() {
+            streamCount++;
+            return new ByteArrayInputStream(out.toByteArray());
+        }
+
+        @Override
+        public Map<String,String> getParameter() {
+            return Collections.singletonMap("charset", "UTF-8");
+        }
+
+        @Override
+        public long getContentLength() {
+            return out.size();
+        }
+
+        @Override
+        public BlobTextCache getTextCache() {
+            return cache;
+        }
+    }
+}
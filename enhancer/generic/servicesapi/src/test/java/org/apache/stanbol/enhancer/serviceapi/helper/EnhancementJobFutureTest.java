@@ -0,0 +1,162 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.serviceapi.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.stanbol.enhancer.servicesapi.ChainException;
+import org.apache.stanbol.enhancer.servicesapi.ContentItem;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementCallback;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementException;
+import org.apache.stanbol.enhancer.servicesapi.helper.EnhancementJobFuture;
+import org.junit.Test;
+
+public class EnhancementJobFutureTest {
+
+    private static final IRI CI_URI = new IRI("urn:test:contentItem");
+    
+    /**
+     * Minimal ContentItem that only supports {@link ContentItem#getUri()}
+     */
+    private static final ContentItem CI = (ContentItem)Proxy.newProxyInstance(
+        EnhancementJobFutureTest.class.getClassLoader(), 
+        new Class<?>[]{ContentItem.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if("getUri".equals(method.getName())){
+                    return CI_URI;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testMissingContentItem(){
+        new EnhancementJobFuture(null, null);
+    }
+    
+    @Test
+    public void testCompleted() throws Exception {
+        CountingCallback callback = new CountingCallback();
+        EnhancementJobFuture future = new EnhancementJobFuture(CI, callback);
+        assertFalse(future.isDone());
+        assertTrue(future.completed());
+        assertTrue(future.isDone());
+        assertSame(CI, future.get());
+        assertSame(CI, future.await());
+        //only the first call has an effect
+        assertFalse(future.completed());
+        assertFalse(future.failed(new ChainException("test")));
+        assertSame(CI, future.get());
+        assertEquals(1, callback.completed.get());
+        assertEquals(0, callback.failed.get());
+    }
+
+    @Test
+    public void testFailed() throws Exception {
+        CountingCallback callback = new CountingCallback();
+        EnhancementJobFuture future = new EnhancementJobFuture(CI, callback);
+        ChainException error = new ChainException("test");
+        assertTrue(future.failed(error));
+        assertTrue(future.isDone());
+        assertFalse(future.completed());
+        try {
+            future.get();
+            fail("ExecutionException expected");
+        } catch (ExecutionException e) {
+            assertSame(error, e.getCause());
+        }
+        try {
+            future.await();
+            fail("EnhancementException expected");
+        } catch (EnhancementException e) {
+            assertSame(error, e);
+        }
+        assertEquals(0, callback.completed.get());
+        assertEquals(1, callback.failed.get());
+    }
+    
+    @Test(expected=SecurityException.class)
+    public void testAwaitRethrowsRuntimeExceptions() throws Exception {
+        EnhancementJobFuture future = new EnhancementJobFuture(CI, null);
+        future.failed(new SecurityException("test"));
+        future.await();
+    }
+    
+    @Test(expected=TimeoutException.class)
+    public void testTimeout() throws Exception {
+        new EnhancementJobFuture(CI, null).get(10, TimeUnit.MILLISECONDS);
+    }
+    
+    @Test
+    public void testCompletionByOtherThread() throws Exception {
+        final EnhancementJobFuture future = new EnhancementJobFuture(CI, null);
+        Thread t = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {}
+                future.completed();
+            }
+        });
+        t.start();
+        assertSame(CI, future.get(10, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    public void testCallbackExceptionsAreIgnored() throws Exception {
+        EnhancementJobFuture future = new EnhancementJobFuture(CI, new EnhancementCallback() {
+            @Override
+            public void completed(ContentItem ci) {
+                throw new IllegalStateException("test");
+            }
+            @Override
+            public void failed(ContentItem ci, Exception e) {}
+        });
+        assertTrue(future.completed());
+        assertSame(CI, future.get());
+    }
+
+    private static class CountingCallback implements EnhancementCallback {
+        
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        
+        @Override
+        public void completed(ContentItem ci) {
+            completed.incrementAndGet();
+        }
+        @Override
+        public void failed(ContentItem ci, Exception e) {
+            failed.incrementAndGet();
+        }
+    }
+}
@@ -38,6 +38,7 @@ import org.apache.stanbol.enhancer.servicesapi.ContentItemFactory;
 import org.apache.stanbol.enhancer.servicesapi.ContentReference;
 import org.apache.stanbol.enhancer.servicesapi.ContentSink;
 import org.apache.stanbol.enhancer.servicesapi.ContentSource;
+import org.apache.stanbol.enhancer.servicesapi.helper.ContentItemHelper;
 import org.apache.stanbol.enhancer.servicesapi.impl.StringSource;
 import org.apache.stanbol.enhancer.servicesapi.rdf.Enhancer;
 import org.apache.stanbol.enhancer.servicesapi.rdf.Properties;
@@ -301,6 +302,23 @@ public abstract class ContentItemFactoryTest {
         assertEquals(TEST_CONTENT, content);
     }
 
+    /**
+     * Ensures that {@link ContentItemHelper#getText(Blob)} does not return
+     * outdated texts if data are written to the {@link ContentSink} after
+     * the text was retrieved.
+     */
+    @Test
+    public void testContentSinkText() throws IOException {
+        ContentSink cs = contentItemFactory.createContentSink("text/plain; charset=UTF-8");
+        IOUtils.write("This is a test", cs.getOutputStream(),"UTF-8");
+        assertEquals("This is a test", ContentItemHelper.getText(cs.getBlob()));
+        assertEquals("This is a test", ContentItemHelper.getTextView(cs.getBlob()).toString());
+        IOUtils.write(" with more data", cs.getOutputStream(),"UTF-8");
+        assertEquals("This is a test with more data", ContentItemHelper.getText(cs.getBlob()));
+        IOUtils.closeQuietly(cs.getOutputStream());
+        assertEquals("This is a test with more data", ContentItemHelper.getText(cs.getBlob()));
+    }
+
     @Test
     public void testContentSinkDefaultMimeType() throws IOException {
         String DEFAULT = "application/octet-stream";
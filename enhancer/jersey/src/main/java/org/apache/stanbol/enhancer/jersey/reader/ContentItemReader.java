@@ -80,7 +80,7 @@ import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.Service;
-import org.apache.stanbol.commons.indexedgraph.IndexedGraph;
+import org.apache.stanbol.commons.indexedgraph.CompactGraph;
 import org.apache.stanbol.enhancer.servicesapi.Blob;
 import org.apache.stanbol.enhancer.servicesapi.ContentItem;
 import org.apache.stanbol.enhancer.servicesapi.ContentItemFactory;
@@ -185,7 +185,7 @@ public class ContentItemReader implements MessageBodyReader<ContentItem> {
                         if(contentItemId == null && fis.getName() != null && !fis.getName().isEmpty()){
                             contentItemId = new IRI(fis.getName());
                         }
-                        metadata = new IndexedGraph();
+                        metadata = new CompactGraph();
                         try {
                             getParser().parse(metadata, fis.openStream(), fis.getContentType());
                         } catch (Exception e) {
@@ -254,7 +254,7 @@ public class ContentItemReader implements MessageBodyReader<ContentItem> {
                                 		"MUST define the contentParts URI as" +
                                 		"'name' of the MIME part!").build());
                         }
-                        Graph graph = new IndexedGraph();
+                        Graph graph = new CompactGraph();
                         try {
                             getParser().parse(graph, fis.openStream(), fis.getContentType());
                         } catch (Exception e) {
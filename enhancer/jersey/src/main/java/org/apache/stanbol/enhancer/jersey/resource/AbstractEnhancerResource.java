@@ -32,7 +32,6 @@ import static org.apache.stanbol.enhancer.jersey.utils.RequestPropertiesHelper.O
 import static org.apache.stanbol.enhancer.jersey.utils.RequestPropertiesHelper.OUTPUT_CONTENT_PART;
 import static org.apache.stanbol.enhancer.jersey.utils.RequestPropertiesHelper.RDF_FORMAT;
 
-import java.io.IOException;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -44,6 +43,8 @@ import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
@@ -59,11 +60,13 @@ import org.apache.stanbol.commons.web.base.resource.LayoutConfiguration;
 import org.apache.stanbol.commons.web.base.resource.TemplateLayoutConfiguration;
 import org.apache.stanbol.commons.web.base.utils.MediaTypeUtil;
 import org.apache.stanbol.enhancer.jersey.utils.RequestPropertiesHelper;
+import org.apache.stanbol.enhancer.servicesapi.AsyncEnhancementJobManager;
 import org.apache.stanbol.enhancer.servicesapi.Chain;
 import org.apache.stanbol.enhancer.servicesapi.ChainException;
 import org.apache.stanbol.enhancer.servicesapi.ChainManager;
 import org.apache.stanbol.enhancer.servicesapi.ContentItem;
 import org.apache.stanbol.enhancer.servicesapi.ContentItemFactory;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementCallback;
 import org.apache.stanbol.enhancer.servicesapi.EngineException;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementEngineManager;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementException;
@@ -157,19 +160,23 @@ public abstract class AbstractEnhancerResource extends TemplateLayoutConfigurati
     }
 
     /**
-     * Media-Type based handling of the raw POST data.
+     * Media-Type based handling of the raw POST data.<p>
+     * If the {@link EnhancementJobManager} is an
+     * {@link AsyncEnhancementJobManager} the request is suspended while the
+     * content item is enhanced and resumed by the callback of the
+     * enhancement job. Otherwise the content item is enhanced within the
+     * request thread.
      * 
-     * @param data
-     *            binary payload to analyze
-     * @param uri
-     *            optional URI for the content items (to be used as an identifier in the enhancement graph)
-     * @throws EngineException
-     *             if the content is somehow corrupted
-     * @throws IOException
+     * @param ci
+     *            the parsed content item
+     * @param asyncResponse
+     *            the suspended response
+     * @throws EnhancementException
+     *             if the enhancement could not be started
      */
     @POST
     @Consumes(WILDCARD)
-    public Response enhanceFromData(ContentItem ci,
+    public void enhanceFromData(ContentItem ci,
             //NOTE: The 'uri' parameter is already consumed by the ContentItemReader
             //@QueryParam(value = "uri") String uri,
             @QueryParam(value = "executionmetadata") boolean inclExecMetadata,
@@ -178,7 +185,47 @@ public abstract class AbstractEnhancerResource extends TemplateLayoutConfigurati
             @QueryParam(value = "outputContentPart") Set<String> contentParts,
             @QueryParam(value = "omitMetadata") boolean omitMetadata,
             @QueryParam(value = "rdfFormat") String rdfFormat,
-            @Context HttpHeaders headers) throws EnhancementException, IOException {
+            @Context final HttpHeaders headers,
+            @Suspended final AsyncResponse asyncResponse) throws EnhancementException {
+        Map<String,Object> reqProp = initRequestProperties(ci, inclExecMetadata, 
+            mediaTypes, omitParsed, contentParts, omitMetadata, rdfFormat);
+        enhanceAsync(ci, reqProp, new EnhancementCallback() {
+            
+            @Override
+            public void completed(ContentItem ci) {
+                asyncResponse.resume(buildEnhancementResponse(ci, headers));
+            }
+            
+            @Override
+            public void failed(ContentItem ci, Exception e) {
+                asyncResponse.resume(e);
+            }
+        });
+    }
+    
+    /**
+     * Synchronous variant of 
+     * {@link #enhanceFromData(ContentItem, boolean, Set, boolean, Set, boolean, String, HttpHeaders, AsyncResponse)}
+     * used by sub classes that need to process the enhancement results within
+     * the request thread.
+     */
+    protected Response enhanceFromDataSync(ContentItem ci, boolean inclExecMetadata,
+            Set<String> mediaTypes, boolean omitParsed, Set<String> contentParts,
+            boolean omitMetadata, String rdfFormat, HttpHeaders headers) throws EnhancementException {
+        Map<String,Object> reqProp = initRequestProperties(ci, inclExecMetadata, 
+            mediaTypes, omitParsed, contentParts, omitMetadata, rdfFormat);
+        enhance(ci,reqProp);
+        return buildEnhancementResponse(ci, headers);
+    }
+
+    /**
+     * Initialises the request properties content part of the parsed content
+     * item based on the parsed request parameters
+     * @return the request properties
+     */
+    private Map<String,Object> initRequestProperties(ContentItem ci, boolean inclExecMetadata,
+            Set<String> mediaTypes, boolean omitParsed, Set<String> contentParts,
+            boolean omitMetadata, String rdfFormat) {
         Map<String,Object> reqProp = ContentItemHelper.initRequestPropertiesContentPart(ci);
         reqProp.put(INCLUDE_EXECUTION_METADATA, inclExecMetadata);
         if(mediaTypes != null && !mediaTypes.isEmpty()){
@@ -210,7 +257,13 @@ public abstract class AbstractEnhancerResource extends TemplateLayoutConfigurati
                     .build());
             }
         }
-        enhance(ci,reqProp);
+        return reqProp;
+    }
+    
+    /**
+     * Builds the response for an enhanced content item
+     */
+    private Response buildEnhancementResponse(ContentItem ci, HttpHeaders headers) {
         ResponseBuilder rb = Response.ok(ci);
         MediaType mediaType = MediaTypeUtil.getAcceptableMediaType(headers, null);
         if (mediaType != null) {
@@ -230,6 +283,47 @@ public abstract class AbstractEnhancerResource extends TemplateLayoutConfigurati
         if (jobManager != null) {
             jobManager.enhanceContent(ci, getChain());
         }
+        addExecutionMetadata(ci, reqProp);
+    }
+    
+    /**
+     * Asynchronously enhances the parsed ContentItem. The parsed callback
+     * is notified as soon as the enhancement has completed or failed. If the
+     * {@link #jobManager} does not support asynchronous enhancements the
+     * content item is enhanced by the calling thread.
+     * @param ci the content item to enhance
+     * @param reqProp the request properties or <code>null</code> if none
+     * @param callback the callback
+     * @throws EnhancementException if the enhancement could not be started
+     */
+    protected void enhanceAsync(ContentItem ci, final Map<String,Object> reqProp, 
+            final EnhancementCallback callback) throws EnhancementException {
+        if (jobManager instanceof AsyncEnhancementJobManager) {
+            ((AsyncEnhancementJobManager)jobManager).enhanceContentAsync(ci, getChain(), 
+                new EnhancementCallback() {
+                
+                    @Override
+                    public void completed(ContentItem ci) {
+                        addExecutionMetadata(ci, reqProp);
+                        callback.completed(ci);
+                    }
+                    
+                    @Override
+                    public void failed(ContentItem ci, Exception e) {
+                        callback.failed(ci, e);
+                    }
+                });
+        } else {
+            enhance(ci, reqProp);
+            callback.completed(ci);
+        }
+    }
+    
+    /**
+     * Adds the execution metadata to the metadata of the parsed content item
+     * if requested by the request properties
+     */
+    private void addExecutionMetadata(ContentItem ci, Map<String,Object> reqProp) {
         Graph graph = ci.getMetadata();
         Boolean includeExecutionMetadata = RequestPropertiesHelper.isIncludeExecutionMetadata(reqProp);
         if (includeExecutionMetadata != null && includeExecutionMetadata.booleanValue()) {
@@ -144,7 +144,7 @@ public class GenericEnhancerUiResource extends AbstractEnhancerResource {
         }
         ContentItem ci = ciFactory.createContentItem(new StringSource(content));
         if(!buildAjaxview){ //rewrite to a normal EnhancementRequest
-            return enhanceFromData(ci, false, null, false, null, false, null, headers);
+            return enhanceFromDataSync(ci, false, null, false, null, false, null, headers);
         } else { //enhance and build the AJAX response
             EnhancementException enhancementException;
             try {
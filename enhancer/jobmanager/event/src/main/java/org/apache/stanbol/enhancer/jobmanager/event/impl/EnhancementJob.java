@@ -152,6 +152,12 @@ public class EnhancementJob {
      * @see #getError()
      */
     private Exception error = null;
+    /**
+     * The time of the last change of the state of this job (in ms). Updated
+     * within the {@link #writeLock} but volatile to allow monitoring 
+     * components to read it without acquiring a lock.
+     */
+    private volatile long lastActivity = System.currentTimeMillis();
     /**
      * Constructor used to create and initialise a new enhancement job. This
      * will create the initial set of ExecutionMetadata and add them as
@@ -427,6 +433,7 @@ public class EnhancementJob {
                               chain, executionNode, optional});
         }
         completed.add(executionNode);
+        lastActivity = System.currentTimeMillis();
         //update the set with the completed and running executables
         updateCompletedExec();
         updateRunningExec();
@@ -490,6 +497,7 @@ public class EnhancementJob {
                                        chain, executionNode, optional});
                 return;
             } else { //added an engine to running
+                lastActivity = System.currentTimeMillis();
                 log.trace("Started Execution of '{}' for ContentItem {} "
                          + "(chain: {}, node: {}, optional {})",
                     new Object[] {engine, contentItem.getUri().getUnicodeString(), chain,
@@ -699,6 +707,14 @@ public class EnhancementJob {
     public Graph getExecutionMetadata() {
         return executionMetadata;
     }
+    /**
+     * The time of the last state change of this job. Can be called without
+     * acquiring the {@link #getLock() lock}.
+     * @return the time of the last activity in milliseconds
+     */
+    public long getLastActivity() {
+        return lastActivity;
+    }
     /**
      * Marks the execution of the enhancement process as started. In other
      * words this sets the status of the 'em:ChainExecution' instance that
@@ -27,14 +27,15 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Dictionary;
 import java.util.Hashtable;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.apache.clerezza.commons.rdf.BlankNodeOrIRI;
 
 import org.apache.stanbol.enhancer.servicesapi.ContentItem;
@@ -56,6 +57,11 @@ public class EnhancementJobHandler implements EventHandler {
 
     private EnhancementEngineManager engineManager;
     private EventAdmin eventAdmin;
+    /**
+     * If not <code>null</code> engine executions are processed by this
+     * executor instead of sending events via the {@link #eventAdmin}
+     */
+    private final Executor executor;
 
     /*
      * NOTE on debug level Loggings
@@ -74,31 +80,48 @@ public class EnhancementJobHandler implements EventHandler {
      * contentItems and the values are the objects used to interrupt the 
      * requesting thread as soon as the enhancement process has finished. 
      */
-    private Map<EnhancementJob,EnhancementJobObserver> processingJobs;
-    private final ReadWriteLock processingLock = new ReentrantReadWriteLock();
-    private Thread observerDaemon;
+    private final ProcessingJobRegistry<EnhancementJob,EnhancementJobObserver> processingJobs;
+    /**
+     * Tracks the deadlines of registered jobs and detects stalled jobs
+     */
+    private final EnhancementJobTracker tracker;
+    /**
+     * Executions of jobs registered without caller runs semantic that where
+     * rejected by the saturated {@link #executor}. Threads of the executor
+     * process them as soon as they complete their current task.
+     */
+    private final Queue<ExecutionTask> overflow = new ConcurrentLinkedQueue<ExecutionTask>();
     
     public EnhancementJobHandler(EventAdmin eventAdmin, 
                                  EnhancementEngineManager engineManager) {
-        if(eventAdmin == null){
-            throw new IllegalArgumentException("The parsed EventAdmin service MUST NOT be NULL!");
+        this(eventAdmin, engineManager, null);
+    }
+    /**
+     * Creates an EnhancementJobHandler that uses the parsed executor to
+     * process the execution of enhancement engines. In this mode the
+     * handler directly submits the next executable nodes of an 
+     * {@link EnhancementJob} to the executor when an engine completes. 
+     * The {@link EventAdmin} is not used.
+     * @param eventAdmin the event admin used if <code>executor == null</code>
+     * @param engineManager the engine manager
+     * @param executor the executor or <code>null</code> to use the 
+     * {@link EventAdmin} for dispatching engine executions
+     */
+    public EnhancementJobHandler(EventAdmin eventAdmin, 
+                                 EnhancementEngineManager engineManager,
+                                 Executor executor) {
+        if(eventAdmin == null && executor == null){
+            throw new IllegalArgumentException("The parsed EventAdmin service MUST NOT "
+                + "be NULL if no Executor is parsed!");
         }
         if(engineManager == null){
             throw new IllegalArgumentException("The parsed EnhancementEngineManager MUST NOT be NULL!");
         }
         this.eventAdmin = eventAdmin;
         this.engineManager = engineManager;
-        processingLock.writeLock().lock();
-        try {
-            processingJobs = new LinkedHashMap<EnhancementJob,EnhancementJobObserver>();
-        } finally{
-            processingLock.writeLock().unlock();
-        }
-        observerDaemon = new Thread(new EnhancementJobObserverDaemon());
-        observerDaemon.setName("Event Job Manager Observer Daemon");
-        observerDaemon.setDaemon(true);
-        observerDaemon.start();
-        
+        this.executor = executor;
+        processingJobs = new ProcessingJobRegistry<EnhancementJob,EnhancementJobObserver>();
+        tracker = new EnhancementJobTracker("Event Job Manager Tracker Daemon");
     }
     /**
      * Closes this Handler and notifies all components that wait for still
@@ -106,18 +129,11 @@ public class EnhancementJobHandler implements EventHandler {
      */
     public void close(){
         log.info("deactivate {}",getClass().getName());
-        processingLock.writeLock().lock();
-        try {
-            for(Object o : processingJobs.values()){
-                synchronized (o) {
-                    o.notifyAll();
-                }
-            }
-            processingJobs = null;
-        } finally {
-            processingLock.writeLock().unlock();
+        for(EnhancementJobObserver observer : processingJobs.close()){
+            observer.release();
         }
-        observerDaemon = null;
+        tracker.close();
+        overflow.clear();
     }
     
     /**
@@ -140,47 +156,97 @@ public class EnhancementJobHandler implements EventHandler {
      * {@link EnhancementJob#isFinished()} or this instance is deactivated
      */
     public EnhancementJobObserver register(EnhancementJob enhancementJob){
+        return register(enhancementJob, null, -1, true);
+    }
+    /**
+     * Registers an EnhancementJob and will start the enhancement process.
+     * When the process is finished or this service is deactivated the
+     * parsed listener is notified. This allows callers to process the
+     * results of the job without blocking a thread while waiting for
+     * the completion.
+     * @param enhancementJob the enhancement job to register
+     * @param listener the listener notified on completion or <code>null</code>
+     * if none
+     * @param timeout the timeout in milliseconds. If the job does not finish
+     * within this time {@link EnhancementJobListener#timedOut(EnhancementJob)}
+     * is called. Values <code>&lt;= 0</code> indicate no timeout.
+     * @param callerRuns if <code>true</code> executions rejected by the
+     * saturated {@link #executor} are processed by the calling thread (back
+     * pressure for callers that wait for the completion anyway). If 
+     * <code>false</code> they are queued and processed by the threads of the
+     * executor so that this method does not block.
+     * @return the observer for the registered job
+     */
+    public EnhancementJobObserver register(EnhancementJob enhancementJob, 
+            final EnhancementJobListener listener, long timeout, boolean callerRuns){
+        if(enhancementJob == null || processingJobs.isClosed()){
+            return null;
+        }
+        EnhancementJobObserver observer = processingJobs.get(enhancementJob);
         final boolean init;
-        EnhancementJobObserver observer;
-        processingLock.writeLock().lock();
-        try {
-            if(enhancementJob == null || processingJobs == null){
-                return null;
+        if(observer == null){
+            EnhancementJobObserver created = new EnhancementJobObserver(enhancementJob, listener,
+                tracker.track(enhancementJob, timeout, listener == null ? null :
+                    new EnhancementJobTracker.TimeoutListener() {
+                        @Override
+                        public void timedOut(EnhancementJob job) {
+                            listener.timedOut(job);
+                        }
+                    }));
+            observer = processingJobs.register(enhancementJob, created);
+            init = observer == created;
+            if(!init){ //closed or concurrently registered
+                created.untrack();
             }
-            observer = processingJobs.get(enhancementJob);
-            if(observer == null){
-                observer = new EnhancementJobObserver(enhancementJob);
-                if(log.isDebugEnabled()){
-                    logJobInfo(log, enhancementJob, "Add EnhancementJob:",log.isTraceEnabled());
-                }
-                processingJobs.put(enhancementJob, observer);
-                init = true;
-            } else {
-                log.warn("Request to register an EnhancementJob for an ContentItem {} that is" +
-                		"already registered "+enhancementJob.getContentItem().getUri());
-                init = false;
+            if(observer == null){ //closed
+                return null;
             }
-        } finally {
-            processingLock.writeLock().unlock();
+        } else {
+            init = false;
+        }
+        if(!init){
+            log.warn("Request to register an EnhancementJob for an ContentItem {} that is" +
+                    "already registered "+enhancementJob.getContentItem().getUri());
+        } else if(log.isDebugEnabled()){
+            logJobInfo(log, enhancementJob, "Add EnhancementJob:",log.isTraceEnabled());
         }
         if(init){
             observer.acquire();
             enhancementJob.startProcessing();
+            boolean finish = false;
+            //executions rejected by a saturated executor are processed
+            //after the lock was released
+            List<BlankNodeOrIRI> rejected = executor == null ? null :
+                new ArrayList<BlankNodeOrIRI>(2);
             log.trace("++ w: {}","init execution");
             enhancementJob.getLock().writeLock().lock();
             try {
                 log.trace(">> w: {}","init execution");
-                if(!executeNextNodes(enhancementJob)){
+                if(!executeNextNodes(enhancementJob, null, rejected)){
                     String message = "Unable to start Execution of "+enhancementJob.getContentItem().getUri();
                     log.warn(message);
                     logJobInfo(log, enhancementJob, null, true);
                     log.warn("finishing job ...");
-                    finish(enhancementJob);
+                    finish = true;
                 }
             } finally {
                 log.trace("<< w: {}","init execution");
                 enhancementJob.getLock().writeLock().unlock();
             }
+            if(finish){ //finish outside of the write lock
+                finish(enhancementJob);
+            } else if(rejected != null && !rejected.isEmpty()){
+                if(callerRuns){
+                    for(BlankNodeOrIRI execution : rejected){
+                        new ExecutionTask(enhancementJob, execution).process();
+                    }
+                } else {
+                    for(BlankNodeOrIRI execution : rejected){
+                        overflow.add(new ExecutionTask(enhancementJob, execution));
+                    }
+                    scheduleOverflow();
+                }
+            }
         }
         return observer;
     }
@@ -192,7 +258,21 @@ public class EnhancementJobHandler implements EventHandler {
         if(job == null || execution == null){
             log.warn("Unable to process EnhancementEvent where EnhancementJob " +
             		"{} or Execution node {} is null -> ignore",job,execution);
+            return;
         }
+        processExecution(job, execution, null);
+    }
+    /**
+     * Executes the parsed execution of the parsed job and triggers the
+     * execution of the next nodes (or finishes the job)
+     * @param job the enhancement job
+     * @param execution the execution to process
+     * @param continuation if not <code>null</code> the first of the next
+     * executable nodes is added to this list instead of being dispatched. This
+     * allows the calling thread to directly continue with that execution.
+     */
+    private void processExecution(EnhancementJob job, BlankNodeOrIRI execution, 
+            List<BlankNodeOrIRI> continuation) {
         try {
             processEvent(job, execution);
         } catch (Throwable t) {
@@ -204,19 +284,20 @@ public class EnhancementJobHandler implements EventHandler {
            log.error(message,t);
         }
         //(2) trigger the next actions
+        boolean finish = false;
         log.trace("++ w: {}","check for next Executions");
         job.getLock().writeLock().lock();
         log.trace(">> w: {}","check for next Executions");
         try {
             if(job.isFinished()){
-                finish(job);
+                finish = true;
             } else if(!job.isFailed()){
-                if(!executeNextNodes(job) && job.getRunning().isEmpty()){
+                if(!executeNextNodes(job, continuation, continuation) && job.getRunning().isEmpty()){
                     log.warn("Unexpected state in the Execution of ContentItem {}:"
                         + " Job is not finished AND no executions are running AND"
                         + " no further execution could be started! -> finishing"
                         + " this job :(");
-                    finish(job);
+                    finish = true;
                 } //else execution started of other jobs are running
             } else {
                 if(log.isInfoEnabled()){
@@ -232,6 +313,11 @@ public class EnhancementJobHandler implements EventHandler {
             log.trace("<< w: {}","check for next Executions");
             job.getLock().writeLock().unlock();
         }
+        //(3) finish the job outside of the write lock as this will notify
+        //    listeners that might process the results (e.g. serialize them)
+        if(finish){
+            finish(job);
+        }
     }
     /**
      * @param job
@@ -304,13 +390,8 @@ public class EnhancementJobHandler implements EventHandler {
      * @param job the finished job
      */
     private void finish(EnhancementJob job){
-        processingLock.writeLock().lock();
-        EnhancementJobObserver observer;
-        try {
-            observer = processingJobs.remove(job);
-        } finally {
-            processingLock.writeLock().unlock();
-        }
+        //returns null after close() (observers where already notified)
+        EnhancementJobObserver observer = processingJobs.remove(job);
         if(observer != null) {
             try {
                 if(log.isDebugEnabled()){
@@ -320,7 +401,7 @@ public class EnhancementJobHandler implements EventHandler {
                     job.getContentItem().getUri(),job.getChainName());
             } finally {
                 //release the semaphore to send signal to the EventJobManager waiting
-                //for the results
+                //for the results and notify the listener (if any)
                 observer.release();
             }
         } else {
@@ -337,6 +418,22 @@ public class EnhancementJobHandler implements EventHandler {
      * @return if an Execution event was sent
      */
     protected boolean executeNextNodes(EnhancementJob job) {
+        return executeNextNodes(job, null, null);
+    }
+    /**
+     * triggers the execution of the next nodes
+     * @param job the enhancement job to process
+     * @param continuation if not <code>null</code> and an {@link #executor} 
+     * is used the first executable node is not dispatched but added to this
+     * list
+     * @param callerRuns if not <code>null</code> executable nodes rejected
+     * by the {@link #executor} because its queue is full are added to this
+     * list. The caller is expected to process them after releasing the
+     * write lock of the job. If <code>null</code> rejected executions fail.
+     * @return if an Execution was started
+     */
+    private boolean executeNextNodes(EnhancementJob job, List<BlankNodeOrIRI> continuation,
+            List<BlankNodeOrIRI> callerRuns) {
         //getExecutable returns an snapshot so we do not need to lock
         boolean startedExecution = false;
         for(BlankNodeOrIRI executable : job.getExecutable()){
@@ -344,19 +441,100 @@ public class EnhancementJobHandler implements EventHandler {
                 log.trace("PREPARE execution of Engine {}",
                     getEngine(job.getExecutionPlan(), job.getExecutionNode(executable)));
             }
-            Dictionary<String,Object> properties = new Hashtable<String,Object>();
-            properties.put(PROPERTY_JOB_MANAGER, job);
-            properties.put(PROPERTY_EXECUTION, executable);
             job.setRunning(executable);
             if(log.isTraceEnabled()){
                 log.trace("SHEDULE execution of Engine {}",
                     getEngine(job.getExecutionPlan(), job.getExecutionNode(executable)));
             }
-            eventAdmin.postEvent(new Event(TOPIC_JOB_MANAGER,properties));
+            if(executor == null){
+                Dictionary<String,Object> properties = new Hashtable<String,Object>();
+                properties.put(PROPERTY_JOB_MANAGER, job);
+                properties.put(PROPERTY_EXECUTION, executable);
+                eventAdmin.postEvent(new Event(TOPIC_JOB_MANAGER,properties));
+            } else if(continuation != null && continuation.isEmpty()){
+                //the current thread will directly continue with this execution
+                continuation.add(executable);
+            } else {
+                try {
+                    executor.execute(new ExecutionTask(job, executable));
+                } catch (RejectedExecutionException e) {
+                    if(callerRuns != null && !(executor instanceof ExecutorService 
+                            && ((ExecutorService)executor).isShutdown())){
+                        //the queue of the executor is full -> let the calling
+                        //thread process this execution (back pressure)
+                        callerRuns.add(executable);
+                    } else { //executor was shut down
+                        job.setFailed(executable, null, e);
+                        continue; //this execution was not started
+                    }
+                }
+            }
             startedExecution = true;
         }
         return startedExecution;
     }
+    /**
+     * Used to process executions of {@link EnhancementJob}s if the
+     * {@link EnhancementJobHandler#executor} is used. When the execution
+     * completes the thread directly continues with one of the next executable
+     * nodes of the same job (if any).
+     */
+    private final class ExecutionTask implements Runnable {
+        
+        private final EnhancementJob job;
+        private final BlankNodeOrIRI execution;
+
+        ExecutionTask(EnhancementJob job, BlankNodeOrIRI execution){
+            this.job = job;
+            this.execution = execution;
+        }
+        
+        @Override
+        public void run() {
+            process();
+            //continue with executions rejected by the saturated executor
+            ExecutionTask rejected = overflow.poll();
+            while(rejected != null){
+                rejected.process();
+                rejected = overflow.poll();
+            }
+        }
+        
+        /**
+         * Processes the execution and directly continues with the next
+         * executable nodes of the job
+         */
+        void process() {
+            BlankNodeOrIRI next = execution;
+            List<BlankNodeOrIRI> continuation = new ArrayList<BlankNodeOrIRI>(1);
+            while(next != null){
+                processExecution(job, next, continuation);
+                next = continuation.isEmpty() ? null : continuation.remove(0);
+            }
+        }
+    }
+    /**
+     * Ensures that the {@link #overflow} is processed even if all tasks of
+     * the executor completed before the rejected executions where queued.
+     */
+    private void scheduleOverflow(){
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    ExecutionTask rejected = overflow.poll();
+                    if(rejected != null){
+                        rejected.run();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            //still saturated (or shut down). In the first case the queued
+            //tasks will process the overflow
+            log.debug("Executor saturated: {} executions queued in the overflow",
+                overflow.size());
+        }
+    }
     /**
      * Helper method that logs the execution time for the Chain and all the
      * Enhancement Engines on DEBUG level
@@ -444,18 +622,53 @@ public class EnhancementJobHandler implements EventHandler {
             log.info("Reported Exception:",job.getError());
         }
     }
+    /**
+     * Listener that gets notified as soon as a registered {@link EnhancementJob}
+     * is finished or the {@link EnhancementJobHandler} is closed.
+     * Notifications happen outside of the locks of the 
+     * {@link EnhancementJobHandler} and the {@link EnhancementJob}.
+     */
+    public interface EnhancementJobListener {
+        /**
+         * Called once when the parsed job is no longer processed
+         * @param job the job. Callers need to check the state of the job
+         * to see if it has completed or failed.
+         */
+        void finished(EnhancementJob job);
+        /**
+         * Called by the {@link EnhancementJobTracker} if the job does not
+         * finish within the timeout parsed on registration. The job might
+         * still be processed and {@link #finished(EnhancementJob)} will be
+         * called later on. Implementations MUST NOT block.
+         * @param job the job
+         */
+        void timedOut(EnhancementJob job);
+    }
+    
     public final class EnhancementJobObserver{
         
         private static final int MIN_WAIT_TIME = 500;
         private final EnhancementJob enhancementJob;
         private final Semaphore semaphore;
+        private final EnhancementJobListener listener;
+        private final EnhancementJobTracker.TrackedJob tracked;
         
-        private EnhancementJobObserver(EnhancementJob job){
+        private EnhancementJobObserver(EnhancementJob job, EnhancementJobListener listener,
+                EnhancementJobTracker.TrackedJob tracked){
             if(job == null){
                 throw new IllegalArgumentException("The parsed EnhancementJob MUST NOT be NULL!");
             }
             this.enhancementJob = job;
             this.semaphore = new Semaphore(1);
+            this.listener = listener;
+            this.tracked = tracked;
+        }
+        
+        /**
+         * Stops tracking an observer that was not registered
+         */
+        private void untrack(){
+            tracked.completed();
         }
 
         protected void acquire() {
@@ -468,7 +681,17 @@ public class EnhancementJobHandler implements EventHandler {
         }
         
         protected void release() {
+            tracked.completed();
             semaphore.release();
+            if(listener != null){
+                try {
+                    listener.finished(enhancementJob);
+                } catch (RuntimeException e) {
+                    log.warn("Exception while notifying EnhancementJobListener "
+                        + listener + " about finished EnhancementJob for ContentItem "
+                        + enhancementJob.getContentItem().getUri(), e);
+                }
+            }
         }
 
         public boolean hasCompleted() {
@@ -505,61 +728,26 @@ public class EnhancementJobHandler implements EventHandler {
         }
     }
     
-    
     /**
-     * Currently only used to debug the number of currently registered
-     * Enhancements Jobs (if there are some)
-     * @author Rupert Westenthaler
+     * Logs statistics about the tracked jobs and the executor (if used)
+     * @param logger the logger
      */
-    private class EnhancementJobObserverDaemon implements Runnable {
-
-        /**
-         * The logger of the Observer. Can be used to configure Loglevel specificly
-         * 
-         */
-        private Logger observerLog = LoggerFactory.getLogger(EnhancementJobObserverDaemon.class);
-        
-        @Override
-        public void run() {
-            observerLog.debug(" ... init EnhancementJobObserver");
-            while(processingJobs != null){
-                try {
-                    Thread.sleep(10000);
-                } catch (InterruptedException e) {
-                }
-                Collection<EnhancementJob> jobs;
-                Lock readLock = processingLock.readLock();
-                readLock.lock();
-                try {
-                    if(processingJobs != null){
-                        jobs = new ArrayList<EnhancementJob>(processingJobs.keySet());
-                    } else {
-                        jobs = Collections.emptyList();
-                    }
-                } finally {
-                    readLock.unlock();
-                }
-                if(!jobs.isEmpty()){
-                    observerLog.debug(" -- {} active Enhancement Jobs",jobs.size());
-                    if(observerLog.isDebugEnabled()){
-                        for(EnhancementJob job : jobs){
-                            Lock jobLock = job.getLock().readLock();
-                            jobLock.lock();
-                            try {
-                                logJobInfo(observerLog,job,null,true);
-                            } finally {
-                                jobLock.unlock();
-                            }
-                        }
-                    }
-                } else {
-                    log.debug(" -- No active Enhancement Jobs");
-                }
-            }
-            
+    public void logStatistics(Logger logger){
+        tracker.logStatistics(logger);
+        if(executor instanceof ThreadPoolExecutor){
+            ThreadPoolExecutor tpe = (ThreadPoolExecutor)executor;
+            logger.info("EnhancementEngine Executor: {} active threads, {} queued, {} completed",
+                new Object[]{tpe.getActiveCount(), tpe.getQueue().size(),
+                        tpe.getCompletedTaskCount()});
         }
-        
     }
     
-    
+    /**
+     * Getter for the tracker of the registered jobs. Can be used to access
+     * statistics about timed out and stalled jobs.
+     * @return the tracker
+     */
+    public EnhancementJobTracker getTracker() {
+        return tracker;
+    }
 }
@@ -0,0 +1,372 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jobmanager.event.impl;
+
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracks the deadlines of {@link EnhancementJob}s and detects stalled jobs.
+ * <p>
+ * Tracked jobs are kept in a {@link DelayQueue} ordered by the time of their
+ * next check. The daemon thread of the tracker only wakes up when the check of
+ * a single job is due. It never needs to iterate over all active jobs or to
+ * acquire any lock other than the one of the job that is checked. A job is
+ * checked when its deadline expires and every {@link #getStallInterval() stall
+ * interval} to detect jobs that have not made any progress.
+ * <p>
+ * Completed jobs are not removed from the queue (as this is an O(n) 
+ * operation) but are marked as done. They are dropped when their next check
+ * is due.
+ */
+public class EnhancementJobTracker {
+
+    /**
+     * The logger of the tracker. Can be used to configure the log level
+     * specifically (e.g. to log all stalled jobs).
+     */
+    private static final Logger log = LoggerFactory.getLogger(EnhancementJobTracker.class);
+    
+    /**
+     * The default interval used to check for stalled jobs (10sec)
+     */
+    public static final long DEFAULT_STALL_INTERVAL = 10 * 1000;
+    
+    /**
+     * Notified when a tracked job does not complete before its deadline
+     */
+    public interface TimeoutListener {
+        /**
+         * Called by the thread of the tracker if the parsed job does not 
+         * complete before its deadline. Implementations MUST NOT block.
+         * @param job the job
+         */
+        void timedOut(EnhancementJob job);
+    }
+    
+    private final DelayQueue<TrackedJob> queue = new DelayQueue<TrackedJob>();
+    private final long stallInterval;
+    private final Thread daemon;
+    private volatile boolean closed = false;
+    
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong tracked = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong stalled = new AtomicLong();
+    /**
+     * The sum of the durations of completed jobs relative to their timeout
+     * in permille.
+     */
+    private final AtomicLong timeoutUsage = new AtomicLong();
+    private final AtomicLong maxTimeoutUsage = new AtomicLong();
+    
+    /**
+     * Creates a tracker using the {@link #DEFAULT_STALL_INTERVAL}
+     * @param name the name used for the daemon thread
+     */
+    public EnhancementJobTracker(String name) {
+        this(name, DEFAULT_STALL_INTERVAL);
+    }
+    /**
+     * Creates a tracker that checks for stalled jobs in the parsed interval
+     * @param name the name used for the daemon thread
+     * @param stallInterval the interval in milliseconds. Jobs that do not show 
+     * any activity within this interval are considered as stalled.
+     */
+    public EnhancementJobTracker(String name, long stallInterval) {
+        if(stallInterval <= 0){
+            throw new IllegalArgumentException("The parsed stall interval MUST BE > 0!");
+        }
+        this.stallInterval = stallInterval;
+        daemon = new Thread(new TrackerDaemon());
+        daemon.setName(name);
+        daemon.setDaemon(true);
+        daemon.start();
+    }
+    /**
+     * Starts tracking the parsed job
+     * @param job the job
+     * @param timeout the timeout in milliseconds. If <code>&lt;= 0</code> the
+     * job has no deadline and is only checked for stalling
+     * @param listener the listener notified if the job times out or 
+     * <code>null</code> if none
+     * @return the tracked job. Callers MUST call {@link TrackedJob#completed()}
+     * when the job is finished.
+     */
+    public TrackedJob track(EnhancementJob job, long timeout, TimeoutListener listener){
+        if(job == null){
+            throw new IllegalArgumentException("The parsed EnhancementJob MUST NOT be NULL!");
+        }
+        if(closed){
+            throw new IllegalStateException("This EnhancementJobTracker is already closed!");
+        }
+        TrackedJob tj = new TrackedJob(job, timeout, listener);
+        tracked.incrementAndGet();
+        active.incrementAndGet();
+        queue.put(tj);
+        return tj;
+    }
+    /**
+     * Stops the daemon thread. Tracked jobs will no longer time out.
+     */
+    public void close(){
+        closed = true;
+        daemon.interrupt();
+        queue.clear();
+    }
+    
+    public long getStallInterval() {
+        return stallInterval;
+    }
+    /**
+     * @return the number of currently tracked (not completed) jobs
+     */
+    public int getActiveCount(){
+        return active.get();
+    }
+    /**
+     * @return the number of jobs tracked since the creation of this tracker
+     */
+    public long getTrackedCount(){
+        return tracked.get();
+    }
+    /**
+     * @return the number of tracked jobs that completed
+     */
+    public long getCompletedCount(){
+        return completed.get();
+    }
+    /**
+     * @return the number of tracked jobs that have timed out
+     */
+    public long getTimedOutCount(){
+        return timedOut.get();
+    }
+    /**
+     * @return the number of times jobs where detected as stalled
+     */
+    public long getStalledCount(){
+        return stalled.get();
+    }
+    /**
+     * @return the average percentage of the timeout used by completed jobs
+     * that had a timeout
+     */
+    public float getAverageTimeoutUsage(){
+        long num = completed.get();
+        return num > 0 ? timeoutUsage.get() / (float)num / 10f : 0f;
+    }
+    /**
+     * @return the maximum percentage of the timeout used by a completed job
+     */
+    public float getMaxTimeoutUsage(){
+        return maxTimeoutUsage.get()/10f;
+    }
+    /**
+     * Logs the statistics of this tracker
+     * @param logger the logger
+     */
+    public void logStatistics(Logger logger){
+        logger.info("EnhancementJob Tracker Statistics: {} active | {} tracked | {} completed "
+            + "| {} timed out | {} stalled | timeout usage (avg: {}%, max: {}%)", 
+            new Object[]{getActiveCount(), getTrackedCount(), getCompletedCount(),
+                getTimedOutCount(), getStalledCount(), getAverageTimeoutUsage(),
+                getMaxTimeoutUsage()});
+    }
+    
+    /**
+     * A job tracked by the {@link EnhancementJobTracker}
+     */
+    public final class TrackedJob implements Delayed {
+        /**
+         * set to <code>null</code> as soon as done to allow the GC to collect
+         * the ContentItem of the job even if this instance is still queued
+         */
+        private volatile EnhancementJob job;
+        private volatile TimeoutListener listener;
+        private final long start;
+        private final long timeout;
+        private final long deadline;
+        /**
+         * the time of the next check. Only modified by the daemon while this
+         * instance is NOT in the queue.
+         */
+        private long nextCheck;
+        private final AtomicInteger state = new AtomicInteger(STATE_ACTIVE);
+        
+        private TrackedJob(EnhancementJob job, long timeout, TimeoutListener listener){
+            this.job = job;
+            this.listener = listener;
+            this.start = System.currentTimeMillis();
+            this.timeout = timeout;
+            this.deadline = timeout > 0 ? start + timeout : Long.MAX_VALUE;
+            this.nextCheck = Math.min(deadline, start + stallInterval);
+        }
+        /**
+         * Marks the job as completed. Calls after the job has already 
+         * timed out are ignored.
+         * @return <code>true</code> if the job completed before its deadline
+         */
+        public boolean completed(){
+            if(!state.compareAndSet(STATE_ACTIVE, STATE_COMPLETED)){
+                return false;
+            }
+            release();
+            completed.incrementAndGet();
+            if(timeout > 0){
+                long usage = getDuration() * 1000 / timeout;
+                timeoutUsage.addAndGet(usage);
+                long max = maxTimeoutUsage.get();
+                while(usage > max && !maxTimeoutUsage.compareAndSet(max, usage)){
+                    max = maxTimeoutUsage.get();
+                }
+            }
+            return true;
+        }
+        /**
+         * Marks the job as timed out
+         * @return the job or <code>null</code> if the job has already completed
+         */
+        private EnhancementJob timeout(){
+            EnhancementJob job = this.job;
+            if(!state.compareAndSet(STATE_ACTIVE, STATE_TIMED_OUT)){
+                return null;
+            }
+            release();
+            timedOut.incrementAndGet();
+            return job;
+        }
+        
+        private void release(){
+            job = null;
+            listener = null;
+            active.decrementAndGet();
+        }
+        
+        public boolean isDone(){
+            return state.get() != STATE_ACTIVE;
+        }
+        
+        public boolean isTimedOut(){
+            return state.get() == STATE_TIMED_OUT;
+        }
+        /**
+         * @return the time in ms since the job is tracked
+         */
+        public long getDuration(){
+            return System.currentTimeMillis() - start;
+        }
+        /**
+         * @return the remaining time in ms before the job times out or
+         * {@link Long#MAX_VALUE} if the job does not have a deadline
+         */
+        public long getRemainingTime(){
+            return deadline == Long.MAX_VALUE ? deadline : 
+                Math.max(0, deadline - System.currentTimeMillis());
+        }
+        
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(nextCheck - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            long other = ((TrackedJob)o).nextCheck;
+            return nextCheck < other ? -1 : nextCheck == other ? 0 : 1;
+        }
+    }
+    
+    private static final int STATE_ACTIVE = 0;
+    private static final int STATE_COMPLETED = 1;
+    private static final int STATE_TIMED_OUT = 2;
+    
+    /**
+     * Processes {@link TrackedJob}s as soon as their next check is due
+     */
+    private class TrackerDaemon implements Runnable {
+        
+        @Override
+        public void run() {
+            log.debug(" ... init EnhancementJobTracker");
+            while(!closed){
+                TrackedJob tj;
+                try {
+                    tj = queue.take();
+                } catch (InterruptedException e) {
+                    continue; //check if closed
+                }
+                try {
+                    check(tj);
+                } catch (RuntimeException e) {
+                    log.warn("Exception while checking tracked EnhancementJob", e);
+                }
+            }
+            log.debug(" ... EnhancementJobTracker closed");
+        }
+
+        private void check(TrackedJob tj) {
+            if(tj.isDone()){
+                return; //already completed ... just drop it
+            }
+            long now = System.currentTimeMillis();
+            if(now >= tj.deadline){
+                TimeoutListener listener = tj.listener;
+                EnhancementJob job = tj.timeout();
+                if(job != null){
+                    log.debug("EnhancementJob for ContentItem {} timed out after {}ms",
+                        job.getContentItem().getUri(), tj.getDuration());
+                    if(listener != null){
+                        listener.timedOut(job);
+                    }
+                }
+                return;
+            }
+            EnhancementJob job = tj.job;
+            if(job != null && now - job.getLastActivity() >= stallInterval){
+                stalled.incrementAndGet();
+                if(log.isDebugEnabled()){
+                    log.debug("EnhancementJob for ContentItem {} shows no activity "
+                        + "since {}ms (remaining time: {}ms)", new Object[]{
+                            job.getContentItem().getUri(), now - job.getLastActivity(),
+                            tj.getRemainingTime()});
+                    //only lock the checked job
+                    Lock jobLock = job.getLock().readLock();
+                    jobLock.lock();
+                    try {
+                        EnhancementJobHandler.logJobInfo(log, job, null, true);
+                    } finally {
+                        jobLock.unlock();
+                    }
+                }
+            }
+            //re-schedule the next check
+            tj.nextCheck = Math.min(tj.deadline, now + stallInterval);
+            if(!closed && !tj.isDone()){
+                queue.put(tj);
+            }
+        }
+    }
+}
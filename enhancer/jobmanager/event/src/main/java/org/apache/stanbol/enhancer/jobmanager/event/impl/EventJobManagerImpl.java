@@ -25,6 +25,16 @@ import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.clerezza.commons.rdf.ImmutableGraph;
 import org.apache.clerezza.commons.rdf.Triple;
@@ -38,20 +48,24 @@ import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
-import org.apache.stanbol.enhancer.jobmanager.event.impl.EnhancementJobHandler.EnhancementJobObserver;
+import org.apache.stanbol.enhancer.jobmanager.event.impl.EnhancementJobHandler.EnhancementJobListener;
+import org.apache.stanbol.enhancer.servicesapi.AsyncEnhancementJobManager;
 import org.apache.stanbol.enhancer.servicesapi.Chain;
 import org.apache.stanbol.enhancer.servicesapi.ChainException;
 import org.apache.stanbol.enhancer.servicesapi.ChainManager;
 import org.apache.stanbol.enhancer.servicesapi.ContentItem;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementCallback;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementEngineManager;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementException;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementJobManager;
+import org.apache.stanbol.enhancer.servicesapi.helper.EnhancementJobFuture;
 import org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper;
 import org.apache.stanbol.enhancer.servicesapi.helper.execution.Execution;
 import org.apache.stanbol.enhancer.servicesapi.helper.execution.ExecutionMetadata;
 import org.osgi.framework.Constants;
 import org.osgi.framework.ServiceRegistration;
+import org.osgi.service.cm.ConfigurationException;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.event.EventAdmin;
 import org.osgi.service.event.EventHandler;
@@ -59,13 +73,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 @Component(immediate=true,metatype=true)
-@Service
+@Service(value={EnhancementJobManager.class, AsyncEnhancementJobManager.class})
 @Properties(value={
     //register with a ranking lower than 0 to allow easy overriding by specific
     @Property(name=Constants.SERVICE_RANKING,intValue=EventJobManagerImpl.DEFAULT_SERVICE_RANKING),
-    @Property(name=EventJobManagerImpl.MAX_ENHANCEMENT_JOB_WAIT_TIME,intValue=EventJobManagerImpl.DEFAULT_MAX_ENHANCEMENT_JOB_WAIT_TIME)
+    @Property(name=EventJobManagerImpl.MAX_ENHANCEMENT_JOB_WAIT_TIME,intValue=EventJobManagerImpl.DEFAULT_MAX_ENHANCEMENT_JOB_WAIT_TIME),
+    @Property(name=EventJobManagerImpl.EXECUTOR_THREADS,intValue=EventJobManagerImpl.DEFAULT_EXECUTOR_THREADS),
+    @Property(name=EventJobManagerImpl.MAX_CONCURRENT_JOBS_PER_CHAIN,intValue=EventJobManagerImpl.DEFAULT_MAX_CONCURRENT_JOBS_PER_CHAIN)
 })
-public class EventJobManagerImpl implements EnhancementJobManager {
+public class EventJobManagerImpl implements AsyncEnhancementJobManager {
 
     private final Logger log = LoggerFactory.getLogger(EventJobManagerImpl.class);
     /**
@@ -82,6 +98,38 @@ public class EventJobManagerImpl implements EnhancementJobManager {
      * default max wait time is 60sec (similar to the http timeout)
      */
     public static final int DEFAULT_MAX_ENHANCEMENT_JOB_WAIT_TIME = 60 * 1000;
+    /**
+     * The minimum wait time for enhancement jobs (500ms)
+     */
+    private static final int MIN_ENHANCEMENT_JOB_WAIT_TIME = 500;
+    /**
+     * The number of threads used to execute {@link EnhancementEngine}s. If
+     * <code>&lt;= 0</code> engine executions are dispatched by the OSGi
+     * {@link EventAdmin}.
+     */
+    public static final String EXECUTOR_THREADS = "stanbol.enhancer.jobmanager.executorThreads";
+    /**
+     * By default the {@link EventAdmin} is used to dispatch engine executions
+     */
+    public static final int DEFAULT_EXECUTOR_THREADS = 0;
+    /**
+     * The number of engine executions that can be queued per thread of the
+     * engine executor. If the queue is full the thread scheduling the
+     * execution processes it itself.
+     */
+    private static final int EXECUTOR_QUEUE_SIZE_PER_THREAD = 16;
+    /**
+     * The maximum number of {@link EnhancementJob}s processed concurrently
+     * for a single {@link Chain}. Requests exceeding this limit wait until
+     * a running job completes. They are rejected if this does not happen
+     * within the {@link #MAX_ENHANCEMENT_JOB_WAIT_TIME}.
+     * Values <code>&lt;= 0</code> deactivate this limit.
+     */
+    public static final String MAX_CONCURRENT_JOBS_PER_CHAIN = "stanbol.enhancer.jobmanager.maxConcurrentJobsPerChain";
+    /**
+     * By default the number of concurrent jobs is not limited
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_JOBS_PER_CHAIN = 0;
     
     @Reference
     protected ChainManager chainManager;
@@ -101,27 +149,62 @@ public class EventJobManagerImpl implements EnhancementJobManager {
     private ServiceRegistration jobHandlerRegistration;
     private EnhancementJobHandler jobHandler;
     private int maxEnhancementJobWaitTime = DEFAULT_MAX_ENHANCEMENT_JOB_WAIT_TIME;
+    /**
+     * The executor used for the execution of engines or <code>null</code>
+     * if the {@link EventAdmin} is used.
+     */
+    private ThreadPoolExecutor engineExecutor;
+    private int maxConcurrentJobsPerChain = DEFAULT_MAX_CONCURRENT_JOBS_PER_CHAIN;
+    /**
+     * Permits for the concurrent enhancement jobs per Chain (only used
+     * if {@link #maxConcurrentJobsPerChain} &gt; 0)
+     */
+    private final ConcurrentMap<String,Semaphore> chainPermits = 
+            new ConcurrentHashMap<String,Semaphore>();
     
     
     /**
      * Instantiates and registers the {@link EnhancementJobHandler} as
      * {@link EventHandler} for the topic 
-     * {@link org.apache.stanbol.enhancer.jobmanager.event.Constants#TOPIC_JOB_MANAGER}
+     * {@link org.apache.stanbol.enhancer.jobmanager.event.Constants#TOPIC_JOB_MANAGER}.
+     * If {@link #EXECUTOR_THREADS} is configured the handler uses its own
+     * executor and is not registered as {@link EventHandler}.
      * @param ctx
      */
     @Activate
-    protected void activate(ComponentContext ctx){
+    protected void activate(ComponentContext ctx) throws ConfigurationException {
         log.info("activate {}",getClass().getName());
-        jobHandler = new EnhancementJobHandler(eventAdmin,engineManager);
-        Dictionary<String,Object> properties = new Hashtable<String,Object>();
-        properties.put(org.osgi.service.event.EventConstants.EVENT_TOPIC, TOPIC_JOB_MANAGER);
-        jobHandlerRegistration = ctx.getBundleContext().registerService(
-            EventHandler.class.getName(), jobHandler, properties);
-        
         Object maxWaitTime = ctx.getProperties().get(MAX_ENHANCEMENT_JOB_WAIT_TIME);
         if (maxWaitTime instanceof Integer) {
             this.maxEnhancementJobWaitTime = (Integer) maxWaitTime;
         }
+        int executorThreads = getIntProperty(ctx.getProperties(), 
+            EXECUTOR_THREADS, DEFAULT_EXECUTOR_THREADS);
+        maxConcurrentJobsPerChain = getIntProperty(ctx.getProperties(), 
+            MAX_CONCURRENT_JOBS_PER_CHAIN, DEFAULT_MAX_CONCURRENT_JOBS_PER_CHAIN);
+        if(executorThreads > 0){
+            log.info(" ... use Executor with {} threads to execute EnhancementEngines",executorThreads);
+            //NOTE: the queue is bounded. Executions rejected because the
+            //      queue is full are processed by the thread that schedules
+            //      them or - for asynchronous requests - queued until an
+            //      executor thread becomes available
+            //      (see EnhancementJobHandler#register(..))
+            engineExecutor = new ThreadPoolExecutor(executorThreads, executorThreads, 
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(
+                    executorThreads * EXECUTOR_QUEUE_SIZE_PER_THREAD),
+                new NamedDaemonThreadFactory("Enhancement Engine Executor"));
+            jobHandler = new EnhancementJobHandler(eventAdmin,engineManager,engineExecutor);
+        } else {
+            log.info(" ... use EventAdmin to execute EnhancementEngines");
+            jobHandler = new EnhancementJobHandler(eventAdmin,engineManager);
+            Dictionary<String,Object> properties = new Hashtable<String,Object>();
+            properties.put(org.osgi.service.event.EventConstants.EVENT_TOPIC, TOPIC_JOB_MANAGER);
+            jobHandlerRegistration = ctx.getBundleContext().registerService(
+                EventHandler.class.getName(), jobHandler, properties);
+        }
+        if(maxConcurrentJobsPerChain > 0){
+            log.info(" ... process a maximum of {} concurrent jobs per Chain", maxConcurrentJobsPerChain);
+        }
     }
     /**
      * Unregisters the {@link EnhancementJobHandler}
@@ -135,9 +218,92 @@ public class EventJobManagerImpl implements EnhancementJobManager {
         this.jobHandler = null;
         //and than close the instance to ensure that running jobs are shut down
         //correctly
+        jobHandler.logStatistics(log);
         jobHandler.close();
-        jobHandlerRegistration.unregister();
-        jobHandlerRegistration = null;
+        if(jobHandlerRegistration != null){
+            jobHandlerRegistration.unregister();
+            jobHandlerRegistration = null;
+        }
+        if(engineExecutor != null){
+            engineExecutor.shutdownNow();
+            engineExecutor = null;
+        }
+        chainPermits.clear();
+    }
+    
+    /**
+     * Parses an integer value from the parsed configuration
+     */
+    private static int getIntProperty(Dictionary<?,?> properties, String key, 
+            int defaultValue) throws ConfigurationException {
+        Object value = properties.get(key);
+        if(value instanceof Number){
+            return ((Number)value).intValue();
+        } else if(value != null && !value.toString().trim().isEmpty()){
+            try {
+                return Integer.parseInt(value.toString().trim());
+            } catch (NumberFormatException e) {
+                throw new ConfigurationException(key, "Unable to parse integer value from '"
+                    + value + "'!", e);
+            }
+        } else {
+            return defaultValue;
+        }
+    }
+    
+    /**
+     * Acquires a permit for processing an enhancement job with the parsed
+     * chain. If the maximum number of concurrent jobs for the chain is
+     * reached this waits up to the {@link #maxEnhancementJobWaitTime} for
+     * a running job to complete.
+     * @param chain the chain
+     * @param wait if <code>false</code> this does not wait for a running job
+     * to complete but fails immediately
+     * @return the semaphore the permit was acquired from or <code>null</code>
+     * if the number of concurrent jobs is not limited
+     * @throws ChainException if no permit becomes available within the
+     * {@link #maxEnhancementJobWaitTime} or if interrupted while waiting.
+     */
+    private Semaphore acquireChainPermit(Chain chain, boolean wait) throws ChainException {
+        if(maxConcurrentJobsPerChain <= 0){
+            return null;
+        }
+        Semaphore permits = chainPermits.get(chain.getName());
+        if(permits == null){
+            permits = new Semaphore(maxConcurrentJobsPerChain);
+            Semaphore current = chainPermits.putIfAbsent(chain.getName(), permits);
+            if(current != null){
+                permits = current;
+            }
+        }
+        if(!wait){
+            if(!permits.tryAcquire()){
+                throw new ChainException("Unable to enhance ContentItem with Chain '"
+                    + chain.getName() + "' because this Chain is currently processing "
+                    + "the maximum of " + maxConcurrentJobsPerChain + " concurrent "
+                    + "Enhancement Jobs (configured by property '" + MAX_CONCURRENT_JOBS_PER_CHAIN
+                    + "' for the service "+getClass()+")");
+            }
+            return permits;
+        }
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(Math.max(MIN_ENHANCEMENT_JOB_WAIT_TIME, 
+                maxEnhancementJobWaitTime), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ChainException("Interrupted while waiting to enhance a "
+                + "ContentItem with Chain '" + chain.getName() + "'", e);
+        }
+        if(!acquired){
+            throw new ChainException("Unable to enhance ContentItem with Chain '"
+                + chain.getName() + "' because this Chain was processing "
+                + "the maximum of " + maxConcurrentJobsPerChain + " concurrent "
+                + "Enhancement Jobs for more than " + maxEnhancementJobWaitTime
+                + "ms (configured by property '" + MAX_CONCURRENT_JOBS_PER_CHAIN
+                + "' for the service "+getClass()+")");
+        }
+        return permits;
     }
     
     @Override
@@ -153,6 +319,34 @@ public class EventJobManagerImpl implements EnhancementJobManager {
 
     @Override
     public void enhanceContent(ContentItem ci, Chain chain) throws EnhancementException {
+        //the timeout is managed by the EnhancementJobTracker so we can just wait
+        enhance(ci, chain, null, false).await();
+    }
+
+    @Override
+    public Future<ContentItem> enhanceContentAsync(ContentItem ci, Chain chain,
+            EnhancementCallback callback) throws EnhancementException {
+        return enhance(ci, chain, callback, true);
+    }
+    /**
+     * Starts the enhancement of the parsed content item with the parsed
+     * chain. The returned future is completed by the thread that finishes
+     * the {@link EnhancementJob} or by the {@link EnhancementJobTracker} if the
+     * job does not complete within the {@link #maxEnhancementJobWaitTime}.
+     * @param ci the content item
+     * @param chain the chain
+     * @param callback the callback or <code>null</code> if none
+     * @param async if <code>true</code> the calling thread is never blocked.
+     * If no permit for the chain is available the returned future fails and
+     * engine executions rejected by the saturated executor are queued.
+     * Otherwise the calling thread waits for a permit and processes rejected
+     * engine executions itself.
+     * @return the completion handle for the enhancement job
+     * @throws EnhancementException if the execution plan of the chain is
+     * not available
+     */
+    private EnhancementJobFuture enhance(ContentItem ci, Chain chain,
+            EnhancementCallback callback, boolean async) throws EnhancementException {
         if(ci == null) {
             throw new IllegalArgumentException("The parsed contentItem MUST NOT be NULL!");
         }
@@ -160,29 +354,96 @@ public class EventJobManagerImpl implements EnhancementJobManager {
             throw new IllegalArgumentException("Unable to enhance ContentItem '"+ci.getUri()+
                 "' because NULL was passed as enhancement chain");
         }
-        long start = System.currentTimeMillis();
+        EnhancementJobHandler jobHandler = this.jobHandler;
+        if(jobHandler == null){
+            throw new ChainException("Unable to enhance ContentItem '"+ci.getUri()+
+                "' because the EnhancementJobManager is deactivated");
+        }
+        final long start = System.currentTimeMillis();
         enhancementJobManagerLog.debug(">> enhance {} with chain {}", ci.getUri(), chain.getName());
         boolean isDefaultChain = chain.equals(chainManager.getDefault());
-        EnhancementJob job = new EnhancementJob(ci, chain.getName(), chain.getExecutionPlan(),isDefaultChain);
+        final EnhancementJob job = new EnhancementJob(ci, chain.getName(), chain.getExecutionPlan(),isDefaultChain);
+        final EnhancementJobFuture future = new EnhancementJobFuture(ci, callback);
+        final Semaphore chainPermit;
+        try {
+            chainPermit = acquireChainPermit(chain, !async);
+        } catch (ChainException e) {
+            future.failed(e);
+            return future;
+        }
+        //the permit is released when the job completes. A timed out job may
+        //still be running and keeps its permit until it finishes
+        final AtomicBoolean permitReleased = new AtomicBoolean(chainPermit == null);
+        EnhancementJobListener listener = new EnhancementJobListener() {
+            @Override
+            public void finished(EnhancementJob finishedJob) {
+                releasePermit(chainPermit, permitReleased);
+                try {
+                    processResult(finishedJob, start);
+                    future.completed();
+                } catch (EnhancementException e) {
+                    future.failed(e);
+                } catch (RuntimeException e) {
+                    future.failed(e);
+                }
+            }
+            
+            @Override
+            public void timedOut(EnhancementJob timedOutJob) {
+                future.failed(createTimeoutException(timedOutJob, start));
+            }
+        };
         //start the execution
-        //wait for the results
-        EnhancementJobObserver observer = jobHandler.register(job);
-        //now wait for the execution to finish for the configured maximum time
-        boolean completed = observer.waitForCompletion(maxEnhancementJobWaitTime);
-        if(!completed){ //throw timeout exception
-            StringBuilder sb = new StringBuilder("Status:\n");
-            ExecutionMetadata em = ExecutionMetadata.parseFrom(job.getExecutionMetadata(), ci.getUri());
-            for(Entry<String,Execution> ex : em.getEngineExecutions().entrySet()){
-                sb.append("  -").append(ex.getKey()).append(": ").append(ex.getValue().getStatus()).append('\n');
+        boolean registered = false;
+        try {
+            registered = jobHandler.register(job, listener, 
+                Math.max(MIN_ENHANCEMENT_JOB_WAIT_TIME, maxEnhancementJobWaitTime),
+                !async) != null;
+        } finally {
+            if(!registered){ //job handler was closed in the meantime
+                releasePermit(chainPermit, permitReleased);
             }
-            throw new ChainException("Execution timeout after "
-                    +((System.currentTimeMillis()-start)/1000f)+"sec (timeout:"+(maxEnhancementJobWaitTime/1000)
-                + "sec) for ContentItem "+ci.getUri()+"\n"+sb.toString()
-                + " \n To change the timeout change value of property '"+
-                    MAX_ENHANCEMENT_JOB_WAIT_TIME+"' for the service "+getClass());
         }
+        if(!registered){
+            future.failed(new ChainException("Unable to enhance ContentItem '"
+                + ci.getUri() + "' because the EnhancementJobManager was deactivated"));
+        }
+        return future;
+    }
+    /**
+     * Releases the parsed chain permit if it was not yet released
+     */
+    private static void releasePermit(Semaphore chainPermit, AtomicBoolean released){
+        if(released.compareAndSet(false, true)){
+            chainPermit.release();
+        }
+    }
+    /**
+     * Creates the exception for enhancement jobs that did not complete
+     * within the {@link #maxEnhancementJobWaitTime}
+     */
+    private ChainException createTimeoutException(EnhancementJob job, long start) {
+        ContentItem ci = job.getContentItem();
+        StringBuilder sb = new StringBuilder("Status:\n");
+        ExecutionMetadata em = ExecutionMetadata.parseFrom(job.getExecutionMetadata(), ci.getUri());
+        for(Entry<String,Execution> ex : em.getEngineExecutions().entrySet()){
+            sb.append("  -").append(ex.getKey()).append(": ").append(ex.getValue().getStatus()).append('\n');
+        }
+        return new ChainException("Execution timeout after "
+                +((System.currentTimeMillis()-start)/1000f)+"sec (timeout:"+(maxEnhancementJobWaitTime/1000)
+            + "sec) for ContentItem "+ci.getUri()+"\n"+sb.toString()
+            + " \n To change the timeout change value of property '"+
+                MAX_ENHANCEMENT_JOB_WAIT_TIME+"' for the service "+getClass());
+    }
+    /**
+     * Processes the results of a no longer running {@link EnhancementJob}
+     * @param job the job
+     * @param start the start time of the job
+     * @throws EnhancementException if the job has failed or was not finished
+     */
+    private void processResult(EnhancementJob job, long start) throws EnhancementException {
         log.info("Execution of Chain {} {} after {}ms for ContentItem {}",
-            new Object[]{ chain.getName(), job.isFailed() ? "failed" : "finished",
+            new Object[]{ job.getChainName(), job.isFailed() ? "failed" : "finished",
                     System.currentTimeMillis()-start,
                     job.getContentItem().getUri()});
         //NOTE: ExecutionMetadata are not added to the metadata of the ContentItem
@@ -281,5 +542,24 @@ public class EventJobManagerImpl implements EnhancementJobManager {
         return ExecutionPlanHelper.getActiveEngines(engineManager,ep);
     }
 
+    /**
+     * Creates named daemon threads
+     */
+    private static final class NamedDaemonThreadFactory implements ThreadFactory {
+        
+        private final String name;
+        private final AtomicInteger count = new AtomicInteger();
+        
+        NamedDaemonThreadFactory(String name){
+            this.name = name;
+        }
+        
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
 
 }
@@ -0,0 +1,134 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jobmanager.event.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry for the jobs currently processed by the {@link EnhancementJobHandler}.
+ * <p>
+ * Backed by a {@link ConcurrentHashMap} so that registering and removing 
+ * jobs only locks a single stripe of the map (and reads do not lock at all).
+ * This replaces the global write lock previously used for every job start and
+ * end.<p>
+ * After {@link #close()} no more jobs can be registered. Registrations that
+ * race with {@link #close()} are detected and reverted, so every registered
+ * job is either returned by {@link #close()} or can be removed by 
+ * {@link #remove(Object)}.
+ *
+ * @param <J> the type of the jobs
+ * @param <O> the type of the values (observers) stored for the jobs
+ */
+public class ProcessingJobRegistry<J,O> {
+
+    /**
+     * The default number of stripes
+     */
+    public static final int DEFAULT_CONCURRENCY_LEVEL = 64;
+    
+    private final ConcurrentMap<J,O> jobs;
+    private volatile boolean closed = false;
+    
+    public ProcessingJobRegistry() {
+        this(DEFAULT_CONCURRENCY_LEVEL);
+    }
+    /**
+     * @param concurrencyLevel the estimated number of threads concurrently
+     * registering or removing jobs
+     */
+    public ProcessingJobRegistry(int concurrencyLevel) {
+        jobs = new ConcurrentHashMap<J,O>(16, 0.75f, concurrencyLevel);
+    }
+    
+    /**
+     * Registers the parsed job
+     * @param job the job
+     * @param observer the observer for the job
+     * @return the observer registered for the job. If the job was already
+     * registered this is the observer of the existing registration. 
+     * <code>null</code> if this registry is closed.
+     */
+    public O register(J job, O observer){
+        if(job == null || observer == null){
+            throw new IllegalArgumentException("The parsed job and observer MUST NOT be NULL!");
+        }
+        if(closed){
+            return null;
+        }
+        O current = jobs.putIfAbsent(job, observer);
+        if(current != null){
+            return current;
+        }
+        //if close() was called concurrently it might have missed this job
+        if(closed && jobs.remove(job, observer)){
+            return null;
+        }
+        return observer;
+    }
+    /**
+     * Getter for the observer of a registered job
+     * @param job the job
+     * @return the observer or <code>null</code> if not registered
+     */
+    public O get(J job){
+        return jobs.get(job);
+    }
+    /**
+     * Removes the parsed job
+     * @param job the job
+     * @return the observer of the removed job or <code>null</code> if the
+     * parsed job was not registered (or the registry was already closed)
+     */
+    public O remove(J job){
+        return jobs.remove(job);
+    }
+    /**
+     * Closes the registry and removes all registered jobs
+     * @return the observers of the removed jobs
+     */
+    public Collection<O> close(){
+        closed = true;
+        Collection<O> observers = new ArrayList<O>(jobs.size());
+        for(J job : jobs.keySet()){
+            O observer = jobs.remove(job);
+            if(observer != null){
+                observers.add(observer);
+            }
+        }
+        return observers;
+    }
+    
+    public boolean isClosed() {
+        return closed;
+    }
+    /**
+     * @return the number of registered jobs
+     */
+    public int size(){
+        return jobs.size();
+    }
+    /**
+     * @return a read-only snapshot of the currently registered jobs
+     */
+    public Collection<J> getJobs(){
+        return Collections.unmodifiableCollection(new ArrayList<J>(jobs.keySet()));
+    }
+}
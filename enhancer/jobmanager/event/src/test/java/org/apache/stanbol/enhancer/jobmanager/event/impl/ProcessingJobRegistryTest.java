@@ -0,0 +1,282 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jobmanager.event.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class ProcessingJobRegistryTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ProcessingJobRegistryTest.class);
+    
+    private static final int[] THREADS = new int[]{1,2,4,8,16,32,64};
+    private static final int OPERATIONS = 200000;
+    
+    @Test
+    public void testRegisterAndRemove(){
+        ProcessingJobRegistry<Object,Object> registry = new ProcessingJobRegistry<Object,Object>();
+        Object job = new Object();
+        Object observer = new Object();
+        assertSame(observer, registry.register(job, observer));
+        //a 2nd registration returns the current observer
+        assertSame(observer, registry.register(job, new Object()));
+        assertEquals(1, registry.size());
+        assertSame(observer, registry.get(job));
+        assertSame(observer, registry.remove(job));
+        assertNull(registry.remove(job));
+        assertEquals(0, registry.size());
+    }
+    
+    @Test
+    public void testClose(){
+        ProcessingJobRegistry<Object,Object> registry = new ProcessingJobRegistry<Object,Object>();
+        Object observer = new Object();
+        registry.register(new Object(), observer);
+        Collection<Object> observers = registry.close();
+        assertEquals(1, observers.size());
+        assertTrue(observers.contains(observer));
+        assertTrue(registry.isClosed());
+        assertEquals(0, registry.size());
+        //no registrations after close
+        assertNull(registry.register(new Object(), new Object()));
+    }
+    
+    /**
+     * Ensures that jobs registered concurrently to {@link ProcessingJobRegistry#close()}
+     * are either returned by close or rejected
+     */
+    @Test
+    public void testConcurrentClose() throws Exception {
+        for(int i = 0; i < 100; i++){
+            final ProcessingJobRegistry<Object,Object> registry = new ProcessingJobRegistry<Object,Object>();
+            final AtomicLong registered = new AtomicLong();
+            final CountDownLatch started = new CountDownLatch(1);
+            Thread t = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    started.countDown();
+                    for(int j = 0; j < 1000; j++){
+                        if(registry.register(new Object(), new Object()) != null){
+                            registered.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            t.start();
+            started.await();
+            Collection<Object> closed = registry.close();
+            t.join();
+            assertEquals(registered.get(), closed.size());
+        }
+    }
+    
+    /**
+     * Concurrently registers and removes jobs and checks that every
+     * registration and removal is visible
+     */
+    @Test
+    public void testConcurrentRegisterAndRemove() throws Exception {
+        final ProcessingJobRegistry<Object,Object> registry = new ProcessingJobRegistry<Object,Object>();
+        final int threads = 8;
+        final int jobs = 1000;
+        final List<List<Object>> threadJobs = new ArrayList<List<Object>>(threads);
+        for(int i = 0; i < threads; i++){
+            List<Object> list = new ArrayList<Object>(jobs);
+            for(int j = 0; j < jobs; j++){
+                list.add(new Object());
+            }
+            threadJobs.add(list);
+        }
+        final AtomicLong failed = new AtomicLong();
+        //(1) register
+        runConcurrently(threads, new JobOperation() {
+            @Override
+            public void run(int thread) {
+                for(Object job : threadJobs.get(thread)){
+                    if(registry.register(job, threadJobs.get(thread)) != threadJobs.get(thread)){
+                        failed.incrementAndGet();
+                    }
+                }
+            }
+        });
+        assertEquals(0, failed.get());
+        assertEquals(threads * jobs, registry.size());
+        for(List<Object> list : threadJobs){
+            for(Object job : list){
+                assertSame(list, registry.get(job));
+            }
+        }
+        //(2) remove
+        runConcurrently(threads, new JobOperation() {
+            @Override
+            public void run(int thread) {
+                for(Object job : threadJobs.get(thread)){
+                    if(registry.remove(job) != threadJobs.get(thread)){
+                        failed.incrementAndGet();
+                    }
+                }
+            }
+        });
+        assertEquals(0, failed.get());
+        assertEquals(0, registry.size());
+    }
+    
+    private interface JobOperation {
+        void run(int thread);
+    }
+    
+    private static void runConcurrently(int threads, final JobOperation operation) throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> started = new ArrayList<Thread>(threads);
+        for(int i = 0; i < threads; i++){
+            final int thread = i;
+            Thread t = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    operation.run(thread);
+                }
+            });
+            t.start();
+            started.add(t);
+        }
+        start.countDown();
+        for(Thread t : started){
+            t.join();
+        }
+    }
+    
+    /**
+     * Compares the register/remove throughput of the {@link ProcessingJobRegistry}
+     * with the global {@link ReadWriteLock} over a {@link LinkedHashMap} 
+     * previously used by the {@link EnhancementJobHandler}.<p>
+     * This is a benchmark without assertions. Remove the {@link Ignore}
+     * annotation to run it manually.
+     */
+    @Test
+    @Ignore
+    public void testPerformance() throws Exception {
+        log.info("Register/Finish Throughput Test ({} operations per thread)",OPERATIONS);
+        for(int threads : THREADS){
+            long locked = run(new LockedRegistry(), threads);
+            long concurrent = run(new ConcurrentRegistry(), threads);
+            log.info("  {} threads: LinkedHashMap+ReadWriteLock {} ops/ms | ProcessingJobRegistry {} ops/ms",
+                new Object[]{threads, locked, concurrent});
+        }
+    }
+    /**
+     * Runs {@link #OPERATIONS} register and remove operations in every thread
+     * @return the throughput in operations per millisecond
+     */
+    private long run(final Registry registry, int threads) throws InterruptedException{
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+        for(int i = 0; i < threads; i++){
+            Thread t = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    Object observer = new Object();
+                    for(int j = 0; j < OPERATIONS; j++){
+                        Object job = new Object();
+                        registry.register(job, observer);
+                        registry.remove(job);
+                    }
+                    done.countDown();
+                }
+            });
+            t.setDaemon(true);
+            t.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long duration = Math.max(1, (System.nanoTime() - begin)/1000000);
+        return threads * (long)OPERATIONS * 2 / duration;
+    }
+    
+    private interface Registry {
+        void register(Object job, Object observer);
+        void remove(Object job);
+    }
+    
+    private static class ConcurrentRegistry implements Registry {
+        private final ProcessingJobRegistry<Object,Object> registry = 
+                new ProcessingJobRegistry<Object,Object>();
+        @Override
+        public void register(Object job, Object observer) {
+            registry.register(job, observer);
+        }
+        @Override
+        public void remove(Object job) {
+            registry.remove(job);
+        }
+    }
+    /**
+     * The implementation used by the {@link EnhancementJobHandler} before
+     * the {@link ProcessingJobRegistry} was introduced
+     */
+    private static class LockedRegistry implements Registry {
+        private final Map<Object,Object> map = new LinkedHashMap<Object,Object>();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        @Override
+        public void register(Object job, Object observer) {
+            lock.writeLock().lock();
+            try {
+                if(map.get(job) == null){
+                    map.put(job, observer);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        @Override
+        public void remove(Object job) {
+            lock.writeLock().lock();
+            try {
+                map.remove(job);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
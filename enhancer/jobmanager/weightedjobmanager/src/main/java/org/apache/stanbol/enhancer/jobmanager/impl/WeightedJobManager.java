@@ -23,15 +23,18 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Future;
 
+import org.apache.stanbol.enhancer.servicesapi.AsyncEnhancementJobManager;
 import org.apache.stanbol.enhancer.servicesapi.Chain;
 import org.apache.stanbol.enhancer.servicesapi.ContentItem;
 import org.apache.stanbol.enhancer.servicesapi.EngineException;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementCallback;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementException;
-import org.apache.stanbol.enhancer.servicesapi.EnhancementJobManager;
 import org.apache.stanbol.enhancer.servicesapi.ServiceProperties;
 import org.apache.stanbol.enhancer.servicesapi.helper.EnhancementEngineHelper;
+import org.apache.stanbol.enhancer.servicesapi.helper.EnhancementJobFuture;
 import org.osgi.framework.Constants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,7 +47,8 @@ import org.slf4j.LoggerFactory;
  * @deprecated Deprecated as it does not support Enhancement Chains. Use the 
  * EventJobmanager instead.
  * @scr.component immediate="true"
- * @scr.service
+ * @scr.service interface="org.apache.stanbol.enhancer.servicesapi.EnhancementJobManager"
+ * @scr.service interface="org.apache.stanbol.enhancer.servicesapi.AsyncEnhancementJobManager"
  * @scr.reference name="EnhancementEngine"
  *                interface="org.apache.stanbol.enhancer.servicesapi.EnhancementEngine"
  *                cardinality="0..n" policy="dynamic"
@@ -53,7 +57,7 @@ import org.slf4j.LoggerFactory;
  *               type="Integer"
  */
 @Deprecated
-public class WeightedJobManager implements EnhancementJobManager {
+public class WeightedJobManager implements AsyncEnhancementJobManager {
     private static final Logger log = LoggerFactory.getLogger(WeightedJobManager.class);
     // handle thread safety efficiently when traversals (e.g. when calling
     // #enhanceContent) are expected to be much more frequent than mutable
@@ -103,6 +107,26 @@ public class WeightedJobManager implements EnhancementJobManager {
 		//This implementation don't take "chain" in account.
     	enhanceContent(ci);
 	}
+
+    /**
+     * This implementation does not support asynchronous processing. The
+     * parsed content item is enhanced by the calling thread and the returned
+     * {@link Future} is already completed.
+     */
+    @Override
+    public Future<ContentItem> enhanceContentAsync(ContentItem ci, Chain chain,
+            EnhancementCallback callback) {
+        EnhancementJobFuture future = new EnhancementJobFuture(ci, callback);
+        try {
+            enhanceContent(ci, chain);
+            future.completed();
+        } catch (EngineException e) {
+            future.failed(e);
+        } catch (RuntimeException e) {
+            future.failed(e);
+        }
+        return future;
+    }
     
     public void bindEnhancementEngine(EnhancementEngine e) {
         synchronized (sortedEngineList) {
@@ -62,9 +62,20 @@ import org.slf4j.LoggerFactory;
 @Properties(
 value = {
     @Property(name = Cache.CACHE_YARD), 
-    @Property(name = Cache.ADDITIONAL_MAPPINGS, cardinality = Integer.MAX_VALUE)})
+    @Property(name = Cache.ADDITIONAL_MAPPINGS, cardinality = Integer.MAX_VALUE),
+    @Property(name = CacheComponent.HOT_CACHE_SIZE, intValue = CacheComponent.DEFAULT_HOT_CACHE_SIZE)})
 public class CacheComponent {
 
+    /**
+     * The maximum number of Representations held in memory in front of the
+     * Yard used by the Cache. Values &lt;= 0 deactivate the in-memory tier.
+     */
+    public static final String HOT_CACHE_SIZE = "org.apache.stanbol.entityhub.yard.cache.hotCacheSize";
+    /**
+     * The default size of the in-memory tier
+     */
+    public static final int DEFAULT_HOT_CACHE_SIZE = 10000;
+
     private final Logger log = LoggerFactory.getLogger(CacheComponent.class);
     
     private ServiceTracker yardTracker;
@@ -74,6 +85,7 @@ public class CacheComponent {
     private ServiceRegistration cacheRegistration;
     private Cache cache;
     private String[] additionalMappings;
+    private int hotCacheSize;
 
     @Reference(cardinality = ReferenceCardinality.OPTIONAL_UNARY,
             policy = ReferencePolicy.DYNAMIC,
@@ -117,6 +129,19 @@ public class CacheComponent {
         } else {
             additionalMappings = null;
         }
+        value = context.getProperties().get(HOT_CACHE_SIZE);
+        if(value instanceof Number){
+            hotCacheSize = ((Number)value).intValue();
+        } else if(value != null && !value.toString().isEmpty()){
+            try {
+                hotCacheSize = Integer.parseInt(value.toString());
+            } catch (NumberFormatException e) {
+                throw new ConfigurationException(HOT_CACHE_SIZE, 
+                    "The size of the in-memory cache MUST BE an integer!",e);
+            }
+        } else {
+            hotCacheSize = DEFAULT_HOT_CACHE_SIZE;
+        }
         String yardId = OsgiUtils.checkProperty(context.getProperties(), Cache.CACHE_YARD).toString();
         String cacheFilter = String.format("(&(%s=%s)(%s=%s))", Constants.OBJECTCLASS, Yard.class.getName(), Yard.ID, yardId);
         yardTracker = new ServiceTracker(context.getBundleContext(), context.getBundleContext().createFilter(cacheFilter), 
@@ -183,7 +208,7 @@ public class CacheComponent {
         }
         if(cc != null && yard != null){
             try {
-                cache = new CacheImpl(yard,additionalMappings, nsPrefixService);
+                cache = new CacheImpl(yard,additionalMappings, nsPrefixService, hotCacheSize);
             } catch (YardException e) {
                 log.warn("Unable to init Cache for Yard '"+yard.getId()+"'!",e);
             }
@@ -20,9 +20,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 
 import org.apache.stanbol.commons.namespaceprefix.NamespacePrefixService;
 import org.apache.stanbol.entityhub.core.mapping.DefaultFieldMapperImpl;
@@ -217,6 +221,21 @@ public final class EntityhubImpl implements Entityhub {//, ServiceListener {
         }
     }
     @Override
+    public final Map<String,Entity> getEntities(Collection<String> entityIds) throws IllegalArgumentException, YardException {
+        if(entityIds == null){
+            throw new IllegalArgumentException("The parsed Collection of ids MUST NOT be NULL!");
+        }
+        Map<String,Entity> entities = loadEntities(entityIds);
+        for(Iterator<Entity> it = entities.values().iterator(); it.hasNext();){
+            Entity entity = it.next();
+            if(!ManagedEntity.canWrap(entity)){
+                log.info("The parsed id does not represent a locally managed Entity {}", entity);
+                it.remove();
+            }
+        }
+        return entities;
+    }
+    @Override
     public final boolean isRepresentation(String entityId) throws EntityhubException, IllegalArgumentException {
         if(entityId == null || entityId.isEmpty()){
             throw new IllegalArgumentException("The parsed id MUST NOT be NULL nor empty!");
@@ -537,6 +556,62 @@ public final class EntityhubImpl implements Entityhub {//, ServiceListener {
         return id == null || id.isEmpty() ? null :
             loadEntity(entityhubYard.getRepresentation(id));
     }
+    /**
+     * Loads the Entities with the parsed ids. This does the same as
+     * {@link #loadEntity(Representation)} for all Representations found for the
+     * parsed ids, but uses a single {@link Yard#getRepresentations(Collection)}
+     * multi-get for the representations, the data of parsed metadata and the
+     * metadata. 
+     * @param ids the ids of the representations or metadata of entities
+     * @return the loaded Entities by the parsed id
+     * @throws YardException On any error with the parsed Yard.
+     */
+    private Map<String,Entity> loadEntities(Collection<String> ids) throws YardException {
+        Set<String> validIds = new HashSet<String>(ids.size());
+        for(String id : ids){
+            if(id != null && !id.isEmpty()){
+                validIds.add(id);
+            }
+        }
+        if(validIds.isEmpty()){
+            return new HashMap<String,Entity>();
+        }
+        Map<String,Representation> reps = entityhubYard.getRepresentations(validIds);
+        //the data for parsed metadata
+        Map<String,String> dataIds = new HashMap<String,String>();
+        Set<String> metadataIds = new HashSet<String>(reps.size());
+        for(Entry<String,Representation> entry : reps.entrySet()){
+            String entityId = ModelUtils.getAboutRepresentation(entry.getValue());
+            if(entityId != null){
+                dataIds.put(entry.getKey(), entityId);
+            }
+            //TODO: check the asumption that the Metadata always use the
+            //      extension ".meta" (see #lookupMetadata(..))
+            metadataIds.add(entry.getValue().getId()+".meta");
+        }
+        Map<String,Representation> data = dataIds.isEmpty() ? 
+                new HashMap<String,Representation>() :
+                    entityhubYard.getRepresentations(new HashSet<String>(dataIds.values()));
+        Map<String,Representation> metadata = entityhubYard.getRepresentations(metadataIds);
+        Map<String,Entity> entities = new HashMap<String,Entity>(reps.size());
+        for(Entry<String,Representation> entry : reps.entrySet()){
+            Representation rep = entry.getValue();
+            String entityId = dataIds.get(entry.getKey());
+            Representation dataRep = entityId == null ? rep : data.get(entityId);
+            if(dataRep != null){
+                String metaId = rep.getId()+".meta";
+                Representation metaRep = metadata.get(metaId);
+                if(metaRep == null){
+                    metaRep = entityhubYard.create(metaId);
+                }
+                entities.put(entry.getKey(), new EntityImpl(config.getID(), dataRep, metaRep));
+            } else {
+                log.warn("Unable find representation for Entity {} (metadata: {}",
+                    entityId,rep);
+            }
+        }
+        return entities;
+    }
     /**
      * Loads the Entity based on the parsed representation. The parsed
      * {@link Representation} can be both the data and the metadata. In case the
@@ -26,6 +26,11 @@ import static org.apache.stanbol.entityhub.servicesapi.site.Site.PROHIBITED_SITE
 import static org.apache.stanbol.entityhub.servicesapi.site.SiteConfiguration.DEFAULT_SYMBOL_STATE;
 import static org.apache.stanbol.entityhub.servicesapi.site.SiteConfiguration.SITE_FIELD_MAPPINGS;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.ConfigurationPolicy;
@@ -142,6 +147,11 @@ import org.slf4j.LoggerFactory;
 public class ReferencedSiteComponent {
     
     private static final Logger log = LoggerFactory.getLogger(ReferencedSiteComponent.class);
+    /**
+     * The maximum number of parallel requests used to dereference multiple
+     * Entities from the remote site (e.g. for {@link Site#getEntities(java.util.Collection)})
+     */
+    public static final int MAX_PARALLEL_DEREFERENCE_REQUESTS = 4;
 
     private ComponentContext cc;
     private BundleContext bc;
@@ -190,6 +200,11 @@ public class ReferencedSiteComponent {
     private ServiceRegistration referencedSiteRegistration;
     
     private Site referencedSite;
+    /**
+     * Used to dereference multiple Entities in parallel. Only created if an
+     * {@link EntityDereferencer} is configured.
+     */
+    private ExecutorService dereferenceExecutor;
     
     
     protected void bindNamespacePrefixService(NamespacePrefixService ps){
@@ -283,6 +298,21 @@ public class ReferencedSiteComponent {
                 }
             }
         }
+        if(siteConfiguration.getEntityDereferencerType() != null){
+            final String namePrefix = getClass().getSimpleName() + "-" + 
+                    siteConfiguration.getId() + "-dereference-";
+            dereferenceExecutor = Executors.newFixedThreadPool(MAX_PARALLEL_DEREFERENCE_REQUESTS,
+                new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, namePrefix + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        }
         // now init the referenced Services
         initDereferencerAndEntitySearcher();
 
@@ -536,6 +566,10 @@ public class ReferencedSiteComponent {
             referencedSiteRegistration.unregister();
             referencedSiteRegistration = null;
         }
+        if(dereferenceExecutor != null){
+            dereferenceExecutor.shutdown();
+            dereferenceExecutor = null;
+        }
     }
     /**
      * Updates the ServiceRegistration based on the parsed parameters
@@ -596,7 +630,7 @@ public class ReferencedSiteComponent {
                     offlineMode == null && searcherComponentInstance != null ? 
                         (EntitySearcher)searcherComponentInstance.getInstance() :
                             null,
-                    cache, nsPrefixService);
+                    cache, nsPrefixService, dereferenceExecutor);
                 referencedSiteRegistration = bc.registerService(Site.class.getName(), referencedSite, 
                     OsgiUtils.copyConfig(cc.getProperties()));
             } catch (RuntimeException e) {
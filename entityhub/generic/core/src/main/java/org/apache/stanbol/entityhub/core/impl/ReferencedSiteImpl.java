@@ -22,8 +22,17 @@ import static org.apache.stanbol.entityhub.core.utils.SiteUtils.initEntityMetada
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.stanbol.commons.namespaceprefix.NamespacePrefixService;
 import org.apache.stanbol.entityhub.core.mapping.DefaultFieldMapperImpl;
@@ -98,10 +107,23 @@ public class ReferencedSiteImpl implements Site {
      * Stores keys -> values to be added to the metadata of {@link Entity Entities} created by this site.
      */
     private Map<String,Object> siteMetadata;
+    /**
+     * Optional executor used to dereference multiple Entities from the remote
+     * site in parallel. If <code>null</code> Entities are dereferenced
+     * sequentially.
+     */
+    private final ExecutorService executor;
 
     public ReferencedSiteImpl(ReferencedSiteConfiguration config, 
             EntityDereferencer dereferencer, EntitySearcher searcher,
             Cache cache, NamespacePrefixService nsPrefixService) {
+        this(config,dereferencer,searcher,cache,nsPrefixService,null);
+    }
+    
+    public ReferencedSiteImpl(ReferencedSiteConfiguration config, 
+            EntityDereferencer dereferencer, EntitySearcher searcher,
+            Cache cache, NamespacePrefixService nsPrefixService,
+            ExecutorService executor) {
         if(config == null){
             throw new IllegalArgumentException("The parsed SiteConfiguration MUST NOT be NULL!");
         }
@@ -122,6 +144,7 @@ public class ReferencedSiteImpl implements Site {
         this.cache = cache;
         this.dereferencer = dereferencer;
         this.entitySearcher = searcher;
+        this.executor = executor;
         // init the fieldMapper based on the configuration
         fieldMappings = new DefaultFieldMapperImpl(ValueConverterFactory.getDefaultInstance());
         if (siteConfiguration.getFieldMappings() != null) {
@@ -185,18 +208,32 @@ public class ReferencedSiteImpl implements Site {
         List<Entity> entities = new ArrayList<Entity>(numResults);
         int errors = 0;
         SiteException lastError = null;
+        //retrieve all Entities at once
+        Set<String> ids = new LinkedHashSet<String>(numResults);
+        for (String id : entityIds) {
+            ids.add(id);
+        }
+        Map<String,Entity> found;
+        try {
+            found = getEntities(ids);
+        } catch (SiteException e) {
+            log.warn("Unable to get Entities selected by an FieldQuery with a single request. "
+                + "Will try to get them one by one (Reason: "+e.getMessage()+")");
+            found = null;
+        }
         for (String id : entityIds) {
             Entity entity;
             try {
-                entity = getEntity(id);
+                entity = found == null ? getEntity(id) : found.get(id);
                 if (entity == null) {
                     log.warn("Unable to create Entity for ID that was selected by an FieldQuery (id=" + id
                             + ")");
+                } else {
+                    entities.add(entity);
+                    // use the position in the list as resultSocre
+                    entity.getRepresentation().set(RdfResourceEnum.resultScore.getUri(),
+                        Float.valueOf((float) numResults));
                 }
-                entities.add(entity);
-                // use the position in the list as resultSocre
-                entity.getRepresentation().set(RdfResourceEnum.resultScore.getUri(),
-                    Float.valueOf((float) numResults));
             } catch (SiteException e) {
                 lastError = e;
                 errors++;
@@ -365,6 +402,145 @@ public class ReferencedSiteImpl implements Site {
         }
     }
 
+    @Override
+    public Map<String,Entity> getEntities(Collection<String> ids) throws SiteException {
+        if(ids == null){
+            throw new IllegalArgumentException("The parsed Collection of ids MUST NOT be NULL!");
+        }
+        Map<String,Representation> reps = new HashMap<String,Representation>(ids.size());
+        Map<String,Boolean> cachedVersion = new HashMap<String,Boolean>(ids.size());
+        Collection<String> missing = ids;
+        if (cache != null) {
+            try {
+                for(Entry<String,Representation> cached : cache.getRepresentations(ids).entrySet()){
+                    reps.put(cached.getKey(), cached.getValue());
+                    cachedVersion.put(cached.getKey(), Boolean.TRUE);
+                }
+                if(siteConfiguration.getCacheStrategy() == CacheStrategy.all) {
+                    missing = null; // do no remote lookups on CacheStrategy.all!!
+                } else if(!reps.isEmpty()){
+                    missing = new ArrayList<String>(ids.size() - reps.size());
+                    for(String id : ids){
+                        if(!reps.containsKey(id)){
+                            missing.add(id);
+                        }
+                    }
+                }
+            } catch (YardException e) {
+                if (dereferencer == null) {
+                    throw new SiteException(String.format("Unable to get Represetnations %s form Cache %s",
+                        ids, siteConfiguration.getCacheId()), e);
+                } else {
+                    log.warn(
+                        String.format(
+                            "Unable to get Represetnations %s form Cache %s. Will dereference from remote site %s",
+                            ids, siteConfiguration.getCacheId(), siteConfiguration.getAccessUri()), e);
+                }
+            }
+        }
+        if (missing != null && !missing.isEmpty() && dereferencer != null) {
+            Map<String,Representation> dereferenced = dereference(missing);
+            // representations loaded from remote site and cache is available
+            if (!dereferenced.isEmpty() && cache != null) {// -> cache the representations
+                try {
+                    long start = System.currentTimeMillis();
+                    Map<String,Representation> stored = new HashMap<String,Representation>(dereferenced.size());
+                    for(Representation rep : cache.store(new ArrayList<Representation>(dereferenced.values()))){
+                        if(rep != null){
+                            stored.put(rep.getId(), rep);
+                        }
+                    }
+                    // use the the cached versions
+                    for(Entry<String,Representation> entry : dereferenced.entrySet()){
+                        Representation rep = stored.get(entry.getValue().getId());
+                        if(rep != null){
+                            entry.setValue(rep);
+                            cachedVersion.put(entry.getKey(), Boolean.TRUE);
+                        }
+                    }
+                    log.debug("  - cached {} Representations in {} ms", dereferenced.size(),
+                        (System.currentTimeMillis() - start));
+                } catch (YardException e) {
+                    log.warn(String.format(
+                        "Unable to cache Represetnations %s in Cache %s! Representations not cached!",
+                        dereferenced.keySet(), siteConfiguration.getCacheId()), e);
+                }
+            }
+            reps.putAll(dereferenced);
+        }
+        Map<String,Entity> entities = new HashMap<String,Entity>(reps.size());
+        for(Entry<String,Representation> rep : reps.entrySet()){
+            Entity entity = new EntityImpl(getId(), rep.getValue(), null);
+            Boolean cached = cachedVersion.get(rep.getKey());
+            initEntityMetadata(entity, siteMetadata,
+                singletonMap(RdfResourceEnum.isChached.getUri(), 
+                    (Object) (cached == null ? Boolean.FALSE : cached)));
+            entities.put(rep.getKey(), entity);
+        }
+        return entities;
+    }
+    /**
+     * Dereferences the parsed ids using the {@link EntityDereferencer}. If
+     * an {@link #executor} is available and multiple ids are parsed the
+     * requests to the remote site are sent in parallel.
+     * @param ids the ids of the Entities to dereference
+     * @return the dereferenced Representations by id
+     * @throws SiteException if any of the Entities could not be dereferenced
+     */
+    private Map<String,Representation> dereference(Collection<String> ids) throws SiteException {
+        Map<String,Representation> reps = new HashMap<String,Representation>(ids.size());
+        if(executor == null || executor.isShutdown() || ids.size() < 2){
+            for(String id : ids){
+                Representation rep;
+                try {
+                    rep = dereferencer.dereference(id);
+                } catch (IOException e) {
+                    throw new SiteException(String.format(
+                        "Unable to load Representation for entity %s form remote site %s with dereferencer %s",
+                        id, siteConfiguration.getAccessUri(), siteConfiguration.getEntityDereferencerType()), e);
+                }
+                if(rep != null){
+                    reps.put(id, rep);
+                }
+            }
+            return reps;
+        }
+        Map<String,Future<Representation>> futures = new HashMap<String,Future<Representation>>(ids.size());
+        for(final String id : ids){
+            futures.put(id, executor.submit(new Callable<Representation>() {
+                @Override
+                public Representation call() throws IOException {
+                    return dereferencer.dereference(id);
+                }
+            }));
+        }
+        SiteException error = null;
+        for(Entry<String,Future<Representation>> future : futures.entrySet()){
+            String id = future.getKey();
+            try {
+                Representation rep = future.getValue().get();
+                if(rep != null){
+                    reps.put(id, rep);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SiteException("Interrupted while dereferencing Entities "
+                    + "from remote site "+siteConfiguration.getAccessUri(), e);
+            } catch (ExecutionException e) {
+                if(error == null){
+                    error = new SiteException(String.format(
+                        "Unable to load Representation for entity %s form remote site %s with dereferencer %s",
+                        id, siteConfiguration.getAccessUri(), siteConfiguration.getEntityDereferencerType()), 
+                        e.getCause());
+                }
+            }
+        }
+        if(error != null){
+            throw error;
+        }
+        return reps;
+    }
+
     @Override
     public SiteConfiguration getConfiguration() {
         return siteConfiguration;
@@ -24,8 +24,11 @@ import java.util.Collections;
 import java.util.Dictionary;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -432,7 +435,58 @@ public class SiteManagerImpl implements SiteManager {
         log.debug("Entity {} not found on any of the following Sites {}",entityId,sites);
         return null;
     }
-
-
+    @Override
+    public Map<String,Entity> getEntities(Collection<String> references) {
+        Map<String,Entity> entities = new HashMap<String,Entity>();
+        //the Sites not yet asked for an Entity
+        Map<String,Iterator<Site>> pending = new HashMap<String,Iterator<Site>>();
+        for(String entityId : references){
+            if(entityId != null && !pending.containsKey(entityId)){
+                Collection<Site> sites = getSitesByEntityPrefix(entityId);
+                if(sites.isEmpty()){
+                    log.info("No Referenced Site registered for Entity {}",entityId);
+                } else {
+                    pending.put(entityId, sites.iterator());
+                }
+            }
+        }
+        while(!pending.isEmpty()){
+            //group the Entities by the next Site to ask
+            Map<Site,List<String>> requests = new LinkedHashMap<Site,List<String>>();
+            for(Iterator<Entry<String,Iterator<Site>>> it = pending.entrySet().iterator();it.hasNext();){
+                Entry<String,Iterator<Site>> entry = it.next();
+                if(entry.getValue().hasNext()){
+                    Site site = entry.getValue().next();
+                    List<String> ids = requests.get(site);
+                    if(ids == null){
+                        ids = new ArrayList<String>();
+                        requests.put(site, ids);
+                    }
+                    ids.add(entry.getKey());
+                } else {
+                    log.debug("Entity {} not found on any Site",entry.getKey());
+                    it.remove();
+                }
+            }
+            for(Entry<Site,List<String>> request : requests.entrySet()){
+                Site site = request.getKey();
+                try {
+                    Map<String,Entity> found = site.getEntities(request.getValue());
+                    for(Entry<String,Entity> entry : found.entrySet()){
+                        if(entry.getValue() != null && pending.remove(entry.getKey()) != null){
+                            entities.put(entry.getKey(), entry.getValue());
+                        }
+                    }
+                    log.debug("Return {} Representations of Site {} for {} requested Entities",
+                        new Object[]{found.size(),site.getConfiguration().getName(),
+                            request.getValue().size()});
+                } catch (SiteException e) {
+                    log.warn("Unable to access Site "+site.getConfiguration().getName()+
+                        " (id = "+site.getId()+")",e);
+                }
+            }
+        }
+        return entities;
+    }
 
 }
@@ -17,6 +17,11 @@
 package org.apache.stanbol.entityhub.core.site;
 
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.ConfigurationPolicy;
 import org.apache.felix.scr.annotations.Properties;
@@ -55,6 +60,11 @@ public class CacheImpl implements Cache {
     private FieldMapper baseMapper;
     private FieldMapper additionalMapper;
     private final Yard yard;
+    /**
+     * Optional in-memory tier in front of the {@link #yard}. 
+     * <code>null</code> if disabled.
+     */
+    private final HotRepresentationCache hotCache;
 
     /**
      * Constructs a new Cache for the parsed Yard and mappings
@@ -66,10 +76,29 @@ public class CacheImpl implements Cache {
      * throws {@link IllegalArgumentException} if <code>null</code> is parsed as Yard
      */
     public CacheImpl(Yard yard, String[] additionalMappings, NamespacePrefixService nsPrefixService) throws YardException {
+        this(yard, additionalMappings, nsPrefixService, 0);
+    }
+    /**
+     * Constructs a new Cache for the parsed Yard and mappings that holds up
+     * to <code>hotCacheSize</code> Representations in memory
+     * @param yard
+     * @param additionalMappings
+     * @param nsPrefixService
+     * @param hotCacheSize the maximum number of Representations held by the
+     * {@link HotRepresentationCache}. Values &lt;= 0 deactivate the in-memory
+     * tier.
+     * @throws YardException if loading the base mappings from the Yard fails
+     * @throws IllegalStateException when parsing the additional mappings do fail
+     * throws {@link IllegalArgumentException} if <code>null</code> is parsed as Yard
+     */
+    public CacheImpl(Yard yard, String[] additionalMappings, NamespacePrefixService nsPrefixService,
+            int hotCacheSize) throws YardException {
         if(yard == null){
             throw new IllegalArgumentException("The parsed Yard MUST NOT be NULL!");
         }
         this.yard = yard;
+        this.hotCache = hotCacheSize > 0 ? new HotRepresentationCache(hotCacheSize, 
+                yard.getValueFactory()) : null;
         //(1) Read the base mappings from the Yard
         this.baseMapper = CacheUtils.loadBaseMappings(yard,nsPrefixService);
         FieldMapper configuredMappings = null;
@@ -98,6 +127,14 @@ public class CacheImpl implements Cache {
         } //else current config equals configured one -> nothing to do!    
     }
     
+    /**
+     * Getter for the in-memory tier of this cache
+     * @return the in-memory tier or <code>null</code> if not used
+     */
+    public HotRepresentationCache getHotCache() {
+        return hotCache;
+    }
+    
     @Override
     public boolean isAvailable() {
         return true;
@@ -128,12 +165,27 @@ public class CacheImpl implements Cache {
      */
     @Override
     public Representation store(Representation representation) throws IllegalArgumentException, YardException {
-        return yard.store(applyCacheMappings(yard, representation));
+        Representation stored = yard.store(applyCacheMappings(yard, representation));
+        invalidate(representation.getId());
+        return stored;
     }
 
     @Override
     public Representation update(Representation representation) throws YardException, IllegalArgumentException {
-        return yard.update(applyCacheMappings(yard, representation));
+        Representation updated = yard.update(applyCacheMappings(yard, representation));
+        invalidate(representation.getId());
+        return updated;
+    }
+    
+    /**
+     * Removes the parsed id from the {@link #hotCache}. MUST BE called 
+     * after the {@link #yard} was modified.
+     * @param id the id of the modified Representation
+     */
+    private void invalidate(String id) {
+        if(hotCache != null && id != null){
+            hotCache.invalidate(id);
+        }
     }
 
     /**
@@ -214,7 +266,47 @@ public class CacheImpl implements Cache {
 
     @Override
     public Representation getRepresentation(String id) throws YardException, IllegalArgumentException {
-        return yard.getRepresentation(id);
+        if(hotCache == null || id == null || id.isEmpty()){
+            return yard.getRepresentation(id);
+        }
+        Representation rep = hotCache.get(id);
+        if(rep == null){
+            long version = hotCache.getVersion(id);
+            rep = yard.getRepresentation(id);
+            hotCache.put(rep, version);
+        }
+        return rep;
+    }
+
+    @Override
+    public Map<String,Representation> getRepresentations(Collection<String> ids) throws YardException, IllegalArgumentException {
+        if(hotCache == null || ids == null){
+            return yard.getRepresentations(ids);
+        }
+        Map<String,Representation> reps = new HashMap<String,Representation>(ids.size());
+        //the versions of the missing ids read before loading them
+        Map<String,Long> missing = new HashMap<String,Long>();
+        for(String id : ids){
+            if(id != null && !id.isEmpty()){
+                Representation rep = hotCache.get(id);
+                if(rep != null){
+                    reps.put(id, rep);
+                } else {
+                    missing.put(id, hotCache.getVersion(id));
+                }
+            }
+        }
+        if(!missing.isEmpty()){
+            Map<String,Representation> loaded = yard.getRepresentations(missing.keySet());
+            for(Entry<String,Representation> entry : loaded.entrySet()){
+                Long version = missing.get(entry.getKey());
+                if(version != null){
+                    hotCache.put(entry.getValue(), version);
+                }
+            }
+            reps.putAll(loaded);
+        }
+        return reps;
     }
 
     @Override
@@ -230,6 +322,7 @@ public class CacheImpl implements Cache {
     @Override
     public void remove(String id) throws IllegalArgumentException, YardException {
         yard.remove(id);
+        invalidate(id);
     }
 
 
@@ -310,6 +403,11 @@ public class CacheImpl implements Cache {
     @Override
     public void remove(Iterable<String> ids) throws IllegalArgumentException, YardException {
         yard.remove(ids);
+        if(hotCache != null){
+            for(String id : ids){
+                invalidate(id);
+            }
+        }
     }
     @Override
     public void removeAll() throws YardException {
@@ -317,6 +415,9 @@ public class CacheImpl implements Cache {
         //operation
         Representation baseConfig = yard.getRepresentation(Cache.BASE_CONFIGURATION_URI);
         yard.removeAll();
+        if(hotCache != null){
+            hotCache.clear();
+        }
         if(baseConfig != null){
             yard.store(baseConfig);
         }
@@ -324,11 +425,25 @@ public class CacheImpl implements Cache {
     
     @Override
     public Iterable<Representation> store(Iterable<Representation> representations) throws IllegalArgumentException, YardException {
-        return yard.store(representations);
+        Iterable<Representation> stored = yard.store(representations);
+        invalidateAll(representations);
+        return stored;
     }
 
     @Override
     public Iterable<Representation> update(Iterable<Representation> representations) throws YardException, IllegalArgumentException {
-        return yard.update(representations);
+        Iterable<Representation> updated = yard.update(representations);
+        invalidateAll(representations);
+        return updated;
+    }
+    
+    private void invalidateAll(Iterable<Representation> representations) {
+        if(hotCache != null){
+            for(Representation rep : representations){
+                if(rep != null){
+                    invalidate(rep.getId());
+                }
+            }
+        }
     }
 }
@@ -0,0 +1,415 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.core.site;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.stanbol.entityhub.core.model.InMemoryRepresentation;
+import org.apache.stanbol.entityhub.core.model.InMemoryValueFactory;
+import org.apache.stanbol.entityhub.servicesapi.model.Representation;
+import org.apache.stanbol.entityhub.servicesapi.model.ValueFactory;
+
+/**
+ * Size bounded in-memory tier used by the {@link CacheImpl} in front of the
+ * {@link org.apache.stanbol.entityhub.servicesapi.yard.Yard} holding the
+ * cached data.<p>
+ * The implementation follows the W-TinyLFU design: new entries are added to
+ * a small LRU window. Entries evicted from the window are only admitted to
+ * the main LRU region if they were requested more frequently as the entry
+ * they would replace. Request frequencies are estimated by a 4-bit 
+ * count-min sketch that is periodically aged so that it adapts to changing
+ * access patterns. To reduce lock contention large caches are split into
+ * segments by the hash of the id. Every segment has its own window, main 
+ * region, sketch and lock.<p>
+ * Representations are stored as snapshots and copies are returned by
+ * {@link #get(String)}, so callers are free to modify returned 
+ * Representations. Snapshots and copies are created by the 
+ * {@link ValueFactory} parsed in the constructor so that the type of 
+ * returned Representations is the same as the one of the backing Yard.<p>
+ * To stay consistent with the backing Yard every modification needs to
+ * {@link #invalidate(String)} the according entry. Values loaded from the
+ * Yard are only {@link #put(Representation, long) put} if the entry was not
+ * modified since its {@link #getVersion(String) version} was read before 
+ * loading the value.
+ *
+ * @author Rupert Westenthaler
+ */
+public class HotRepresentationCache {
+
+    /**
+     * The maximum number of segments
+     */
+    private static final int MAX_SEGMENTS = 16;
+    /**
+     * The minimum capacity of a segment. Smaller caches use less segments as 
+     * the admission policy does not work well for very small segments.
+     */
+    private static final int MIN_SEGMENT_CAPACITY = 128;
+    
+    private final int capacity;
+    
+    private final Segment[] segments;
+    private final int segmentShift;
+
+    private final ValueFactory valueFactory;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Creates a hot cache holding up to the parsed number of Representations
+     * that uses the {@link InMemoryValueFactory} to create snapshots and copies
+     * @param capacity the maximum number of Representations. MUST BE &gt; 0
+     */
+    public HotRepresentationCache(int capacity) {
+        this(capacity, null);
+    }
+    /**
+     * Creates a hot cache holding up to the parsed number of Representations
+     * @param capacity the maximum number of Representations. MUST BE &gt; 0
+     * @param valueFactory the {@link ValueFactory} of the backing Yard used 
+     * to create snapshots and copies of Representations. If <code>null</code>
+     * the {@link InMemoryValueFactory} is used.
+     */
+    public HotRepresentationCache(int capacity, ValueFactory valueFactory) {
+        if(capacity <= 0){
+            throw new IllegalArgumentException("The parsed capacity MUST BE > 0 (parsed: "
+                + capacity + ")!");
+        }
+        this.capacity = capacity;
+        this.valueFactory = valueFactory == null ? 
+                InMemoryValueFactory.getInstance() : valueFactory;
+        int numSegments = Math.max(1, Math.min(MAX_SEGMENTS, 
+            Integer.highestOneBit(capacity / MIN_SEGMENT_CAPACITY)));
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(numSegments);
+        this.segments = new Segment[numSegments];
+        for(int i = 0; i < numSegments; i++){
+            //distribute the capacity so that the sum is equals to the capacity
+            segments[i] = new Segment(capacity / numSegments + 
+                (i < capacity % numSegments ? 1 : 0));
+        }
+    }
+
+    /**
+     * Getter for a copy of the cached Representation
+     * @param id the id
+     * @return a copy of the cached Representation or <code>null</code> if
+     * not present in this cache
+     */
+    public Representation get(String id) {
+        int hash = spread(id.hashCode());
+        Representation rep = segmentFor(hash).get(id, hash);
+        if(rep == null){
+            misses.incrementAndGet();
+            return null;
+        } else {
+            hits.incrementAndGet();
+            return copy(rep);
+        }
+    }
+
+    /**
+     * The current version of the entry with the parsed id. MUST BE read 
+     * before loading a Representation from the Yard that is later 
+     * {@link #put(Representation, long)} to this cache.
+     * @param id the id
+     * @return the current version
+     */
+    public long getVersion(String id) {
+        int hash = spread(id.hashCode());
+        return segmentFor(hash).getVersion(hash);
+    }
+
+    /**
+     * Adds a snapshot of the parsed Representation to the cache if the entry
+     * was not invalidated since the parsed version.
+     * @param rep the Representation as loaded from the Yard
+     * @param version the {@link #getVersion(String) version} read before the
+     * Representation was loaded
+     */
+    public void put(Representation rep, long version) {
+        if(rep == null){
+            return;
+        }
+        String id = rep.getId();
+        int hash = spread(id.hashCode());
+        if(segmentFor(hash).put(id, hash, snapshot(rep), version)){
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Removes the Representation with the parsed id. MUST BE called for
+     * every modification of the Representation in the backing Yard
+     * @param id the id
+     */
+    public void invalidate(String id) {
+        int hash = spread(id.hashCode());
+        segmentFor(hash).invalidate(id, hash);
+        invalidations.incrementAndGet();
+    }
+
+    /**
+     * Removes all cached Representations
+     */
+    public void clear() {
+        for(Segment segment : segments){
+            segment.clear();
+        }
+        invalidations.incrementAndGet();
+    }
+
+    public int size() {
+        int size = 0;
+        for(Segment segment : segments){
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public long getInvalidationCount() {
+        return invalidations.get();
+    }
+
+    @Override
+    public String toString() {
+        long h = hits.get();
+        long m = misses.get();
+        return String.format("HotRepresentationCache[size: %d/%d | segments: %d | hits: %d"
+            + " | misses: %d (hit rate: %.1f%%) | evictions: %d | invalidations: %d]", 
+            size(), capacity, segments.length, h, m, h + m > 0 ? h * 100f / (h + m) : 0f,
+            evictions.get(), invalidations.get());
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments.length == 1 ? segments[0] : segments[hash >>> segmentShift];
+    }
+
+    private Representation snapshot(Representation rep) {
+        if(rep instanceof InMemoryRepresentation && 
+                valueFactory instanceof InMemoryValueFactory){
+            return clone((InMemoryRepresentation)rep);
+        }
+        Representation snapshot = valueFactory.createRepresentation(rep.getId());
+        for(Iterator<String> fields = rep.getFieldNames(); fields.hasNext();){
+            String field = fields.next();
+            for(Iterator<Object> values = rep.get(field); values.hasNext();){
+                snapshot.add(field, values.next());
+            }
+        }
+        return snapshot;
+    }
+
+    private Representation copy(Representation rep) {
+        if(rep instanceof InMemoryRepresentation){
+            return clone((InMemoryRepresentation)rep);
+        }
+        return snapshot(rep);
+    }
+
+    private static Representation clone(InMemoryRepresentation rep) {
+        try {
+            return (Representation)rep.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("Unable to clone " + rep.getId(), e);
+        }
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+
+    /**
+     * A segment of the cache with its own W-TinyLFU regions and 
+     * {@link FrequencySketch}. All regions are guarded by the segment.<p>
+     * Versions are tracked per slot (selected by the hash of the id) so that
+     * invalidations only affect loads of ids mapped to the same slot.
+     */
+    private static final class Segment {
+
+        private final int windowCapacity;
+        private final int mainCapacity;
+
+        private final LinkedHashMap<String,Representation> window;
+        private final LinkedHashMap<String,Representation> main;
+
+        private final FrequencySketch sketch;
+        /**
+         * Versions of the slots. Only incremented while holding the lock of
+         * the segment, but read without locking.
+         */
+        private final AtomicLongArray versions;
+        private final int versionMask;
+
+        Segment(int capacity) {
+            //use 1% of the capacity for the admission window
+            this.windowCapacity = Math.max(1, capacity / 100);
+            this.mainCapacity = Math.max(1, capacity - windowCapacity);
+            this.window = new LinkedHashMap<String,Representation>(16, 0.75f, true);
+            this.main = new LinkedHashMap<String,Representation>(16, 0.75f, true);
+            this.sketch = new FrequencySketch(capacity);
+            int slots = Integer.highestOneBit(Math.max(64, capacity) - 1) << 1;
+            this.versions = new AtomicLongArray(slots);
+            this.versionMask = slots - 1;
+        }
+
+        synchronized Representation get(String id, int hash) {
+            sketch.increment(hash);
+            Representation rep = window.get(id);
+            return rep == null ? main.get(id) : rep;
+        }
+
+        long getVersion(int hash) {
+            return versions.get(hash & versionMask);
+        }
+
+        /**
+         * @return if an entry was evicted
+         */
+        synchronized boolean put(String id, int hash, Representation snapshot, long version) {
+            if(version != versions.get(hash & versionMask)){
+                return false; //a modification happened while loading
+            }
+            if(main.containsKey(id)){
+                main.put(id, snapshot);
+                return false;
+            }
+            window.put(id, snapshot);
+            if(window.size() <= windowCapacity){
+                return false;
+            }
+            //move the eldest entry of the window to the main region
+            Iterator<Entry<String,Representation>> it = window.entrySet().iterator();
+            Entry<String,Representation> candidate = it.next();
+            it.remove();
+            if(main.size() < mainCapacity){
+                main.put(candidate.getKey(), candidate.getValue());
+                return false;
+            }
+            Iterator<String> mainIt = main.keySet().iterator();
+            String victim = mainIt.next();
+            if(sketch.frequency(spread(candidate.getKey().hashCode())) > 
+                    sketch.frequency(spread(victim.hashCode()))){
+                mainIt.remove();
+                main.put(candidate.getKey(), candidate.getValue());
+            } //else the candidate is not admitted
+            return true;
+        }
+
+        synchronized void invalidate(String id, int hash) {
+            versions.incrementAndGet(hash & versionMask);
+            if(window.remove(id) == null){
+                main.remove(id);
+            }
+        }
+
+        synchronized void clear() {
+            for(int i = 0; i < versions.length(); i++){
+                versions.incrementAndGet(i);
+            }
+            window.clear();
+            main.clear();
+        }
+
+        synchronized int size() {
+            return window.size() + main.size();
+        }
+    }
+
+    /**
+     * Count-min sketch with four hash functions using 4-bit counters (stored
+     * in an int per counter for simplicity). All counters are halved after
+     * <code>10 * capacity</code> increments.
+     */
+    private static final class FrequencySketch {
+
+        private static final int MAX_COUNT = 15;
+        private static final int[] SEEDS = new int[]{
+            0x97cb3127, 0xc3a5c85c, 0x5ad6f4e3, 0x2d358dcc};
+
+        private final int[] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int capacity) {
+            int size = Integer.highestOneBit(Math.max(16, capacity) - 1) << 1;
+            table = new int[size];
+            mask = size - 1;
+            sampleSize = capacity < Integer.MAX_VALUE / 10 ? capacity * 10 : Integer.MAX_VALUE;
+        }
+
+        int frequency(int hash) {
+            int frequency = MAX_COUNT;
+            for(int i = 0; i < SEEDS.length; i++){
+                frequency = Math.min(frequency, table[index(hash, i)]);
+            }
+            return frequency;
+        }
+
+        void increment(int hash) {
+            boolean added = false;
+            for(int i = 0; i < SEEDS.length; i++){
+                int index = index(hash, i);
+                if(table[index] < MAX_COUNT){
+                    table[index]++;
+                    added = true;
+                }
+            }
+            if(added && ++additions >= sampleSize){
+                reset();
+            }
+        }
+
+        private void reset() {
+            for(int i = 0; i < table.length; i++){
+                table[i] = table[i] >>> 1;
+            }
+            additions = additions >>> 1;
+        }
+
+        private int index(int hash, int i) {
+            int h = (hash + SEEDS[i]) * SEEDS[i];
+            h += h >>> 16;
+            return h & mask;
+        }
+    }
+}
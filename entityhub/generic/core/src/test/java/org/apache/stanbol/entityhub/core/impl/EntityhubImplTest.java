@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.core.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.stanbol.entityhub.core.model.InMemoryValueFactory;
+import org.apache.stanbol.entityhub.servicesapi.EntityhubConfiguration;
+import org.apache.stanbol.entityhub.servicesapi.model.Entity;
+import org.apache.stanbol.entityhub.servicesapi.model.ManagedEntityState;
+import org.apache.stanbol.entityhub.servicesapi.model.Representation;
+import org.apache.stanbol.entityhub.servicesapi.model.rdf.RdfResourceEnum;
+import org.apache.stanbol.entityhub.servicesapi.site.SiteManager;
+import org.apache.stanbol.entityhub.servicesapi.yard.Yard;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EntityhubImplTest {
+
+    private static final String FIELD = "urn:test:field";
+    private static final String PREFIX = "urn:test:entity:";
+
+    private TestYardHandler yardHandler;
+    private EntityhubImpl entityhub;
+
+    @Before
+    public void init() {
+        yardHandler = new TestYardHandler();
+        for(int i = 0; i < 10; i++){
+            String id = PREFIX + i;
+            Representation rep = InMemoryValueFactory.getInstance().createRepresentation(id);
+            rep.add(FIELD, "value of " + id);
+            yardHandler.representations.put(id, rep);
+            //the last entity has no metadata and is therefore not managed
+            if(i < 9){
+                Representation metadata = InMemoryValueFactory.getInstance()
+                        .createRepresentation(id + ".meta");
+                metadata.setReference(RdfResourceEnum.aboutRepresentation.getUri(), id);
+                metadata.setReference(ManagedEntity.STATE, ManagedEntityState.active.getUri());
+                yardHandler.representations.put(metadata.getId(), metadata);
+            }
+        }
+        Yard yard = (Yard)Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[]{Yard.class}, yardHandler);
+        SiteManager siteManager = (SiteManager)Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[]{SiteManager.class}, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+            });
+        EntityhubConfiguration config = (EntityhubConfiguration)Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class<?>[]{EntityhubConfiguration.class},
+            new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    if("getID".equals(method.getName())){
+                        return "entityhub";
+                    } else if("getFieldMappingConfig".equals(method.getName())){
+                        return Collections.emptyList();
+                    } else {
+                        return null;
+                    }
+                }
+            });
+        entityhub = new EntityhubImpl(yard, siteManager, config, null);
+    }
+
+    @Test
+    public void testGetEntities() throws Exception {
+        List<String> ids = Arrays.asList(PREFIX + 1, PREFIX + 3, PREFIX + 5,
+            PREFIX + 8, "urn:test:unknown");
+        Map<String,Entity> entities = entityhub.getEntities(ids);
+        assertEquals(4, entities.size());
+        for(String id : ids.subList(0, 4)){
+            Entity entity = entities.get(id);
+            assertNotNull(entity);
+            assertEquals(id, entity.getRepresentation().getId());
+            assertEquals("value of " + id, entity.getRepresentation().getFirst(FIELD));
+            assertEquals(id + ".meta", entity.getMetadata().getId());
+        }
+        assertFalse(entities.containsKey("urn:test:unknown"));
+        //a single multi-get for the representations and one for the metadata
+        assertEquals(2, yardHandler.getCount("getRepresentations"));
+        assertEquals(0, yardHandler.getCount("getRepresentation"));
+    }
+
+    @Test
+    public void testSameResultsAsGetEntity() throws Exception {
+        List<String> ids = Arrays.asList(PREFIX + 0, PREFIX + 2, PREFIX + 9,
+            PREFIX + 4 + ".meta", "urn:test:unknown");
+        Map<String,Entity> entities = entityhub.getEntities(ids);
+        for(String id : ids){
+            Entity expected = entityhub.getEntity(id);
+            Entity actual = entities.get(id);
+            if(expected == null){
+                assertNull(actual);
+            } else {
+                assertNotNull(actual);
+                assertEquals(expected.getRepresentation().getId(), actual.getRepresentation().getId());
+                assertEquals(expected.getMetadata().getId(), actual.getMetadata().getId());
+            }
+        }
+        //the entity without metadata is not locally managed
+        assertFalse(entities.containsKey(PREFIX + 9));
+    }
+
+    @Test
+    public void testEmptyAndInvalidIds() throws Exception {
+        assertTrue(entityhub.getEntities(Collections.<String>emptyList()).isEmpty());
+        assertTrue(entityhub.getEntities(Arrays.asList(null, "")).isEmpty());
+        assertEquals(0, yardHandler.getCount("getRepresentations"));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testNullIds() throws Exception {
+        entityhub.getEntities(null);
+    }
+
+    /**
+     * A minimal in-memory {@link Yard} that counts the calls to its methods
+     */
+    private static class TestYardHandler implements InvocationHandler {
+
+        private final Map<String,Representation> representations = new HashMap<String,Representation>();
+        private final Map<String,Integer> counts = new HashMap<String,Integer>();
+
+        int getCount(String method){
+            Integer count = counts.get(method);
+            return count == null ? 0 : count.intValue();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            String name = method.getName();
+            counts.put(name, getCount(name) + 1);
+            if("getRepresentation".equals(name)){
+                return representations.get(args[0]);
+            } else if("getRepresentations".equals(name)){
+                Map<String,Representation> found = new HashMap<String,Representation>();
+                for(Object id : (Collection<?>)args[0]){
+                    Representation rep = representations.get(id);
+                    if(rep != null){
+                        found.put(rep.getId(), rep);
+                    }
+                }
+                return found;
+            } else if("create".equals(name) && args != null){
+                return InMemoryValueFactory.getInstance().createRepresentation((String)args[0]);
+            } else if("getValueFactory".equals(name)){
+                return InMemoryValueFactory.getInstance();
+            } else if("getId".equals(name) || "toString".equals(name)){
+                return "entityhubYard";
+            } else {
+                throw new UnsupportedOperationException(name);
+            }
+        }
+    }
+}
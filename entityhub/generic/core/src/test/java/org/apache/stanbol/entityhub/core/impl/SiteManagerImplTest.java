@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.core.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.stanbol.entityhub.core.model.EntityImpl;
+import org.apache.stanbol.entityhub.core.model.InMemoryValueFactory;
+import org.apache.stanbol.entityhub.servicesapi.model.Entity;
+import org.apache.stanbol.entityhub.servicesapi.site.Site;
+import org.apache.stanbol.entityhub.servicesapi.site.SiteConfiguration;
+import org.apache.stanbol.entityhub.servicesapi.site.SiteException;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SiteManagerImplTest {
+
+    private static final String PREFIX = "urn:test:";
+
+    private SiteManagerImpl siteManager;
+    private TestSiteHandler failing;
+    private TestSiteHandler siteA;
+    private TestSiteHandler siteB;
+    private TestSiteHandler other;
+
+    @Before
+    public void init() {
+        siteManager = new SiteManagerImpl();
+        //the sites are asked in the order they are bound
+        failing = new TestSiteHandler("failing", PREFIX);
+        failing.fail = true;
+        siteA = new TestSiteHandler("siteA", PREFIX, PREFIX + "a1", PREFIX + "a2", PREFIX + "ab");
+        siteB = new TestSiteHandler("siteB", PREFIX, PREFIX + "b1", PREFIX + "ab");
+        other = new TestSiteHandler("other", "urn:other:", "urn:other:o1");
+        for(TestSiteHandler handler : Arrays.asList(failing, siteA, siteB, other)){
+            siteManager.bindReferencedSites(handler.site);
+        }
+    }
+
+    @Test
+    public void testGetEntities() {
+        Map<String,Entity> entities = siteManager.getEntities(Arrays.asList(
+            PREFIX + "a1", PREFIX + "b1", PREFIX + "ab", PREFIX + "a2",
+            PREFIX + "unknown", "urn:other:o1", "urn:unknown:u1"));
+        assertEquals(5, entities.size());
+        assertEquals("siteA", entities.get(PREFIX + "a1").getSite());
+        assertEquals("siteA", entities.get(PREFIX + "a2").getSite());
+        assertEquals("siteB", entities.get(PREFIX + "b1").getSite());
+        //the first Site that knows an Entity is used
+        assertEquals("siteA", entities.get(PREFIX + "ab").getSite());
+        assertEquals("other", entities.get("urn:other:o1").getSite());
+        assertFalse(entities.containsKey(PREFIX + "unknown"));
+        assertFalse(entities.containsKey("urn:unknown:u1"));
+        //every Site is asked once and only for Entities not found before
+        assertEquals(1, failing.requests.size());
+        assertEquals(1, siteA.requests.size());
+        assertEquals(new HashSet<String>(Arrays.asList(PREFIX + "a1", PREFIX + "b1",
+            PREFIX + "ab", PREFIX + "a2", PREFIX + "unknown")), siteA.requests.get(0));
+        assertEquals(1, siteB.requests.size());
+        assertEquals(new HashSet<String>(Arrays.asList(PREFIX + "b1", PREFIX + "unknown")),
+            siteB.requests.get(0));
+        assertEquals(1, other.requests.size());
+        for(TestSiteHandler handler : Arrays.asList(failing, siteA, siteB, other)){
+            assertEquals(0, handler.singleRequests);
+        }
+    }
+
+    @Test
+    public void testSameResultsAsGetEntity() {
+        List<String> ids = Arrays.asList(PREFIX + "a1", PREFIX + "b1", PREFIX + "ab",
+            PREFIX + "unknown", "urn:other:o1", "urn:unknown:u1");
+        Map<String,Entity> entities = siteManager.getEntities(ids);
+        for(String id : ids){
+            Entity expected = siteManager.getEntity(id);
+            if(expected == null){
+                assertFalse(entities.containsKey(id));
+            } else {
+                assertEquals(expected.getSite(), entities.get(id).getSite());
+                assertEquals(expected.getRepresentation().getId(),
+                    entities.get(id).getRepresentation().getId());
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyRequest() {
+        assertTrue(siteManager.getEntities(new ArrayList<String>()).isEmpty());
+        for(TestSiteHandler handler : Arrays.asList(failing, siteA, siteB, other)){
+            assertTrue(handler.requests.isEmpty());
+        }
+    }
+
+    /**
+     * A {@link Site} that knows a fixed set of entities and records the
+     * requests.
+     */
+    private static class TestSiteHandler implements InvocationHandler {
+
+        private final String id;
+        private final Set<String> entities;
+        private final List<Set<String>> requests = new ArrayList<Set<String>>();
+        private int singleRequests = 0;
+        private boolean fail;
+        private final Site site;
+        private final SiteConfiguration config;
+
+        TestSiteHandler(String id, final String prefix, String...entities){
+            this.id = id;
+            this.entities = new HashSet<String>(Arrays.asList(entities));
+            this.site = (Site)Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Site.class}, this);
+            this.config = (SiteConfiguration)Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{SiteConfiguration.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if("getEntityPrefixes".equals(method.getName())){
+                            return new String[]{prefix};
+                        } else if("getName".equals(method.getName()) ||
+                                "getId".equals(method.getName())){
+                            return TestSiteHandler.this.id;
+                        } else {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                    }
+                });
+        }
+
+        private Entity create(String entityId){
+            return new EntityImpl(id, InMemoryValueFactory.getInstance()
+                .createRepresentation(entityId), null);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws SiteException {
+            String name = method.getName();
+            if("getId".equals(name)){
+                return id;
+            } else if("getConfiguration".equals(name)){
+                return config;
+            } else if("getEntity".equals(name)){
+                singleRequests++;
+                if(fail){
+                    throw new SiteException("Test Exception");
+                }
+                return entities.contains(args[0]) ? create((String)args[0]) : null;
+            } else if("getEntities".equals(name)){
+                Set<String> request = new HashSet<String>();
+                for(Object entityId : (Collection<?>)args[0]){
+                    request.add((String)entityId);
+                }
+                requests.add(request);
+                if(fail){
+                    throw new SiteException("Test Exception");
+                }
+                Map<String,Entity> found = new HashMap<String,Entity>();
+                for(String entityId : request){
+                    if(entities.contains(entityId)){
+                        found.put(entityId, create(entityId));
+                    }
+                }
+                return found;
+            } else if("hashCode".equals(name)){
+                return System.identityHashCode(proxy);
+            } else if("equals".equals(name)){
+                return proxy == args[0];
+            } else if("toString".equals(name)){
+                return id;
+            } else {
+                throw new UnsupportedOperationException(name);
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.core.site;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.stanbol.entityhub.core.model.InMemoryValueFactory;
+import org.apache.stanbol.entityhub.servicesapi.model.Representation;
+import org.apache.stanbol.entityhub.servicesapi.util.ModelUtils;
+import org.junit.Test;
+
+public class HotRepresentationCacheTest {
+
+    private static final String FIELD = "urn:test:field";
+
+    private static Representation create(String id) {
+        Representation rep = InMemoryValueFactory.getInstance().createRepresentation(id);
+        rep.add(FIELD, "value of " + id);
+        return rep;
+    }
+
+    @Test
+    public void testGetReturnsCopies() {
+        HotRepresentationCache cache = new HotRepresentationCache(10);
+        String id = "urn:test:entity";
+        assertNull(cache.get(id));
+        Representation rep = create(id);
+        cache.put(rep, cache.getVersion(id));
+        //changes to the parsed Representation do not affect the cache
+        rep.add(FIELD, "other value");
+        Representation cached = cache.get(id);
+        assertNotNull(cached);
+        assertEquals(id, cached.getId());
+        assertEquals("value of " + id, cached.getFirst(FIELD));
+        assertEquals(1, ModelUtils.asCollection(cached.get(FIELD)).size());
+        //changes to returned Representation do not affect the cache
+        cached.removeAll(FIELD);
+        Representation cached2 = cache.get(id);
+        assertNotSame(cached, cached2);
+        assertEquals("value of " + id, cached2.getFirst(FIELD));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testInvalidation() {
+        HotRepresentationCache cache = new HotRepresentationCache(10);
+        String id = "urn:test:entity";
+        cache.put(create(id), cache.getVersion(id));
+        assertNotNull(cache.get(id));
+        cache.invalidate(id);
+        assertNull(cache.get(id));
+        //values loaded before an invalidation MUST NOT be added
+        long version = cache.getVersion(id);
+        cache.invalidate(id);
+        cache.put(create(id), version);
+        assertNull(cache.get(id));
+        //invalidations of other entities do not affect loads
+        String other = "urn:test:other";
+        version = cache.getVersion(id);
+        cache.invalidate(other);
+        cache.put(create(id), version);
+        assertNotNull(cache.get(id));
+        cache.invalidate(id);
+        cache.put(create(id), cache.getVersion(id));
+        assertNotNull(cache.get(id));
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testSizeBoundAndAdmission() {
+        int capacity = 100;
+        HotRepresentationCache cache = new HotRepresentationCache(capacity);
+        //a set of popular entities that are requested often
+        for(int round = 0; round < 5; round++){
+            for(int i = 0; i < capacity / 2; i++){
+                String id = "urn:test:popular" + i;
+                if(cache.get(id) == null){
+                    cache.put(create(id), cache.getVersion(id));
+                }
+            }
+        }
+        //a scan over many entities requested only once
+        for(int i = 0; i < capacity * 10; i++){
+            String id = "urn:test:scan" + i;
+            if(cache.get(id) == null){
+                cache.put(create(id), cache.getVersion(id));
+            }
+        }
+        assertTrue(cache.size() <= capacity);
+        assertTrue(cache.getEvictionCount() > 0);
+        int popularPresent = 0;
+        for(int i = 0; i < capacity / 2; i++){
+            if(cache.get("urn:test:popular" + i) != null){
+                popularPresent++;
+            }
+        }
+        //the scan MUST NOT evict the popular entities
+        assertTrue("only " + popularPresent + " popular entities still cached",
+            popularPresent >= capacity / 2 * 9 / 10);
+    }
+
+    @Test
+    public void testSegmentedSizeBound() {
+        int capacity = 5000;
+        HotRepresentationCache cache = new HotRepresentationCache(capacity);
+        for(int i = 0; i < capacity * 3; i++){
+            String id = "urn:test:entity" + i;
+            cache.put(create(id), cache.getVersion(id));
+        }
+        assertTrue(cache.size() <= capacity);
+        assertTrue(cache.size() > capacity / 2);
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+}
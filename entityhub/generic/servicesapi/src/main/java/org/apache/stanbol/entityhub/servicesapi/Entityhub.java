@@ -20,6 +20,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.stanbol.entityhub.servicesapi.mapping.FieldMapper;
@@ -120,6 +121,19 @@ public interface Entityhub {
      * @throws EntityhubException On any error while performing the operation
      */
     Entity getEntity(String entityId) throws IllegalArgumentException, EntityhubException;
+    /**
+     * Getter for several Entities managed by the Entityhub. The Entities
+     * are retrieved by using {@link Yard#getRepresentations(Collection)}
+     * multi-gets on the {@link #getYard() Entityhub Yard}. This method does 
+     * only work with references to locally managed Entities.
+     * @param entityIds the IDs of the locally managed Entities
+     * @return the found Entities by id. Ids that are not managed by the
+     * Entityhub are not contained in the returned map.
+     * @throws IllegalArgumentException if <code>null</code> is parsed as
+     * entityIds
+     * @throws EntityhubException On any error while performing the operation
+     */
+    Map<String,Entity> getEntities(Collection<String> entityIds) throws IllegalArgumentException, EntityhubException;
     /**
      * Imports an Entity from a referenced site to the Entityhub. If there is 
      * already an Entity present for the parsed reference, than this Method throws an
@@ -17,6 +17,8 @@
 package org.apache.stanbol.entityhub.servicesapi.site;
 
 import java.io.InputStream;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.stanbol.entityhub.servicesapi.Entityhub;
@@ -109,6 +111,20 @@ public interface Site {
      * Sites are usually IOExceptions.
      */
     Entity getEntity(String id) throws SiteException;
+    /**
+     * Getter for the Entities with the parsed ids. Implementations are
+     * expected to retrieve all Entities with as few requests as possible
+     * (e.g. a single multi-get on the {@link Cache}).
+     * @param ids the ids of the entities
+     * @return the found entities by id. Ids of entities that where not found
+     * are not contained in the returned map.
+     * @throws SiteException If the request can not be executed both on
+     * the {@link Cache} and by using the {@link EntityDereferencer}/
+     * {@link EntitySearcher} accessing the remote site. For errors with the
+     * remote site the cause will always be a Yard Exceptions. Errors for remote
+     * Sites are usually IOExceptions.
+     */
+    Map<String,Entity> getEntities(Collection<String> ids) throws SiteException;
     /**
      * Getter for the Content of the Entity
      * @param id the id of the Entity
@@ -19,6 +19,7 @@ package org.apache.stanbol.entityhub.servicesapi.site;
 import java.io.InputStream;
 import java.util.Collection;
 import java.util.Dictionary;
+import java.util.Map;
 
 import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.apache.stanbol.entityhub.servicesapi.model.Entity;
@@ -61,6 +62,17 @@ public interface SiteManager {
      * @return the Sign or <code>null</code> if not found
      */
     Entity getEntity(String reference);
+    /**
+     * Getter for the Entities referenced by the parsed IDs. This method will
+     * search all referenced sites. Entities are requested from every
+     * {@link Site} with a single {@link Site#getEntities(Collection)} call.
+     * For every Entity the first site (as returned by 
+     * {@link #getSitesByEntityPrefix(String)}) that knows the Entity is used.
+     * @param references the ids of the entities
+     * @return the found Entities by id. Ids of entities that where not found
+     * are not contained in the returned map.
+     */
+    Map<String,Entity> getEntities(Collection<String> references);
 
     /**
      * Returns the Entities that confirm to the parsed Query
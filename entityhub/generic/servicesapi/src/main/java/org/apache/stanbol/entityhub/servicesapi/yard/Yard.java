@@ -16,6 +16,9 @@
  */
 package org.apache.stanbol.entityhub.servicesapi.yard;
 
+import java.util.Collection;
+import java.util.Map;
+
 import org.apache.stanbol.entityhub.servicesapi.Entityhub;
 import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.apache.stanbol.entityhub.servicesapi.model.ValueFactory;
@@ -182,6 +185,22 @@ public interface Yard {
      */
     Representation getRepresentation(String id) throws YardException, IllegalArgumentException;
 
+    /**
+     * Getter for the representations with the parsed ids. Implementations
+     * are expected to retrieve all requested representations with as few
+     * requests to the underlying store as possible. Parsed <code>null</code>
+     * or empty ids are ignored.
+     *
+     * @param ids the ids.
+     * @return The found representations by id. Ids of Representations not
+     * present in the Yard are not contained in the returned map. An empty
+     * map if none was found.
+     * @throws IllegalArgumentException if <code>null</code> is parsed as
+     * collection of ids
+     * @throws YardException On any error related to the Yard
+     */
+    Map<String,Representation> getRepresentations(Collection<String> ids) throws YardException, IllegalArgumentException;
+
     /**
      * Updates the store with the new state of the parsed representation
      *
@@ -244,6 +244,29 @@ public abstract class YardTest {
         assertNull(getYard().getRepresentation(id));
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetRepresentationsWithNull() throws YardException {
+        getYard().getRepresentations(null);
+    }
+
+    @Test
+    public void testGetRepresentations() throws YardException {
+        String id1 = "urn:yard.test.testGetRepresentations:representation.id1";
+        String id2 = "urn:yard.test.testGetRepresentations:representation.id2";
+        String nonExistant = "urn:yard.test.testGetRepresentations:representation.nonExistant";
+        Yard yard = getYard();
+        Representation test1 = create(id1, true);
+        Representation test2 = create(id2, true);
+        Map<String,Representation> reps = yard.getRepresentations(
+            Arrays.asList(id1, id2, nonExistant, null, ""));
+        assertNotNull(reps);
+        assertEquals(2, reps.size());
+        assertEquals(test1, reps.get(id1));
+        assertEquals(test2, reps.get(id2));
+        assertFalse(reps.containsKey(nonExistant));
+        assertTrue(yard.getRepresentations(Collections.<String>emptySet()).isEmpty());
+    }
+
     /**
      * This tests that {@link Representation} retrieved from the Yard do not influence other
      * {@link Representation} instances for the same ID. It is important, that when different
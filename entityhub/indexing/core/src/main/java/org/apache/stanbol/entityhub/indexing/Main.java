@@ -45,6 +45,12 @@ public final class Main {
         options.addOption("c","chunksize",true, 
             String.format("the number of documents stored to the Yard in one chunk (default: %s)",
                 Indexer.DEFAULT_CHUNK_SIZE));
+        options.addOption("t","threads",true, 
+            String.format("the number of threads used to process entities (default: %s)",
+                Indexer.DEFAULT_PROCESSING_THREADS));
+        options.addOption("p","persisters",true, 
+            String.format("the number of threads used to store entities to the Yard (default: %s)",
+                Indexer.DEFAULT_PERSISTING_THREADS));
     }
     /**
      * @param args
@@ -77,6 +83,12 @@ public final class Main {
                 int cunckSize = Integer.parseInt(line.getOptionValue('c'));
                 indexer.setChunkSize(cunckSize);
             }
+            if(line.hasOption('t')){
+                indexer.setProcessingThreads(Integer.parseInt(line.getOptionValue('t')));
+            }
+            if(line.hasOption('p')){
+                indexer.setPersistingThreads(Integer.parseInt(line.getOptionValue('p')));
+            }
             if("index".equalsIgnoreCase(args[0])){
                 indexer.index();
             } else if("postprocess".equalsIgnoreCase(args[0])){
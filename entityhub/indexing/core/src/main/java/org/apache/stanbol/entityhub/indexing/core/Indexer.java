@@ -43,7 +43,9 @@ public interface Indexer {
         /**
          * All {@link IndexingSource}s are initialised, but the actual indexing
          * of the entities has not yet started.
-         * This is the last opportunity to call {@link Indexer#setChunkSize(int)}
+         * This is the last opportunity to call {@link Indexer#setChunkSize(int)},
+         * {@link Indexer#setProcessingThreads(int)}, 
+         * {@link Indexer#setPersistingThreads(int)}
          * and {@link Indexer#setIndexAllEntitiesState(boolean)}
          */
         INITIALISED,
@@ -96,6 +98,45 @@ public interface Indexer {
      */
     int getChunkSize();
 
+    /**
+     * The default number of threads used to process entities. Processing
+     * (e.g. LDPath based transformations) is typically CPU bound so using
+     * more threads is recommended on machines with multiple cores.
+     */
+    public static final int DEFAULT_PROCESSING_THREADS = 1;
+    /**
+     * The default number of threads used to store chunks of processed
+     * entities to the {@link Yard} of the {@link IndexingDestination}.
+     */
+    public static final int DEFAULT_PERSISTING_THREADS = 1;
+    /**
+     * Setter for the number of threads used to process entities. Parsing
+     * values &lt;= 0 results in {@link #DEFAULT_PROCESSING_THREADS} to be used.
+     * @param threads the number of processing threads
+     * @throws IllegalStateException if {@link #getState()} &gt; 
+     * {@link State#INITIALISED}
+     */
+    void setProcessingThreads(int threads) throws IllegalStateException;
+    /**
+     * Getter for the number of threads used to process entities
+     * @return the number of processing threads
+     */
+    int getProcessingThreads();
+    /**
+     * Setter for the number of threads used to store chunks of entities to
+     * the {@link Yard}. Parsing values &lt;= 0 results in 
+     * {@link #DEFAULT_PERSISTING_THREADS} to be used.
+     * @param threads the number of persisting threads
+     * @throws IllegalStateException if {@link #getState()} &gt; 
+     * {@link State#INITIALISED}
+     */
+    void setPersistingThreads(int threads) throws IllegalStateException;
+    /**
+     * Getter for the number of threads used to store entities
+     * @return the number of persisting threads
+     */
+    int getPersistingThreads();
+
     /**
      * Getter for the Yard used to store the indexed entities.
      * @return the yard
@@ -37,6 +37,14 @@ public class EntityPersisterRunnable extends IndexingDaemon<Representation,Repre
 
     private int chunkSize;
     private Yard yard;
+    /**
+     * The number of stored items (used for statistics)
+     */
+    private int count;
+    /**
+     * the time spent storing items (used for statistics)
+     */
+    private long busy;
     public EntityPersisterRunnable(String name,
                                    BlockingQueue<QueueItem<Representation>> consume, 
                                    BlockingQueue<QueueItem<Representation>> produce,
@@ -49,6 +57,7 @@ public class EntityPersisterRunnable extends IndexingDaemon<Representation,Repre
     }
     @Override
     public void run() {
+        long started = System.currentTimeMillis();
         Map<String,QueueItem<Representation>> toStore = new HashMap<String,QueueItem<Representation>>();
         while(!isQueueFinished()){
             QueueItem<Representation> item;
@@ -66,6 +75,11 @@ public class EntityPersisterRunnable extends IndexingDaemon<Representation,Repre
         if(!toStore.isEmpty()){
             process(toStore);
         }
+        long duration = System.currentTimeMillis() - started;
+        log.info(String.format("%s: stored %d items in %dsec "
+            + "(%7.3f items/sec | %7.3fms/item | busy %5.1f%%)", getName(), 
+            count, duration/1000, duration > 0 ? count*1000f/duration : 0f,
+            count > 0 ? (float)busy/count : 0f, duration > 0 ? busy*100f/duration : 0f));
         setFinished();
     }
     /**
@@ -79,6 +93,8 @@ public class EntityPersisterRunnable extends IndexingDaemon<Representation,Repre
         Collection<QueueItem<Representation>> stored = store(toStore);
         Long completed = Long.valueOf(System.currentTimeMillis());
         Float duration = Float.valueOf(((float)(completed.longValue()-start.longValue()))/elements);
+        busy += completed.longValue()-start.longValue();
+        count += stored.size();
         for(QueueItem<Representation> storedItem : stored){
             storedItem.setProperty(STORE_COMPLETE, completed);
             storedItem.setProperty(STORE_DURATION, duration);
@@ -61,9 +61,14 @@ public class EntityProcessorRunnable extends IndexingDaemon<Representation,Repre
     }
     @Override
     public void run() {
+        long started = System.currentTimeMillis();
+        long busy = 0; //the time spent processing entities
+        int count = 0;
+        int filtered = 0;
         while(!isQueueFinished()){
             QueueItem<Representation> item = consume();
             if(item != null){
+                count++;
                 Long start = Long.valueOf(System.currentTimeMillis());
                 item.setProperty(PROCESS_STARTED, start);
                 Iterator<EntityProcessor> it = processors.iterator();
@@ -76,6 +81,8 @@ public class EntityProcessorRunnable extends IndexingDaemon<Representation,Repre
                     processed = processor.process(processed);
                 }
                 if(processed == null){
+                    filtered++;
+                    busy += System.currentTimeMillis() - start.longValue();
                     log.debug("Item {} filtered by processor {}",item.getItem().getId(),processor);
                 } else {
                     log.trace("   - done");
@@ -92,10 +99,16 @@ public class EntityProcessorRunnable extends IndexingDaemon<Representation,Repre
                     produced.setProperty(PROCESS_COMPLETE, completed);
                     produced.setProperty(PROCESS_DURATION, Float.valueOf(
                         (float)(completed.longValue()-start.longValue())));
+                    busy += completed.longValue() - start.longValue();
                     produce(produced);
                 }
             }
         }
+        long duration = System.currentTimeMillis() - started;
+        log.info(String.format("%s: processed %d items (%d filtered) in %dsec "
+            + "(%7.3f items/sec | %7.3fms/item | busy %5.1f%%)", getName(), 
+            count, filtered, duration/1000, duration > 0 ? count*1000f/duration : 0f,
+            count > 0 ? (float)busy/count : 0f, duration > 0 ? busy*100f/duration : 0f));
         setFinished();
     }
 }
\ No newline at end of file
@@ -228,9 +228,10 @@ public class FinishedEntityDaemon extends IndexingDaemon<Representation,Object>
         double itemTimeAll = countedAll>0?timeAll/countedAll:-1;
         double itemSourceDurationAll = countedAll>0? sourceDurationAll/countedAll:-1;
         double itemProcessingDurationAll = countedAll>0? processDurationAll/countedAll:-1;
-        double itemStoreDurationAll = countedAll>0? sourceDurationAll/countedAll:-1;
-        out.info(String.format("Indexed %d items in %dsec (%7.3fms/item): processing: %7.3fms/item | queue: %7.3fms",
-            count,(int)interval/1000,(float)interval/count,itemDurationAll,itemTimeAll));
+        double itemStoreDurationAll = countedAll>0? storeDurationAll/countedAll:-1;
+        out.info(String.format("Indexed %d items in %dsec (%7.3fms/item | %7.3f items/sec): processing: %7.3fms/item | queue: %7.3fms",
+            count,(int)interval/1000,(float)interval/count,interval > 0 ? count*1000f/interval : 0f,
+            itemDurationAll,itemTimeAll));
         out.info(String.format("  - source   : %7.3fms/item",
             itemSourceDurationAll));
         out.info(String.format("  - processing: %7.3fms/item",
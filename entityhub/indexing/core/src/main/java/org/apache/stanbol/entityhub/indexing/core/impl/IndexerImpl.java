@@ -97,6 +97,8 @@ public class IndexerImpl implements Indexer {
     private final Set<IndexingListener> listeners;
 
     private int chunkSize;
+    private int processingThreads;
+    private int persistingThreads;
     public static final int MIN_QUEUE_SIZE = 500;
     
     private boolean indexAllEntitiesState = false;
@@ -191,6 +193,8 @@ public class IndexerImpl implements Indexer {
             this.entityProcessors = entityProcessors;
         }
         setChunkSize(DEFAULT_CHUNK_SIZE); //init the chunk size and the cache
+        setProcessingThreads(DEFAULT_PROCESSING_THREADS);
+        setPersistingThreads(DEFAULT_PERSISTING_THREADS);
         this.scoreNormaliser = normaliser;
         indexingComponents = new ArrayList<IndexingComponent>();
         indexingComponents.add(indexingDestination);
@@ -263,6 +267,28 @@ public class IndexerImpl implements Indexer {
     public int getChunkSize() {
         return chunkSize;
     }
+    @Override
+    public void setProcessingThreads(int threads) throws IllegalStateException {
+        if(getState().ordinal() >= State.INDEXING.ordinal()){
+            throw new IllegalStateException("Setting the number of processing threads is only allowed before starting the indexing process!");
+        }
+        this.processingThreads = threads <= 0 ? DEFAULT_PROCESSING_THREADS : threads;
+    }
+    @Override
+    public int getProcessingThreads() {
+        return processingThreads;
+    }
+    @Override
+    public void setPersistingThreads(int threads) throws IllegalStateException {
+        if(getState().ordinal() >= State.INDEXING.ordinal()){
+            throw new IllegalStateException("Setting the number of persisting threads is only allowed before starting the indexing process!");
+        }
+        this.persistingThreads = threads <= 0 ? DEFAULT_PERSISTING_THREADS : threads;
+    }
+    @Override
+    public int getPersistingThreads() {
+        return persistingThreads;
+    }
     /* (non-Javadoc)
      * @see org.apache.stanbol.entityhub.indexing.core.IndexerInterface#getYard()
      */
@@ -441,7 +467,7 @@ public class IndexerImpl implements Indexer {
 
         //initialisation complete ... now setup the poet processing
         //init the queues
-        int queueSize = Math.max(MIN_QUEUE_SIZE, chunkSize*2);
+        int queueSize = Math.max(MIN_QUEUE_SIZE, chunkSize*2*persistingThreads);
         BlockingQueue<QueueItem<Representation>> indexedEntityQueue = 
                 new ArrayBlockingQueue<QueueItem<Representation>>(queueSize);
         BlockingQueue<QueueItem<Representation>> processedEntityQueue = 
@@ -455,8 +481,6 @@ public class IndexerImpl implements Indexer {
         final SortedSet<IndexingDaemon<?,?>> activeIndexingDeamons = 
             new TreeSet<IndexingDaemon<?,?>>();
         //create the IndexingDaemos
-        //TODO: Here we would need to create multiple instances in case
-        //      one would e.g. like to use several threads for processing entities
         //(1) the daemon reading from the IndexingSources
         String entitySourceReaderName = name + ": post-processing: Entity Reader Deamon";
         activeIndexingDeamons.add(
@@ -467,25 +491,22 @@ public class IndexerImpl implements Indexer {
                 dataProvider, 
                 null, //no score normaliser
                 true)); //post-process all indexed entities
-        //(2) The daemon for post-processing the entities
-        activeIndexingDeamons.add(
-            new EntityProcessorRunnable(
-                name +": post-processing: Entity Processor Deamon",
-                indexedEntityQueue, //it consumes indexed Entities
-                processedEntityQueue,  //it produces processed Entities
-                errorEntityQueue,
-                entityPostProcessors, 
-                //TODO: check that the score is not overriden by the NULL
-                //      parsed by the used LineBasedEntityIterator!
-                Collections.singleton(SCORE_FIELD))); //ensure the score not changed
-        //(3) The daemon for persisting the entities
-        activeIndexingDeamons.add(
-            new EntityPersisterRunnable(
-                name + ": Entity Perstisting Deamon",
-                processedEntityQueue, //it consumes processed Entities
-                finishedEntityQueue, //it produces finished Entities
-                errorEntityQueue,
-                chunkSize, indexingDestination.getYard()));
+        //(2) The daemons for post-processing the entities
+        addProcessingDaemons(activeIndexingDeamons,
+            name +": post-processing: Entity Processor Deamon",
+            indexedEntityQueue, //it consumes indexed Entities
+            processedEntityQueue,  //it produces processed Entities
+            errorEntityQueue,
+            entityPostProcessors, 
+            //TODO: check that the score is not overriden by the NULL
+            //      parsed by the used LineBasedEntityIterator!
+            Collections.singleton(SCORE_FIELD)); //ensure the score not changed
+        //(3) The daemons for persisting the entities
+        addPersistingDaemons(activeIndexingDeamons,
+            name + ": Entity Perstisting Deamon",
+            processedEntityQueue, //it consumes processed Entities
+            finishedEntityQueue, //it produces finished Entities
+            errorEntityQueue);
         //(4) The daemon for logging finished entities
         activeIndexingDeamons.add(
             new FinishedEntityDaemon(
@@ -507,6 +528,40 @@ public class IndexerImpl implements Indexer {
         
         setState(State.POSTPROCESSED);
     }
+    /**
+     * Adds {@link #getProcessingThreads()} {@link EntityProcessorRunnable}s
+     * to the parsed set of daemons. All of them consume from and produce to
+     * the same queues. As all of them use the same sequence number the
+     * end-of-queue item is only forwarded to the persisting daemons after
+     * all of them have finished (see 
+     * {@link #handleFinishedIndexingDaemon(SortedSet, IndexingDaemon)}).
+     */
+    private void addProcessingDaemons(SortedSet<IndexingDaemon<?,?>> activeIndexingDeamons, String name,
+                                      BlockingQueue<QueueItem<Representation>> consume,
+                                      BlockingQueue<QueueItem<Representation>> produce,
+                                      BlockingQueue<QueueItem<IndexingError>> error,
+                                      List<EntityProcessor> processors, Set<String> keys) {
+        for(int i = 0; i < processingThreads; i++){
+            activeIndexingDeamons.add(new EntityProcessorRunnable(
+                processingThreads > 1 ? (name + " " + (i + 1)) : name,
+                consume, produce, error, processors, keys));
+        }
+    }
+    /**
+     * Adds {@link #getPersistingThreads()} {@link EntityPersisterRunnable}s
+     * to the parsed set of daemons. Every persister collects its own chunks
+     * so chunks are stored concurrently to the {@link IndexingDestination}.
+     */
+    private void addPersistingDaemons(SortedSet<IndexingDaemon<?,?>> activeIndexingDeamons, String name,
+                                      BlockingQueue<QueueItem<Representation>> consume,
+                                      BlockingQueue<QueueItem<Representation>> produce,
+                                      BlockingQueue<QueueItem<IndexingError>> error) {
+        for(int i = 0; i < persistingThreads; i++){
+            activeIndexingDeamons.add(new EntityPersisterRunnable(
+                persistingThreads > 1 ? (name + " " + (i + 1)) : name,
+                consume, produce, error, chunkSize, indexingDestination.getYard()));
+        }
+    }
     /**
      * Internally used to start the indexing/post-processing daemons and wait
      * until they have finished.
@@ -613,7 +668,7 @@ public class IndexerImpl implements Indexer {
             log.info("{}: indexing started ...",name);
         }
         //init the queues
-        int queueSize = Math.max(MIN_QUEUE_SIZE, chunkSize*2);
+        int queueSize = Math.max(MIN_QUEUE_SIZE, chunkSize*2*persistingThreads);
         BlockingQueue<QueueItem<Representation>> indexedEntityQueue = 
                 new ArrayBlockingQueue<QueueItem<Representation>>(queueSize);
         BlockingQueue<QueueItem<Representation>> processedEntityQueue = 
@@ -627,8 +682,6 @@ public class IndexerImpl implements Indexer {
         final SortedSet<IndexingDaemon<?,?>> activeIndexingDeamons = 
             new TreeSet<IndexingDaemon<?,?>>();
         //create the IndexingDaemos
-        //TODO: Here we would need to create multiple instances in case
-        //      one would e.g. like to use several threads for processing entities
         //(1) the daemon reading from the IndexingSources
         String entitySourceReaderName = name +": Entity Source Reader Deamon";
         if(entityIterator != null){
@@ -650,23 +703,20 @@ public class IndexerImpl implements Indexer {
                     scoreNormaliser,
                     indexAllEntitiesState));
         }
-        //(2) The daemon for processing the entities
-        activeIndexingDeamons.add(
-            new EntityProcessorRunnable(
-                name +": Entity Processor Deamon",
-                indexedEntityQueue, //it consumes indexed Entities
-                processedEntityQueue,  //it produces processed Entities
-                errorEntityQueue,
-                entityProcessors, 
-                Collections.singleton(SCORE_FIELD)));
-        //(3) The daemon for persisting the entities
-        activeIndexingDeamons.add(
-            new EntityPersisterRunnable(
-                name + ": Entity Perstisting Deamon",
-                processedEntityQueue, //it consumes processed Entities
-                finishedEntityQueue, //it produces finished Entities
-                errorEntityQueue,
-                chunkSize, indexingDestination.getYard()));
+        //(2) The daemons for processing the entities
+        addProcessingDaemons(activeIndexingDeamons,
+            name +": Entity Processor Deamon",
+            indexedEntityQueue, //it consumes indexed Entities
+            processedEntityQueue,  //it produces processed Entities
+            errorEntityQueue,
+            entityProcessors, 
+            Collections.singleton(SCORE_FIELD));
+        //(3) The daemons for persisting the entities
+        addPersistingDaemons(activeIndexingDeamons,
+            name + ": Entity Perstisting Deamon",
+            processedEntityQueue, //it consumes processed Entities
+            finishedEntityQueue, //it produces finished Entities
+            errorEntityQueue);
         //(4) The daemon for logging finished entities
         activeIndexingDeamons.add(
             new FinishedEntityDaemon(
@@ -27,6 +27,7 @@ import java.util.EventObject;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,6 +48,12 @@ public abstract class IndexingDaemon<CI,PI> implements Comparable<IndexingDaemon
      * Used for {@link #compareTo(IndexingDaemon)}
      */
     private final Integer sequence;
+    /**
+     * Used to provide a unique ordering for multiple daemons with the same
+     * {@link #sequence} (e.g. if several threads are used to process entities)
+     */
+    private static final AtomicInteger instanceCounter = new AtomicInteger();
+    private final int instance = instanceCounter.incrementAndGet();
     protected IndexingDaemon(String name,
                              Integer sequence,
                              BlockingQueue<QueueItem<CI>> consume,
@@ -228,15 +235,9 @@ public abstract class IndexingDaemon<CI,PI> implements Comparable<IndexingDaemon
             //the ordering within the same sequence position is of no importance
             //but it is important to only return 0 if the two Objects are
             //equals because we will use this class together with SortedSets!
-            if(hashCode() == o.hashCode()){
-                if(equals(o)){
-                    return 0;
-                } else {
-                    return -1; //no idea if that is OK
-                }
-            } else {
-                return hashCode()-o.hashCode();
-            }
+            //NOTE: the instance number is used as it provides a consistent
+            //      ordering for any number of daemons with the same sequence
+            return instance < o.instance ? -1 : instance == o.instance ? 0 : 1;
         }
     }
 }
\ No newline at end of file
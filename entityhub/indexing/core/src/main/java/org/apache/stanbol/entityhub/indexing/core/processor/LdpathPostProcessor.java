@@ -22,6 +22,7 @@ import org.apache.stanbol.entityhub.indexing.core.EntityProcessor;
 import org.apache.stanbol.entityhub.indexing.core.IndexingDestination;
 import org.apache.stanbol.entityhub.ldpath.EntityhubLDPath;
 import org.apache.stanbol.entityhub.ldpath.backend.YardBackend;
+import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.apache.stanbol.entityhub.servicesapi.yard.Yard;
 
 /**
@@ -72,6 +73,14 @@ public class LdpathPostProcessor extends LdpathProcessor implements EntityProces
         YardBackend backend = new YardBackend(yard);
         this.ldPath = new EntityhubLDPath(backend,yard.getValueFactory());
     }
+    /**
+     * Post processing reads the data from the {@link IndexingDestination}
+     * so the same instance can be used by all processing threads
+     */
+    @Override
+    protected EntityhubLDPath getLdPath(Representation source) {
+        return ldPath;
+    }
 
 
 }
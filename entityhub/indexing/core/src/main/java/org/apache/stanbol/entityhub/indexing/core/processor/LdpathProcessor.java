@@ -62,6 +62,23 @@ public class LdpathProcessor implements EntityProcessor{
     private final ValueFactory vf;
     protected EntityhubLDPath ldPath;
     private final SingleRepresentationBackend backend;
+    /**
+     * The {@link SingleRepresentationBackend} holds the currently processed
+     * {@link Representation}. To allow multiple threads to process entities
+     * every thread uses its own backend and {@link EntityhubLDPath} instance.
+     */
+    private final ThreadLocal<SingleRepresentationBackend> threadBackend = 
+            new ThreadLocal<SingleRepresentationBackend>(){
+        protected SingleRepresentationBackend initialValue() {
+            return new SingleRepresentationBackend(vf);
+        }
+    };
+    private final ThreadLocal<EntityhubLDPath> threadLdPath = 
+            new ThreadLocal<EntityhubLDPath>(){
+        protected EntityhubLDPath initialValue() {
+            return new EntityhubLDPath(threadBackend.get());
+        }
+    };
     private Program<Object> program;
     private boolean appendMode;
     protected IndexingConfig indexingConfig;
@@ -90,8 +107,8 @@ public class LdpathProcessor implements EntityProcessor{
         if(source == null){
             return null;
         }
-        backend.setRepresentation(source);
-        Representation result = ldPath.execute(vf.createReference(source.getId()), program);
+        Representation result = getLdPath(source).execute(
+            vf.createReference(source.getId()), program);
         if(appendMode){
             Iterator<String> fields = result.getFieldNames();
             while(fields.hasNext()){
@@ -104,6 +121,18 @@ public class LdpathProcessor implements EntityProcessor{
         }
     }
 
+    /**
+     * Getter for the {@link EntityhubLDPath} instance used to process the
+     * parsed {@link Representation}. This implementation sets the parsed
+     * source to the {@link SingleRepresentationBackend} of the current thread.
+     * @param source the Representation to process
+     * @return the LDPath instance used to execute the program for the
+     * parsed source
+     */
+    protected EntityhubLDPath getLdPath(Representation source){
+        threadBackend.get().setRepresentation(source);
+        return threadLdPath.get();
+    }
     
     @Override
     public void setConfiguration(Map<String,Object> config) {
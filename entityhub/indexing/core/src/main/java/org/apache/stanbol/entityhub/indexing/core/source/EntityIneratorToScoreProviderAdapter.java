@@ -16,19 +16,24 @@
 */
 package org.apache.stanbol.entityhub.indexing.core.source;
 
-import java.util.HashMap;
+import java.io.File;
+import java.io.IOException;
 import java.util.Map;
 
 import org.apache.stanbol.entityhub.indexing.core.EntityIterator;
 import org.apache.stanbol.entityhub.indexing.core.EntityIterator.EntityScore;
 import org.apache.stanbol.entityhub.indexing.core.EntityScoreProvider;
 import org.apache.stanbol.entityhub.indexing.core.config.IndexingConfig;
+import org.apache.stanbol.entityhub.indexing.core.store.MappedScoreStore;
 import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 
 /**
  * Simple Adapter between an {@link EntityIterator} and the {@link EntityScoreProvider}
  * interface that iterates over all entities provided by the {@link EntityIterator}
  * and uses this information to initialise an {@link EntityScoreProvider}.<p>
+ * The scores are stored in a {@link MappedScoreStore} (off heap) as the
+ * iterated datasets may contain tens of millions of entities. The files of
+ * the store are deleted on {@link #close()}.<p>
  *  
  * @author Rupert Westenthaler
  *
@@ -37,6 +42,11 @@ public class EntityIneratorToScoreProviderAdapter implements EntityScoreProvider
 
     private EntityIterator entityIterator;
     private EntityScoreProvider provider;
+    /**
+     * The directory used for the {@link MappedScoreStore}. If <code>null</code>
+     * the default temp directory is used.
+     */
+    private File storeDirectory;
     public EntityIneratorToScoreProviderAdapter(){
         this(null);
     }
@@ -73,14 +83,27 @@ public class EntityIneratorToScoreProviderAdapter implements EntityScoreProvider
             entityIterator.initialise();
         }
         //initialise this instace
-        Map<String,Float> entityScoreMap = new HashMap<String,Float>();
-        while(entityIterator.hasNext()){
-            EntityScore entityScore = entityIterator.next();
-            entityScoreMap.put(entityScore.id, entityScore.score);
+        MappedScoreStore store;
+        try {
+            File file = File.createTempFile("entityscores", "", storeDirectory);
+            if(!file.delete()){ //only the name is used
+                throw new IOException("Unable to delete temporary file "+file);
+            }
+            MappedScoreStore.Builder builder = new MappedScoreStore.Builder(file);
+            while(entityIterator.hasNext()){
+                EntityScore entityScore = entityIterator.next();
+                if(entityScore.score != null){
+                    builder.put(entityScore.id, entityScore.score.floatValue());
+                }
+            }
+            store = builder.build();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to create the store for the "
+                + "scores of the Entities", e);
         }
         //close the source because it is no longer needed!
         entityIterator.close();
-        provider = new MapEntityScoreProvider(entityScoreMap);
+        provider = new MappedEntityScoreProvider(store, true);
         //initialise the wrapped score provider
         if(provider.needsInitialisation()){
             provider.initialise();
@@ -99,6 +122,7 @@ public class EntityIneratorToScoreProviderAdapter implements EntityScoreProvider
         if(entityIterator == null){
             throw new IllegalArgumentException("No EntityIterator available via the indexing configuration "+indexingConfig.getName());
         }
+        storeDirectory = indexingConfig.getIndexingFolder();
     }
 
 }
@@ -0,0 +1,99 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.entityhub.indexing.core.source;
+
+import java.util.Map;
+
+import org.apache.stanbol.entityhub.indexing.core.EntityScoreProvider;
+import org.apache.stanbol.entityhub.indexing.core.store.MappedScoreStore;
+import org.apache.stanbol.entityhub.servicesapi.model.Representation;
+
+/**
+ * Implementation of the {@link EntityScoreProvider} interface based on a
+ * {@link MappedScoreStore}. In contrast to the {@link MapEntityScoreProvider}
+ * the scores are kept off heap.
+ * @author Rupert Westenthaler
+ */
+public class MappedEntityScoreProvider implements EntityScoreProvider {
+    /**
+     * The store with the rankings
+     */
+    private MappedScoreStore rankings;
+    /**
+     * If the store is deleted on {@link #close()}
+     */
+    private final boolean deleteOnClose;
+    /**
+     * Ranking based entity Evaluator.<p>
+     * Note that Entities with rankings of <code>null</code> or 
+     * <code>&lt; 0</code> will not be indexed.
+     * @param rankings the store holding the rankings
+     * @param deleteOnClose if the files of the store are deleted on 
+     * {@link #close()}.
+     * @throws IllegalArgumentException if the parsed store is <code>null</code>
+     */
+    public MappedEntityScoreProvider(MappedScoreStore rankings, boolean deleteOnClose) throws IllegalArgumentException{
+        if(rankings == null){
+            throw new IllegalArgumentException("The store with the rankings MUST NOT be NULL");
+        }
+        this.rankings = rankings;
+        this.deleteOnClose = deleteOnClose;
+    }
+    @Override
+    public void setConfiguration(Map<String,Object> config) {
+        throw new UnsupportedOperationException("Map based configuration is not supported by this implementation!");
+    }
+    @Override
+    public boolean needsInitialisation() {
+        return false;
+    }
+    @Override
+    public void initialise() {
+        // nothing to do
+    }
+    @Override
+    public void close() {
+        if(rankings != null){
+            if(deleteOnClose){
+                rankings.delete();
+            } else {
+                rankings.close();
+            }
+            rankings = null;
+        }
+    }
+    /**
+     * Returns <code>false</code> because this implementation does not need the
+     * data of the Entities
+     * @see EntityScoreProvider#needsData()
+     */
+    @Override
+    public boolean needsData() {
+        return false;
+    }
+
+    @Override
+    public Float process(String id) {
+        return rankings.get(id);
+    }
+
+    @Override
+    public Float process(Representation entity) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("This Class uses process(String id) for evaluation");
+    }
+
+}
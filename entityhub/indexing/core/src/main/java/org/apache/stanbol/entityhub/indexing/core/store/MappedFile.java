@@ -0,0 +1,169 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.entityhub.indexing.core.store;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * Memory maps a file of any size by using several {@link MappedByteBuffer}s
+ * of {@link #SEGMENT_SIZE}.<p>
+ * Values are accessed by absolute positions. Callers MUST ensure that single
+ * values do not span segment borders (what is always the case for primitive
+ * values written at positions that are a multiple of their size). Read access
+ * is thread-safe as only absolute get methods are used.
+ * 
+ * @author Rupert Westenthaler
+ *
+ */
+final class MappedFile implements Closeable {
+
+    static final int SEGMENT_BITS = 30;
+    /**
+     * The size of the mapped segments (1GByte)
+     */
+    static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private final File file;
+    private final long size;
+    private MappedByteBuffer[] segments;
+
+    /**
+     * Maps the parsed file. If <code>size</code> is greater than the current
+     * length of the file (and <code>writeable</code> is <code>true</code>) the 
+     * file is extended. Extended regions are filled with zeros.
+     * @param file the file
+     * @param size the size of the file or <code>-1</code> to use the current
+     * length of the file
+     * @param writeable if the file is mapped in read/write mode
+     * @throws IOException on any error while mapping the file
+     */
+    MappedFile(File file, long size, boolean writeable) throws IOException {
+        this.file = file;
+        RandomAccessFile raf = new RandomAccessFile(file, writeable ? "rw" : "r");
+        try {
+            if(size < 0){
+                size = raf.length();
+            } else if(writeable && raf.length() != size){
+                raf.setLength(size);
+            }
+            this.size = size;
+            FileChannel channel = raf.getChannel();
+            int numSegments = (int)((size + SEGMENT_MASK) >>> SEGMENT_BITS);
+            segments = new MappedByteBuffer[numSegments];
+            for(int i = 0; i < numSegments; i++){
+                long start = (long)i << SEGMENT_BITS;
+                segments[i] = channel.map(writeable ? MapMode.READ_WRITE : MapMode.READ_ONLY, 
+                    start, Math.min(SEGMENT_SIZE, size - start));
+            }
+        } finally {
+            //the mapping stays valid after closing the file
+            raf.close();
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    byte get(long pos) {
+        return segments[(int)(pos >>> SEGMENT_BITS)].get((int)(pos & SEGMENT_MASK));
+    }
+
+    int getInt(long pos) {
+        return segments[(int)(pos >>> SEGMENT_BITS)].getInt((int)(pos & SEGMENT_MASK));
+    }
+
+    void putInt(long pos, int value) {
+        segments[(int)(pos >>> SEGMENT_BITS)].putInt((int)(pos & SEGMENT_MASK), value);
+    }
+
+    float getFloat(long pos) {
+        return segments[(int)(pos >>> SEGMENT_BITS)].getFloat((int)(pos & SEGMENT_MASK));
+    }
+
+    long getLong(long pos) {
+        return segments[(int)(pos >>> SEGMENT_BITS)].getLong((int)(pos & SEGMENT_MASK));
+    }
+
+    void putLong(long pos, long value) {
+        segments[(int)(pos >>> SEGMENT_BITS)].putLong((int)(pos & SEGMENT_MASK), value);
+    }
+    /**
+     * Writes changes of a writeable mapped file to the disk
+     */
+    void force() {
+        for(MappedByteBuffer segment : segments){
+            segment.force();
+        }
+    }
+    /**
+     * Releases the references to the mapped segments. The memory is freed
+     * by the JVM as soon as the buffers are garbage collected.
+     */
+    @Override
+    public void close() {
+        segments = new MappedByteBuffer[0];
+    }
+    /**
+     * Creates a hash for the bytes in the range of the parsed array. A 
+     * 64bit FNV-1a hash is used.
+     */
+    static long hash(byte[] bytes, int off, int len) {
+        long hash = 0xcbf29ce484222325L;
+        for(int i = off; i < off + len; i++){
+            hash ^= (bytes[i] & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        return hash ^ (hash >>> 32);
+    }
+    /**
+     * Creates a hash for an integer value (the finaliser of the 64bit
+     * MurmurHash3)
+     */
+    static long hash(int value) {
+        long hash = value;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+    /**
+     * The number of slots of an open addressing hash table with a maximum 
+     * load factor of 0.5.
+     * @param size the number of elements
+     * @return a power of two that is &gt;= 2*size
+     */
+    static long tableSize(long size) {
+        long capacity = 16;
+        while(capacity < size * 2){
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,272 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.entityhub.indexing.core.store;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Read-only store for <code>int</code> to <code>int[]</code> mappings kept in
+ * memory mapped files (off heap). Intended to replace 
+ * <code>Map&lt;Integer,Collection&lt;Integer&gt;&gt;</code> as used e.g. for
+ * child to parents relations of hierarchies with millions of nodes.<p>
+ * The store uses two files:<ul>
+ * <li><code>{name}.idx</code>: an open addressing hash table with slots of
+ * four <code>int</code>s: <code>[key][used][count][start]</code>.
+ * <li><code>{name}.data</code>: the values of all keys. The values of a key
+ * are stored in a continuous region starting at <code>start</code>.
+ * </ul>
+ * Use a {@link Builder} to create a store and {@link #open(File)} to open an
+ * existing one. Lookups are thread-safe.
+ * 
+ * @author Rupert Westenthaler
+ *
+ */
+public final class MappedIntListStore implements Closeable {
+    
+    private static final Logger log = LoggerFactory.getLogger(MappedIntListStore.class);
+
+    public static final String DATA_FILE_EXTENSION = ".data";
+    public static final String INDEX_FILE_EXTENSION = ".idx";
+    /**
+     * The size of a slot in the index (4 ints)
+     */
+    private static final int SLOT_BITS = 4;
+    private static final int KEY = 0;
+    private static final int USED = 4;
+    private static final int COUNT = 8;
+    private static final int START = 12;
+    
+    private static final int[] EMPTY = new int[]{};
+    
+    private final MappedFile data;
+    private final MappedFile index;
+    private final long mask;
+    
+    private MappedIntListStore(MappedFile data, MappedFile index) {
+        this.data = data;
+        this.index = index;
+        this.mask = (index.size() >>> SLOT_BITS) - 1;
+    }
+    /**
+     * Opens an existing store
+     * @param file the file name of the store without the 
+     * {@link #DATA_FILE_EXTENSION} and {@link #INDEX_FILE_EXTENSION} extensions
+     * @return the store
+     * @throws IOException if the files of the store can not be mapped
+     */
+    public static MappedIntListStore open(File file) throws IOException {
+        File dataFile = getDataFile(file);
+        File indexFile = getIndexFile(file);
+        if(!dataFile.isFile() || !indexFile.isFile()){
+            throw new IOException("The files of the store "+file+" do not exist!");
+        }
+        return new MappedIntListStore(new MappedFile(dataFile, -1, false),
+            new MappedFile(indexFile, -1, false));
+    }
+    /**
+     * Getter for the values of the parsed key
+     * @param key the key
+     * @return the values. An empty array if none.
+     */
+    public int[] get(int key) {
+        long slot = find(index, mask, key);
+        if(slot < 0){
+            return EMPTY;
+        }
+        int count = index.getInt(slot + COUNT);
+        long start = ((long)index.getInt(slot + START)) << 2;
+        int[] values = new int[count];
+        for(int i = 0; i < count; i++){
+            values[i] = data.getInt(start + (i << 2));
+        }
+        return values;
+    }
+    /**
+     * Closes the store. Calls to {@link #get(int)} after closing the store
+     * will fail.
+     */
+    @Override
+    public void close() {
+        data.close();
+        index.close();
+    }
+    /**
+     * Deletes the files of this store. Implies {@link #close()}
+     */
+    public void delete() {
+        close();
+        if(!data.getFile().delete() || !index.getFile().delete()){
+            log.warn("Unable to delete files of the store {}",data.getFile());
+        }
+    }
+    /**
+     * Searches the slot of the parsed key
+     * @return the position of the slot or <code>-(position+1)</code> of the
+     * empty slot the key would need to be inserted
+     */
+    private static long find(MappedFile index, long mask, int key) {
+        long slot = MappedFile.hash(key) & mask;
+        long pos;
+        while(index.getInt((pos = slot << SLOT_BITS) + USED) != 0){
+            if(index.getInt(pos + KEY) == key){
+                return pos;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -(pos + 1);
+    }
+
+    private static File getDataFile(File file) {
+        return new File(file.getParentFile(), file.getName() + DATA_FILE_EXTENSION);
+    }
+
+    private static File getIndexFile(File file) {
+        return new File(file.getParentFile(), file.getName() + INDEX_FILE_EXTENSION);
+    }
+    /**
+     * Builds a {@link MappedIntListStore}. Added mappings are streamed to a
+     * temporary file. {@link #build()} counts the values per key, assigns the
+     * regions in the data file and finally copies the values. Values are
+     * kept in the order they were added. Adding the same mapping twice will
+     * result in duplicated values.
+     */
+    public static final class Builder {
+        
+        private final File file;
+        private final File pairFile;
+        private DataOutputStream out;
+        private long count;
+        /**
+         * Creates a builder for a new store. Existing files are replaced.
+         * @param file the file name of the store without the 
+         * {@link #DATA_FILE_EXTENSION} and {@link #INDEX_FILE_EXTENSION} extensions
+         * @throws IOException if the temporary file can not be created
+         */
+        public Builder(File file) throws IOException {
+            if(file == null){
+                throw new IllegalArgumentException("The parsed file MUST NOT be NULL!");
+            }
+            this.file = file;
+            this.pairFile = new File(file.getParentFile(), file.getName()+".tmp");
+            this.out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(pairFile)));
+        }
+        /**
+         * Adds a value to the parsed key
+         * @param key the key
+         * @param value the value
+         * @throws IOException on any error while writing the mapping
+         */
+        public void add(int key, int value) throws IOException {
+            if(out == null){
+                throw new IllegalStateException("The store was already built!");
+            }
+            out.writeInt(key);
+            out.writeInt(value);
+            count++;
+        }
+        /**
+         * Builds the store
+         * @return the store
+         * @throws IOException on any error while building the store
+         */
+        public MappedIntListStore build() throws IOException {
+            if(out == null){
+                throw new IllegalStateException("The store was already built!");
+            }
+            long begin = System.currentTimeMillis();
+            try {
+                out.close();
+            } finally {
+                IOUtils.closeQuietly(out);
+                out = null;
+            }
+            MappedFile index = new MappedFile(getIndexFile(file), 
+                MappedFile.tableSize(count) << SLOT_BITS, true);
+            long mask = (index.size() >>> SLOT_BITS) - 1;
+            //(1) count the values for the keys
+            DataInputStream in = openPairs();
+            try {
+                for(long i = 0; i < count; i++){
+                    int key = in.readInt();
+                    in.readInt(); //the value is not needed
+                    long slot = find(index, mask, key);
+                    if(slot < 0){
+                        slot = -slot - 1;
+                        index.putInt(slot + KEY, key);
+                        index.putInt(slot + USED, 1);
+                    }
+                    index.putInt(slot + COUNT, index.getInt(slot + COUNT) + 1);
+                }
+            } finally {
+                IOUtils.closeQuietly(in);
+            }
+            //(2) assign the regions within the data file (and reset the count)
+            long start = 0;
+            for(long pos = 0; pos < index.size(); pos += 1 << SLOT_BITS){
+                if(index.getInt(pos + USED) != 0){
+                    if(start > Integer.MAX_VALUE){
+                        throw new IllegalStateException("The store does not support more than "
+                            + Integer.MAX_VALUE + " values!");
+                    }
+                    index.putInt(pos + START, (int)start);
+                    start += index.getInt(pos + COUNT);
+                    index.putInt(pos + COUNT, 0);
+                }
+            }
+            //(3) copy the values
+            MappedFile data = new MappedFile(getDataFile(file), count << 2, true);
+            in = openPairs();
+            try {
+                for(long i = 0; i < count; i++){
+                    long slot = find(index, mask, in.readInt());
+                    int num = index.getInt(slot + COUNT);
+                    data.putInt((((long)index.getInt(slot + START)) + num) << 2, in.readInt());
+                    index.putInt(slot + COUNT, num + 1);
+                }
+            } finally {
+                IOUtils.closeQuietly(in);
+            }
+            data.force();
+            data.close();
+            index.force();
+            index.close();
+            if(!pairFile.delete()){
+                log.warn("Unable to delete temporary file {}",pairFile);
+            }
+            log.info("built store {} with {} values in {}ms", new Object[]{
+                    file, count, System.currentTimeMillis() - begin});
+            return open(file);
+        }
+
+        private DataInputStream openPairs() throws IOException {
+            return new DataInputStream(new BufferedInputStream(new FileInputStream(pairFile)));
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.entityhub.indexing.core.store;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Read-only key to score store kept in memory mapped files (off heap).
+ * Intended to be used by {@link org.apache.stanbol.entityhub.indexing.core.EntityScoreProvider}s
+ * for datasets where a {@link java.util.Map} with tens of millions of 
+ * <code>String</code> to <code>Float</code> mappings would need several 
+ * GByte of heap.<p>
+ * The store uses two files:<ul>
+ * <li><code>{name}.data</code>: records of the form 
+ * <code>[int length][utf-8 key][float score]</code>. Records do not span
+ * {@link MappedFile#SEGMENT_SIZE segment} borders.
+ * <li><code>{name}.idx</code>: an open addressing hash table with
+ * <code>long</code> slots holding the <code>offset+1</code> of the record
+ * (<code>0</code> marks an empty slot).
+ * </ul>
+ * Use a {@link Builder} to create a new store and {@link #open(File)} to
+ * open an existing one. Lookups are thread-safe.
+ * 
+ * @author Rupert Westenthaler
+ *
+ */
+public final class MappedScoreStore implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedScoreStore.class);
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    
+    public static final String DATA_FILE_EXTENSION = ".data";
+    public static final String INDEX_FILE_EXTENSION = ".idx";
+
+    private final MappedFile data;
+    private final MappedFile index;
+    private final long mask;
+
+    private MappedScoreStore(MappedFile data, MappedFile index) {
+        this.data = data;
+        this.index = index;
+        this.mask = (index.size() >>> 3) - 1;
+    }
+    /**
+     * Opens an existing store
+     * @param file the file name of the store without the 
+     * {@link #DATA_FILE_EXTENSION} and {@link #INDEX_FILE_EXTENSION} extensions
+     * @return the store
+     * @throws IOException if the files of the store can not be mapped
+     */
+    public static MappedScoreStore open(File file) throws IOException {
+        File dataFile = getDataFile(file);
+        File indexFile = getIndexFile(file);
+        if(!dataFile.isFile() || !indexFile.isFile()){
+            throw new IOException("The files of the score store "+file+" do not exist!");
+        }
+        return new MappedScoreStore(new MappedFile(dataFile, -1, false),
+            new MappedFile(indexFile, -1, false));
+    }
+    /**
+     * Getter for the score of the parsed key
+     * @param key the key
+     * @return the score or <code>null</code> if not present
+     */
+    public Float get(String key) {
+        if(key == null || key.isEmpty()){
+            return null;
+        }
+        byte[] bytes = key.getBytes(UTF8);
+        long slot = MappedFile.hash(bytes, 0, bytes.length) & mask;
+        long offset;
+        while((offset = index.getLong(slot << 3)) != 0){
+            offset--; //stored as offset+1
+            if(equals(data, offset, bytes)){
+                return Float.valueOf(data.getFloat(offset + 4 + bytes.length));
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+    /**
+     * Closes the store. Calls to {@link #get(String)} after closing the store
+     * will fail.
+     */
+    @Override
+    public void close() {
+        data.close();
+        index.close();
+    }
+    /**
+     * Deletes the files of this store. Implies {@link #close()}
+     */
+    public void delete() {
+        close();
+        if(!data.getFile().delete() || !index.getFile().delete()){
+            log.warn("Unable to delete files of the score store {}",data.getFile());
+        }
+    }
+
+    private static boolean equals(MappedFile data, long offset, byte[] key) {
+        if(data.getInt(offset) != key.length){
+            return false;
+        }
+        long pos = offset + 4;
+        for(int i = 0; i < key.length; i++, pos++){
+            if(data.get(pos) != key[i]){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static File getDataFile(File file) {
+        return new File(file.getParentFile(), file.getName() + DATA_FILE_EXTENSION);
+    }
+
+    private static File getIndexFile(File file) {
+        return new File(file.getParentFile(), file.getName() + INDEX_FILE_EXTENSION);
+    }
+    /**
+     * Builds a {@link MappedScoreStore}. Mappings are first streamed to the
+     * data file. {@link #build()} creates the hash table. If a key is added
+     * multiple times the last score is used.
+     */
+    public static final class Builder {
+
+        private final File file;
+        private DataOutputStream out;
+        private long pos;
+        private long count;
+
+        /**
+         * Creates a builder for a new store. Existing files are replaced.
+         * @param file the file name of the store without the 
+         * {@link #DATA_FILE_EXTENSION} and {@link #INDEX_FILE_EXTENSION} extensions
+         * @throws IOException if the data file can not be created
+         */
+        public Builder(File file) throws IOException {
+            if(file == null){
+                throw new IllegalArgumentException("The parsed file MUST NOT be NULL!");
+            }
+            this.file = file;
+            this.out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(getDataFile(file))));
+        }
+        /**
+         * Adds a mapping
+         * @param key the key. MUST NOT be <code>null</code> nor empty
+         * @param score the score
+         * @throws IOException on any error while writing the mapping
+         */
+        public void put(String key, float score) throws IOException {
+            if(out == null){
+                throw new IllegalStateException("The store was already built!");
+            }
+            if(key == null || key.isEmpty()){
+                throw new IllegalArgumentException("The parsed key MUST NOT be NULL nor empty!");
+            }
+            byte[] bytes = key.getBytes(UTF8);
+            int length = bytes.length + 8;
+            long remaining = MappedFile.SEGMENT_SIZE - (pos & (MappedFile.SEGMENT_SIZE - 1));
+            //records MUST NOT span segments. Also ensure that there is space
+            //for the length of the next record (or the padding marker)
+            if(length + 4 > remaining){
+                for(;remaining > 0; remaining--){ //zero length indicates padding
+                    out.write(0);
+                    pos++;
+                }
+            }
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            out.writeFloat(score);
+            pos += length;
+            count++;
+        }
+        /**
+         * Builds the hash table and opens the store
+         * @return the store
+         * @throws IOException on any error while building the store
+         */
+        public MappedScoreStore build() throws IOException {
+            if(out == null){
+                throw new IllegalStateException("The store was already built!");
+            }
+            long start = System.currentTimeMillis();
+            try {
+                out.close();
+            } finally {
+                IOUtils.closeQuietly(out);
+                out = null;
+            }
+            MappedFile data = new MappedFile(getDataFile(file), pos, false);
+            MappedFile index = new MappedFile(getIndexFile(file), MappedFile.tableSize(count) << 3, true);
+            long mask = (index.size() >>> 3) - 1;
+            byte[] key = new byte[256];
+            long offset = 0;
+            while(offset < pos){
+                int length = data.getInt(offset);
+                if(length == 0){ //padding -> skip to the next segment
+                    offset = (offset + MappedFile.SEGMENT_SIZE) & ~(MappedFile.SEGMENT_SIZE - 1);
+                    continue;
+                }
+                if(key.length < length){
+                    key = new byte[length];
+                }
+                for(int i = 0; i < length; i++){
+                    key[i] = data.get(offset + 4 + i);
+                }
+                long slot = MappedFile.hash(key, 0, length) & mask;
+                long current;
+                while((current = index.getLong(slot << 3)) != 0 &&
+                        !equals(data, current - 1, key, length)){
+                    slot = (slot + 1) & mask;
+                }
+                index.putLong(slot << 3, offset + 1); //replaces existing
+                offset += length + 8;
+            }
+            index.force();
+            index.close();
+            log.info("built score store {} with {} entries in {}ms", new Object[]{
+                    file, count, System.currentTimeMillis() - start});
+            return new MappedScoreStore(data, new MappedFile(getIndexFile(file), -1, false));
+        }
+
+        private static boolean equals(MappedFile data, long offset, byte[] key, int length) {
+            if(data.getInt(offset) != length){
+                return false;
+            }
+            for(int i = 0; i < length; i++){
+                if(data.get(offset + 4 + i) != key[i]){
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
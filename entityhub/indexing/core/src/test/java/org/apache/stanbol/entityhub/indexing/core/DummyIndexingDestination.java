@@ -21,6 +21,7 @@ package org.apache.stanbol.entityhub.indexing.core;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.stanbol.entityhub.core.model.InMemoryValueFactory;
@@ -111,6 +112,18 @@ public class DummyIndexingDestination implements IndexingDestination {
             return IndexerTest.indexedData.get(id);
         }
         
+        @Override
+        public Map<String,Representation> getRepresentations(Collection<String> ids) throws YardException, IllegalArgumentException {
+            Map<String,Representation> reps = new HashMap<String,Representation>();
+            for(String id : ids){
+                Representation rep = getRepresentation(id);
+                if(rep != null){
+                    reps.put(id, rep);
+                }
+            }
+            return reps;
+        }
+        
         @Override
         public FieldQueryFactory getQueryFactory() {
             return DefaultQueryFactory.getInstance();
@@ -32,6 +32,7 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.stanbol.entityhub.core.model.InMemoryValueFactory;
@@ -66,7 +67,7 @@ public class IndexerTest {
     /**
      * Hold the results of the indexing process
      */
-    protected static final Map<String,Representation> indexedData = new HashMap<String,Representation>();
+    protected static final Map<String,Representation> indexedData = new ConcurrentHashMap<String,Representation>();
     protected static Logger log = LoggerFactory.getLogger(IndexerTest.class);
     private static String rootDir;
     private static IndexerFactory factory;
@@ -142,7 +143,7 @@ public class IndexerTest {
      * directory used to create the {@link IndexerFactory} used to initialise
      * the test.
      */
-    private void validateAllIndexed() {
+    static void validateAllIndexed() {
         assertEquals("Number of Indexed Entities "+indexedData.size()+
             "!= the Number of Source Entities "+NUM_ENTITIES,
             NUM_ENTITIES,indexedData.size());
@@ -180,7 +181,7 @@ public class IndexerTest {
     }
     
     
-    private float validateIndexed(Representation rep) {
+    private static float validateIndexed(Representation rep) {
         //first check that the dc-element fields are mapped to dc-terms
         Object value = rep.getFirst(DC_CREATOR);
         assertTrue(value instanceof String);
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.indexing.core;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.commons.io.FilenameUtils;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Indexes the test data of the {@link IndexerTest} with several processing
+ * and persisting threads and validates the results the same way as the
+ * {@link IndexerTest} does for the single threaded default configuration.
+ */
+public class ParallelIndexerTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelIndexerTest.class);
+
+    private static final int PROCESSING_THREADS = 4;
+    private static final int PERSISTING_THREADS = 2;
+
+    private static final String CONFIG_ROOT =
+        FilenameUtils.separatorsToSystem("indexerTests/");
+    /**
+     * @see IndexerTest
+     */
+    private static final String TEST_ROOT =
+        FilenameUtils.separatorsToSystem("/target/test-files");
+    private static String userDir;
+    private static IndexerFactory factory;
+
+    /**
+     * The methods resets the "user.dir" system property
+     */
+    @BeforeClass
+    public static void initTestRootFolder(){
+        String baseDir = System.getProperty("basedir");
+        if(baseDir == null){
+            baseDir = System.getProperty("user.dir");
+        }
+        //store the current user.dir and reset it after the tests
+        userDir = System.getProperty("user.dir");
+        String testRoot = baseDir+TEST_ROOT;
+        log.info("ConfigTest Root : "+testRoot);
+        System.setProperty("user.dir", testRoot);
+        factory = IndexerFactory.getInstance();
+    }
+    /**
+     * resets the "user.dir" system property the the original value
+     */
+    @AfterClass
+    public static void cleanup(){
+        System.setProperty("user.dir", userDir);
+        IndexerTest.indexedData.clear();
+    }
+    /**
+     * Removes the results of previous tests so that only the results of
+     * the current indexing process are validated
+     */
+    @Before
+    public void clearIndexedData(){
+        IndexerTest.indexedData.clear();
+    }
+
+    @Test
+    public void testParallelDataInteratingMode(){
+        Indexer indexer = factory.create(CONFIG_ROOT+"dataIterating",CONFIG_ROOT+"idIterating");
+        index(indexer);
+    }
+    @Test
+    public void testParallelEntityIdIteratingMode(){
+        Indexer indexer = factory.create(CONFIG_ROOT+"idIterating",CONFIG_ROOT+"idIterating");
+        index(indexer);
+    }
+
+    private void index(Indexer indexer) {
+        indexer.setProcessingThreads(PROCESSING_THREADS);
+        indexer.setPersistingThreads(PERSISTING_THREADS);
+        assertEquals(PROCESSING_THREADS, indexer.getProcessingThreads());
+        assertEquals(PERSISTING_THREADS, indexer.getPersistingThreads());
+        indexer.index();
+        //check that all entities have been indexed
+        IndexerTest.validateAllIndexed();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.entityhub.indexing.core.store;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class MappedStoreTest {
+
+    private static File testDir;
+
+    @BeforeClass
+    public static void init() throws IOException {
+        testDir = new File(System.getProperty("basedir", "."), "target/mapped-store-test");
+        if(!testDir.isDirectory() && !testDir.mkdirs()){
+            throw new IOException("Unable to create test directory "+testDir);
+        }
+    }
+
+    @AfterClass
+    public static void cleanup() {
+        File[] files = testDir.listFiles();
+        if(files != null){
+            for(File file : files){
+                file.delete();
+            }
+        }
+        testDir.delete();
+    }
+
+    @Test
+    public void testScoreStore() throws IOException {
+        File file = new File(testDir, "scores");
+        MappedScoreStore.Builder builder = new MappedScoreStore.Builder(file);
+        for(int i = 0; i < 10000; i++){
+            builder.put("http://www.example.org/entity/"+i, i/10f);
+        }
+        builder.put("http://www.example.org/entity/\u00e4\u00f6\u00fc", 1.5f);
+        builder.put("http://www.example.org/entity/1", 42f); //replaces the first
+        MappedScoreStore store = builder.build();
+        Assert.assertEquals(Float.valueOf(0f), store.get("http://www.example.org/entity/0"));
+        Assert.assertEquals(Float.valueOf(42f), store.get("http://www.example.org/entity/1"));
+        Assert.assertEquals(Float.valueOf(999.9f), store.get("http://www.example.org/entity/9999"));
+        Assert.assertEquals(Float.valueOf(1.5f), store.get("http://www.example.org/entity/\u00e4\u00f6\u00fc"));
+        Assert.assertNull(store.get("http://www.example.org/entity/10000"));
+        Assert.assertNull(store.get(""));
+        store.close();
+        //reopen the existing store
+        store = MappedScoreStore.open(file);
+        Assert.assertEquals(Float.valueOf(0.5f), store.get("http://www.example.org/entity/5"));
+        store.delete();
+        Assert.assertFalse(new File(testDir, "scores"+MappedScoreStore.DATA_FILE_EXTENSION).exists());
+    }
+
+    @Test
+    public void testIntListStore() throws IOException {
+        File file = new File(testDir, "hierarchy");
+        MappedIntListStore.Builder builder = new MappedIntListStore.Builder(file);
+        for(int i = 1; i < 10000; i++){
+            builder.add(i, i/10);
+            if(i % 3 == 0){
+                builder.add(i, -i);
+            }
+        }
+        MappedIntListStore store = builder.build();
+        Assert.assertArrayEquals(new int[]{0}, store.get(1));
+        Assert.assertArrayEquals(new int[]{0, -3}, store.get(3));
+        Assert.assertArrayEquals(new int[]{999, -9999}, store.get(9999));
+        Assert.assertEquals(0, store.get(0).length);
+        Assert.assertEquals(0, store.get(10000).length);
+        store.delete();
+    }
+}
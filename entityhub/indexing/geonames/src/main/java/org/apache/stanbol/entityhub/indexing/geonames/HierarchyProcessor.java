@@ -38,6 +38,7 @@ import java.util.zip.ZipFile;
 import org.apache.stanbol.entityhub.core.model.InMemoryValueFactory;
 import org.apache.stanbol.entityhub.indexing.core.EntityProcessor;
 import org.apache.stanbol.entityhub.indexing.core.config.IndexingConfig;
+import org.apache.stanbol.entityhub.indexing.core.store.MappedIntListStore;
 import org.apache.stanbol.entityhub.servicesapi.model.Reference;
 import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.apache.stanbol.entityhub.servicesapi.model.ValueFactory;
@@ -65,8 +66,16 @@ public class HierarchyProcessor implements EntityProcessor {
     
     private final Map<String, Integer> adminCode2featureId = new HashMap<String, Integer>();
 
-    private final Map<Integer,Collection<Integer>> parentFeature = new HashMap<Integer, Collection<Integer>>();
-    private final Map<Integer,Collection<Integer>> adminParentFeature = new HashMap<Integer, Collection<Integer>>();
+    /**
+     * child -&gt; parents mappings of the hierarchy table. Kept off heap
+     * because of the size of the geonames.org hierarchy
+     */
+    private MappedIntListStore parentFeature;
+    /**
+     * child -&gt; parents mappings of the hierarchy table for administrative
+     * regions (type ADM)
+     */
+    private MappedIntListStore adminParentFeature;
 
     private final Map<String, Integer> countryCode2featureId = new HashMap<String, Integer>();
     private IndexingConfig indexingConfig;
@@ -246,40 +255,57 @@ public class HierarchyProcessor implements EntityProcessor {
         String line;
         int lineCount=0;
         long start = System.currentTimeMillis();
-        while((line = reader.readLine()) != null){
-            lineCount++;
-            LineTokenizer t = new LineTokenizer(line);
-            Integer parent = Integer.valueOf(t.next());
-            Integer child = Integer.valueOf(t.next());
-            String type;
-            if(t.hasNext()){
-                type = t.next();
-            } else {
-                type = null;
-            }
-            if("ADM".equals(type)){
-                Collection<Integer> parents = adminParentFeature.get(child);
-                if(parents == null){
-                    parents = new ArrayList<Integer>(1); //there are only some exceptions with multiple parents
-                    adminParentFeature.put(child, parents);
+        File storeDir = indexingConfig.getIndexingFolder();
+        MappedIntListStore.Builder parentBuilder = new MappedIntListStore.Builder(
+            createStoreFile("parentFeature", storeDir));
+        MappedIntListStore.Builder adminParentBuilder = new MappedIntListStore.Builder(
+            createStoreFile("adminParentFeature", storeDir));
+        try {
+            while((line = reader.readLine()) != null){
+                lineCount++;
+                LineTokenizer t = new LineTokenizer(line);
+                int parent = Integer.parseInt(t.next());
+                int child = Integer.parseInt(t.next());
+                String type;
+                if(t.hasNext()){
+                    type = t.next();
+                } else {
+                    type = null;
                 }
-                parents.add(parent);
-            } else {
-                Collection<Integer> parents = parentFeature.get(child);
-                if(parents == null){
-                    parents = new ArrayList<Integer>(3);
-                    parentFeature.put(child, parents);
+                if("ADM".equals(type)){
+                    adminParentBuilder.add(child, parent);
+                } else {
+                    parentBuilder.add(child, parent);
                 }
-                parents.add(parent);
             }
+        } finally {
+            reader.close();
         }
+        parentFeature = parentBuilder.build();
+        adminParentFeature = adminParentBuilder.build();
         log.info(String.format("read %d hierarchy relations in %dms",lineCount,System.currentTimeMillis()-start));
     }
+    /**
+     * Creates a unique file name for a {@link MappedIntListStore}
+     */
+    private static File createStoreFile(String name, File dir) throws IOException {
+        File file = File.createTempFile(name, "", dir);
+        if(!file.delete()){ //only the name is used
+            throw new IOException("Unable to delete temporary file "+file);
+        }
+        return file;
+    }
     
     @Override
     public void close() {
-        // TODO Auto-generated method stub
-
+        if(parentFeature != null){
+            parentFeature.delete();
+            parentFeature = null;
+        }
+        if(adminParentFeature != null){
+            adminParentFeature.delete();
+            adminParentFeature = null;
+        }
     }
 
     @Override
@@ -306,30 +332,20 @@ public class HierarchyProcessor implements EntityProcessor {
      * @param parents the set used to add all the parents/child mappings
      */
     private void getParents(Integer id, Map<Integer,Collection<Integer>> parents){
-        Collection<Integer> current = parentFeature.get(id);
-        if(current != null){
-            for(Integer parent : current){
-                Collection<Integer> childs = parents.get(parent);
-                if(childs == null){
-                    childs = new HashSet<Integer>();
-                    parents.put(parent, childs);
-                }
-                if(childs.add(id)){
-                    getParents(parent, parents);
-                }
+        collectParents(id, parentFeature.get(id.intValue()), parents);
+        collectParents(id, adminParentFeature.get(id.intValue()), parents);
+    }
+
+    private void collectParents(Integer id, int[] current, Map<Integer,Collection<Integer>> parents) {
+        for(int p : current){
+            Integer parent = Integer.valueOf(p);
+            Collection<Integer> childs = parents.get(parent);
+            if(childs == null){
+                childs = new HashSet<Integer>();
+                parents.put(parent, childs);
             }
-        }
-        current = adminParentFeature.get(id);
-        if(current != null){
-            for(Integer parent : current){
-                Collection<Integer> childs = parents.get(parent);
-                if(childs == null){
-                    childs = new HashSet<Integer>();
-                    parents.put(parent, childs);
-                }
-                if(childs.add(id)){
-                    getParents(parent, parents);
-                }
+            if(childs.add(id)){
+                getParents(parent, parents);
             }
         }
     }
@@ -19,6 +19,8 @@ package org.apache.stanbol.entityhub.site.managed.impl;
 import static org.apache.stanbol.entityhub.core.utils.SiteUtils.extractSiteMetadata;
 
 import java.io.InputStream;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
@@ -155,6 +157,23 @@ public final class YardSite implements ManagedSite {
         }
     }
     
+    @Override
+    public Map<String,Entity> getEntities(Collection<String> ids) throws ManagedSiteException {
+        Map<String,Representation> reps;
+        try {
+            reps = getYard().getRepresentations(ids);
+        } catch (YardException e) {
+            throw new ManagedSiteException(e.getMessage(), e);
+        }
+        Map<String,Entity> entities = new HashMap<String,Entity>(reps.size());
+        for(Map.Entry<String,Representation> rep : reps.entrySet()){
+            Entity entity = new EntityImpl(config.getId(), rep.getValue(), null);
+            SiteUtils.initEntityMetadata(entity, siteMetadata, null);
+            entities.put(rep.getKey(), entity);
+        }
+        return entities;
+    }
+    
     /**
      * Stores the parsed representation to the Yard and also applies the
      * configured {@link #getFieldMapper() FieldMappings}.
@@ -17,10 +17,14 @@
 package org.apache.stanbol.entityhub.yard.clerezza.impl;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Dictionary;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
 
@@ -256,21 +260,62 @@ public class ClerezzaYard extends AbstractYard implements Yard {
     protected final Representation getRepresentation(IRI uri, boolean check) {
         final Lock readLock = readLockGraph();
         try {
-            if(!check || isRepresentation(uri)){
-                Graph nodeGraph = createRepresentationGraph(uri, graph);
-                //Remove the triple internally used to represent an empty Representation
-                // ... this will only remove the triple if the Representation is empty
-                //     but a check would take longer than the this call
-                nodeGraph.remove(new TripleImpl(uri,MANAGED_REPRESENTATION,TRUE_LITERAL));
-                return ((RdfValueFactory)getValueFactory()).createRdfRepresentation(uri, nodeGraph);
-            } else {
-                return null; //not found
+            return extractRepresentation(uri, check);
+        } finally {
+            if(readLock != null){
+                readLock.unlock();
+            }
+        }
+    }
+    /**
+     * Extracts all requested Representations while holding the read lock on
+     * the graph only once.
+     */
+    @Override
+    public Map<String,Representation> getRepresentations(Collection<String> ids) {
+        if(ids == null){
+            throw new IllegalArgumentException("The parsed representation ids MUST NOT be NULL!");
+        }
+        if(ids.isEmpty()){
+            return Collections.emptyMap();
+        }
+        Map<String,Representation> reps = new HashMap<String,Representation>(ids.size());
+        final Lock readLock = readLockGraph();
+        try {
+            for(String id : ids){
+                if(id != null && !id.isEmpty() && !reps.containsKey(id)){
+                    Representation rep = extractRepresentation(new IRI(id), true);
+                    if(rep != null){
+                        reps.put(id, rep);
+                    }
+                }
             }
         } finally {
             if(readLock != null){
                 readLock.unlock();
             }
         }
+        return reps;
+    }
+    /**
+     * Creates the Representation for the parsed URI. Callers need to
+     * hold the read lock on the {@link #graph}.
+     * @param uri the uri
+     * @param check if <code>false</code> than there is no check if the URI
+     *     refers to a RDFTerm in the graph
+     * @return the Representation or <code>null</code> if not found
+     */
+    private Representation extractRepresentation(IRI uri, boolean check) {
+        if(!check || isRepresentation(uri)){
+            Graph nodeGraph = createRepresentationGraph(uri, graph);
+            //Remove the triple internally used to represent an empty Representation
+            // ... this will only remove the triple if the Representation is empty
+            //     but a check would take longer than the this call
+            nodeGraph.remove(new TripleImpl(uri,MANAGED_REPRESENTATION,TRUE_LITERAL));
+            return ((RdfValueFactory)getValueFactory()).createRdfRepresentation(uri, nodeGraph);
+        } else {
+            return null; //not found
+        }
     }
     /**
      * @return the readLock or <code>null</code>if no read lock is needed
@@ -17,6 +17,8 @@
 package org.apache.stanbol.entityhub.yard.sesame;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -267,6 +269,43 @@ public class SesameYard extends AbstractYard implements Yard {
             }
         }
     }
+    /**
+     * Retrieves all requested Representations within a single transaction
+     * of a single {@link RepositoryConnection}.
+     */
+    @Override
+    public Map<String,Representation> getRepresentations(Collection<String> ids) throws YardException{
+        if(ids == null){
+            throw new IllegalArgumentException("The parsed representation ids MUST NOT be NULL!");
+        }
+        if(ids.isEmpty()){
+            return Collections.emptyMap();
+        }
+        Map<String,Representation> reps = new HashMap<String,Representation>(ids.size());
+        RepositoryConnection con = null;
+        try {
+            con = repository.getConnection();
+            con.begin();
+            for(String id : ids){
+                if(id != null && !id.isEmpty() && !reps.containsKey(id)){
+                    Representation rep = getRepresentation(con, sesameFactory.createURI(id), true);
+                    if(rep != null){
+                        reps.put(id, rep);
+                    }
+                }
+            }
+            con.commit();
+            return reps;
+        } catch (RepositoryException e) {
+            throw new YardException("Unable to get Representations "+ids, e);
+        } finally {
+            if(con != null){
+                try {
+                    con.close();
+                } catch (RepositoryException ignore) {}
+            }
+        }
+    }
     /**
      * Internally used to create Representations for URIs
      * @param uri the uri
@@ -40,6 +40,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.solr.client.solrj.SolrQuery;
@@ -79,12 +81,12 @@ public class SolrFieldMapper implements FieldMapper {
     private static final String LANG_MERGER_PREFIX = "" + SolrConst.SPECIAL_FIELD_PREFIX
                                                      + SolrConst.MERGER_INDICATOR + SolrConst.LANG_INDICATOR;
     /**
-     * The size of the LRU cache for FieldName to IndexField as well as IndexField to collection of FieldNames
+     * The size of the cache for FieldName to IndexField as well as IndexField to collection of FieldNames
      * mappings.
      * <p>
      * Note that both caches may have a maximum of elements as configured by this property.
      */
-    private static final int LRU_MAPPINGS_CACHE_SIZE = 1024;
+    private static final int MAPPINGS_CACHE_SIZE = 1024;
     /**
      * The IndexField for the Solr score. This field is mapped to the field
      * {@link RdfResourceEnum#resultScore} and uses {@link IndexDataTypeEnum#FLOAT}
@@ -97,49 +99,27 @@ public class SolrFieldMapper implements FieldMapper {
      */
     protected final SolrServer server;
 
-    /**
-     * Internally used as LRU Cache with {@link SolrFieldMapper#LRU_MAPPINGS_CACHE_SIZE} elements. This
-     * subclass of {@link LinkedHashMap} overrides the {@link LinkedHashMap#removeEldestEntry(Entry)} as
-     * suggested by the java doc. It also uses the constructor that activates the ordering based on access
-     * time rather tan insertion time.
-     * 
-     * @author Rupert Westenthaler
-     * 
-     * @param <K>
-     *            generic type of the key
-     * @param <V>
-     *            generic type of the value
-     */
-    private static final class LRU<K,V> extends LinkedHashMap<K,V> {
-        public LRU() {
-            super(16, 0.75f, true); // access order!
-        }
-
-        private static final long serialVersionUID = 1L;
-
-        @Override
-        protected boolean removeEldestEntry(Map.Entry<K,V> eldest) {
-            return size() > LRU_MAPPINGS_CACHE_SIZE;
-        }
-    }
-
     /**
      * The assumption is, that only a handful of {@link IndexField}s are used very often.
      * <p>
      * So it makes sense to keep some mappings within a cache rather than calculating them again and again.
-     * 
-     * @see LinkedHashMap#
+     * <p>
+     * This (and the {@link #fieldMappings}) cache used to be a synchronized access ordered
+     * {@link LinkedHashMap} (STANBOL-669). As every read of such a map modifies the access order it
+     * needed a global lock for all {@link #getField(String)} and {@link #getFieldNames(IndexField)}
+     * calls and was therefore a major contention point for multi threaded use (e.g. when creating
+     * Representations for search results). Now a {@link ConcurrentHashMap} is used. Reads do not lock
+     * and the size is bounded by {@link #cacheMapping(ConcurrentMap, Object, Object)}.
      */
-    private final Map<IndexField,List<String>> indexFieldMappings = 
-            //STANBOL-669: LRU chaches MUST BE synchronized!
-            Collections.synchronizedMap(new LRU<IndexField,List<String>>());
+    private final ConcurrentMap<IndexField,List<String>> indexFieldMappings = 
+            new ConcurrentHashMap<IndexField,List<String>>(64, 0.75f, 16);
     /**
      * The assumption is, that only a handful of fields appear in index documents. So it makes sense to keep
      * some mappings within a cache rather than calculating them again and again.
+     * @see #indexFieldMappings
      */
-    private final Map<String,IndexField> fieldMappings = 
-            //STANBOL-669: LRU chaches MUST BE synchronized!
-            Collections.synchronizedMap(new LRU<String,IndexField>());
+    private final ConcurrentMap<String,IndexField> fieldMappings = 
+            new ConcurrentHashMap<String,IndexField>(64, 0.75f, 16);
     
     private NamespacePrefixService nsPrefixService;
 
@@ -190,7 +170,7 @@ public class SolrFieldMapper implements FieldMapper {
             // process the parsed data
             field = parseIndexField(prefix, suffix, path);
             if (field != null) {
-                fieldMappings.put(fieldName, field);
+                field = cacheMapping(fieldMappings, fieldName, field);
             }
         }
         return field;
@@ -381,11 +361,35 @@ public class SolrFieldMapper implements FieldMapper {
                 }
             }
             // cache the mappings
-            indexFieldMappings.put(indexField, fieldNames);
+            fieldNames = cacheMapping(indexFieldMappings, indexField, fieldNames);
         }
         return fieldNames;
     }
 
+    /**
+     * Adds a mapping to one of the mapping caches. If the cache has reached
+     * {@link #MAPPINGS_CACHE_SIZE} some (arbitrary) entries are evicted. As
+     * the mappings can be calculated at any time this does not need to be
+     * exact (e.g. concurrent puts may exceed the size by a few entries).
+     * @param cache the cache
+     * @param key the key
+     * @param value the calculated value
+     * @return the value to use. If an other thread has added a mapping for
+     * the same key in the meantime this is the already cached value.
+     */
+    private static <K,V> V cacheMapping(ConcurrentMap<K,V> cache, K key, V value) {
+        if (cache.size() >= MAPPINGS_CACHE_SIZE) {
+            // evict about 1/8 of the entries to avoid evicting on every put
+            int evict = Math.max(1, MAPPINGS_CACHE_SIZE >> 3);
+            for (Iterator<K> it = cache.keySet().iterator(); it.hasNext() && evict > 0; evict--) {
+                it.next();
+                it.remove();
+            }
+        }
+        V current = cache.putIfAbsent(key, value);
+        return current == null ? value : current;
+    }
+
     /**
      * Getter for the string used to index a the parsed path. This method replaces the URI's of all elements
      * within the path with <code>prefix+NAMESPACE_PREFIX_SEPERATOR_CHAR+localName</code>. In addition it
@@ -23,6 +23,7 @@ import java.security.PrivilegedExceptionAction;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -398,6 +399,52 @@ public class SolrYard extends AbstractYard implements Yard {
         return rep;
     }
 
+    /**
+     * Retrieves all requested Representations by using 
+     * {@link #getSolrDocuments(Collection, Collection)}. This sends a single
+     * request for up to {@link SolrYardConfig#getMaxBooleanClauses()} ids
+     * instead of one request per id.
+     */
+    @Override
+    public final Map<String,Representation> getRepresentations(Collection<String> ids) throws YardException {
+        if (ids == null) {
+            throw new IllegalArgumentException("The parsed Collection of Representation ids MUST NOT be NULL!");
+        }
+        if(closed){
+            log.warn("The SolrYard '{}' was already closed!",config.getName());
+        }
+        Set<String> uris = new HashSet<String>(ids.size());
+        for(String id : ids){
+            if(id != null && !id.isEmpty()){
+                uris.add(id);
+            }
+        }
+        if(uris.isEmpty()){
+            return Collections.emptyMap();
+        }
+        Collection<SolrDocument> docs;
+        long start = System.currentTimeMillis();
+        try {
+            docs = getSolrDocuments(uris, null);
+        } catch (SolrServerException e) {
+            throw new YardException("Error while getting SolrDocuments for ids " + uris, e);
+        } catch (IOException e) {
+            throw new YardException("Unable to access SolrServer", e);
+        }
+        long retrieve = System.currentTimeMillis();
+        Map<String,Representation> reps = new HashMap<String,Representation>(uris.size());
+        if(docs != null){
+            for(SolrDocument doc : docs){
+                Representation rep = createRepresentation(doc, null);
+                reps.put(rep.getId(), rep);
+            }
+        }
+        long create = System.currentTimeMillis();
+        log.debug(String.format("  ... found %d/%d [retrieve=%dms|create=%dms|sum=%dms]", 
+            reps.size(), uris.size(), (retrieve - start), (create - retrieve), (create - start)));
+        return reps;
+    }
+
     /**
      * Creates the Representation for the parsed SolrDocument!
      * 
@@ -1025,7 +1072,7 @@ public class SolrYard extends AbstractYard implements Yard {
                     num++;
                 }
             }
-            log.info("Get SolrDocuments for Query: " + queryBuilder.toString());
+            log.debug("Get SolrDocuments for Query: {}", queryBuilder);
             // no more items or all boolean clauses used -> send a request
             solrQuery.setQuery(queryBuilder.toString());
             queryBuilder = new StringBuilder(); // and a new StringBuilder
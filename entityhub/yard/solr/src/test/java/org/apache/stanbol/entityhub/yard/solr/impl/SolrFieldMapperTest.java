@@ -0,0 +1,295 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.yard.solr.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.client.solrj.SolrServer;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.util.NamedList;
+import org.apache.stanbol.entityhub.core.model.InMemoryValueFactory;
+import org.apache.stanbol.entityhub.servicesapi.model.Representation;
+import org.apache.stanbol.entityhub.yard.solr.defaults.IndexDataTypeEnum;
+import org.apache.stanbol.entityhub.yard.solr.model.IndexField;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests the multi threaded use of the {@link SolrFieldMapper}. Both the
+ * {@link SolrFieldMapper} and the {@link SolrYard} are used without a Solr
+ * server.
+ */
+public class SolrFieldMapperTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SolrFieldMapperTest.class);
+
+    private static final int[] THREADS = new int[]{1,2,4,8,16,32};
+    private static final int OPERATIONS = 200000;
+    private static final int NUM_NAMESPACES = 8;
+    private static final int NUM_FIELDS = 64;
+    private static final int NUM_REPRESENTATIONS = 100;
+
+    private static SolrYard yard;
+    private static List<SolrDocument> documents;
+
+    @BeforeClass
+    public static void init() {
+        yard = new SolrYard(new UnavailableSolrServer(),
+            new SolrYardConfig("fieldMapperTestYard", "fieldMapperTest"), null);
+        documents = new ArrayList<SolrDocument>(NUM_REPRESENTATIONS);
+        for(int i = 0; i < NUM_REPRESENTATIONS; i++){
+            Representation rep = InMemoryValueFactory.getInstance().createRepresentation(
+                "http://www.example.org/entity/" + i);
+            for(int j = 0; j < NUM_FIELDS / 4; j++){
+                rep.addNaturalText(getFieldUri(j), "label " + i, "en");
+                rep.addNaturalText(getFieldUri(j), "Bezeichnung " + i, "de");
+                rep.addReference(getFieldUri(j + 1), "http://www.example.org/entity/" + (i + j));
+                rep.add(getFieldUri(j + 2), Integer.valueOf(i * j));
+                rep.add(getFieldUri(j + 3), new Date(i * 1000L));
+            }
+            SolrInputDocument inputDoc = yard.createSolrInputDocument(rep);
+            SolrDocument doc = new SolrDocument();
+            for(String name : inputDoc.getFieldNames()){
+                for(Object value : inputDoc.getFieldValues(name)){
+                    doc.addField(name, value);
+                }
+            }
+            documents.add(doc);
+        }
+    }
+
+    @AfterClass
+    public static void cleanup() {
+        if(yard != null){
+            yard.close();
+        }
+    }
+
+    private static String getFieldUri(int field){
+        return "http://www.example.org/ns" + (field % NUM_NAMESPACES) + "#field" + field;
+    }
+
+    /**
+     * Creates the Solr document field names for {@link #NUM_FIELDS} fields
+     * with different data types and languages
+     */
+    private static List<String> createFieldNames(SolrFieldMapper mapper) {
+        List<String> fieldNames = new ArrayList<String>();
+        for(int i = 0; i < NUM_FIELDS; i++){
+            List<String> path = Collections.singletonList(getFieldUri(i));
+            for(IndexField field : Arrays.asList(
+                    new IndexField(path, IndexDataTypeEnum.TXT.getIndexType(), "en"),
+                    new IndexField(path, IndexDataTypeEnum.TXT.getIndexType(), "de"),
+                    new IndexField(path, IndexDataTypeEnum.STR.getIndexType()),
+                    new IndexField(path, IndexDataTypeEnum.REF.getIndexType()),
+                    new IndexField(path, IndexDataTypeEnum.INT.getIndexType()),
+                    new IndexField(path, IndexDataTypeEnum.DATE.getIndexType()))){
+                fieldNames.addAll(mapper.getFieldNames(field));
+            }
+        }
+        return fieldNames;
+    }
+
+    /**
+     * Concurrent {@link SolrFieldMapper#getField(String)} calls need to return
+     * the same {@link IndexField}s as single threaded calls. The number of
+     * field names exceeds the size of the mapping cache.
+     */
+    @Test
+    public void testConcurrentGetField() throws Exception {
+        final SolrFieldMapper mapper = new SolrFieldMapper(null, null);
+        final List<String> fieldNames = createFieldNames(mapper);
+        final Map<String,IndexField> expected = new HashMap<String,IndexField>();
+        for(String fieldName : fieldNames){
+            expected.put(fieldName, mapper.getField(fieldName));
+        }
+        final AtomicLong failed = new AtomicLong();
+        runConcurrently(8, new Operation() {
+            @Override
+            public void run(int thread) {
+                for(int i = 0; i < 10; i++){
+                    for(int j = 0; j < fieldNames.size(); j++){
+                        String fieldName = fieldNames.get((j + thread * 7) % fieldNames.size());
+                        IndexField field = mapper.getField(fieldName);
+                        if(field == null ? expected.get(fieldName) != null :
+                                !field.equals(expected.get(fieldName))){
+                            failed.incrementAndGet();
+                        }
+                    }
+                }
+            }
+        });
+        assertEquals(0, failed.get());
+    }
+
+    /**
+     * Representations created concurrently need to have the same values as
+     * Representations created by a single thread
+     */
+    @Test
+    public void testConcurrentCreateRepresentation() throws Exception {
+        final Map<String,Integer> expected = new HashMap<String,Integer>();
+        for(SolrDocument doc : documents){
+            Representation rep = yard.createRepresentation(doc, null);
+            assertNotNull(rep);
+            expected.put(rep.getId(), countValues(rep));
+        }
+        final AtomicLong failed = new AtomicLong();
+        runConcurrently(8, new Operation() {
+            @Override
+            public void run(int thread) {
+                for(int i = 0; i < 10; i++){
+                    for(SolrDocument doc : documents){
+                        Representation rep = yard.createRepresentation(doc, null);
+                        if(!expected.get(rep.getId()).equals(countValues(rep))){
+                            failed.incrementAndGet();
+                        }
+                    }
+                }
+            }
+        });
+        assertEquals(0, failed.get());
+    }
+
+    private static Integer countValues(Representation rep){
+        int count = 0;
+        for(Iterator<String> fields = rep.getFieldNames(); fields.hasNext();){
+            for(Iterator<Object> values = rep.get(fields.next()); values.hasNext();values.next()){
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Measures the throughput of {@link SolrFieldMapper#getField(String)} and
+     * {@link SolrYard#createRepresentation(SolrDocument, Set)} for
+     * 1 to 32 threads.<p>
+     * This is a benchmark without assertions. Remove the {@link Ignore}
+     * annotation to run it manually.
+     */
+    @Test
+    @Ignore
+    public void testPerformance() throws Exception {
+        final SolrFieldMapper mapper = new SolrFieldMapper(null, null);
+        List<String> allFieldNames = createFieldNames(mapper);
+        //use less field names as the size of the mapping cache
+        final List<String> fieldNames = allFieldNames.subList(0, Math.min(512, allFieldNames.size()));
+        for(String fieldName : fieldNames){
+            mapper.getField(fieldName); //warm up the cache
+        }
+        log.info("getField Throughput Test ({} operations per thread)",OPERATIONS);
+        for(int threads : THREADS){
+            long start = System.nanoTime();
+            runConcurrently(threads, new Operation() {
+                @Override
+                public void run(int thread) {
+                    for(int i = 0; i < OPERATIONS; i++){
+                        mapper.getField(fieldNames.get((i + thread) % fieldNames.size()));
+                    }
+                }
+            });
+            long duration = System.nanoTime() - start;
+            log.info(String.format(" - %2d threads: %8.0f ops/ms", threads,
+                threads * (double)OPERATIONS * 1000000 / duration));
+        }
+        final int createOperations = OPERATIONS / 100;
+        log.info("createRepresentation Throughput Test ({} operations per thread)",createOperations);
+        for(int threads : THREADS){
+            long start = System.nanoTime();
+            runConcurrently(threads, new Operation() {
+                @Override
+                public void run(int thread) {
+                    for(int i = 0; i < createOperations; i++){
+                        yard.createRepresentation(documents.get((i + thread) % documents.size()), null);
+                    }
+                }
+            });
+            long duration = System.nanoTime() - start;
+            log.info(String.format(" - %2d threads: %8.2f ops/ms", threads,
+                threads * (double)createOperations * 1000000 / duration));
+        }
+    }
+
+    private interface Operation {
+        void run(int thread);
+    }
+
+    private static void runConcurrently(int threads, final Operation operation) throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> started = new ArrayList<Thread>(threads);
+        for(int i = 0; i < threads; i++){
+            final int thread = i;
+            Thread t = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    operation.run(thread);
+                }
+            });
+            t.start();
+            started.add(t);
+        }
+        start.countDown();
+        for(Thread t : started){
+            t.join();
+        }
+    }
+
+    /**
+     * A {@link SolrServer} that can not be reached. The {@link SolrFieldMapper}
+     * logs the failed loading and saving of its namespace configuration and
+     * continues with an in-memory configuration.
+     */
+    private static class UnavailableSolrServer extends SolrServer {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public NamedList<Object> request(SolrRequest request) throws SolrServerException {
+            throw new SolrServerException("This SolrServer is not available");
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    }
+}
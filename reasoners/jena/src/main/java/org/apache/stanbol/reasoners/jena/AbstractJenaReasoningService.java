@@ -16,12 +16,17 @@
  */
 package org.apache.stanbol.reasoners.jena;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
+import org.apache.stanbol.reasoners.jena.filters.InferredStatementFilter;
 import org.apache.stanbol.reasoners.jena.filters.PropertyFilter;
 import org.apache.stanbol.reasoners.servicesapi.InconsistentInputException;
 import org.apache.stanbol.reasoners.servicesapi.ReasoningService;
@@ -41,15 +46,31 @@ import com.hp.hpl.jena.reasoner.ValidityReport.Report;
 import com.hp.hpl.jena.reasoner.rulesys.FBRuleReasoner;
 import com.hp.hpl.jena.reasoner.rulesys.GenericRuleReasoner;
 import com.hp.hpl.jena.reasoner.rulesys.Rule;
+import com.hp.hpl.jena.util.iterator.ExtendedIterator;
 import com.hp.hpl.jena.vocabulary.RDF;
 
 /**
  * Abstract implementation of the {@see JenaReasoningService} interface
  */
 public abstract class AbstractJenaReasoningService implements JenaReasoningService {
+    /**
+     * The maximum number of reasoners kept in the caches for custom rule sets and bound schemas
+     */
+    public static final int MAX_CACHED_REASONERS = 32;
+
     private Reasoner reasoner;
     private static final Logger log = LoggerFactory.getLogger(AbstractJenaReasoningService.class);
 
+    /**
+     * Cache for reasoners created by {@link #customReasoner(List)}, keyed by the rule set
+     */
+    private final Map<List<Rule>,Reasoner> customReasoners = createReasonerCache();
+
+    /**
+     * Cache for reasoners bound to a schema, keyed by the schema ID and the rule set
+     */
+    private final Map<SchemaKey,Reasoner> schemaReasoners = createReasonerCache();
+
     /**
      * This constructor sets the given reasoner instance as the default shared one.
      * 
@@ -90,10 +111,62 @@ public abstract class AbstractJenaReasoningService implements JenaReasoningServi
     @Override
     public InfModel run(Model data, List<Rule> rules) {
         log.debug(" run(Model data, List<Rule> rules)");
-        InfGraph inferredGraph = customReasoner(rules).bind(data.getGraph());
+        InfGraph inferredGraph = getCustomReasoner(rules).bind(data.getGraph());
         return ModelFactory.createInfModel(inferredGraph);
     }
 
+    /**
+     * Performs inferences on the given data by using a reasoner bound to the given schema. The bound
+     * reasoner is cached by the schema ID (and the rule set), so the schema is only processed by the first
+     * call and following calls only need to process the data.
+     */
+    @Override
+    public InfModel run(String schemaID, Model schema, Model data, List<Rule> rules) {
+        log.debug(" run(String schemaID, Model schema, Model data, List<Rule> rules)");
+        SchemaKey key = new SchemaKey(schemaID, rules);
+        Reasoner schemaReasoner = schemaReasoners.get(key);
+        if (schemaReasoner == null) {
+            long start = System.currentTimeMillis();
+            Reasoner base = rules == null || rules.isEmpty() ? this.reasoner : getCustomReasoner(rules);
+            schemaReasoner = base.bindSchema(schema);
+            schemaReasoners.put(key, schemaReasoner);
+            log.debug(" bound schema {} in {}ms", schemaID, System.currentTimeMillis() - start);
+        }
+        InfModel im = ModelFactory.createInfModel(schemaReasoner, data);
+        im.prepare();
+        return im;
+    }
+
+    /**
+     * Removes all reasoners bound to the schema with the given ID from the cache.
+     */
+    @Override
+    public void unbindSchema(String schemaID) {
+        synchronized (schemaReasoners) {
+            for (Iterator<SchemaKey> it = schemaReasoners.keySet().iterator(); it.hasNext();) {
+                if (it.next().schemaID.equals(schemaID)) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Getter for the custom reasoner for the given rule set. Reasoners are created by
+     * {@link #customReasoner(List)} and cached.
+     * 
+     * @param rules
+     * @return
+     */
+    protected Reasoner getCustomReasoner(List<Rule> rules) {
+        Reasoner custom = customReasoners.get(rules);
+        if (custom == null) {
+            custom = customReasoner(rules);
+            customReasoners.put(Collections.unmodifiableList(new ArrayList<Rule>(rules)), custom);
+        }
+        return custom;
+    }
+
     /**
      * This method provides the default implementation for executing one of the default tasks.
      * 
@@ -124,6 +197,56 @@ public abstract class AbstractJenaReasoningService implements JenaReasoningServi
         } else throw new UnsupportedTaskException();
     }
 
+    /**
+     * This method provides the default implementation for iterating over the results of one of the default
+     * tasks. In contrast to {@link #runTask(String, Model, List, boolean, Map)} the statements are not
+     * collected and (with filtered = true) only inferred statements are returned.
+     */
+    @Override
+    public ExtendedIterator<Statement> iterateTask(String taskID,
+                                                   Model data,
+                                                   List<Rule> rules,
+                                                   boolean filtered,
+                                                   Map<String,List<String>> parameters) throws UnsupportedTaskException,
+                                                                                       ReasoningServiceException,
+                                                                                       InconsistentInputException {
+        log.debug(" iterateTask(String taskID,Model data,List<Rule> rules,boolean filtered,Map<String,List<String>> parameters)");
+        InfModel inferred;
+        if (taskID.equals(ReasoningService.Tasks.CLASSIFY)) {
+            inferred = rules != null ? run(data, rules) : run(data);
+            return inferred.listStatements().filterKeep(new PropertyFilter(RDF.type));
+        } else if (taskID.equals(ReasoningService.Tasks.ENRICH)) {
+            inferred = rules != null ? run(data, rules) : run(data);
+            return listEnriched(inferred, filtered);
+        } else throw new UnsupportedTaskException();
+    }
+
+    /**
+     * This method provides the default implementation for iterating over the results of one of the default
+     * tasks by using a reasoner bound to the given schema. With filtered = true statements of the schema are
+     * not returned, as they would also not be returned if the schema would be part of the data.
+     */
+    @Override
+    public ExtendedIterator<Statement> iterateTask(String taskID,
+                                                   String schemaID,
+                                                   Model schema,
+                                                   Model data,
+                                                   List<Rule> rules,
+                                                   boolean filtered,
+                                                   Map<String,List<String>> parameters) throws UnsupportedTaskException,
+                                                                                       ReasoningServiceException,
+                                                                                       InconsistentInputException {
+        log.debug(" iterateTask(String taskID,String schemaID,Model schema,Model data,List<Rule> rules,boolean filtered,Map<String,List<String>> parameters)");
+        if (taskID.equals(ReasoningService.Tasks.CLASSIFY)) {
+            return run(schemaID, schema, data, rules).listStatements().filterKeep(
+                new PropertyFilter(RDF.type));
+        } else if (taskID.equals(ReasoningService.Tasks.ENRICH)) {
+            ExtendedIterator<Statement> statements = listEnriched(run(schemaID, schema, data, rules),
+                filtered);
+            return filtered ? statements.filterKeep(new InferredStatementFilter(schema)) : statements;
+        } else throw new UnsupportedTaskException();
+    }
+
     /**
      * This method provides the default implementation for executing one of the default tasks with no
      * additional arguments.
@@ -148,18 +271,16 @@ public abstract class AbstractJenaReasoningService implements JenaReasoningServi
      * to specialize the default behavior, which simply merge the standard rule set with the given list
      * 
      * Note: to customized the default reasoner instance, we need to create a new instance, to avoid to keep
-     * the configuration changes in the standard shared instance. This is not much efficient, because we
-     * create a new reasoner for each call which includes a specified rule set.
-     * 
-     * In the future, we may want to implement a way to deploy customized shared reasoning services, based on
-     * a specific recipe.
+     * the configuration changes in the standard shared instance. Created reasoners are cached by
+     * {@link #getCustomReasoner(List)}.
      * 
      * @param rules
      * @return
      */
     protected Reasoner customReasoner(List<Rule> customRules) {
         log.debug(" customReasoner(List<Rule> customRules)");
-        List<Rule> standardRules = ((FBRuleReasoner) this.reasoner).getRules();
+        // copy the rules, as the list of the shared reasoner must not be modified
+        List<Rule> standardRules = new ArrayList<Rule>(((FBRuleReasoner) this.reasoner).getRules());
         standardRules.addAll(customRules);
         return new GenericRuleReasoner(standardRules);
     }
@@ -213,18 +334,28 @@ public abstract class AbstractJenaReasoningService implements JenaReasoningServi
      */
     protected Set<Statement> enrich(Model data, boolean filtered) {
         log.debug(" enrich(Model data, boolean filtered)");
-        // Since the input model is modified by the reasoner,
-        // We keep the original list to prune the data after, if necessary
-        if(filtered){
-            Set<Statement> original = new HashSet<Statement>();
-            original.addAll(data.listStatements().toSet());
-            log.debug(" original statements are: {}",original.size());
-            InfModel i = run(data);
-            Set<Statement> inferred = i.listStatements().toSet();
-            log.debug(" inferred statements are: {}",inferred.size());
-            return prune(original, inferred);
-        }else{
-            return run(data).listStatements().toSet();
+        Set<Statement> result = listEnriched(run(data), filtered).toSet();
+        log.debug(" result statements are: {}", result.size());
+        return result;
+    }
+
+    /**
+     * Lists all the statements of the given inference model (filtered = false) or only the inferred ones
+     * (filtered = true). Inferences are stored separately from the raw data of the inference model, so the
+     * inferred statements are those not contained in the {@link InfModel#getRawModel() raw model}. This does
+     * not require to copy the input data nor to collect the whole closure.
+     * 
+     * @param inferred
+     * @param filtered
+     * @return
+     */
+    protected ExtendedIterator<Statement> listEnriched(InfModel inferred, boolean filtered) {
+        log.debug(" listEnriched(InfModel inferred, boolean filtered)");
+        ExtendedIterator<Statement> statements = inferred.listStatements();
+        if (filtered) {
+            return statements.filterKeep(new InferredStatementFilter(inferred.getRawModel()));
+        } else {
+            return statements;
         }
     }
 
@@ -277,19 +408,9 @@ public abstract class AbstractJenaReasoningService implements JenaReasoningServi
      */
     protected Set<Statement> enrich(Model data, List<Rule> rules, boolean filtered) {
         log.debug(" enrich(Model data, List<Rule> rules, boolean filtered)");
-        // Since the input model is modified by the reasoner,
-        // We keep the original list to prune the data after, if necessary
-        if(filtered){
-            Set<Statement> original = new HashSet<Statement>();
-            original.addAll(data.listStatements().toSet());
-            log.debug(" original statements are: {}",original.size());
-            InfModel i = run(data, rules);
-            Set<Statement> inferred = i.listStatements().toSet();
-            log.debug(" inferred statements are: {}",inferred.size());
-            return prune(original, inferred);
-        }else{
-            return run(data, rules).listStatements().toSet();
-        }
+        Set<Statement> result = listEnriched(run(data, rules), filtered).toSet();
+        log.debug(" result statements are: {}", result.size());
+        return result;
     }
 
     /**
@@ -336,6 +457,22 @@ public abstract class AbstractJenaReasoningService implements JenaReasoningServi
         return isConsistent(run(data, rules).validate());
     }
 
+    /**
+     * Consistency check using a reasoner bound to the given schema (see
+     * {@link #run(String, Model, Model, List)}).
+     * 
+     * @param schemaID
+     * @param schema
+     * @param data
+     * @param rules
+     * @return
+     */
+    @Override
+    public boolean isConsistent(String schemaID, Model schema, Model data, List<Rule> rules) {
+        log.debug(" isConsistent(String schemaID, Model schema, Model data, List<Rule> rules)");
+        return isConsistent(run(schemaID, schema, data, rules).validate());
+    }
+
     /**
      * This internal method implements the logic of consistency.
      * 
@@ -387,4 +524,46 @@ public abstract class AbstractJenaReasoningService implements JenaReasoningServi
     public boolean supportsTask(String taskID) {
         return getSupportedTasks().contains(taskID);
     };
+
+    /**
+     * Creates a synchronized LRU cache holding up to {@link #MAX_CACHED_REASONERS} reasoners
+     */
+    private static <K> Map<K,Reasoner> createReasonerCache() {
+        return Collections.synchronizedMap(new LinkedHashMap<K,Reasoner>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Entry<K,Reasoner> eldest) {
+                return size() > MAX_CACHED_REASONERS;
+            }
+        });
+    }
+
+    /**
+     * Key of the reasoners bound to a schema
+     */
+    private static final class SchemaKey {
+        private final String schemaID;
+        private final List<Rule> rules;
+
+        private SchemaKey(String schemaID, List<Rule> rules) {
+            if (schemaID == null) {
+                throw new IllegalArgumentException("The schema ID MUST NOT be NULL!");
+            }
+            this.schemaID = schemaID;
+            this.rules = rules == null || rules.isEmpty() ? Collections.<Rule> emptyList()
+                    : Collections.unmodifiableList(new ArrayList<Rule>(rules));
+        }
+
+        @Override
+        public int hashCode() {
+            return schemaID.hashCode() + 31 * rules.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SchemaKey && ((SchemaKey) o).schemaID.equals(schemaID)
+                   && ((SchemaKey) o).rules.equals(rules);
+        }
+    }
 }
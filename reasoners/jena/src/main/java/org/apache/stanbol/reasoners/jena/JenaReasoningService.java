@@ -17,13 +17,18 @@
 package org.apache.stanbol.reasoners.jena;
 
 import java.util.List;
+import java.util.Map;
 
+import org.apache.stanbol.reasoners.servicesapi.InconsistentInputException;
 import org.apache.stanbol.reasoners.servicesapi.ReasoningService;
+import org.apache.stanbol.reasoners.servicesapi.ReasoningServiceException;
+import org.apache.stanbol.reasoners.servicesapi.UnsupportedTaskException;
 
 import com.hp.hpl.jena.rdf.model.InfModel;
 import com.hp.hpl.jena.rdf.model.Model;
 import com.hp.hpl.jena.rdf.model.Statement;
 import com.hp.hpl.jena.reasoner.rulesys.Rule;
+import com.hp.hpl.jena.util.iterator.ExtendedIterator;
 
 /**
  * Interface for a Jena based reasoning services
@@ -46,4 +51,99 @@ public interface JenaReasoningService extends ReasoningService<Model,Rule,Statem
      * @return
      */
     public abstract InfModel run(Model data, List<Rule> rules);
-}
\ No newline at end of file
+
+    /**
+     * Run the reasoner over the given data by using a reasoner bound to the given schema (TBox) and rules.
+     * Implementations may cache the bound reasoner by the schema ID, so that the schema is only processed
+     * once. The schema ID MUST therefore identify the version of the schema (e.g. by including a version or
+     * modification date).
+     * 
+     * @param schemaID
+     *            the identity and version of the schema
+     * @param schema
+     * @param data
+     * @param rules
+     *            the rules or <code>null</code> if none
+     * @return
+     */
+    public abstract InfModel run(String schemaID, Model schema, Model data, List<Rule> rules);
+
+    /**
+     * Consistency check of the given data by using a reasoner bound to the given schema and rules
+     * 
+     * @param schemaID
+     *            the identity and version of the schema
+     * @param schema
+     * @param data
+     * @param rules
+     *            the rules or <code>null</code> if none
+     * @return
+     * @see #run(String, Model, Model, List)
+     */
+    public abstract boolean isConsistent(String schemaID, Model schema, Model data, List<Rule> rules);
+
+    /**
+     * Removes all reasoners bound to the schema with the given ID. Callers need to call this method as soon
+     * as a schema ID is outdated (e.g. because a new version of the schema is available).
+     * 
+     * @param schemaID
+     *            the identity and version of the schema
+     */
+    public abstract void unbindSchema(String schemaID);
+
+    /**
+     * Executes the given task like {@link #runTask(String, Model, List, boolean, Map)}, but returns the
+     * resulting statements as an iterator instead of collecting them in a Set. Statements are computed while
+     * iterating, so callers can process (e.g. serialize) them without keeping the whole closure in memory.
+     * If filtered is true, only the statements that are not part of the input data are returned.
+     * 
+     * Callers should close the returned iterator if they do not consume all statements.
+     * 
+     * @param taskID
+     * @param data
+     * @param rules
+     *            the rules or <code>null</code> if none
+     * @param filtered
+     * @param parameters
+     * @return
+     * @throws UnsupportedTaskException
+     * @throws ReasoningServiceException
+     * @throws InconsistentInputException
+     */
+    public abstract ExtendedIterator<Statement> iterateTask(String taskID,
+                                                            Model data,
+                                                            List<Rule> rules,
+                                                            boolean filtered,
+                                                            Map<String,List<String>> parameters) throws UnsupportedTaskException,
+                                                                                                ReasoningServiceException,
+                                                                                                InconsistentInputException;
+
+    /**
+     * Executes the given task like {@link #iterateTask(String, Model, List, boolean, Map)}, but uses a
+     * reasoner bound to the given schema (see {@link #run(String, Model, Model, List)}). If filtered is true,
+     * only the statements that are neither part of the schema nor of the input data are returned.
+     * 
+     * @param taskID
+     * @param schemaID
+     *            the identity and version of the schema
+     * @param schema
+     * @param data
+     * @param rules
+     *            the rules or <code>null</code> if none
+     * @param filtered
+     * @param parameters
+     * @return
+     * @throws UnsupportedTaskException
+     * @throws ReasoningServiceException
+     * @throws InconsistentInputException
+     */
+    public abstract ExtendedIterator<Statement> iterateTask(String taskID,
+                                                            String schemaID,
+                                                            Model schema,
+                                                            Model data,
+                                                            List<Rule> rules,
+                                                            boolean filtered,
+                                                            Map<String,List<String>> parameters) throws UnsupportedTaskException,
+                                                                                                ReasoningServiceException,
+                                                                                                InconsistentInputException;
+}
@@ -16,6 +16,8 @@
  */
 package org.apache.stanbol.reasoners.jena;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
@@ -35,11 +37,13 @@ import org.slf4j.LoggerFactory;
 import com.hp.hpl.jena.rdf.model.Model;
 import com.hp.hpl.jena.rdf.model.ModelFactory;
 import com.hp.hpl.jena.rdf.model.Property;
+import com.hp.hpl.jena.rdf.model.RDFNode;
 import com.hp.hpl.jena.rdf.model.Resource;
 import com.hp.hpl.jena.rdf.model.Statement;
 import com.hp.hpl.jena.reasoner.Reasoner;
 import com.hp.hpl.jena.reasoner.rulesys.GenericRuleReasonerFactory;
 import com.hp.hpl.jena.reasoner.rulesys.Rule;
+import com.hp.hpl.jena.util.iterator.ExtendedIterator;
 import com.hp.hpl.jena.vocabulary.RDF;
 import com.hp.hpl.jena.vocabulary.ReasonerVocabulary;
 
@@ -95,6 +99,26 @@ public class JenaReasoningServiceTest {
         }
     }
 
+    @Test
+    public void testIterateEnrich() {
+        log.info("Testing the iterateTask() method (task = enrich) with all available reasoners");
+
+        for (JenaReasoningService service : reasoners) {
+            log.info("Testing : {}", service.getClass());
+            testIterateEnrich(service);
+        }
+    }
+
+    @Test
+    public void testRunWithSchema() {
+        log.info("Testing the run() method with a bound schema with all available reasoners");
+
+        for (JenaReasoningService service : reasoners) {
+            log.info("Testing : {}", service.getClass());
+            testRunWithSchema(service);
+        }
+    }
+
     @Test
     public void testIsConsistent() {
         log.info("Testing the isConsistent() method with all available reasoners with consistent data");
@@ -263,6 +287,119 @@ public class JenaReasoningServiceTest {
         TestData.alexdma.removeProperties();
     }
 
+    /**
+     * Tests that iterateTask(enrich, filtered = true) returns the same statements as the full closure
+     * without the input statements
+     * 
+     * @param service
+     */
+    private void testIterateEnrich(JenaReasoningService service) {
+        // Clean data
+        TestData.alexdma.removeProperties();
+
+        // Prepare data
+        TestData.alexdma.addProperty(RDF.type, TestData.foaf_Person);
+
+        // Setup input for the reasoner
+        Model input = ModelFactory.createUnion(TestData.foaf, TestData.alexdma.getModel());
+
+        try {
+            Set<Statement> expected = service.runTask(ReasoningService.Tasks.ENRICH, input, null, false, null);
+            expected.removeAll(input.listStatements().toSet());
+
+            ExtendedIterator<Statement> it = service.iterateTask(ReasoningService.Tasks.ENRICH, input, null,
+                true, null);
+            Set<Statement> inferred = new HashSet<Statement>();
+            try {
+                while (it.hasNext()) {
+                    inferred.add(it.next());
+                }
+            } finally {
+                it.close();
+            }
+            log.info("Inferred {} statements", inferred.size());
+            assertFalse(inferred.isEmpty());
+            assertEquals(expected, inferred);
+        } catch (ReasoningServiceException e) {
+            log.error("Error thrown: {}", e);
+            assertTrue(false);
+        } catch (InconsistentInputException e) {
+            log.error("Error thrown: {}", e);
+            assertTrue(false);
+        } catch (UnsupportedTaskException e) {
+            log.error("Error thrown: {}", e);
+            assertTrue(false);
+        }
+        // Clean data
+        TestData.alexdma.removeProperties();
+    }
+
+    /**
+     * Tests that a reasoner bound to a schema returns the same inferences as a reasoner run on the union of
+     * schema and data, also if the bound reasoner is reused
+     * 
+     * @param service
+     */
+    private void testRunWithSchema(JenaReasoningService service) {
+        // Clean data
+        TestData.alexdma.removeProperties();
+
+        // Prepare data
+        TestData.alexdma.addProperty(RDF.type, TestData.foaf_Person);
+        Model data = ModelFactory.createDefaultModel().add(TestData.alexdma.getModel());
+
+        Set<Statement> expected = service.run(ModelFactory.createUnion(TestData.foaf, data))
+                .listStatements(TestData.alexdma, RDF.type, (RDFNode) null).toSet();
+        assertTrue(expected.contains(data.createStatement(TestData.alexdma, RDF.type, TestData.foaf_Agent)));
+        for (int i = 0; i < 2; i++) { // the 2nd run uses the cached reasoner
+            Set<Statement> inferred = service.run("foaf", TestData.foaf, data, null)
+                    .listStatements(TestData.alexdma, RDF.type, (RDFNode) null).toSet();
+            assertEquals(expected, inferred);
+        }
+        assertTrue(service.isConsistent("foaf", TestData.foaf, data, null));
+
+        // iterating with the bound schema returns the inferences on the data, but not the schema
+        try {
+            Model input = ModelFactory.createUnion(TestData.foaf, data);
+            Set<Statement> expectedEnriched = new HashSet<Statement>();
+            for (Statement stmt : service.runTask(ReasoningService.Tasks.ENRICH, input, null, true, null)) {
+                if (stmt.getSubject().equals(TestData.alexdma)) {
+                    expectedEnriched.add(stmt);
+                }
+            }
+            assertFalse(expectedEnriched.isEmpty());
+            service.unbindSchema("foaf");
+            ExtendedIterator<Statement> it = service.iterateTask(ReasoningService.Tasks.ENRICH, "foaf",
+                TestData.foaf, data, null, true, null);
+            Set<Statement> enriched = new HashSet<Statement>();
+            try {
+                while (it.hasNext()) {
+                    Statement stmt = it.next();
+                    assertFalse(TestData.foaf.contains(stmt));
+                    assertFalse(data.contains(stmt));
+                    if (stmt.getSubject().equals(TestData.alexdma)) {
+                        enriched.add(stmt);
+                    }
+                }
+            } finally {
+                it.close();
+            }
+            assertEquals(expectedEnriched, enriched);
+        } catch (ReasoningServiceException e) {
+            log.error("Error thrown: {}", e);
+            assertTrue(false);
+        } catch (InconsistentInputException e) {
+            log.error("Error thrown: {}", e);
+            assertTrue(false);
+        } catch (UnsupportedTaskException e) {
+            log.error("Error thrown: {}", e);
+            assertTrue(false);
+        }
+
+        // Clean data
+        TestData.alexdma.removeProperties();
+    }
+
     /**
      * 
      * @param service
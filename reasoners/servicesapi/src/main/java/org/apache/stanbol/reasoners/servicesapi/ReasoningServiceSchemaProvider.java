@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.reasoners.servicesapi;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * An input provider that separates its input in a schema (e.g. the TBox of an ontology network) and data.
+ * Reasoning services may prepare a reasoner for the schema once and reuse it for several requests, as long
+ * as the {@see #getSchemaVersion()} does not change.
+ * 
+ * The {@see #getInput(Class)} method still returns the schema and the data.
+ * 
+ */
+public interface ReasoningServiceSchemaProvider extends ReasoningServiceInputProvider {
+
+    /**
+     * The identity of the schema (e.g. the ID of an ontology scope)
+     * 
+     * @return
+     */
+    public String getSchemaName();
+
+    /**
+     * The version of the schema. The version MUST change whenever the schema is modified.
+     * 
+     * @return
+     * @throws IOException
+     */
+    public String getSchemaVersion() throws IOException;
+
+    /**
+     * The schema only
+     * 
+     * @param type
+     * @return
+     * @throws IOException
+     */
+    public <T> Iterator<T> getSchema(Class<T> type) throws IOException;
+
+    /**
+     * The input data without the schema
+     * 
+     * @param type
+     * @return
+     * @throws IOException
+     */
+    public <T> Iterator<T> getData(Class<T> type) throws IOException;
+}
@@ -17,16 +17,20 @@
 package org.apache.stanbol.reasoners.web.input.provider.impl;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.stanbol.commons.owl.transformation.JenaToOwlConvert;
+import org.apache.stanbol.ontologymanager.servicesapi.collector.OntologyCollector;
+import org.apache.stanbol.ontologymanager.servicesapi.collector.OntologyCollectorListener;
 import org.apache.stanbol.ontologymanager.servicesapi.scope.Scope;
 import org.apache.stanbol.ontologymanager.servicesapi.scope.ScopeManager;
 import org.apache.stanbol.ontologymanager.servicesapi.session.Session;
 import org.apache.stanbol.ontologymanager.servicesapi.session.SessionManager;
-import org.apache.stanbol.reasoners.servicesapi.ReasoningServiceInputProvider;
+import org.apache.stanbol.reasoners.servicesapi.ReasoningServiceSchemaProvider;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.MissingImportEvent;
@@ -34,6 +38,7 @@ import org.semanticweb.owlapi.model.MissingImportListener;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyID;
 import org.semanticweb.owlapi.model.OWLOntologyLoaderListener;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.model.OWLOntologySetProvider;
@@ -48,10 +53,14 @@ import com.hp.hpl.jena.rdf.model.StmtIterator;
 /**
  * An input provider which binds the reasoners input to Ontonet
  * 
+ * The ontology network of the scope is provided as schema, the one of the session (if any) as data. The
+ * version of the schema is a modification stamp of the scope, so it is available without exporting the
+ * scope.
+ * 
  * @author enridaga
  * 
  */
-public class OntologyManagerInputProvider implements ReasoningServiceInputProvider {
+public class OntologyManagerInputProvider implements ReasoningServiceSchemaProvider {
 
     private final Logger log = LoggerFactory.getLogger(UrlInputProvider.class);
 
@@ -60,6 +69,11 @@ public class OntologyManagerInputProvider implements ReasoningServiceInputProvid
     private ScopeManager onManager;
     private SessionManager sessionManager;
 
+    /**
+     * The exported scope, so that the schema and its version are based on the same export
+     */
+    private OWLOntology schema;
+
     /**
      * Contructor, if the input is a Scope
      * 
@@ -90,7 +104,44 @@ public class OntologyManagerInputProvider implements ReasoningServiceInputProvid
     @Override
     public <T> Iterator<T> getInput(Class<T> type) throws IOException {
         // This ontology is already a merged version, no need to iterate over imported ones
-        final OWLOntology o = getFromOntoMgr();
+        return iterate(getFromOntoMgr(), type);
+    }
+
+    @Override
+    public String getSchemaName() {
+        return "scope:" + scopeId;
+    }
+
+    /**
+     * The version changes whenever an ontology is added to or removed from the scope or the custom space of
+     * the scope is replaced. As the version is read before the schema is exported, the exported schema is
+     * never older than its version.
+     */
+    @Override
+    public String getSchemaVersion() throws IOException {
+        Scope scope = lookupScope();
+        return ScopeModificationListener.getInstance(scope).getVersion() + "-"
+               + Integer.toHexString(System.identityHashCode(scope.getCustomSpace()));
+    }
+
+    @Override
+    public <T> Iterator<T> getSchema(Class<T> type) throws IOException {
+        return iterate(getScope(), type);
+    }
+
+    @Override
+    public <T> Iterator<T> getData(Class<T> type) throws IOException {
+        Session session = getSession();
+        if (session == null) {
+            if (!adaptTo(type)) {
+                throw new UnsupportedOperationException("This provider does not adapt to the given type");
+            }
+            return Collections.<T> emptySet().iterator();
+        }
+        return iterate(session.export(OWLOntology.class, true), type);
+    }
+
+    private <T> Iterator<T> iterate(final OWLOntology o, Class<T> type) {
         if (type.isAssignableFrom(OWLAxiom.class)) {
             final Iterator<OWLAxiom> iterator = o.getAxioms().iterator();
             return new Iterator<T>() {
@@ -146,23 +197,42 @@ public class OntologyManagerInputProvider implements ReasoningServiceInputProvid
         return false;
     }
 
+    /**
+     * The exported ontology network of the scope. The export is kept for the lifetime of this provider.
+     */
+    private synchronized OWLOntology getScope() throws IOException {
+        if (schema == null) {
+            schema = lookupScope().export(OWLOntology.class, true);
+        }
+        return schema;
+    }
+
+    private Scope lookupScope() throws IOException {
+        Scope scope = null;
+        synchronized (onManager) {
+            scope = onManager.getScope(this.scopeId);
+        }
+        if (scope == null) {
+            log.error("Scope {} cannot be retrieved", this.scopeId);
+            throw new IOException("Scope " + this.scopeId + " cannot be retrieved");
+        }
+        return scope;
+    }
+
+    private Session getSession() {
+        Session session = null;
+        if (sessionManager != null) synchronized (sessionManager) {
+            session = sessionManager.getSession(sessionId);
+        }
+        if (session == null) log.warn("Session {} cannot be retrieved. Ignoring.", this.sessionId);
+        return session;
+    }
+
     private OWLOntology getFromOntoMgr() throws IOException {
         try {
-            Scope scope = null;
-            synchronized (onManager) {
-                scope = onManager.getScope(this.scopeId);
-            }
-            if (scope == null) {
-                log.error("Scope {} cannot be retrieved", this.scopeId);
-                throw new IOException("Scope " + this.scopeId + " cannot be retrieved");
-            }
-            Session session = null;
-            if (sessionManager != null) synchronized (sessionManager) {
-                session = sessionManager.getSession(sessionId);
-            }
-            if (session == null) log.warn("Session {} cannot be retrieved. Ignoring.", this.sessionId);
+            Session session = getSession();
             final Set<OWLOntology> set = new HashSet<OWLOntology>();
-            set.add(scope.export(OWLOntology.class, true));
+            set.add(getScope());
             if (session != null) set.add(session.export(OWLOntology.class, true));
             if (set.size() == 1) return set.iterator().next();
             OWLOntologyMerger merger = new OWLOntologyMerger(new OWLOntologySetProvider() {
@@ -213,4 +283,46 @@ public class OntologyManagerInputProvider implements ReasoningServiceInputProvid
         });
         return manager;
     }
+
+    /**
+     * Counts the modifications of a scope. One instance is registered with each scope, so the version lives
+     * as long as the scope. Versions are taken from a global counter and are therefore not reused by a scope
+     * re-created with the same ID.
+     */
+    private static final class ScopeModificationListener implements OntologyCollectorListener {
+
+        private static final AtomicLong modifications = new AtomicLong();
+
+        private volatile long version = modifications.incrementAndGet();
+
+        /**
+         * Gets the listener registered with the given scope and registers one if none is present
+         */
+        static ScopeModificationListener getInstance(Scope scope) {
+            synchronized (scope) {
+                for (OntologyCollectorListener listener : scope.getOntologyCollectorListeners()) {
+                    if (listener instanceof ScopeModificationListener) {
+                        return (ScopeModificationListener) listener;
+                    }
+                }
+                ScopeModificationListener listener = new ScopeModificationListener();
+                scope.addOntologyCollectorListener(listener);
+                return listener;
+            }
+        }
+
+        long getVersion() {
+            return version;
+        }
+
+        @Override
+        public void onOntologyAdded(OntologyCollector collector, OWLOntologyID addedOntology) {
+            version = modifications.incrementAndGet();
+        }
+
+        @Override
+        public void onOntologyRemoved(OntologyCollector collector, OWLOntologyID removedOntology) {
+            version = modifications.incrementAndGet();
+        }
+    }
 }
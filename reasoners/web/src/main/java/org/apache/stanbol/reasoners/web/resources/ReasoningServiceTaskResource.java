@@ -20,6 +20,8 @@ import static javax.ws.rs.core.MediaType.APPLICATION_FORM_URLENCODED;
 import static javax.ws.rs.core.MediaType.MULTIPART_FORM_DATA;
 import static javax.ws.rs.core.MediaType.TEXT_HTML;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URLDecoder;
@@ -42,9 +44,11 @@ import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.Form;
 import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 
 import org.apache.clerezza.jaxrs.utils.form.FormFile;
@@ -257,7 +261,7 @@ public class ReasoningServiceTaskResource extends BaseStanbolResource {
      */
     @POST
     @Consumes({APPLICATION_FORM_URLENCODED})
-    @Produces({TEXT_HTML, "text/plain", KRFormat.RDF_XML, KRFormat.TURTLE, "text/turtle", "text/n3"})
+    @Produces({TEXT_HTML, "text/plain", KRFormat.RDF_XML, KRFormat.TURTLE, "text/turtle", "text/n3", KRFormat.N_TRIPLE})
     public Response post(@PathParam(value = "service")  String serviceID, 
                          @PathParam(value = "task") String taskID,
                          @PathParam(value = "job")  String jobFlg) {
@@ -282,7 +286,7 @@ public class ReasoningServiceTaskResource extends BaseStanbolResource {
      * @return
      */
     @GET
-    @Produces({TEXT_HTML, "text/plain", KRFormat.RDF_XML, KRFormat.TURTLE, "text/turtle", "text/n3"})
+    @Produces({TEXT_HTML, "text/plain", KRFormat.RDF_XML, KRFormat.TURTLE, "text/turtle", "text/n3", KRFormat.N_TRIPLE})
     public Response get(@QueryParam("target") String targetGraphID,
                         @PathParam(value = "service")  String serviceID, 
                         @PathParam(value = "task") String taskID,
@@ -343,8 +347,25 @@ public class ReasoningServiceTaskResource extends BaseStanbolResource {
             // Setup the input
             ReasoningServiceInputManager imngr = prepareInput();
             // The service executor
-            ReasoningServiceExecutor executor = new ReasoningServiceExecutor(tcManager, imngr,
+            final ReasoningServiceExecutor executor = new ReasoningServiceExecutor(tcManager, imngr,
                     getCurrentService(), getCurrentTask(), target, parameters);
+            if (executor.isStreamable() && isNTripleRequested()) {
+                // Inferred statements are written to the response while inference runs
+                log.debug("Streaming results as {}", KRFormat.N_TRIPLE);
+                StreamingOutput output = new StreamingOutput() {
+                    @Override
+                    public void write(OutputStream out) throws IOException, WebApplicationException {
+                        try {
+                            executor.stream(out);
+                        } catch (IOException e) {
+                            throw e;
+                        } catch (Exception e) {
+                            throw new WebApplicationException(e, Response.Status.INTERNAL_SERVER_ERROR);
+                        }
+                    }
+                };
+                return Response.ok(output, KRFormat.N_TRIPLE).build();
+            }
             ReasoningServiceResult<?> result = executor.call();
             return new ResponseTaskBuilder(new ReasoningTaskResult(uriInfo, headers)).build(result);
         } catch (Exception e) {
@@ -355,6 +376,21 @@ public class ReasoningServiceTaskResource extends BaseStanbolResource {
         } 
     }
 
+    /**
+     * Whether N-Triples is the preferred format of the client. Results in this format can be streamed.
+     * 
+     * @return
+     */
+    private boolean isNTripleRequested() {
+        for (MediaType t : headers.getAcceptableMediaTypes()) {
+            if (t.isWildcardType() || t.isWildcardSubtype()) {
+                continue;
+            }
+            return KRFormat.N_TRIPLE.equals(t.getType() + "/" + t.getSubtype());
+        }
+        return false;
+    }
+
     /**
      * Get the target graph, or null if no target graph have been given
      * 
@@ -388,7 +424,7 @@ public class ReasoningServiceTaskResource extends BaseStanbolResource {
      */
     @POST
     @Consumes({MULTIPART_FORM_DATA})
-    @Produces({TEXT_HTML, "text/plain", KRFormat.RDF_XML, KRFormat.TURTLE, "text/turtle", "text/n3"})
+    @Produces({TEXT_HTML, "text/plain", KRFormat.RDF_XML, KRFormat.TURTLE, "text/turtle", "text/n3", KRFormat.N_TRIPLE})
     public Response post(MultiPartBody data,
                          @PathParam(value = "service")  String serviceID, 
                          @PathParam(value = "task") String taskID,
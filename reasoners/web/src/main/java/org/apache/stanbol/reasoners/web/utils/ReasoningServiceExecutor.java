@@ -17,12 +17,15 @@
 package org.apache.stanbol.reasoners.web.utils;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.Lock;
 
 import org.apache.clerezza.commons.rdf.Graph;
@@ -39,6 +42,7 @@ import org.apache.stanbol.reasoners.servicesapi.ReasoningService;
 import org.apache.stanbol.reasoners.servicesapi.ReasoningServiceException;
 import org.apache.stanbol.reasoners.servicesapi.ReasoningServiceInputManager;
 import org.apache.stanbol.reasoners.servicesapi.ReasoningServiceInputProvider;
+import org.apache.stanbol.reasoners.servicesapi.ReasoningServiceSchemaProvider;
 import org.apache.stanbol.reasoners.servicesapi.UnsupportedTaskException;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.OWLAxiom;
@@ -53,6 +57,7 @@ import com.hp.hpl.jena.rdf.model.Model;
 import com.hp.hpl.jena.rdf.model.ModelFactory;
 import com.hp.hpl.jena.rdf.model.Statement;
 import com.hp.hpl.jena.reasoner.rulesys.Rule;
+import com.hp.hpl.jena.util.iterator.ExtendedIterator;
 
 /**
  * This class executes the reasoning process, by delegating the actual work on the given {@see
@@ -77,6 +82,23 @@ public class ReasoningServiceExecutor implements Job {
     // (isConsistent())
     public static String TASK_CHECK = "check";
 
+    /**
+     * The number of statements serialized at once by {@link #stream(OutputStream)}
+     */
+    private static final int STREAM_CHUNK_SIZE = 1024;
+
+    /**
+     * The current schema ID by service path and schema name. Used to unbind outdated versions of a schema
+     * from {@link JenaReasoningService}s.
+     */
+    private static final ConcurrentMap<String,String> boundSchemas = new ConcurrentHashMap<String,String>();
+
+    /**
+     * The schema models by schema name. A schema is only read once per schema ID, as the model is also
+     * needed to filter the results of reasoners bound to the schema.
+     */
+    private static final ConcurrentMap<String,SchemaModel> schemaModels = new ConcurrentHashMap<String,SchemaModel>();
+
     public ReasoningServiceExecutor(TcManager tcManager,
                                     ReasoningServiceInputManager inmgr,
                                     ReasoningService<?,?,?> service,
@@ -94,6 +116,9 @@ public class ReasoningServiceExecutor implements Job {
     /**
      * Execute a JenaReasoningService
      * 
+     * If one of the input providers is a {@link ReasoningServiceSchemaProvider}, its schema is bound to the
+     * reasoner (see {@link JenaReasoningService#run(String, Model, Model, List)}).
+     * 
      * TODO: Add parameter to decide if the output graph must be deleted if exists
      * 
      * @param s
@@ -105,8 +130,6 @@ public class ReasoningServiceExecutor implements Job {
      */
     private ReasoningServiceResult<Model> executeJenaReasoningService(String task,
                                                                       JenaReasoningService s,
-                                                                      Model input,
-                                                                      List<Rule> rules,
                                                                       String targetGraphID,
                                                                       boolean filtered,
                                                                       Map<String,List<String>> parameters) throws ReasoningServiceException,
@@ -116,7 +139,15 @@ public class ReasoningServiceExecutor implements Job {
         if (task.equals(ReasoningServiceExecutor.TASK_CHECK)) {
             log.debug("Task is '{}'", ReasoningServiceExecutor.TASK_CHECK);
             try {
-                boolean is = s.isConsistent(input);
+                ReasoningServiceSchemaProvider schemaProvider = getSchemaProvider();
+                boolean is;
+                if (schemaProvider == null) {
+                    is = s.isConsistent(getJenaInput());
+                } else {
+                    String schemaID = getSchemaID(s, schemaProvider);
+                    is = s.isConsistent(schemaID, getJenaSchema(schemaID, schemaProvider),
+                        getJenaInput(schemaProvider), null);
+                }
                 return new ReasoningServiceResult<Model>(ReasoningServiceExecutor.TASK_CHECK, is);
             } catch (ReasoningServiceException e) {
                 log.error("Error thrown: {}", e);
@@ -124,19 +155,27 @@ public class ReasoningServiceExecutor implements Job {
             }
         }
         try {
-            Set<Statement> result = s.runTask(task, input, rules, filtered, parameters);
+            // Statements are directly added to the output model, so the
+            // results are not collected in an intermediate Set
+            ExtendedIterator<Statement> result = iterateJenaTask(task, s, filtered, parameters);
             if (result == null) {
                 log.error("Result is null");
                 throw new RuntimeException("Result is null.");
             }
             Model outputModel = ModelFactory.createDefaultModel();
-            outputModel.add(result.toArray(new Statement[result.size()]));
+            try {
+                while (result.hasNext()) {
+                    outputModel.add(result.next());
+                }
+            } finally {
+                result.close();
+            }
             // If target is null, then get back results, elsewhere put it in
             // target graph
 
             log.debug("Prepare output");
             if (targetGraphID == null) {
-                log.debug("Returning {} statements", result.size());
+                log.debug("Returning {} statements", outputModel.size());
                 return new ReasoningServiceResult<Model>(task, true, outputModel);
             } else {
                 save(outputModel, targetGraphID);
@@ -313,30 +352,8 @@ public class ReasoningServiceExecutor implements Job {
          * TODO Switch this into the ReasoningService implementation
          */
         if (service instanceof JenaReasoningService) {
-            Model input = ModelFactory.createDefaultModel();
-            synchronized (inmgr) {
-                Iterator<Statement> statements = inmgr.getInputData(Statement.class);
-                while (statements.hasNext()) {
-                    input.add(statements.next());
-                }
-            }
-            List<Rule> rules = null;
-            synchronized (inmgr) {
-                Iterator<Rule> rulesI = inmgr.getInputData(Rule.class);
-                while (rulesI.hasNext()) {
-                    Rule o = rulesI.next();
-                    log.debug("Rule: {}", o);
-                    if (rules == null) {
-                        rules = new ArrayList<Rule>();
-                    }
-                    rules.add(o);
-                }
-            }
-            if (log.isDebugEnabled()) {
-                log.debug("Input size is {} statements", input.listStatements().toSet().size());
-            }
-            result = executeJenaReasoningService(task, (JenaReasoningService) service, input, rules,
-                targetGraphID, true, parameters);
+            result = executeJenaReasoningService(task, (JenaReasoningService) service, targetGraphID, true,
+                parameters);
         } else if (service instanceof OWLApiReasoningService) {
             OWLOntology input;
             try {
@@ -379,6 +396,235 @@ public class ReasoningServiceExecutor implements Job {
         return result;
     }
 
+    /**
+     * Executes the task with the given {@link JenaReasoningService}. If an input provider is a
+     * {@link ReasoningServiceSchemaProvider}, a reasoner bound to its schema is used.
+     * 
+     * @param task
+     * @param s
+     * @param filtered
+     * @param parameters
+     * @return
+     * @throws ReasoningServiceException
+     * @throws UnsupportedTaskException
+     * @throws InconsistentInputException
+     */
+    private ExtendedIterator<Statement> iterateJenaTask(String task,
+                                                        JenaReasoningService s,
+                                                        boolean filtered,
+                                                        Map<String,List<String>> parameters) throws ReasoningServiceException,
+                                                                                            UnsupportedTaskException,
+                                                                                            InconsistentInputException {
+        ReasoningServiceSchemaProvider schemaProvider = getSchemaProvider();
+        if (schemaProvider == null) {
+            return s.iterateTask(task, getJenaInput(), getJenaRules(), filtered, parameters);
+        } else {
+            String schemaID = getSchemaID(s, schemaProvider);
+            return s.iterateTask(task, schemaID, getJenaSchema(schemaID, schemaProvider),
+                getJenaInput(schemaProvider), getJenaRules(), filtered, parameters);
+        }
+    }
+
+    /**
+     * The first input provider that is a {@link ReasoningServiceSchemaProvider} for Jena statements
+     * 
+     * @return the schema provider or <code>null</code> if none
+     */
+    private ReasoningServiceSchemaProvider getSchemaProvider() {
+        synchronized (inmgr) {
+            for (ReasoningServiceInputProvider p : inmgr.getProviders()) {
+                if (p instanceof ReasoningServiceSchemaProvider && p.adaptTo(Statement.class)) {
+                    return (ReasoningServiceSchemaProvider) p;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the ID (name and version) of the schema of the given provider. If the version of the schema has
+     * changed since the last execution, the outdated schema is unbound from the given service.
+     * 
+     * @param s
+     * @param schemaProvider
+     * @return
+     * @throws ReasoningServiceException
+     */
+    private String getSchemaID(JenaReasoningService s, ReasoningServiceSchemaProvider schemaProvider) throws ReasoningServiceException {
+        String name = schemaProvider.getSchemaName();
+        String schemaID;
+        try {
+            schemaID = name + '@' + schemaProvider.getSchemaVersion();
+        } catch (IOException e) {
+            throw new ReasoningServiceException(e);
+        }
+        String previous = boundSchemas.put(s.getPath() + '|' + name, schemaID);
+        if (previous != null && !previous.equals(schemaID)) {
+            log.debug("Unbind outdated schema {}", previous);
+            s.unbindSchema(previous);
+        }
+        return schemaID;
+    }
+
+    /**
+     * Gets the schema for a {@link JenaReasoningService}. The schema is only read from the provider if no
+     * model is cached for the given schema ID. The returned model MUST NOT be modified.
+     * 
+     * @param schemaID
+     *            the ID of the schema as returned by {@link #getSchemaID(JenaReasoningService, ReasoningServiceSchemaProvider)}
+     * @param schemaProvider
+     * @return
+     * @throws ReasoningServiceException
+     */
+    private Model getJenaSchema(String schemaID, ReasoningServiceSchemaProvider schemaProvider) throws ReasoningServiceException {
+        String name = schemaProvider.getSchemaName();
+        SchemaModel cached = schemaModels.get(name);
+        if (cached != null && cached.schemaID.equals(schemaID)) {
+            return cached.model;
+        }
+        Model schema = ModelFactory.createDefaultModel();
+        try {
+            Iterator<Statement> statements = schemaProvider.getSchema(Statement.class);
+            while (statements.hasNext()) {
+                schema.add(statements.next());
+            }
+        } catch (IOException e) {
+            throw new ReasoningServiceException(e);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Schema {} read ({} statements)", schemaID, schema.size());
+        }
+        schemaModels.put(name, new SchemaModel(schemaID, schema));
+        return schema;
+    }
+
+    /**
+     * Reads the input data without the schema of the given provider for a {@link JenaReasoningService}
+     * 
+     * @param schemaProvider
+     * @return
+     */
+    private Model getJenaInput(ReasoningServiceSchemaProvider schemaProvider) {
+        Model input = ModelFactory.createDefaultModel();
+        synchronized (inmgr) {
+            for (ReasoningServiceInputProvider p : inmgr.getProviders()) {
+                if (!p.adaptTo(Statement.class)) {
+                    continue;
+                }
+                try {
+                    Iterator<Statement> statements = p == schemaProvider ? schemaProvider
+                            .getData(Statement.class) : p.getInput(Statement.class);
+                    while (statements.hasNext()) {
+                        input.add(statements.next());
+                    }
+                } catch (IOException e) {
+                    // same as the input manager: ignore this provider
+                    log.error("Cannot get input from provider", e);
+                }
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Input size is {} statements", input.size());
+        }
+        return input;
+    }
+
+    /**
+     * Reads the input data for a {@link JenaReasoningService}
+     * 
+     * @return
+     */
+    private Model getJenaInput() {
+        Model input = ModelFactory.createDefaultModel();
+        synchronized (inmgr) {
+            Iterator<Statement> statements = inmgr.getInputData(Statement.class);
+            while (statements.hasNext()) {
+                input.add(statements.next());
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Input size is {} statements", input.size());
+        }
+        return input;
+    }
+
+    /**
+     * Reads the rules for a {@link JenaReasoningService}
+     * 
+     * @return the rules or <code>null</code> if none
+     */
+    private List<Rule> getJenaRules() {
+        List<Rule> rules = null;
+        synchronized (inmgr) {
+            Iterator<Rule> rulesI = inmgr.getInputData(Rule.class);
+            while (rulesI.hasNext()) {
+                Rule o = rulesI.next();
+                log.debug("Rule: {}", o);
+                if (rules == null) {
+                    rules = new ArrayList<Rule>();
+                }
+                rules.add(o);
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * Whether the result of this execution can be {@link #stream(OutputStream) streamed}. This is the case
+     * for tasks other than {@link #TASK_CHECK} executed by a {@link JenaReasoningService} if no target graph
+     * is given.
+     * 
+     * @return
+     */
+    public boolean isStreamable() {
+        return service instanceof JenaReasoningService && targetGraph == null && !TASK_CHECK.equals(task);
+    }
+
+    /**
+     * Executes the task and writes the inferred statements as N-Triples to the parsed stream while inference
+     * runs. Statements are serialized in chunks of {@link #STREAM_CHUNK_SIZE}, so the results are never
+     * collected in memory.
+     * 
+     * @param out
+     * @throws IOException
+     * @throws ReasoningServiceException
+     * @throws UnsupportedTaskException
+     * @throws InconsistentInputException
+     * @throws IllegalStateException
+     *             if this execution is not {@link #isStreamable() streamable}
+     */
+    public void stream(OutputStream out) throws IOException,
+                                        ReasoningServiceException,
+                                        UnsupportedTaskException,
+                                        InconsistentInputException {
+        if (!isStreamable()) {
+            throw new IllegalStateException("The results of task '" + task + "' can not be streamed!");
+        }
+        long start = System.currentTimeMillis();
+        ExtendedIterator<Statement> statements = iterateJenaTask(task, (JenaReasoningService) service, true,
+            parameters);
+        long count = 0;
+        try {
+            Model chunk = ModelFactory.createDefaultModel();
+            while (statements.hasNext()) {
+                chunk.add(statements.next());
+                count++;
+                if (chunk.size() >= STREAM_CHUNK_SIZE) {
+                    chunk.write(out, "N-TRIPLE");
+                    out.flush();
+                    chunk.removeAll();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                chunk.write(out, "N-TRIPLE");
+            }
+            out.flush();
+        } finally {
+            statements.close();
+        }
+        log.debug("Streamed {} statements in {}ms", count, System.currentTimeMillis() - start);
+    }
+
     @Override
     public ReasoningServiceResult<?> call() throws Exception {
         return execute(task, service, targetGraph, parameters);
@@ -389,4 +635,17 @@ public class ReasoningServiceExecutor implements Job {
         return "reasoners/jobs/" + jobId;
     }
 
+    /**
+     * A schema model and the ID of the schema it was read for
+     */
+    private static final class SchemaModel {
+        private final String schemaID;
+        private final Model model;
+
+        private SchemaModel(String schemaID, Model model) {
+            this.schemaID = schemaID;
+            this.model = model;
+        }
+    }
+
 }
@@ -32,6 +32,7 @@ import javax.ws.rs.ext.Provider;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Service;
+import org.apache.stanbol.commons.web.base.format.KRFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,7 +49,7 @@ import com.hp.hpl.jena.rdf.model.RDFWriter;
 @Service(Object.class)
 @Property(name="javax.ws.rs", boolValue=true)
 @Provider
-@Produces({"application/rdf+xml", "text/turtle", "text/n3", "text/plain", "application/turtle"})
+@Produces({"application/rdf+xml", "text/turtle", "text/n3", "text/plain", "application/turtle", KRFormat.N_TRIPLE})
 public class JenaModelWriter implements MessageBodyWriter<Model> {
     private final Logger log = LoggerFactory.getLogger(getClass());
 
@@ -57,23 +58,27 @@ public class JenaModelWriter implements MessageBodyWriter<Model> {
         return Model.class.isAssignableFrom(type);
     }
 
-    private ByteArrayOutputStream stream = null;
-
+    /**
+     * Returns -1 as the model is directly serialized to the response (see
+     * {@link #writeTo(Model, Class, Type, Annotation[], MediaType, MultivaluedMap, OutputStream)})
+     */
     @Override
     public long getSize(Model t,
                         Class<?> type,
                         Type genericType,
                         Annotation[] annotations,
                         MediaType mediaType) {
-        log.debug("Called size of item");
-        stream = toStream(t, mediaType.toString());
-        log.debug("Returning {} bytes", stream.size());
-        return Integer.valueOf(stream.toByteArray().length).longValue();
+        return -1;
     }
 
     public ByteArrayOutputStream toStream(Model t, String mediaType) {
-        log.debug("Serializing model to {}. Statements are {}", mediaType, t.listStatements().toSet().size());
         ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        toStream(t, mediaType, stream);
+        return stream;
+    }
+
+    private void toStream(Model t, String mediaType, OutputStream stream) {
+        log.debug("Serializing model to {}. Statements are {}", mediaType, t.size());
         if (mediaType.equals("application/rdf+xml")) {
             t.write(stream);
         } else if (mediaType.equals("application/turtle")) {
@@ -87,11 +92,9 @@ public class JenaModelWriter implements MessageBodyWriter<Model> {
             t.write(stream, "TURTLE");
         } else if (mediaType.equals("text/n3")) {
             t.write(stream, "N3");
+        } else if (mediaType.equals(KRFormat.N_TRIPLE)) {
+            t.write(stream, "N-TRIPLE");
         }
-        if(log.isDebugEnabled()){
-            log.debug("Written {} bytes to stream", stream.toByteArray().length);
-        }
-        return stream;
     }
 
     @Override
@@ -102,12 +105,7 @@ public class JenaModelWriter implements MessageBodyWriter<Model> {
                         MediaType mediaType,
                         MultivaluedMap<String,Object> httpHeaders,
                         OutputStream entityStream) throws IOException, WebApplicationException {
-        if (stream == null) {
-            toStream(t, mediaType.toString()).writeTo(entityStream);
-        } else {
-            stream.writeTo(entityStream);
-            stream = null;
-        }
+        toStream(t, mediaType.toString(), entityStream);
     }
 
 }
@@ -182,6 +182,21 @@ public interface RuleStore {
      */
     Recipe getRecipe(IRI recipeID) throws NoSuchRecipeException, RecipeConstructionException;
 
+    /**
+     * It returns the version of the recipe identified by the recipe's identifier provided as parameter.<br/>
+     * The version changes whenever the recipe is created, modified or removed through the RuleStore. It can
+     * therefore be used to validate information derived from a recipe (e.g. adapted rules) without
+     * accessing the recipe itself. Modifications applied directly to the graph of the recipe (e.g. the one
+     * returned by {@link #exportRecipe(Recipe)}) do not change the version.<br/>
+     * If the recipe's identifier does not exist in the store a {@link NoSuchRecipeException} is thrown.
+     * 
+     * @param recipeID
+     *            {@link IRI}
+     * @return the version of the recipe
+     * @throws NoSuchRecipeException
+     */
+    long getRecipeVersion(IRI recipeID) throws NoSuchRecipeException;
+
     /**
      * It returns a list of existing recipes' IDs in the store.<br/>
      * 
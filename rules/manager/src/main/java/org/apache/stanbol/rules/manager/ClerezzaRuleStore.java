@@ -30,6 +30,9 @@ import java.util.ArrayList;
 import java.util.Dictionary;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.clerezza.commons.rdf.Literal;
 import org.apache.clerezza.commons.rdf.RDFTerm;
@@ -96,6 +99,22 @@ public class ClerezzaRuleStore implements RuleStore {
 
     private List<IRI> recipes;
 
+    /**
+     * Used to create the versions of recipes. Initialised with the current time so that versions are not
+     * reused by other instances of the RuleStore.
+     */
+    private final AtomicLong modificationCounter = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * The version of recipes not modified by this RuleStore
+     */
+    private final long initialVersion = modificationCounter.get();
+
+    /**
+     * The versions of the recipes modified by this RuleStore
+     */
+    private final ConcurrentMap<IRI,Long> recipeVersions = new ConcurrentHashMap<IRI,Long>();
+
     /**
      * This construct returns RuleStoreImpl object with inside an ontology where to store the rules.
      * 
@@ -209,6 +228,7 @@ public class ClerezzaRuleStore implements RuleStore {
 
         // add the recpe ID to the list of known recipes
         recipes.add(recipeID);
+        modified(recipeID);
 
         return new RecipeImpl(recipeID, recipeDescription, null);
     }
@@ -262,6 +282,7 @@ public class ClerezzaRuleStore implements RuleStore {
         }
 
         recipe.addRule(new RecipeRule(recipe, rule));
+        modified(recipeID);
 
         return recipe;
     }
@@ -450,6 +471,7 @@ public class ClerezzaRuleStore implements RuleStore {
         // System.out.println("Recipes: " +recipes.size());
         // remove the recipe ID from in-memory list
         recipes.remove(recipeID);
+        recipeVersions.remove(recipeID);
 
         return true;
 
@@ -476,10 +498,33 @@ public class ClerezzaRuleStore implements RuleStore {
         tripleCollection.remove(new TripleImpl(recipe.getRecipeID(), Symbols.hasRule, rule.getRuleID()));
 
         recipe.removeRule(rule);
+        modified(recipe.getRecipeID());
 
         return recipe;
     }
 
+    @Override
+    public long getRecipeVersion(IRI recipeID) throws NoSuchRecipeException {
+        Long version = recipeVersions.get(recipeID);
+        if (version != null) {
+            return version.longValue();
+        } else if (recipes.contains(recipeID)) {
+            return initialVersion;
+        } else {
+            throw new NoSuchRecipeException(recipeID.toString());
+        }
+    }
+
+    /**
+     * Assigns a new version to the recipe with the parsed ID
+     * 
+     * @param recipeID
+     *            the ID of the modified recipe
+     */
+    private void modified(IRI recipeID) {
+        recipeVersions.put(recipeID, modificationCounter.incrementAndGet());
+    }
+
     @Override
     public Rule getRule(Recipe recipe, String ruleName) throws NoSuchRuleInRecipeException {
 
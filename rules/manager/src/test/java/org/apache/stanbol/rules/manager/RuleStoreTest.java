@@ -31,6 +31,7 @@ import org.apache.clerezza.rdf.core.access.WeightedTcProvider;
 import org.apache.clerezza.rdf.core.sparql.QueryEngine;
 import org.apache.clerezza.rdf.jena.sparql.JenaSparqlEngine;
 import org.apache.clerezza.rdf.simple.storage.SimpleTcProvider;
+import org.apache.stanbol.rules.base.api.NoSuchRecipeException;
 import org.apache.stanbol.rules.base.api.NoSuchRuleInRecipeException;
 import org.apache.stanbol.rules.base.api.Recipe;
 import org.apache.stanbol.rules.base.api.Rule;
@@ -113,6 +114,46 @@ public class RuleStoreTest {
         removeRecipeTest();
     }
     
+    @Test
+    public void recipeVersionTest() throws Exception {
+        IRI recipeID = new IRI("http://incubator.apache.com/stanbol/rules/test/versionedRecipe");
+        try {
+            store.getRecipeVersion(recipeID);
+            Assert.fail();
+        } catch (NoSuchRecipeException e) {
+            Assert.assertTrue(true);
+        }
+
+        Recipe recipe = store.createRecipe(recipeID, "A recipe for testing versions.");
+        long created = store.getRecipeVersion(recipeID);
+        // the version does not change if the recipe is not modified
+        store.getRecipe(recipeID);
+        Assert.assertEquals(created, store.getRecipeVersion(recipeID));
+
+        recipe = store.addRulesToRecipe(recipe, "rule1[ is(<http://dbpedia.org/ontology/Person>, ?x) -> "
+                                                + "is(<http://xmlns.com/foaf/0.1/Person>, ?x) ]", null);
+        long added = store.getRecipeVersion(recipeID);
+        Assert.assertTrue(created != added);
+
+        store.removeRule(recipe, recipe.getRule("rule1"));
+        long removed = store.getRecipeVersion(recipeID);
+        Assert.assertTrue(removed != created && removed != added);
+
+        store.removeRecipe(recipeID);
+        try {
+            store.getRecipeVersion(recipeID);
+            Assert.fail();
+        } catch (NoSuchRecipeException e) {
+            Assert.assertTrue(true);
+        }
+
+        // a re-created recipe does not reuse a version
+        store.createRecipe(recipeID, "A recipe for testing versions.");
+        long recreated = store.getRecipeVersion(recipeID);
+        Assert.assertTrue(recreated != created && recreated != added && recreated != removed);
+        store.removeRecipe(recipeID);
+    }
+
     private void createRecipeTest() throws Exception {
         Recipe recipe = store.createRecipe(new IRI(
                 "http://incubator.apache.com/stanbol/rules/test/recipeA"), "The text recipe named A.");
@@ -17,12 +17,22 @@
 package org.apache.stanbol.rules.refactor.impl;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Dictionary;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.clerezza.commons.rdf.ImmutableGraph;
 import org.apache.clerezza.commons.rdf.Graph;
-import org.apache.clerezza.commons.rdf.Graph;
 import org.apache.clerezza.commons.rdf.IRI;
 import org.apache.clerezza.rdf.core.access.TcManager;
 import org.apache.clerezza.rdf.core.access.WeightedTcProvider;
@@ -31,6 +41,7 @@ import org.apache.clerezza.rdf.core.sparql.query.ConstructQuery;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
+import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.Service;
 import org.apache.stanbol.rules.base.api.NoSuchRecipeException;
@@ -66,8 +77,28 @@ import com.hp.hpl.jena.sparql.pfunction.PropertyFunctionRegistry;
 @Service(Refactorer.class)
 public class RefactorerImpl implements Refactorer {
 
+    /**
+     * The number of threads used to execute the {@link ConstructQuery ConstructQueries} of a recipe. If
+     * <code>&lt;= 1</code> queries are executed sequentially.
+     */
+    @Property(intValue = RefactorerImpl.DEFAULT_QUERY_THREADS)
+    public static final String QUERY_THREADS = "org.apache.stanbol.rules.refactor.queryThreads";
+
+    public static final int DEFAULT_QUERY_THREADS = 4;
+
     private final Logger log = LoggerFactory.getLogger(getClass());
 
+    /**
+     * Cache for the {@link ConstructQuery ConstructQueries} adapted for recipes of the {@link RuleStore}.
+     */
+    private final ConcurrentMap<IRI,CompiledRecipe> compiledRecipes = new ConcurrentHashMap<IRI,CompiledRecipe>();
+
+    /**
+     * Used to execute the {@link ConstructQuery ConstructQueries} of a recipe in parallel. <code>null</code>
+     * if queries are executed sequentially.
+     */
+    private ExecutorService queryExecutor;
+
     @Reference
     protected RuleStore ruleStore;
 
@@ -141,6 +172,22 @@ public class RefactorerImpl implements Refactorer {
         FunctionRegistry.get().put("http://www.stlab.istc.cnr.it/semion/function#propString",
             CreatePropertyURIStringFromLabel.class);
 
+        int queryThreads = DEFAULT_QUERY_THREADS;
+        Object value = configuration == null ? null : configuration.get(QUERY_THREADS);
+        if (value instanceof Number) {
+            queryThreads = ((Number) value).intValue();
+        } else if (value != null && !value.toString().trim().isEmpty()) {
+            try {
+                queryThreads = Integer.parseInt(value.toString().trim());
+            } catch (NumberFormatException e) {
+                log.warn("Unable to parse {} from '{}'. Will use default {}.", new Object[] {QUERY_THREADS,
+                                                                                             value,
+                                                                                             DEFAULT_QUERY_THREADS});
+            }
+        }
+        if (queryThreads > 1) {
+            queryExecutor = Executors.newFixedThreadPool(queryThreads, new QueryThreadFactory());
+        }
         log.debug(Refactorer.class + "activated.");
     }
 
@@ -148,6 +195,11 @@ public class RefactorerImpl implements Refactorer {
     protected void deactivate(ComponentContext context) {
         log.info("in " + getClass() + " deactivate with context " + context);
 
+        if (queryExecutor != null) {
+            queryExecutor.shutdown();
+            queryExecutor = null;
+        }
+        compiledRecipes.clear();
         this.weightedTcProvider = null;
         this.tcManager = null;
         this.ruleStore = null;
@@ -162,41 +214,106 @@ public class RefactorerImpl implements Refactorer {
     /**
      * Execute a sparql construct on Clerezza.
      * 
-     * @param sparql
-     * @param datasetID
+     * @param constructQuery
+     * @param tripleCollection
      * @return
      */
-    private ImmutableGraph sparqlConstruct(ConstructQuery constructQuery, IRI datasetID) {
-
-        Graph graph = weightedTcProvider.getGraph(datasetID);
-        return sparqlConstruct(constructQuery, graph);
-
-    }
-
     private ImmutableGraph sparqlConstruct(ConstructQuery constructQuery, Graph tripleCollection) {
 
         return tcManager.executeSparqlQuery(constructQuery, tripleCollection);
 
     }
 
+    /**
+     * Executes the parsed {@link ConstructQuery ConstructQueries} on the parsed graph and adds the results
+     * to the target graph. The queries of a recipe do not depend on each other, so they are executed in
+     * parallel if the {@link #queryExecutor} is available. Results are added in the order of the queries by
+     * the calling thread, so the target graph does not need to support concurrent modifications.
+     * 
+     * @param constructQueries
+     *            the queries
+     * @param graph
+     *            the graph the queries are executed on
+     * @param target
+     *            the graph the results are added to
+     * @throws RefactoringException
+     *             if the execution of a query fails or the calling thread is interrupted
+     */
+    private void sparqlConstruct(List<ConstructQuery> constructQueries, final Graph graph, Graph target) throws RefactoringException {
+        ExecutorService executor = queryExecutor;
+        if (executor == null || constructQueries.size() < 2) {
+            for (ConstructQuery constructQuery : constructQueries) {
+                target.addAll(sparqlConstruct(constructQuery, graph));
+            }
+            return;
+        }
+        List<Future<ImmutableGraph>> results = new ArrayList<Future<ImmutableGraph>>(constructQueries.size());
+        for (final ConstructQuery constructQuery : constructQueries) {
+            results.add(executor.submit(new Callable<ImmutableGraph>() {
+                @Override
+                public ImmutableGraph call() {
+                    return sparqlConstruct(constructQuery, graph);
+                }
+            }));
+        }
+        try {
+            for (Future<ImmutableGraph> result : results) {
+                target.addAll(result.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RefactoringException("Interrupted while executing the construct queries of the recipe",
+                    e);
+        } catch (ExecutionException e) {
+            throw new RefactoringException("The cause of the refactoring excpetion is: "
+                                           + e.getCause().getMessage(), e.getCause());
+        } finally {
+            for (Future<ImmutableGraph> result : results) {
+                result.cancel(true); // no-op for completed queries
+            }
+        }
+    }
+
+    /**
+     * Getter for the {@link ConstructQuery ConstructQueries} of the recipe with the parsed ID. Adapted
+     * queries are cached and only recreated if the {@link RuleStore#getRecipeVersion(IRI) version} of the
+     * recipe changes.
+     * 
+     * @param recipeID
+     *            the ID of the recipe
+     * @return the construct queries (read-only)
+     */
     @SuppressWarnings("unchecked")
+    private List<ConstructQuery> getConstructQueries(IRI recipeID) throws NoSuchRecipeException,
+                                                                  RecipeConstructionException,
+                                                                  UnavailableRuleObjectException,
+                                                                  UnsupportedTypeForExportException,
+                                                                  RuleAtomCallExeption {
+        long version = ruleStore.getRecipeVersion(recipeID);
+        CompiledRecipe compiled = compiledRecipes.get(recipeID);
+        if (compiled == null || compiled.version != version) {
+            Recipe recipe = ruleStore.getRecipe(recipeID);
+            RuleAdapter ruleAdapter = ruleAdapterManager.getAdapter(recipe, ConstructQuery.class);
+            List<ConstructQuery> constructQueries = (List<ConstructQuery>) ruleAdapter.adaptTo(recipe,
+                ConstructQuery.class);
+            compiled = new CompiledRecipe(version, constructQueries);
+            compiledRecipes.put(recipeID, compiled);
+            log.debug("adapted {} construct queries for recipe {} (version: {})",
+                new Object[] {constructQueries.size(), recipeID, version});
+        }
+        return compiled.constructQueries;
+    }
+
     @Override
     public void graphRefactoring(IRI refactoredOntologyID, IRI datasetID, IRI recipeID) throws RefactoringException,
                                                                                                 NoSuchRecipeException {
 
-        Recipe recipe;
         try {
             try {
-                recipe = ruleStore.getRecipe(recipeID);
-
-                RuleAdapter ruleAdapter = ruleAdapterManager.getAdapter(recipe, ConstructQuery.class);
-                List<ConstructQuery> constructQueries = (List<ConstructQuery>) ruleAdapter.adaptTo(recipe,
-                    ConstructQuery.class);
+                List<ConstructQuery> constructQueries = getConstructQueries(recipeID);
 
                 Graph mGraph = tcManager.createGraph(refactoredOntologyID);
-                for (ConstructQuery constructQuery : constructQueries) {
-                    mGraph.addAll(this.sparqlConstruct(constructQuery, datasetID));
-                }
+                sparqlConstruct(constructQueries, weightedTcProvider.getGraph(datasetID), mGraph);
             } catch (RecipeConstructionException e) {
                 throw new RefactoringException(
                         "The cause of the refactoring excpetion is: " + e.getMessage(), e);
@@ -217,7 +334,6 @@ public class RefactorerImpl implements Refactorer {
         }
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public Graph graphRefactoring(IRI graphID, IRI recipeID) throws RefactoringException,
                                                                              NoSuchRecipeException {
@@ -228,20 +344,12 @@ public class RefactorerImpl implements Refactorer {
         // OntModel ontModel =
         // jenaToOwlConvert.ModelOwlToJenaConvert(inputOntology, "RDF/XML");
 
-        Recipe recipe;
         try {
-            recipe = ruleStore.getRecipe(recipeID);
-
-            RuleAdapter ruleAdapter = ruleAdapterManager.getAdapter(recipe, ConstructQuery.class);
-
-            List<ConstructQuery> constructQueries = (List<ConstructQuery>) ruleAdapter.adaptTo(recipe,
-                ConstructQuery.class);
+            List<ConstructQuery> constructQueries = getConstructQueries(recipeID);
 
             unionGraph = new SimpleGraph();
 
-            for (ConstructQuery constructQuery : constructQueries) {
-                unionGraph.addAll(this.sparqlConstruct(constructQuery, graphID));
-            }
+            sparqlConstruct(constructQueries, weightedTcProvider.getGraph(graphID), unionGraph);
 
         } catch (NoSuchRecipeException e1) {
             log.error("Refactor : No Such recipe in the Rule Store", e1);
@@ -270,14 +378,14 @@ public class RefactorerImpl implements Refactorer {
             List<ConstructQuery> constructQueries = (List<ConstructQuery>) ruleAdapter.adaptTo(recipe,
                 ConstructQuery.class);
 
-            for(ConstructQuery constructQuery : constructQueries){
-                System.out.println(constructQuery.toString());
+            if (log.isDebugEnabled()) {
+                for (ConstructQuery constructQuery : constructQueries) {
+                    log.debug(constructQuery.toString());
+                }
             }
 
             Graph unionGraph = new SimpleGraph();
-            for (ConstructQuery constructQuery : constructQueries) {
-                unionGraph.addAll(sparqlConstruct(constructQuery, inputGraph));
-            }
+            sparqlConstruct(constructQueries, inputGraph, unionGraph);
 
             return unionGraph;
         } catch (UnavailableRuleObjectException e) {
@@ -290,5 +398,34 @@ public class RefactorerImpl implements Refactorer {
 
     }
 
+    /**
+     * The {@link ConstructQuery ConstructQueries} adapted for a given version of a recipe
+     */
+    private static final class CompiledRecipe {
+
+        private final long version;
+        private final List<ConstructQuery> constructQueries;
+
+        private CompiledRecipe(long version, List<ConstructQuery> constructQueries) {
+            this.version = version;
+            this.constructQueries = Collections.unmodifiableList(new ArrayList<ConstructQuery>(
+                    constructQueries));
+        }
+    }
+
+    /**
+     * Creates daemon threads for the {@link RefactorerImpl#queryExecutor}
+     */
+    private static final class QueryThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "stanbol-refactor-query-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 
 }
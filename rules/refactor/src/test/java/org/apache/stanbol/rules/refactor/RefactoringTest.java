@@ -28,10 +28,13 @@ import junit.framework.Assert;
 import org.apache.clerezza.commons.rdf.Graph;
 import org.apache.clerezza.commons.rdf.Graph;
 import org.apache.clerezza.commons.rdf.IRI;
+import org.apache.clerezza.commons.rdf.impl.utils.TripleImpl;
+import org.apache.clerezza.rdf.core.access.NoSuchEntityException;
 import org.apache.clerezza.rdf.core.access.TcManager;
 import org.apache.clerezza.rdf.core.access.WeightedTcProvider;
 import org.apache.clerezza.rdf.core.sparql.QueryEngine;
 import org.apache.clerezza.rdf.jena.sparql.JenaSparqlEngine;
+import org.apache.clerezza.rdf.ontologies.RDF;
 import org.apache.clerezza.rdf.simple.storage.SimpleTcProvider;
 import org.apache.stanbol.commons.owl.transformation.JenaToClerezzaConverter;
 import org.apache.stanbol.rules.adapters.clerezza.ClerezzaAdapter;
@@ -250,6 +253,51 @@ public class RefactoringTest {
         }
     }
 
+    /**
+     * The construct queries of a recipe are cached. Modifications of the recipe need to be reflected by
+     * later refactorings.
+     */
+    @Test
+    public void modifiedRecipeRefactoringTest() throws Exception {
+        IRI recipeID = new IRI("http://incubator.apache.com/stanbol/rules/refactor/test/recipeA");
+        IRI graphID = new IRI("http://incubator.apache.com/stanbol/rules/refactor/test/graph");
+        IRI before = new IRI("http://incubator.apache.com/stanbol/rules/refactor/test/beforeModification");
+        IRI after = new IRI("http://incubator.apache.com/stanbol/rules/refactor/test/afterModification");
+        IRI person = new IRI("http://kres.iks-project.eu/ontology/test.owl#TestPerson");
+        IRI foafPerson = new IRI("http://xmlns.com/foaf/0.1/Person");
+        IRI foafAgent = new IRI("http://xmlns.com/foaf/0.1/Agent");
+        try {
+            long version = store.getRecipeVersion(recipeID);
+            refactorer.graphRefactoring(before, graphID, recipeID);
+            Graph refactored = tcm.getGraph(before);
+            Assert.assertTrue(refactored.contains(new TripleImpl(person, RDF.type, foafPerson)));
+            Assert.assertFalse(refactored.contains(new TripleImpl(person, RDF.type, foafAgent)));
+
+            // replace the rule of the recipe
+            Recipe recipe = store.getRecipe(recipeID);
+            store.removeRule(recipe, recipe.getRule("rule1"));
+            String separator = System.getProperty("line.separator");
+            store.addRulesToRecipe(recipe, "kres = <http://kres.iks-project.eu/ontology.owl#> . "
+                                           + separator + "foaf = <http://xmlns.com/foaf/0.1/> . "
+                                           + separator
+                                           + "rule3[ is(kres:Person, ?x) -> is(foaf:Agent, ?x) ]", "Test");
+            Assert.assertTrue(version != store.getRecipeVersion(recipeID));
+
+            refactorer.graphRefactoring(after, graphID, recipeID);
+            refactored = tcm.getGraph(after);
+            Assert.assertFalse(refactored.contains(new TripleImpl(person, RDF.type, foafPerson)));
+            Assert.assertTrue(refactored.contains(new TripleImpl(person, RDF.type, foafAgent)));
+        } finally {
+            for (IRI refactoredID : new IRI[] {before, after}) {
+                try {
+                    tcm.deleteGraph(refactoredID);
+                } catch (NoSuchEntityException e) {
+                    // not created
+                }
+            }
+        }
+    }
+
     @Test
     public void brokenRecipeTest() throws Exception {
         // broken recipe